@@ -0,0 +1,86 @@
+package com.github.zelmothedragon.cube.awt;
+
+import com.github.zelmothedragon.cube.awt.asset.ResourceManager;
+import com.github.zelmothedragon.cube.core.GameManager;
+import com.github.zelmothedragon.cube.core.engine.HeadlessRunner;
+import com.github.zelmothedragon.cube.core.input.InputScript;
+import java.io.IOException;
+
+/**
+ * Lanceur de l'application sans affichage, pour les tests de charge et la
+ * comparaison de rendus. Les ressources sont chargées avec AWT en mode sans
+ * affichage.
+ * <p>
+ * Arguments : nombre de trames, nombre de trames par seconde (<code>0</code>
+ * pour un débit libre) et script des entrées, par exemple
+ * <code>600 0 10+RIGHT,100+SELECT,101-SELECT</code>.
+ * <p>
+ * La propriété système <code>cube.record</code> désigne un fichier où
+ * enregistrer les entrées de chaque trame ; la propriété
+ * <code>cube.replay</code> désigne un enregistrement à rejouer, la première
+ * trame divergente est alors affichée (voir <code>InputJournal</code>). Ces
+ * propriétés s'appliquent aussi aux lanceurs avec affichage.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class HeadlessLauncher {
+
+    /**
+     * Largeur de l'image hors écran.
+     */
+    private static final int WIDTH = 320;
+
+    /**
+     * Hauteur de l'image hors écran. Calculée avec un rapport 16/9.
+     */
+    private static final int HEIGHT = WIDTH / 16 * 9;
+
+    /**
+     * Nombre de trames par défaut.
+     */
+    private static final int DEFAULT_FRAMES = 600;
+
+    /**
+     * Constructeur interne. Pas d'instanciation.
+     */
+    private HeadlessLauncher() {
+        // RAS
+    }
+
+    /**
+     * Point d'entrée du programme.
+     *
+     * @param args Arguments systèmes
+     * @throws IOException En cas d'erreur d'accès aux fichiers des entrées
+     */
+    public static void main(final String[] args) throws IOException {
+
+        System.setProperty("java.awt.headless", "true");
+        Thread.currentThread().setName("cube-headless");
+
+        var frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+        var rate = args.length > 1 ? Double.parseDouble(args[1]) : 0.0;
+
+        var manager = new GameManager(new ResourceManager());
+        var runner = new HeadlessRunner(manager, WIDTH, HEIGHT);
+        runner.setRate(rate);
+        if (args.length > 2) {
+            runner.setInputScript(InputScript.parse(args[2]));
+        }
+
+        var report = runner.run(frames);
+        manager.getJournal().close();
+        System.out.printf(
+                "frames=%d throughput=%.1f fps update(avg=%.3f ms, p99=%.3f ms) "
+                + "draw(avg=%.3f ms, p99=%.3f ms) checksum=%d divergence=%d%n",
+                report.getFrames(),
+                report.getThroughput(),
+                report.getUpdateTimes().getAverage() / 1e6,
+                report.getUpdateTimes().getPercentile(99) / 1e6,
+                report.getDrawTimes().getAverage() / 1e6,
+                report.getDrawTimes().getPercentile(99) / 1e6,
+                report.getChecksum(),
+                report.getDivergence());
+    }
+
+}
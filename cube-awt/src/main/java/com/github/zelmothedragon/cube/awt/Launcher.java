@@ -1,6 +1,8 @@
 package com.github.zelmothedragon.cube.awt;
 
 import com.github.zelmothedragon.cube.awt.engine.Engine;
+import com.github.zelmothedragon.cube.core.Simulation;
+import com.github.zelmothedragon.cube.core.engine.FramePacer;
 
 /**
  * Lanceur de l'application.
@@ -25,7 +27,7 @@ public final class Launcher {
 
         System.setProperty("sun.java2d.opengl", "True");
         Thread.currentThread().setName("cube");
-        var engine = new Engine();
+        var engine = new Engine(Simulation.isRequested(), FramePacer.fromProperties());
         engine.start();
     }
 
@@ -5,6 +5,7 @@ import com.github.zelmothedragon.cube.awt.event.CursorEvent;
 import com.github.zelmothedragon.cube.awt.event.KeyboardEvent;
 import com.github.zelmothedragon.cube.awt.graphic.RendererAWT;
 import com.github.zelmothedragon.cube.core.GameManager;
+import com.github.zelmothedragon.cube.core.graphic.SnapshotBuffer;
 import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -91,19 +92,55 @@ public final class Display {
         this.window.setVisible(true);
     }
 
+    /**
+     * Accesseur, obtenir le gestionnaire du jeu.
+     *
+     * @return Le gestionnaire du jeu
+     */
+    GameManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Construire les instantanés de rendu aux dimensions de l'affichage.
+     *
+     * @return De nouveaux instantanés
+     */
+    SnapshotBuffer<int[]> createSnapshots() {
+        return new SnapshotBuffer<>(WIDTH, HEIGHT);
+    }
+
     void update() {
-        manager.getInputs().update();
-        manager.getSystems().update();
+        manager.update();
     }
 
     void draw() {
+        present(() -> manager.getSystems().draw(renderer));
+    }
+
+    /**
+     * Dessiner le dernier instantané publié par la simulation.
+     *
+     * @param snapshots Instantanés de rendu
+     */
+    void draw(final SnapshotBuffer<int[]> snapshots) {
+        present(() -> snapshots.render(renderer, System.nanoTime()));
+    }
+
+    /**
+     * Dessiner puis afficher une image.
+     *
+     * @param painter Traitement de dessin dans le gestionnaire de rendu
+     */
+    private void present(final Runnable painter) {
         var bs = canvas.getBufferStrategy();
         // Voir la documentation de BufferStrategy
         do {
             do {
                 var g2d = bs.getDrawGraphics();
                 renderer.clear();
-                manager.getSystems().draw(renderer);
+                painter.run();
+                renderer.flush();
                 var image = renderer.getImage();
                 g2d.drawImage(image, 0, 0, canvas.getWidth(), canvas.getHeight(), null);
                 g2d.dispose();
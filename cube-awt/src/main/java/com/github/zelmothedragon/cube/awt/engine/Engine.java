@@ -1,22 +1,29 @@
 package com.github.zelmothedragon.cube.awt.engine;
 
+import com.github.zelmothedragon.cube.core.Simulation;
+import com.github.zelmothedragon.cube.core.engine.FixedTimestep;
+import com.github.zelmothedragon.cube.core.engine.FramePacer;
+import java.util.Objects;
+
 /**
  * Coeur du moteur du jeu. Cadence la boucle principale du jeu.
+ * <p>
+ * En mode séparé, la logique métier est mise à jour à fréquence fixe par une
+ * simulation sur son propre processus, la boucle principale se contente de
+ * dessiner le dernier instantané publié, interpolé entre les deux derniers
+ * tours.
+ * <p>
+ * Le rendu est cadencé par un cadenceur de trames interchangeable : sans
+ * limite, à fréquence visée ou en économie d'énergie.
  *
  * @author MOSELLE Maxime
  */
 public final class Engine implements Runnable {
 
     /**
-     * Fréquence de pulsation de la boucle principale du jeu.
-     */
-    private static final double PULSE = 1e9 / 60.0;
-
-    /**
-     * Vérrouiller la mise à jour de l'affichage. Pour déboggage uniquement,
-     * dans la pratique laisser la valeur <code>true</code>.
+     * Nombre de mises à jour de la logique métier par seconde.
      */
-    private static final boolean LOCK_FRAME_RATE = false;
+    private static final double TICK_RATE = 60.0;
 
     /**
      * Processus principal de la boucle du jeu.
@@ -28,6 +35,23 @@ public final class Engine implements Runnable {
      */
     private final Display display;
 
+    /**
+     * Simulation sur son propre processus, ou <code>null</code> si la logique
+     * métier est mise à jour par la boucle principale.
+     */
+    private final Simulation<int[]> simulation;
+
+    /**
+     * Cadenceur des trames de rendu.
+     */
+    private final FramePacer pacer;
+
+    /**
+     * Pas fixe de la mise à jour de la logique métier, avec limite de
+     * rattrapage.
+     */
+    private final FixedTimestep timestep;
+
     /**
      * Indique sur la boucle est en cours d'exécution.
      */
@@ -38,8 +62,24 @@ public final class Engine implements Runnable {
      * les traitements.
      */
     public Engine() {
+        this(false, FramePacer.fromProperties());
+    }
+
+    /**
+     * Constructeur. Construit le moteur du jeu pour l'ordonnancement de tous
+     * les traitements.
+     *
+     * @param threaded Séparer les processus de simulation et de rendu
+     * @param pacer Cadenceur des trames de rendu
+     */
+    public Engine(final boolean threaded, final FramePacer pacer) {
         this.loop = new Thread(this, "cube-awt");
         this.display = new Display();
+        this.simulation = threaded
+                ? new Simulation<>(display.getManager(), display.createSnapshots())
+                : null;
+        this.pacer = pacer;
+        this.timestep = new FixedTimestep(TICK_RATE);
         this.running = false;
     }
 
@@ -48,6 +88,9 @@ public final class Engine implements Runnable {
      */
     public synchronized void start() {
         this.running = true;
+        if (Objects.nonNull(simulation)) {
+            this.simulation.start();
+        }
         this.loop.start();
     }
 
@@ -61,6 +104,28 @@ public final class Engine implements Runnable {
         } catch (InterruptedException ex) {
             ex.printStackTrace();
         }
+        if (Objects.nonNull(simulation)) {
+            this.simulation.stop();
+        }
+    }
+
+    /**
+     * Accesseur, obtenir le cadenceur des trames de rendu et ses statistiques.
+     *
+     * @return Le cadenceur
+     */
+    public FramePacer getPacer() {
+        return pacer;
+    }
+
+    /**
+     * Accesseur, obtenir le pas fixe de la mise à jour, pour configurer la
+     * limite de rattrapage et consulter les tours abandonnés.
+     *
+     * @return Le pas fixe
+     */
+    public FixedTimestep getTimestep() {
+        return timestep;
     }
 
     /**
@@ -79,39 +144,42 @@ public final class Engine implements Runnable {
 
     @Override
     public void run() {
+        if (Objects.nonNull(simulation)) {
+            render();
+        } else {
+            loop();
+        }
+    }
 
-        double delta = 0.0;
-        long now;
-        long lastTime = System.nanoTime();
-
+    /**
+     * Boucle de rendu seule, la simulation tourne sur son propre processus.
+     */
+    private void render() {
+        var snapshots = simulation.getSnapshots();
         while (running) {
+            display.draw(snapshots);
+            pacer.sync();
+        }
+    }
+
+    /**
+     * Boucle principale, mise à jour et rendu sur le même processus.
+     */
+    private void loop() {
 
-            now = System.nanoTime();
-            delta += (now - lastTime) / PULSE;
-            lastTime = now;
+        while (running) {
 
-            while (delta >= 1) {
+            var ticks = timestep.advance(System.nanoTime());
+            for (var i = 0; i < ticks; i++) {
                 // Appelée x60 par seconde
                 update();
-                delta--;
             }
 
-            // Appelée autant de fois que possible 
-            // après le traitement de la méthode "update"
-            draw();
-
-            if (LOCK_FRAME_RATE) {
-                // OU
-                // Appelée x60 par seconde
-                long sleepTime = (long) ((now - System.nanoTime() + PULSE) / 1e6);
-                if (sleepTime < 1) {
-                    sleepTime = 1;
-                }
-                try {
-                    Thread.sleep(sleepTime);
-                } catch (InterruptedException ex) {
-                    ex.printStackTrace();
-                }
+            // Appelée après le traitement de la méthode "update"
+            // à la cadence du cadenceur de trames, sauf en cas de retard
+            if (timestep.shouldRender()) {
+                draw();
+                pacer.sync();
             }
         }
     }
@@ -30,12 +30,13 @@ public final class RendererAWT extends PixelArrayRenderer {
     }
 
     /**
-     * Obtenir l'image de rendu.
+     * Obtenir l'image de rendu, une fois la trame achevée (voir
+     * <code>flush</code>).
      *
      * @return L'image pour le prochain rendu graphique
      */
     public Image getImage() {
-        image.setRGB(0, 0, width, height, buffer, 0, width);
+        image.setRGB(0, 0, width, height, getRawData(), 0, width);
         return image;
     }
 
@@ -1,6 +1,7 @@
 package com.github.zelmothedragon.cube.core;
 
 import com.github.zelmothedragon.cube.core.asset.AssetManager;
+import com.github.zelmothedragon.cube.core.input.InputJournal;
 import com.github.zelmothedragon.cube.core.input.InputManager;
 import com.github.zelmothedragon.cube.core.model.EntityFactory;
 import com.github.zelmothedragon.cube.core.model.EntityManager;
@@ -8,6 +9,10 @@ import com.github.zelmothedragon.cube.core.system.SystemManager;
 
 /**
  * Conteneur du contexte du jeu. Il rassemble les principaux gestionnaires.
+ * <p>
+ * Les moteurs exécutent chaque tour de logique métier par la méthode
+ * <code>update</code>, qui enregistre ou rejoue les entrées du joueur selon
+ * le journal des entrées (voir <code>InputJournal.fromProperties</code>).
  *
  * @author MOSELLE Maxime
  */
@@ -28,6 +33,11 @@ public final class GameManager {
      */
     private final InputManager inputs;
 
+    /**
+     * Journal des entrées unique.
+     */
+    private final InputJournal journal;
+
     /**
      * Gestionnaire d'entités unique.
      */
@@ -47,6 +57,7 @@ public final class GameManager {
     public GameManager(final AssetManager<?> assets) {
         this.assets = assets;
         this.inputs = new InputManager();
+        this.journal = InputJournal.fromProperties();
         this.entities = new EntityManager();
         this.factory = new EntityFactory(entities, assets);
 
@@ -54,6 +65,18 @@ public final class GameManager {
         // Car il s'agit de dépendance bidirectionnelle
         this.systems = new SystemManager(this);
     }
+
+    /**
+     * Exécuter un tour de logique métier : synchroniser les entrées du
+     * joueur, imposer les entrées rejouées, mettre à jour les systèmes puis
+     * enregistrer le tour dans le journal des entrées.
+     */
+    public void update() {
+        inputs.update();
+        journal.replay(inputs);
+        systems.update();
+        journal.record(inputs, entities);
+    }
     
     /**
      * Accesseur, obtenit le gestionnaire de ressources numériques unique.
@@ -82,6 +105,15 @@ public final class GameManager {
         return inputs;
     }
 
+    /**
+     * Accesseur, obtenir le journal des entrées du joueur unique.
+     *
+     * @return Le journal des entrées
+     */
+    public InputJournal getJournal() {
+        return journal;
+    }
+
     /**
      * Accesseur, obtenir le gestionnaire d'entités unique.
      *
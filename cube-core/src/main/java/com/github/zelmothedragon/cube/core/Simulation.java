@@ -0,0 +1,146 @@
+package com.github.zelmothedragon.cube.core;
+
+import com.github.zelmothedragon.cube.core.engine.FramePacer;
+import com.github.zelmothedragon.cube.core.graphic.SnapshotBuffer;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+
+/**
+ * Boucle de simulation sur son propre processus. La logique métier est mise à
+ * jour à fréquence fixe ; à chaque tour, le rendu des systèmes est enregistré
+ * dans un instantané publié au processus de rendu, qui le dessine à sa propre
+ * cadence en interpolant entre les deux derniers tours.
+ *
+ * @param <T> Type du format de l'image
+ * @author MOSELLE Maxime
+ */
+public final class Simulation<T> implements Runnable {
+
+    /**
+     * Propriété système activant la séparation des processus de simulation et
+     * de rendu dans les moteurs.
+     */
+    public static final String THREADED_PROPERTY = "cube.threaded";
+
+    /**
+     * Nombre de tours de simulation par seconde.
+     */
+    private static final double TICK_RATE = 60.0;
+
+    /**
+     * Gestionnaire du jeu.
+     */
+    private final GameManager manager;
+
+    /**
+     * Instantanés échangés avec le processus de rendu.
+     */
+    private final SnapshotBuffer<T> snapshots;
+
+    /**
+     * Cadenceur des tours de simulation.
+     */
+    private final FramePacer pacer;
+
+    /**
+     * Processus de la simulation.
+     */
+    private final Thread loop;
+
+    /**
+     * Indique si la simulation est en cours d'exécution.
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructeur.
+     *
+     * @param manager Gestionnaire du jeu
+     * @param snapshots Instantanés échangés avec le processus de rendu
+     */
+    public Simulation(final GameManager manager, final SnapshotBuffer<T> snapshots) {
+        this.manager = manager;
+        this.snapshots = snapshots;
+        this.pacer = FramePacer.target(TICK_RATE);
+        this.loop = new Thread(this, "cube-simulation");
+        this.loop.setDaemon(true);
+        this.running = false;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("running", (Simulation<?> s) -> s.running)
+                .thenWith("snapshots", s -> s.snapshots)
+                .apply(this);
+    }
+
+    /**
+     * Indiquer si la séparation des processus est demandée par la propriété
+     * système <code>cube.threaded</code>.
+     *
+     * @return La valeur <code>true</code> si la propriété vaut
+     * <code>true</code>
+     */
+    public static boolean isRequested() {
+        return Boolean.getBoolean(THREADED_PROPERTY);
+    }
+
+    /**
+     * Accesseur, obtenir les instantanés échangés avec le processus de rendu.
+     *
+     * @return Les instantanés
+     */
+    public SnapshotBuffer<T> getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * Accesseur, obtenir le cadenceur des tours de simulation et ses
+     * statistiques.
+     *
+     * @return Le cadenceur
+     */
+    public FramePacer getPacer() {
+        return pacer;
+    }
+
+    /**
+     * Démarrer la simulation.
+     */
+    public synchronized void start() {
+        this.running = true;
+        this.loop.start();
+    }
+
+    /**
+     * Stopper la simulation.
+     */
+    public synchronized void stop() {
+        this.running = false;
+        try {
+            this.loop.join();
+        } catch (InterruptedException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Exécuter un tour de simulation puis publier son instantané de rendu.
+     */
+    public void tick() {
+        manager.update();
+
+        var list = snapshots.obtain();
+        manager.getSystems().draw(list);
+        snapshots.publish(list, System.nanoTime());
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            tick();
+            pacer.sync();
+        }
+    }
+
+}
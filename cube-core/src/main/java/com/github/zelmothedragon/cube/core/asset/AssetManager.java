@@ -51,7 +51,8 @@ public interface AssetManager<T> {
     Image<T> loadImage(String imagePath);
 
     /**
-     * Charger une image vide.
+     * Charger une image vide, destinée à être dessinée en cours de jeu. Un
+     * rendu différé en conserve une copie (voir <code>Image.snapshot</code>).
      *
      * @param w Largeur
      * @param h Hauteur
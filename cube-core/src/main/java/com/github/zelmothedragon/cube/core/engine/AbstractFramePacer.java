@@ -0,0 +1,125 @@
+package com.github.zelmothedragon.cube.core.engine;
+
+import com.github.zelmothedragon.cube.core.util.RollingStatistics;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+
+/**
+ * Cadenceur de trames générique. Il tient les statistiques de trames, les
+ * spécialisations se limitent à l'attente de l'échéance.
+ *
+ * @author MOSELLE Maxime
+ */
+public abstract class AbstractFramePacer implements FramePacer {
+
+    /**
+     * Retard toléré sur une échéance, en nanosecondes. Au-delà, l'échéance est
+     * considérée manquée.
+     */
+    public static final long TOLERANCE = 200_000L;
+
+    /**
+     * Nombre de trames conservées par les statistiques.
+     */
+    private static final int WINDOW = 120;
+
+    /**
+     * Durées des dernières trames.
+     */
+    private final RollingStatistics frameTimes;
+
+    /**
+     * Retards sur échéance des dernières trames.
+     */
+    private final RollingStatistics lateness;
+
+    /**
+     * Nombre de trames terminées.
+     */
+    private long frames;
+
+    /**
+     * Nombre d'échéances manquées.
+     */
+    private long missedDeadlines;
+
+    /**
+     * Instant de fin de la trame précédente, <code>0</code> avant la première
+     * trame.
+     */
+    private long lastFrame;
+
+    /**
+     * Constructeur.
+     */
+    protected AbstractFramePacer() {
+        this.frameTimes = new RollingStatistics(WINDOW);
+        this.lateness = new RollingStatistics(WINDOW);
+        this.frames = 0L;
+        this.missedDeadlines = 0L;
+        this.lastFrame = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("frames", AbstractFramePacer::getFrames)
+                .thenWith("missedDeadlines", AbstractFramePacer::getMissedDeadlines)
+                .thenWith("frameTimes", AbstractFramePacer::getFrameTimes)
+                .thenWith("lateness", AbstractFramePacer::getLateness)
+                .apply(this);
+    }
+
+    @Override
+    public final void sync() {
+        var late = Math.max(0L, await(System.nanoTime()));
+        var end = System.nanoTime();
+        if (lastFrame != 0L) {
+            frameTimes.add(end - lastFrame);
+        }
+        lastFrame = end;
+        frames++;
+
+        lateness.add(late);
+        if (late > TOLERANCE) {
+            missedDeadlines++;
+        }
+    }
+
+    @Override
+    public void reset() {
+        frameTimes.clear();
+        lateness.clear();
+        frames = 0L;
+        missedDeadlines = 0L;
+        lastFrame = 0L;
+    }
+
+    @Override
+    public long getFrames() {
+        return frames;
+    }
+
+    @Override
+    public long getMissedDeadlines() {
+        return missedDeadlines;
+    }
+
+    @Override
+    public RollingStatistics getFrameTimes() {
+        return frameTimes;
+    }
+
+    @Override
+    public RollingStatistics getLateness() {
+        return lateness;
+    }
+
+    /**
+     * Attendre l'échéance de la trame courante.
+     *
+     * @param now Instant de fin du travail de la trame, en nanosecondes
+     * @return Le retard au réveil sur l'échéance, en nanosecondes
+     */
+    protected abstract long await(long now);
+
+}
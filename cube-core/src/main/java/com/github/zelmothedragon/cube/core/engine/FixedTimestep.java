@@ -0,0 +1,270 @@
+package com.github.zelmothedragon.cube.core.engine;
+
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+
+/**
+ * Accumulateur de temps d'une boucle à pas fixe. À chaque trame, il convertit
+ * le temps écoulé en nombre de tours de mise à jour à exécuter, dans la limite
+ * d'un nombre maximal de tours de rattrapage. Cette limite évite la spirale de
+ * la mort après une pause du ramasse-miettes ou un déplacement de fenêtre.
+ * <p>
+ * Au-delà de la limite, le temps excédentaire est soit abandonné, soit reporté
+ * sur les trames suivantes ; le jeu ralentit alors le temps de rattraper son
+ * retard, et le rendu de quelques trames peut être sauté pour rattraper plus
+ * vite.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class FixedTimestep {
+
+    /**
+     * Politique appliquée au-delà du nombre maximal de tours de rattrapage.
+     */
+    public enum Policy {
+
+        /**
+         * Abandonner le temps excédentaire.
+         */
+        DROP,
+
+        /**
+         * Reporter le temps excédentaire sur les trames suivantes, le jeu
+         * ralentit.
+         */
+        SLOW_DOWN
+    }
+
+    /**
+     * Nombre maximal de tours de rattrapage par trame par défaut.
+     */
+    public static final int DEFAULT_MAX_CATCH_UP = 5;
+
+    /**
+     * Nombre maximal de trames consécutives sans rendu par défaut.
+     */
+    public static final int DEFAULT_MAX_FRAME_SKIP = 2;
+
+    /**
+     * Durée d'un tour de mise à jour, en nanosecondes.
+     */
+    private final double period;
+
+    /**
+     * Politique au-delà du nombre maximal de tours de rattrapage.
+     */
+    private Policy policy;
+
+    /**
+     * Nombre maximal de tours de mise à jour par trame.
+     */
+    private int maxCatchUp;
+
+    /**
+     * Nombre maximal de trames consécutives sans rendu.
+     */
+    private int maxFrameSkip;
+
+    /**
+     * Temps accumulé, en nombre de tours.
+     */
+    private double accumulator;
+
+    /**
+     * Instant de la trame précédente, <code>0</code> avant la première trame.
+     */
+    private long lastTime;
+
+    /**
+     * Nombre de trames consécutives sans rendu.
+     */
+    private int skipping;
+
+    /**
+     * Nombre total de tours abandonnés.
+     */
+    private long droppedTicks;
+
+    /**
+     * Nombre total de trames sans rendu.
+     */
+    private long skippedFrames;
+
+    /**
+     * Constructeur.
+     *
+     * @param rate Nombre de tours de mise à jour par seconde
+     */
+    public FixedTimestep(final double rate) {
+        if (rate <= 0.0) {
+            throw new IllegalArgumentException("Invalid tick rate: " + rate);
+        }
+        this.period = 1e9 / rate;
+        this.policy = Policy.DROP;
+        this.maxCatchUp = DEFAULT_MAX_CATCH_UP;
+        this.maxFrameSkip = DEFAULT_MAX_FRAME_SKIP;
+        this.accumulator = 0.0;
+        this.lastTime = 0L;
+        this.skipping = 0;
+        this.droppedTicks = 0L;
+        this.skippedFrames = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("policy", FixedTimestep::getPolicy)
+                .thenWith("maxCatchUp", FixedTimestep::getMaxCatchUp)
+                .thenWith("droppedTicks", FixedTimestep::getDroppedTicks)
+                .thenWith("skippedFrames", FixedTimestep::getSkippedFrames)
+                .apply(this);
+    }
+
+    /**
+     * Avancer le temps jusqu'à l'instant courant.
+     *
+     * @param now Instant courant, en nanosecondes
+     * @return Le nombre de tours de mise à jour à exécuter pour cette trame
+     */
+    public int advance(final long now) {
+        if (lastTime == 0L) {
+            lastTime = now;
+        }
+        accumulator += (now - lastTime) / period;
+        lastTime = now;
+
+        var ticks = (int) Math.min(accumulator, Integer.MAX_VALUE);
+        if (ticks > maxCatchUp) {
+            // Au-delà du report autorisé, le temps est toujours abandonné
+            var kept = policy == Policy.SLOW_DOWN
+                    ? maxCatchUp * (maxFrameSkip + 1)
+                    : maxCatchUp;
+
+            if (ticks > kept) {
+                droppedTicks += ticks - kept;
+                accumulator -= ticks - kept;
+            }
+            ticks = maxCatchUp;
+        }
+        accumulator -= ticks;
+        return ticks;
+    }
+
+    /**
+     * Indiquer si le rendu de la trame doit avoir lieu. Le rendu est sauté
+     * tant que du temps reste à rattraper, dans la limite du nombre maximal de
+     * trames consécutives sans rendu.
+     *
+     * @return La valeur <code>true</code> si la trame doit être dessinée
+     */
+    public boolean shouldRender() {
+        var render = true;
+        if (isBehind() && skipping < maxFrameSkip) {
+            skipping++;
+            skippedFrames++;
+            render = false;
+        } else {
+            skipping = 0;
+        }
+        return render;
+    }
+
+    /**
+     * Indiquer si du temps reste à rattraper après les tours de la trame.
+     *
+     * @return La valeur <code>true</code> si au moins un tour est en retard
+     */
+    public boolean isBehind() {
+        return accumulator >= 1.0;
+    }
+
+    /**
+     * Oublier le temps accumulé, par exemple après une pause.
+     */
+    public void reset() {
+        accumulator = 0.0;
+        lastTime = 0L;
+        skipping = 0;
+    }
+
+    /**
+     * Accesseur, obtenir la politique au-delà du nombre maximal de tours de
+     * rattrapage.
+     *
+     * @return La politique
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Mutateur, modifier la politique au-delà du nombre maximal de tours de
+     * rattrapage.
+     *
+     * @param policy Nouvelle politique
+     */
+    public void setPolicy(final Policy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre maximal de tours de mise à jour par trame.
+     *
+     * @return Le nombre maximal de tours
+     */
+    public int getMaxCatchUp() {
+        return maxCatchUp;
+    }
+
+    /**
+     * Mutateur, modifier le nombre maximal de tours de mise à jour par trame.
+     *
+     * @param maxCatchUp Nouveau nombre maximal de tours, au moins un
+     */
+    public void setMaxCatchUp(final int maxCatchUp) {
+        if (maxCatchUp < 1) {
+            throw new IllegalArgumentException("Invalid catch-up: " + maxCatchUp);
+        }
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre maximal de trames consécutives sans rendu.
+     *
+     * @return Le nombre maximal de trames
+     */
+    public int getMaxFrameSkip() {
+        return maxFrameSkip;
+    }
+
+    /**
+     * Mutateur, modifier le nombre maximal de trames consécutives sans rendu.
+     *
+     * @param maxFrameSkip Nouveau nombre maximal de trames, <code>0</code>
+     * pour ne jamais sauter de rendu
+     */
+    public void setMaxFrameSkip(final int maxFrameSkip) {
+        if (maxFrameSkip < 0) {
+            throw new IllegalArgumentException("Invalid frame skip: " + maxFrameSkip);
+        }
+        this.maxFrameSkip = maxFrameSkip;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre total de tours abandonnés.
+     *
+     * @return Le nombre de tours abandonnés
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre total de trames sans rendu.
+     *
+     * @return Le nombre de trames sans rendu
+     */
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.github.zelmothedragon.cube.core.engine;
+
+import com.github.zelmothedragon.cube.core.util.RollingStatistics;
+import java.util.Locale;
+
+/**
+ * Cadenceur de trames. Appelé à la fin de chaque trame, il met en attente le
+ * processus jusqu'à l'échéance de la trame suivante et mesure le respect des
+ * échéances.
+ *
+ * @author MOSELLE Maxime
+ */
+public interface FramePacer {
+
+    /**
+     * Propriété système du mode de cadencement : <code>uncapped</code>,
+     * <code>target</code> ou <code>power</code>.
+     */
+    String MODE_PROPERTY = "cube.pacer";
+
+    /**
+     * Propriété système du nombre de trames par seconde visé.
+     */
+    String RATE_PROPERTY = "cube.fps";
+
+    /**
+     * Nombre de trames par seconde visé par défaut.
+     */
+    double DEFAULT_RATE = 60.0;
+
+    /**
+     * Nombre de trames par seconde visé par défaut en mode économie
+     * d'énergie.
+     */
+    double POWER_SAVING_RATE = 30.0;
+
+    /**
+     * Terminer la trame courante et attendre l'échéance de la suivante.
+     */
+    void sync();
+
+    /**
+     * Oublier l'échéance courante et les mesures, par exemple après une
+     * pause.
+     */
+    void reset();
+
+    /**
+     * Accesseur, obtenir le nombre de trames terminées.
+     *
+     * @return Le nombre de trames
+     */
+    long getFrames();
+
+    /**
+     * Accesseur, obtenir le nombre d'échéances manquées.
+     *
+     * @return Le nombre d'échéances manquées
+     */
+    long getMissedDeadlines();
+
+    /**
+     * Accesseur, obtenir les durées des dernières trames, en nanosecondes.
+     *
+     * @return Les statistiques de durée
+     */
+    RollingStatistics getFrameTimes();
+
+    /**
+     * Accesseur, obtenir les retards sur échéance des dernières trames, en
+     * nanosecondes.
+     *
+     * @return Les statistiques de retard
+     */
+    RollingStatistics getLateness();
+
+    /**
+     * Construire un cadenceur sans limite, les trames s'enchaînent sans
+     * attente.
+     *
+     * @return Un nouveau cadenceur
+     */
+    static FramePacer uncapped() {
+        return new UncappedFramePacer();
+    }
+
+    /**
+     * Construire un cadenceur précis visant un nombre de trames par seconde.
+     * L'attente combine sommeil, suspension puis attente active pour tenir les
+     * échéances.
+     *
+     * @param rate Nombre de trames par seconde
+     * @return Un nouveau cadenceur
+     */
+    static FramePacer target(final double rate) {
+        return new HybridFramePacer(rate, true);
+    }
+
+    /**
+     * Construire un cadenceur économe visant un nombre de trames par seconde.
+     * L'attente n'est jamais active, au prix d'une précision moindre.
+     *
+     * @param rate Nombre de trames par seconde
+     * @return Un nouveau cadenceur
+     */
+    static FramePacer powerSaving(final double rate) {
+        return new HybridFramePacer(rate, false);
+    }
+
+    /**
+     * Construire le cadenceur décrit par les propriétés système
+     * <code>cube.pacer</code> et <code>cube.fps</code>. Par défaut, le
+     * cadenceur vise 60 trames par seconde.
+     *
+     * @return Un nouveau cadenceur
+     */
+    static FramePacer fromProperties() {
+        var mode = System.getProperty(MODE_PROPERTY, "target").toLowerCase(Locale.ROOT);
+        var rate = System.getProperty(RATE_PROPERTY);
+        FramePacer pacer;
+        switch (mode) {
+            case "uncapped":
+                pacer = uncapped();
+                break;
+            case "target":
+                pacer = target(rate == null ? DEFAULT_RATE : Double.parseDouble(rate));
+                break;
+            case "power":
+                pacer = powerSaving(rate == null ? POWER_SAVING_RATE : Double.parseDouble(rate));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown frame pacer: " + mode);
+        }
+        return pacer;
+    }
+
+}
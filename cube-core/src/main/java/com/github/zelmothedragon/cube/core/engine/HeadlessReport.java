@@ -0,0 +1,168 @@
+package com.github.zelmothedragon.cube.core.engine;
+
+import com.github.zelmothedragon.cube.core.util.RollingStatistics;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+
+/**
+ * Rapport d'exécution du moteur sans affichage : débit, durées des mises à
+ * jour, des rendus et des trames, empreinte de la dernière image et, lors d'un
+ * rejeu des entrées, première trame divergente.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class HeadlessReport {
+
+    /**
+     * Nombre de trames exécutées.
+     */
+    private final long frames;
+
+    /**
+     * Durée totale de l'exécution, en nanosecondes.
+     */
+    private final long elapsed;
+
+    /**
+     * Durées des mises à jour, en nanosecondes.
+     */
+    private final RollingStatistics updateTimes;
+
+    /**
+     * Durées des rendus, en nanosecondes.
+     */
+    private final RollingStatistics drawTimes;
+
+    /**
+     * Durées des trames, attente comprise, en nanosecondes.
+     */
+    private final RollingStatistics frameTimes;
+
+    /**
+     * Empreinte de la dernière image rendue.
+     */
+    private final long checksum;
+
+    /**
+     * Première trame divergente d'un rejeu, <code>-1</code> si aucune.
+     */
+    private final long divergence;
+
+    /**
+     * Constructeur.
+     *
+     * @param frames Nombre de trames exécutées
+     * @param elapsed Durée totale de l'exécution, en nanosecondes
+     * @param updateTimes Durées des mises à jour
+     * @param drawTimes Durées des rendus
+     * @param frameTimes Durées des trames
+     * @param checksum Empreinte de la dernière image rendue
+     * @param divergence Première trame divergente d'un rejeu, <code>-1</code>
+     * si aucune
+     */
+    HeadlessReport(
+            final long frames,
+            final long elapsed,
+            final RollingStatistics updateTimes,
+            final RollingStatistics drawTimes,
+            final RollingStatistics frameTimes,
+            final long checksum,
+            final long divergence) {
+
+        this.frames = frames;
+        this.elapsed = elapsed;
+        this.updateTimes = updateTimes;
+        this.drawTimes = drawTimes;
+        this.frameTimes = frameTimes;
+        this.checksum = checksum;
+        this.divergence = divergence;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("frames", HeadlessReport::getFrames)
+                .thenWith("throughput", HeadlessReport::getThroughput)
+                .thenWith("updateTimes", HeadlessReport::getUpdateTimes)
+                .thenWith("drawTimes", HeadlessReport::getDrawTimes)
+                .thenWith("frameTimes", HeadlessReport::getFrameTimes)
+                .thenWith("checksum", HeadlessReport::getChecksum)
+                .thenWith("divergence", HeadlessReport::getDivergence)
+                .apply(this);
+    }
+
+    /**
+     * Accesseur, obtenir le nombre de trames exécutées.
+     *
+     * @return Le nombre de trames
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Accesseur, obtenir la durée totale de l'exécution.
+     *
+     * @return La durée, en nanosecondes
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Obtenir le débit de l'exécution.
+     *
+     * @return Le nombre de trames par seconde
+     */
+    public double getThroughput() {
+        return elapsed > 0L ? frames * 1e9 / elapsed : 0.0;
+    }
+
+    /**
+     * Accesseur, obtenir les durées des mises à jour.
+     *
+     * @return Les statistiques, en nanosecondes
+     */
+    public RollingStatistics getUpdateTimes() {
+        return updateTimes;
+    }
+
+    /**
+     * Accesseur, obtenir les durées des rendus.
+     *
+     * @return Les statistiques, en nanosecondes
+     */
+    public RollingStatistics getDrawTimes() {
+        return drawTimes;
+    }
+
+    /**
+     * Accesseur, obtenir les durées des trames, attente comprise.
+     *
+     * @return Les statistiques, en nanosecondes
+     */
+    public RollingStatistics getFrameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * Accesseur, obtenir l'empreinte de la dernière image rendue. Deux
+     * exécutions identiques produisent la même empreinte.
+     *
+     * @return L'empreinte
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Accesseur, obtenir la première trame dont l'image diffère de
+     * l'enregistrement rejoué.
+     *
+     * @return Le numéro de la trame, ou <code>-1</code> si l'exécution est
+     * identique ou sans rejeu
+     */
+    public long getDivergence() {
+        return divergence;
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.github.zelmothedragon.cube.core.engine;
+
+import com.github.zelmothedragon.cube.core.GameManager;
+import com.github.zelmothedragon.cube.core.input.InputScript;
+import com.github.zelmothedragon.cube.core.util.RollingStatistics;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import com.github.zelmothedragon.cube.pixel.graphic.PixelArrayRenderer;
+import java.util.Objects;
+
+/**
+ * Moteur sans affichage. Il enchaîne mises à jour et rendus dans une image
+ * hors écran, sans fenêtre ni carte graphique, à débit libre ou à fréquence
+ * fixe. Les entrées du joueur proviennent d'un script, ce qui rend
+ * l'exécution reproductible pour les tests de charge et la comparaison de
+ * rendus.
+ * <p>
+ * Les entrées de chaque trame peuvent être enregistrées dans le journal des
+ * entrées du gestionnaire du jeu, avec l'empreinte de l'état de la simulation,
+ * puis rejouées sur une autre version du programme (voir
+ * <code>InputJournal</code>) : le rejeu signale la première trame dont la
+ * simulation diverge, et les distributions des durées des deux exécutions
+ * sont comparables. L'empreinte de l'image finale reste disponible pour
+ * comparer les rendus.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class HeadlessRunner {
+
+    /**
+     * Gestionnaire du jeu.
+     */
+    private final GameManager manager;
+
+    /**
+     * Gestionnaire de rendu hors écran.
+     */
+    private final PixelArrayRenderer renderer;
+
+    /**
+     * Nombre de trames par seconde, <code>0</code> pour un débit libre.
+     */
+    private double rate;
+
+    /**
+     * Script des entrées du joueur, peut être <code>null</code>.
+     */
+    private InputScript script;
+
+    /**
+     * Constructeur.
+     *
+     * @param manager Gestionnaire du jeu
+     * @param width Largeur de l'image hors écran
+     * @param height Hauteur de l'image hors écran
+     */
+    public HeadlessRunner(final GameManager manager, final int width, final int height) {
+        this.manager = manager;
+        this.renderer = new PixelArrayRenderer(width, height);
+        this.rate = 0.0;
+        this.script = null;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("rate", HeadlessRunner::getRate)
+                .thenWith("script", (HeadlessRunner r) -> r.script)
+                .apply(this);
+    }
+
+    /**
+     * Accesseur, obtenir le gestionnaire de rendu hors écran.
+     *
+     * @return Le gestionnaire de rendu
+     */
+    public PixelArrayRenderer getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre de trames par seconde.
+     *
+     * @return Le nombre de trames par seconde, <code>0</code> pour un débit
+     * libre
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Mutateur, modifier le nombre de trames par seconde.
+     *
+     * @param rate Nombre de trames par seconde, <code>0</code> pour un débit
+     * libre
+     */
+    public void setRate(final double rate) {
+        if (rate < 0.0) {
+            throw new IllegalArgumentException("Invalid frame rate: " + rate);
+        }
+        this.rate = rate;
+    }
+
+    /**
+     * Mutateur, modifier le script des entrées du joueur. Les touches du
+     * script sont associées au gestionnaire des entrées.
+     *
+     * @param script Script des entrées
+     */
+    public void setInputScript(final InputScript script) {
+        this.script = script;
+        script.bind(manager.getInputs());
+    }
+
+    /**
+     * Exécuter un nombre de trames, chacune composée d'une mise à jour et d'un
+     * rendu.
+     *
+     * @param frames Nombre de trames
+     * @return Le rapport d'exécution
+     */
+    public HeadlessReport run(final int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Invalid frame count: " + frames);
+        }
+        var updateTimes = new RollingStatistics(frames);
+        var drawTimes = new RollingStatistics(frames);
+        var frameTimes = new RollingStatistics(frames);
+        var pacer = rate > 0.0 ? FramePacer.target(rate) : FramePacer.uncapped();
+        var inputs = manager.getInputs();
+        var systems = manager.getSystems();
+        var journal = manager.getJournal();
+
+        var start = System.nanoTime();
+        var last = start;
+        for (var frame = 0; frame < frames; frame++) {
+            if (Objects.nonNull(script)) {
+                script.apply(frame, inputs);
+            }
+            var before = System.nanoTime();
+            manager.update();
+            var updated = System.nanoTime();
+            renderer.clear();
+            systems.draw(renderer);
+            // Achever le rendu différé (fond, bandes parallèles) dans la mesure
+            renderer.flush();
+            var drawn = System.nanoTime();
+            pacer.sync();
+            var end = System.nanoTime();
+
+            updateTimes.add(updated - before);
+            drawTimes.add(drawn - updated);
+            frameTimes.add(end - last);
+            last = end;
+        }
+        var elapsed = System.nanoTime() - start;
+
+        return new HeadlessReport(
+                frames,
+                elapsed,
+                updateTimes,
+                drawTimes,
+                frameTimes,
+                checksum(renderer.getRawData()),
+                journal.getDivergence());
+    }
+
+    /**
+     * Calculer l'empreinte d'une image.
+     *
+     * @param pixels Pixels de l'image
+     * @return L'empreinte
+     */
+    private static long checksum(final int[] pixels) {
+        var sum = 0L;
+        for (var pixel : pixels) {
+            sum = sum * 31 + pixel;
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.github.zelmothedragon.cube.core.engine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cadenceur à échéances fixes. L'attente est découpée en trois temps : un
+ * sommeil pour les longues attentes, une suspension courte, puis une attente
+ * active jusqu'à l'échéance exacte. La marge laissée à l'attente active est
+ * calibrée en continu sur le dépassement observé des réveils, ce qui limite
+ * l'attente active au strict nécessaire.
+ * <p>
+ * Sans attente active, le cadenceur économise le processeur au prix d'un
+ * retard de l'ordre de la précision des réveils du système.
+ *
+ * @author MOSELLE Maxime
+ */
+final class HybridFramePacer extends AbstractFramePacer {
+
+    /**
+     * Attente à partir de laquelle le processus est endormi plutôt que
+     * suspendu, en nanosecondes.
+     */
+    private static final long SLEEP_THRESHOLD = 2_000_000L;
+
+    /**
+     * Marge minimale avant l'échéance, en nanosecondes.
+     */
+    private static final long MIN_MARGIN = 50_000L;
+
+    /**
+     * Marge maximale avant l'échéance, en nanosecondes.
+     */
+    private static final long MAX_MARGIN = 4_000_000L;
+
+    /**
+     * Durée d'une trame, en nanosecondes.
+     */
+    private final long period;
+
+    /**
+     * Terminer l'attente de manière active.
+     */
+    private final boolean spin;
+
+    /**
+     * Échéance de la trame courante, <code>0</code> avant la première trame.
+     */
+    private long deadline;
+
+    /**
+     * Marge calibrée avant l'échéance, en nanosecondes.
+     */
+    private long margin;
+
+    /**
+     * Constructeur.
+     *
+     * @param rate Nombre de trames par seconde
+     * @param spin Terminer l'attente de manière active
+     */
+    HybridFramePacer(final double rate, final boolean spin) {
+        super();
+        if (rate <= 0.0) {
+            throw new IllegalArgumentException("Invalid frame rate: " + rate);
+        }
+        this.period = (long) (1e9 / rate);
+        this.spin = spin;
+        this.deadline = 0L;
+        this.margin = MAX_MARGIN / 4;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        deadline = 0L;
+    }
+
+    @Override
+    protected long await(final long now) {
+        if (deadline == 0L) {
+            deadline = now;
+        }
+        var target = deadline;
+        sleep(target);
+        if (spin) {
+            while (target - System.nanoTime() > 0L) {
+                Thread.onSpinWait();
+            }
+        } else {
+            var remaining = target - System.nanoTime();
+            if (remaining > 0L) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+
+        var end = System.nanoTime();
+        if (end - target > period) {
+            // Plus d'une trame de retard, repartir de l'instant présent
+            deadline = end + period;
+        } else {
+            deadline = target + period;
+        }
+        return end - target;
+    }
+
+    /**
+     * Endormir puis suspendre le processus jusqu'à la marge avant l'échéance.
+     *
+     * @param target Échéance visée
+     */
+    private void sleep(final long target) {
+        var remaining = target - System.nanoTime();
+        while (remaining > margin) {
+            var request = remaining - margin;
+            var before = System.nanoTime();
+            if (request >= SLEEP_THRESHOLD) {
+                request -= request % 1_000_000L;
+                try {
+                    Thread.sleep(request / 1_000_000L);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } else {
+                LockSupport.parkNanos(this, request);
+            }
+            var after = System.nanoTime();
+            calibrate(after - before - request);
+            remaining = target - after;
+        }
+    }
+
+    /**
+     * Ajuster la marge selon le dépassement d'un réveil. La marge augmente
+     * immédiatement et diminue lentement.
+     *
+     * @param overshoot Dépassement observé, en nanosecondes
+     */
+    private void calibrate(final long overshoot) {
+        var value = overshoot > margin
+                ? overshoot
+                : margin - (margin - overshoot) / 16;
+
+        margin = Math.max(MIN_MARGIN, Math.min(MAX_MARGIN, value));
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.github.zelmothedragon.cube.core.engine;
+
+/**
+ * Cadenceur sans limite. Les trames s'enchaînent sans attente, aucune
+ * échéance n'est jamais manquée.
+ *
+ * @author MOSELLE Maxime
+ */
+final class UncappedFramePacer extends AbstractFramePacer {
+
+    /**
+     * Constructeur.
+     */
+    UncappedFramePacer() {
+        super();
+    }
+
+    @Override
+    protected long await(final long now) {
+        return 0L;
+    }
+
+}
@@ -0,0 +1,435 @@
+package com.github.zelmothedragon.cube.core.graphic;
+
+import com.github.zelmothedragon.cube.core.model.AnimatedImage;
+import com.github.zelmothedragon.cube.core.model.FontImage;
+import com.github.zelmothedragon.cube.core.model.Image;
+import com.github.zelmothedragon.cube.core.model.ImageMap;
+import com.github.zelmothedragon.cube.core.util.lang.Cast;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Liste d'ordres de dessin. Cette implémentation du gestionnaire de rendu ne
+ * dessine rien : elle enregistre les ordres de dessin des systèmes afin de les
+ * rejouer plus tard, éventuellement depuis un autre processus, sur un véritable
+ * gestionnaire de rendu. Elle ne possède donc pas d'image de rendu (voir
+ * <code>RasterRenderer</code>).
+ * <p>
+ * Une liste constitue ainsi un instantané du rendu d'un tour de boucle :
+ * positions, image courante des animations et décalage de la caméra. Les
+ * images animées sont résolues en image fixe lors de l'enregistrement. Les
+ * images modifiées en cours de jeu sont copiées lors de l'enregistrement (voir
+ * <code>Image.snapshot</code>), le rejeu ne lit donc jamais une image en cours
+ * d'écriture. Les ordres et leurs copies d'image sont réutilisés d'un
+ * enregistrement à l'autre, sans allocation en régime établi.
+ *
+ * @param <T> Type du format de l'image
+ * @author MOSELLE Maxime
+ */
+public final class DrawList<T> implements Renderer<T> {
+
+    /**
+     * Capacité initiale de la liste.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * Nature d'un ordre de dessin.
+     */
+    private enum Operation {
+        CLEAR,
+        RECTANGLE,
+        FILL_RECTANGLE,
+        CIRCLE,
+        FILL_CIRCLE,
+        GRADIENT_CIRCLE,
+        LINE,
+        IMAGE,
+        IMAGE_MAP,
+        IMAGE_MAP_LAYOUT,
+        TEXT,
+        INVALIDATE,
+        OFFSET,
+        RESET_OFFSET
+    }
+
+    /**
+     * Ordre de dessin enregistré.
+     */
+    private static final class Command {
+
+        private Operation operation;
+
+        private int x;
+
+        private int y;
+
+        private int a;
+
+        private int b;
+
+        private int c;
+
+        /**
+         * Objet à l'origine de l'ordre, pour associer les ordres de deux
+         * listes successives lors de l'interpolation.
+         */
+        private Object source;
+
+        private Image<?> image;
+
+        /**
+         * Copie d'image conservée d'un enregistrement à l'autre, pour être
+         * réutilisée.
+         */
+        private Image<?> snapshot;
+
+        private ImageMap<?> map;
+
+        private FontImage<?> font;
+
+        private String text;
+
+        /**
+         * Oublier les références de l'ordre.
+         */
+        private void clear() {
+            source = null;
+            image = null;
+            map = null;
+            font = null;
+            text = null;
+        }
+
+    }
+
+    /**
+     * Largeur de l'affichage.
+     */
+    private final int width;
+
+    /**
+     * Hauteur de l'affichage.
+     */
+    private final int height;
+
+    /**
+     * Ordres enregistrés, réutilisés d'un enregistrement à l'autre.
+     */
+    private Command[] commands;
+
+    /**
+     * Nombre d'ordres enregistrés.
+     */
+    private int size;
+
+    /**
+     * Constructeur.
+     *
+     * @param width Largeur de l'affichage
+     * @param height Hauteur de l'affichage
+     */
+    public DrawList(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+        this.commands = new Command[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("width", (DrawList<?> l) -> l.getWidth())
+                .thenWith("height", DrawList::getHeight)
+                .thenWith("size", DrawList::size)
+                .apply(this);
+    }
+
+    /**
+     * Obtenir le nombre d'ordres enregistrés.
+     *
+     * @return Le nombre d'ordres
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Oublier tous les ordres enregistrés, avant un nouvel enregistrement.
+     */
+    public void reset() {
+        for (var i = 0; i < size; i++) {
+            commands[i].clear();
+        }
+        size = 0;
+    }
+
+    /**
+     * Rejouer les ordres enregistrés.
+     *
+     * @param target Gestionnaire de rendu cible
+     */
+    public void replay(final Renderer<T> target) {
+        replay(target, null, 1.0);
+    }
+
+    /**
+     * Rejouer les ordres enregistrés en interpolant les positions depuis une
+     * liste précédente, ainsi que le second point des lignes. Un ordre est
+     * interpolé lorsque l'ordre de même rang de la liste précédente a la même
+     * nature et la même origine.
+     *
+     * @param target Gestionnaire de rendu cible
+     * @param previous Liste précédente, ou <code>null</code>
+     * @param alpha Coefficient d'interpolation, de <code>0</code> (liste
+     * précédente) à <code>1</code> (cette liste)
+     */
+    public void replay(final Renderer<T> target, final DrawList<T> previous, final double alpha) {
+        for (var i = 0; i < size; i++) {
+            var command = commands[i];
+            var x = command.x;
+            var y = command.y;
+            var a = command.a;
+            var b = command.b;
+            if (Objects.nonNull(previous) && i < previous.size && alpha < 1.0) {
+                var before = previous.commands[i];
+                if (before.operation == command.operation && before.source == command.source) {
+                    x = interpolate(before.x, x, alpha);
+                    y = interpolate(before.y, y, alpha);
+                    if (command.operation == Operation.LINE) {
+                        // Le second point de la ligne se déplace aussi
+                        a = interpolate(before.a, a, alpha);
+                        b = interpolate(before.b, b, alpha);
+                    }
+                }
+            }
+            execute(target, command, x, y, a, b);
+        }
+    }
+
+    @Override
+    public void clear() {
+        next(Operation.CLEAR, null, 0, 0);
+    }
+
+    @Override
+    public void drawRectangle(final int x, final int y, final int w, final int h, final int color) {
+        var command = next(Operation.RECTANGLE, null, x, y);
+        command.a = w;
+        command.b = h;
+        command.c = color;
+    }
+
+    @Override
+    public void drawFillRectangle(final int x, final int y, final int w, final int h, final int color) {
+        var command = next(Operation.FILL_RECTANGLE, null, x, y);
+        command.a = w;
+        command.b = h;
+        command.c = color;
+    }
+
+    @Override
+    public void drawCircle(final int x, final int y, final int radius, final int color) {
+        var command = next(Operation.CIRCLE, null, x, y);
+        command.a = radius;
+        command.c = color;
+    }
+
+    @Override
+    public void drawFillCircle(final int x, final int y, final int radius, final int color) {
+        var command = next(Operation.FILL_CIRCLE, null, x, y);
+        command.a = radius;
+        command.c = color;
+    }
+
+    @Override
+    public void drawGradientCircle(final int x, final int y, final int radius, final int color) {
+        var command = next(Operation.GRADIENT_CIRCLE, null, x, y);
+        command.a = radius;
+        command.c = color;
+    }
+
+    @Override
+    public void drawLine(final int x0, final int y0, final int x1, final int y1, final int color) {
+        var command = next(Operation.LINE, null, x0, y0);
+        command.a = x1;
+        command.b = y1;
+        command.c = color;
+    }
+
+    @Override
+    public void drawImage(final int x, final int y, final Image<T> image) {
+        snapshot(next(Operation.IMAGE, image, x, y), image);
+    }
+
+    @Override
+    public void drawImage(final int x, final int y, final AnimatedImage<T> image) {
+        // Résoudre l'image courante, l'animation continue d'évoluer
+        snapshot(next(Operation.IMAGE, image, x, y), image.getCurrentImage());
+    }
+
+    @Override
+    public void drawImage(final int x, final int y, final FontImage<T> image, final String text) {
+        var command = next(Operation.TEXT, image, x, y);
+        command.font = image;
+        command.text = text;
+    }
+
+    @Override
+    public void drawImage(final int x, final int y, final ImageMap<T> image) {
+        next(Operation.IMAGE_MAP, image, x, y).map = image;
+    }
+
+    @Override
+    public void drawImage(final int x, final int y, final ImageMap<int[]> image, final int layout) {
+        var command = next(Operation.IMAGE_MAP_LAYOUT, image, x, y);
+        command.map = image;
+        command.a = layout;
+    }
+
+    @Override
+    public void invalidate(final ImageMap<T> image) {
+        next(Operation.INVALIDATE, image, 0, 0).map = image;
+    }
+
+    @Override
+    public void setOffset(final int xOffset, final int yOffset) {
+        next(Operation.OFFSET, null, xOffset, yOffset);
+    }
+
+    @Override
+    public void resetOffset() {
+        next(Operation.RESET_OFFSET, null, 0, 0);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Obtenir le prochain ordre libre de la liste.
+     *
+     * @param operation Nature de l'ordre
+     * @param source Objet à l'origine de l'ordre
+     * @param x Coordonnée en abcisse
+     * @param y Coordonnée en ordonnée
+     * @return L'ordre à compléter
+     */
+    private Command next(final Operation operation, final Object source, final int x, final int y) {
+        if (size == commands.length) {
+            commands = Arrays.copyOf(commands, size * 2);
+        }
+        var command = commands[size];
+        if (Objects.isNull(command)) {
+            command = new Command();
+            commands[size] = command;
+        }
+        size++;
+        command.operation = operation;
+        command.source = source;
+        command.x = x;
+        command.y = y;
+        return command;
+    }
+
+    /**
+     * Associer à un ordre l'instantané d'une image, en réutilisant la copie
+     * conservée par l'ordre.
+     *
+     * @param command Ordre à compléter
+     * @param image Image dessinée
+     */
+    private void snapshot(final Command command, final Image<T> image) {
+        var snapshot = image.snapshot(Cast.<Image<T>>unchecked(command.snapshot));
+        if (snapshot != image) {
+            command.snapshot = snapshot;
+        }
+        command.image = snapshot;
+    }
+
+    /**
+     * Exécuter un ordre sur un gestionnaire de rendu.
+     *
+     * @param target Gestionnaire de rendu cible
+     * @param command Ordre à exécuter
+     * @param x Coordonnée en abcisse, éventuellement interpolée
+     * @param y Coordonnée en ordonnée, éventuellement interpolée
+     * @param a Premier paramètre, éventuellement interpolé pour une ligne
+     * @param b Second paramètre, éventuellement interpolé pour une ligne
+     */
+    private void execute(
+            final Renderer<T> target,
+            final Command command,
+            final int x,
+            final int y,
+            final int a,
+            final int b) {
+
+        switch (command.operation) {
+            case CLEAR:
+                target.clear();
+                break;
+            case RECTANGLE:
+                target.drawRectangle(x, y, command.a, command.b, command.c);
+                break;
+            case FILL_RECTANGLE:
+                target.drawFillRectangle(x, y, command.a, command.b, command.c);
+                break;
+            case CIRCLE:
+                target.drawCircle(x, y, command.a, command.c);
+                break;
+            case FILL_CIRCLE:
+                target.drawFillCircle(x, y, command.a, command.c);
+                break;
+            case GRADIENT_CIRCLE:
+                target.drawGradientCircle(x, y, command.a, command.c);
+                break;
+            case LINE:
+                target.drawLine(x, y, a, b, command.c);
+                break;
+            case IMAGE:
+                target.drawImage(x, y, Cast.<Image<T>>unchecked(command.image));
+                break;
+            case IMAGE_MAP:
+                target.drawImage(x, y, Cast.<ImageMap<T>>unchecked(command.map));
+                break;
+            case IMAGE_MAP_LAYOUT:
+                target.drawImage(x, y, Cast.<ImageMap<int[]>>unchecked(command.map), command.a);
+                break;
+            case TEXT:
+                target.drawImage(x, y, Cast.<FontImage<T>>unchecked(command.font), command.text);
+                break;
+            case INVALIDATE:
+                target.invalidate(Cast.<ImageMap<T>>unchecked(command.map));
+                break;
+            case OFFSET:
+                target.setOffset(x, y);
+                break;
+            case RESET_OFFSET:
+                target.resetOffset();
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation: " + command.operation);
+        }
+    }
+
+    /**
+     * Interpoler linéairement une coordonnée.
+     *
+     * @param from Valeur précédente
+     * @param to Valeur courante
+     * @param alpha Coefficient d'interpolation
+     * @return La valeur interpolée, arrondie
+     */
+    private static int interpolate(final int from, final int to, final double alpha) {
+        return (int) Math.round(from + (to - from) * alpha);
+    }
+
+}
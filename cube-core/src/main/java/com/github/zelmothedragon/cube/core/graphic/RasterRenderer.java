@@ -0,0 +1,20 @@
+package com.github.zelmothedragon.cube.core.graphic;
+
+/**
+ * Gestionnaire de rendu graphique possédant une image de rendu. Les ordres de
+ * dessin sont exécutés sur l'image de rendu, dont la donnée brute est
+ * transmise à l'affichage.
+ *
+ * @param <T> Type du format de l'image
+ * @author MOSELLE Maxime
+ */
+public interface RasterRenderer<T> extends Renderer<T> {
+
+    /**
+     * Accesseur, obtenir la données brute de l'image du rendu. L'image n'est
+     * complète qu'après l'appel de <code>flush</code>.
+     *
+     * @return La donnée brute de l'image du rendu
+     */
+    T getRawData();
+}
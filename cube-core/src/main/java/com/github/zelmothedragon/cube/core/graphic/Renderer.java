@@ -6,7 +6,13 @@ import com.github.zelmothedragon.cube.core.model.Image;
 import com.github.zelmothedragon.cube.core.model.ImageMap;
 
 /**
- * Gestionnaire de rendu graphique.
+ * Gestionnaire de rendu graphique. Cette interface regroupe les ordres de
+ * dessin reçus par les systèmes ; un gestionnaire qui produit effectivement
+ * une image de rendu implémente <code>RasterRenderer</code>.
+ * <p>
+ * Un gestionnaire peut différer l'exécution des ordres de dessin. Le moteur
+ * appelle <code>flush</code> une fois la trame dessinée, avant d'afficher ou
+ * de lire l'image de rendu.
  *
  * @param <T> Type du format de l'image
  * @author MOSELLE Maxime
@@ -143,6 +149,26 @@ public interface Renderer<T> {
      */
     void resetOffset();
 
+    /**
+     * Signaler la modification d'une carte d'images. Le rendu de la carte
+     * éventuellement conservé d'une trame à l'autre est oublié. Par défaut,
+     * rien n'est conservé et il n'y a rien à oublier.
+     *
+     * @param image Carte d'images modifiée
+     */
+    default void invalidate(final ImageMap<T> image) {
+        // RAS
+    }
+
+    /**
+     * Achever le rendu de la trame en exécutant les ordres de dessin différés.
+     * Par défaut, les ordres sont exécutés dès leur réception et il n'y a rien
+     * à achever.
+     */
+    default void flush() {
+        // RAS
+    }
+
     /**
      * Accesseur, obtenir la largeur de l'affichage en pixel.
      *
@@ -156,11 +182,4 @@ public interface Renderer<T> {
      * @return La hauteur
      */
     int getHeight();
-
-    /**
-     * Accesseur, obtenir la données brute de l'image du rendu.
-     *
-     * @return La donnée brute de l'image du rendu
-     */
-    T getRawData();
 }
@@ -0,0 +1,196 @@
+package com.github.zelmothedragon.cube.core.graphic;
+
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Échange d'instantanés de rendu entre le processus de simulation et le
+ * processus de rendu. La simulation enregistre chaque tour de boucle dans une
+ * liste d'ordres de dessin libre puis la publie ; le rendu rejoue la dernière
+ * liste publiée en interpolant depuis l'avant-dernière.
+ * <p>
+ * Les listes publiées ne sont jamais modifiées : la simulation ne réutilise
+ * une liste qu'une fois remplacée par deux publications et relâchée par le
+ * rendu. Aucun des deux processus n'attend l'autre au-delà de l'échange des
+ * références.
+ *
+ * @param <T> Type du format de l'image
+ * @author MOSELLE Maxime
+ */
+public final class SnapshotBuffer<T> {
+
+    /**
+     * Largeur de l'affichage.
+     */
+    private final int width;
+
+    /**
+     * Hauteur de l'affichage.
+     */
+    private final int height;
+
+    /**
+     * Listes libres, prêtes pour un nouvel enregistrement.
+     */
+    private final Deque<DrawList<T>> free;
+
+    /**
+     * Dernière liste publiée.
+     */
+    private DrawList<T> latest;
+
+    /**
+     * Avant-dernière liste publiée.
+     */
+    private DrawList<T> previous;
+
+    /**
+     * Instant de publication de la dernière liste, en nanosecondes.
+     */
+    private long latestTime;
+
+    /**
+     * Instant de publication de l'avant-dernière liste, en nanosecondes.
+     */
+    private long previousTime;
+
+    /**
+     * Dernière liste en cours de lecture par le rendu.
+     */
+    private DrawList<T> readingLatest;
+
+    /**
+     * Avant-dernière liste en cours de lecture par le rendu.
+     */
+    private DrawList<T> readingPrevious;
+
+    /**
+     * Nombre de listes publiées.
+     */
+    private long published;
+
+    /**
+     * Constructeur.
+     *
+     * @param width Largeur de l'affichage
+     * @param height Hauteur de l'affichage
+     */
+    public SnapshotBuffer(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+        this.free = new ArrayDeque<>();
+        this.latest = null;
+        this.previous = null;
+        this.latestTime = 0L;
+        this.previousTime = 0L;
+        this.readingLatest = null;
+        this.readingPrevious = null;
+        this.published = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("width", (SnapshotBuffer<?> b) -> b.width)
+                .thenWith("height", b -> b.height)
+                .thenWith("published", SnapshotBuffer::getPublished)
+                .apply(this);
+    }
+
+    /**
+     * Obtenir une liste libre pour enregistrer un nouveau tour de boucle.
+     * Appelé par le processus de simulation.
+     *
+     * @return Une liste vide
+     */
+    public synchronized DrawList<T> obtain() {
+        var list = free.poll();
+        if (Objects.isNull(list)) {
+            list = new DrawList<>(width, height);
+        }
+        list.reset();
+        return list;
+    }
+
+    /**
+     * Publier une liste enregistrée. Appelé par le processus de simulation.
+     *
+     * @param list Liste enregistrée
+     * @param time Instant de la publication, en nanosecondes
+     */
+    public synchronized void publish(final DrawList<T> list, final long time) {
+        var expired = previous;
+        previous = latest;
+        previousTime = latestTime;
+        latest = list;
+        latestTime = time;
+        published++;
+        recycle(expired);
+    }
+
+    /**
+     * Dessiner le dernier instantané publié, interpolé depuis l'avant-dernier
+     * selon le temps écoulé depuis la dernière publication. Appelé par le
+     * processus de rendu.
+     *
+     * @param target Gestionnaire de rendu cible
+     * @param now Instant du rendu, en nanosecondes
+     * @return La valeur <code>false</code> si aucun instantané n'est publié
+     */
+    public boolean render(final Renderer<T> target, final long now) {
+        DrawList<T> current;
+        DrawList<T> before;
+        double alpha;
+        synchronized (this) {
+            current = latest;
+            before = previous;
+            readingLatest = current;
+            readingPrevious = before;
+            var period = latestTime - previousTime;
+            alpha = Objects.isNull(before) || period <= 0
+                    ? 1.0
+                    : Math.max(0.0, Math.min(1.0, (now - latestTime) / (double) period));
+        }
+        if (Objects.nonNull(current)) {
+            current.replay(target, before, alpha);
+        }
+        synchronized (this) {
+            readingLatest = null;
+            readingPrevious = null;
+            if (current != latest && current != previous) {
+                recycle(current);
+            }
+            if (before != latest && before != previous) {
+                recycle(before);
+            }
+        }
+        return Objects.nonNull(current);
+    }
+
+    /**
+     * Accesseur, obtenir le nombre de listes publiées.
+     *
+     * @return Le nombre de listes publiées
+     */
+    public synchronized long getPublished() {
+        return published;
+    }
+
+    /**
+     * Remettre une liste dans les listes libres si plus personne ne la lit.
+     *
+     * @param list Liste expirée, peut être <code>null</code>
+     */
+    private void recycle(final DrawList<T> list) {
+        if (Objects.nonNull(list)
+                && list != readingLatest
+                && list != readingPrevious
+                && !free.contains(list)) {
+
+            free.push(list);
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.github.zelmothedragon.cube.core.input;
+
+import com.github.zelmothedragon.cube.core.model.EntityManager;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Journal des entrées du joueur. Il associe un enregistreur et un rejoueur
+ * facultatifs au tour de logique métier : après la synchronisation du
+ * gestionnaire des entrées, les entrées rejouées remplacent celles du joueur ;
+ * après la mise à jour des systèmes, l'empreinte de l'état de la simulation
+ * (voir <code>EntityManager.checksum</code>) est comparée à celle enregistrée
+ * puis enregistrée avec les entrées du tour.
+ * <p>
+ * Sans enregistreur ni rejoueur, le journal est inactif et ne calcule aucune
+ * empreinte.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class InputJournal implements Closeable {
+
+    /**
+     * Propriété système du fichier d'enregistrement des entrées.
+     */
+    public static final String RECORD_PROPERTY = "cube.record";
+
+    /**
+     * Propriété système du fichier des entrées à rejouer.
+     */
+    public static final String REPLAY_PROPERTY = "cube.replay";
+
+    /**
+     * Enregistreur des entrées, peut être <code>null</code>.
+     */
+    private final InputRecorder recorder;
+
+    /**
+     * Rejoueur des entrées, peut être <code>null</code>.
+     */
+    private final InputReplayer replayer;
+
+    /**
+     * Constructeur.
+     *
+     * @param recorder Enregistreur des entrées, peut être <code>null</code>
+     * @param replayer Rejoueur des entrées, peut être <code>null</code>
+     */
+    public InputJournal(final InputRecorder recorder, final InputReplayer replayer) {
+        this.recorder = recorder;
+        this.replayer = replayer;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("recorder", InputJournal::getRecorder)
+                .thenWith("replayer", InputJournal::getReplayer)
+                .apply(this);
+    }
+
+    /**
+     * Construire le journal désigné par les propriétés système
+     * <code>cube.record</code> et <code>cube.replay</code>. Le journal est
+     * fermé à l'arrêt du programme, pour écrire la fin de l'enregistrement.
+     *
+     * @return Le journal, inactif si aucune propriété n'est définie
+     */
+    public static InputJournal fromProperties() {
+        var record = System.getProperty(RECORD_PROPERTY);
+        var replay = System.getProperty(REPLAY_PROPERTY);
+        InputJournal journal;
+        try {
+            journal = new InputJournal(
+                    Objects.nonNull(record)
+                    ? new InputRecorder(Files.newOutputStream(Path.of(record)))
+                    : null,
+                    Objects.nonNull(replay)
+                    ? new InputReplayer(Files.newInputStream(Path.of(replay)))
+                    : null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (journal.isActive()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::closeQuietly, "cube-journal"));
+        }
+        return journal;
+    }
+
+    /**
+     * Indiquer si le journal enregistre ou rejoue les entrées.
+     *
+     * @return La valeur <code>true</code> si un enregistreur ou un rejoueur
+     * est défini
+     */
+    public boolean isActive() {
+        return Objects.nonNull(recorder) || Objects.nonNull(replayer);
+    }
+
+    /**
+     * Imposer les entrées rejouées du tour, si un rejoueur est défini. Appelé
+     * après la synchronisation du gestionnaire des entrées.
+     *
+     * @param inputs Gestionnaire des entrées
+     */
+    public void replay(final InputManager inputs) {
+        if (Objects.nonNull(replayer)) {
+            try {
+                replayer.apply(inputs);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Vérifier puis enregistrer l'empreinte de la simulation et les entrées
+     * du tour, si le journal est actif. Appelé après la mise à jour des
+     * systèmes, au point de synchronisation.
+     *
+     * @param inputs Gestionnaire des entrées
+     * @param entities Gestionnaire d'entités
+     */
+    public void record(final InputManager inputs, final EntityManager entities) {
+        if (isActive()) {
+            var checksum = entities.checksum();
+            if (Objects.nonNull(replayer)) {
+                replayer.verify(checksum);
+            }
+            if (Objects.nonNull(recorder)) {
+                try {
+                    recorder.record(inputs, checksum);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Accesseur, obtenir le premier tour divergent du rejeu.
+     *
+     * @return Le numéro du tour, ou <code>-1</code> si la simulation n'a pas
+     * divergé ou si aucune entrée n'est rejouée
+     */
+    public long getDivergence() {
+        return Objects.nonNull(replayer) ? replayer.getDivergence() : -1L;
+    }
+
+    /**
+     * Accesseur, obtenir l'enregistreur des entrées.
+     *
+     * @return L'enregistreur, peut être <code>null</code>
+     */
+    public InputRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Accesseur, obtenir le rejoueur des entrées.
+     *
+     * @return Le rejoueur, peut être <code>null</code>
+     */
+    public InputReplayer getReplayer() {
+        return replayer;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (Objects.nonNull(recorder)) {
+            recorder.close();
+        }
+        if (Objects.nonNull(replayer)) {
+            replayer.close();
+        }
+    }
+
+    /**
+     * Fermer le journal à l'arrêt du programme, sans propager d'erreur.
+     */
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+}
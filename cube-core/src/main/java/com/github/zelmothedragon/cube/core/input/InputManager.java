@@ -8,6 +8,12 @@ import java.util.Set;
  * Gestionnaire des entrées du joueur. Une instance unique de cette classe est
  * requise pour le fonctionnement de l'application. Le gestionnaire doit être
  * accessible depuis le conteneur du jeu.
+ * <p>
+ * Les événements des périphériques arrivent à tout moment, hors de la boucle
+ * principale. L'état des touches et la position du curseur sont figés une fois
+ * par tour, lors de la synchronisation : tous les systèmes d'un même tour
+ * voient le même état, ce qui permet d'enregistrer et de rejouer une partie à
+ * l'identique.
  *
  * @see GameContainer
  *
@@ -21,14 +27,28 @@ public final class InputManager {
     private final Set<Key> keys;
 
     /**
-     * Position abcisse du curseur.
+     * État figé des touches lors de la dernière synchronisation. Le bit de
+     * rang <code>GamePad.ordinal()</code> indique une touche appuyée.
      */
-    private double cursorX;
+    private volatile int state;
 
     /**
-     * Position ordonnée du curseur.
+     * Dernière position reçue du curseur, hors de la boucle principale. Les
+     * deux coordonnées entières sont regroupées afin d'être lues ensemble :
+     * l'abcisse dans les 32 bits de poids fort, l'ordonnée dans les 32 bits de
+     * poids faible.
      */
-    private double cursorY;
+    private volatile long cursor;
+
+    /**
+     * Position abcisse figée du curseur lors de la dernière synchronisation.
+     */
+    private volatile int cursorX;
+
+    /**
+     * Position ordonnée figée du curseur lors de la dernière synchronisation.
+     */
+    private volatile int cursorY;
 
     /**
      * Constructeur. Construit un gestionnaire des entrées du joueur, pour le
@@ -37,15 +57,59 @@ public final class InputManager {
      */
     public InputManager() {
         this.keys = new HashSet<>(GamePad.values().length);
-        this.cursorX = 0.0;
-        this.cursorY = 0.0;
+        this.state = 0;
+        this.cursor = 0L;
+        this.cursorX = 0;
+        this.cursorY = 0;
     }
 
     /**
-     * Synchroniser toutes les touches durant la phase de mise à jour du jeu.
+     * Synchroniser toutes les touches et le curseur durant la phase de mise à
+     * jour du jeu.
      */
     public void update() {
+        var pressed = 0;
+        for (var key : keys) {
+            if (key.isPressed()) {
+                pressed |= mask(key.getName());
+            }
+        }
+        state = pressed;
+        var moved = cursor;
+        cursorX = (int) (moved >> Integer.SIZE);
+        cursorY = (int) moved;
+    }
 
+    /**
+     * Accesseur, obtenir l'état figé de toutes les touches.
+     *
+     * @return Le masque des touches appuyées, le bit de rang
+     * <code>GamePad.ordinal()</code> indique une touche appuyée
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Mutateur, forcer l'état figé de toutes les touches jusqu'à la prochaine
+     * synchronisation, par exemple pour rejouer une partie enregistrée.
+     *
+     * @param state Masque des touches appuyées
+     */
+    public void setState(final int state) {
+        this.state = state;
+    }
+
+    /**
+     * Mutateur, forcer la position figée du curseur jusqu'à la prochaine
+     * synchronisation, par exemple pour rejouer une partie enregistrée.
+     *
+     * @param cursorX Position abcisse
+     * @param cursorY Position ordonnée
+     */
+    public void setCursor(final int cursorX, final int cursorY) {
+        this.cursorX = cursorX;
+        this.cursorY = cursorY;
     }
 
     /**
@@ -57,12 +121,7 @@ public final class InputManager {
      * <code>false</code>
      */
     public boolean isKeyPressed(final GamePad name) {
-        return keys
-                .stream()
-                .filter(k -> Objects.equals(k.getName(), name))
-                .findFirst()
-                .orElse(Key.EMPTY)
-                .isPressed();
+        return (state & mask(name)) != 0;
     }
 
     /**
@@ -74,12 +133,7 @@ public final class InputManager {
      * <code>false</code>
      */
     public boolean isKeyReleased(final GamePad name) {
-        return !keys
-                .stream()
-                .filter(k -> Objects.equals(k.getName(), name))
-                .findFirst()
-                .orElse(Key.EMPTY)
-                .isPressed();
+        return (state & mask(name)) == 0;
     }
 
     /**
@@ -148,32 +202,42 @@ public final class InputManager {
 
     /**
      * Déplacer le curseur. Cette méthode permet le traitement technique hors de
-     * la boucle principale du jeu.
+     * la boucle principale du jeu, la position est prise en compte à la
+     * prochaine synchronisation.
      *
      * @param cursorX Position abcisse
      * @param cursorY Position ordonnée
      */
     public void cursorMoved(final double cursorX, final double cursorY) {
-        this.cursorX = cursorX;
-        this.cursorY = cursorY;
+        this.cursor = ((long) (int) cursorX << Integer.SIZE) | ((int) cursorY & 0xFFFFFFFFL);
     }
 
     /**
-     * Accesseur, obtenir la position du curseur en abcisse.
+     * Accesseur, obtenir la position figée du curseur en abcisse.
      *
      * @return La position du cuseur en abcisse
      */
     public int getCursorX() {
-        return (int) cursorX;
+        return cursorX;
     }
 
     /**
-     * Accesseur, obtenir la position du curseur en ordonnée.
+     * Accesseur, obtenir la position figée du curseur en ordonnée.
      *
      * @return La position du curseur en ordonnée
      */
     public int getCursorY() {
-        return (int) cursorY;
+        return cursorY;
+    }
+
+    /**
+     * Obtenir le masque d'une touche dans l'état figé.
+     *
+     * @param name Nom de la touche
+     * @return Le masque de la touche
+     */
+    private static int mask(final GamePad name) {
+        return 1 << name.ordinal();
     }
 
 }
@@ -0,0 +1,177 @@
+package com.github.zelmothedragon.cube.core.input;
+
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Enregistreur des entrées du joueur. À chaque tour, après la synchronisation
+ * du gestionnaire des entrées, il écrit l'état figé des touches et la position
+ * du curseur dans un journal binaire compact, lisible par
+ * <code>InputReplayer</code>.
+ * <p>
+ * Chaque tour occupe un octet d'indicateurs, suivi uniquement des valeurs qui
+ * ont changé depuis le tour précédent. Une empreinte de l'état de la
+ * simulation peut accompagner un tour, pour vérifier lors du rejeu que la
+ * simulation reste déterministe.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class InputRecorder implements Closeable {
+
+    /**
+     * Signature du journal.
+     */
+    static final int MAGIC = 0x43554245;
+
+    /**
+     * Version du format du journal.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Indicateur d'un changement de l'état des touches.
+     */
+    static final int KEYS = 1;
+
+    /**
+     * Indicateur d'un changement de la position du curseur.
+     */
+    static final int CURSOR = 2;
+
+    /**
+     * Indicateur de la présence d'une empreinte de la simulation.
+     */
+    static final int CHECKSUM = 4;
+
+    /**
+     * Flux du journal.
+     */
+    private final DataOutputStream output;
+
+    /**
+     * État des touches du tour précédent.
+     */
+    private int state;
+
+    /**
+     * Position abcisse du curseur du tour précédent.
+     */
+    private int cursorX;
+
+    /**
+     * Position ordonnée du curseur du tour précédent.
+     */
+    private int cursorY;
+
+    /**
+     * Nombre de tours enregistrés.
+     */
+    private long ticks;
+
+    /**
+     * Constructeur. Écrit l'entête du journal.
+     *
+     * @param output Flux du journal
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public InputRecorder(final OutputStream output) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+        this.state = 0;
+        this.cursorX = 0;
+        this.cursorY = 0;
+        this.ticks = 0L;
+        this.output.writeInt(MAGIC);
+        this.output.writeByte(VERSION);
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("ticks", InputRecorder::getTicks)
+                .apply(this);
+    }
+
+    /**
+     * Enregistrer les entrées d'un tour.
+     *
+     * @param inputs Gestionnaire des entrées, synchronisé pour ce tour
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void record(final InputManager inputs) throws IOException {
+        write(inputs, 0, 0L);
+    }
+
+    /**
+     * Enregistrer les entrées d'un tour et l'empreinte de la simulation à la
+     * fin de ce tour.
+     *
+     * @param inputs Gestionnaire des entrées, synchronisé pour ce tour
+     * @param checksum Empreinte de la simulation
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void record(final InputManager inputs, final long checksum) throws IOException {
+        write(inputs, CHECKSUM, checksum);
+    }
+
+    /**
+     * Accesseur, obtenir le nombre de tours enregistrés.
+     *
+     * @return Le nombre de tours
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+    /**
+     * Écrire un tour dans le journal.
+     *
+     * @param inputs Gestionnaire des entrées
+     * @param flags Indicateurs supplémentaires
+     * @param checksum Empreinte de la simulation, si indiquée
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    private void write(
+            final InputManager inputs,
+            final int flags,
+            final long checksum) throws IOException {
+
+        var current = inputs.getState();
+        var x = inputs.getCursorX();
+        var y = inputs.getCursorY();
+
+        var changes = flags;
+        if (current != state) {
+            changes |= KEYS;
+        }
+        if (x != cursorX || y != cursorY) {
+            changes |= CURSOR;
+        }
+
+        output.writeByte(changes);
+        if ((changes & KEYS) != 0) {
+            output.writeInt(current);
+        }
+        if ((changes & CURSOR) != 0) {
+            output.writeInt(x);
+            output.writeInt(y);
+        }
+        if ((changes & CHECKSUM) != 0) {
+            output.writeLong(checksum);
+        }
+
+        state = current;
+        cursorX = x;
+        cursorY = y;
+        ticks++;
+    }
+
+}
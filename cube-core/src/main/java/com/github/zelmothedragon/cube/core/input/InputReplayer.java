@@ -0,0 +1,193 @@
+package com.github.zelmothedragon.cube.core.input;
+
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Rejoueur des entrées du joueur. Il lit un journal écrit par
+ * <code>InputRecorder</code> et impose, tour par tour, l'état enregistré au
+ * gestionnaire des entrées. Les empreintes enregistrées sont comparées à
+ * celles de la simulation rejouée pour détecter toute divergence.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class InputReplayer implements Closeable {
+
+    /**
+     * Flux du journal.
+     */
+    private final DataInputStream input;
+
+    /**
+     * État des touches du tour courant.
+     */
+    private int state;
+
+    /**
+     * Position abcisse du curseur du tour courant.
+     */
+    private int cursorX;
+
+    /**
+     * Position ordonnée du curseur du tour courant.
+     */
+    private int cursorY;
+
+    /**
+     * Indique si une empreinte est enregistrée pour le tour courant.
+     */
+    private boolean checked;
+
+    /**
+     * Empreinte enregistrée pour le tour courant.
+     */
+    private long checksum;
+
+    /**
+     * Nombre de tours rejoués.
+     */
+    private long ticks;
+
+    /**
+     * Premier tour divergent, <code>-1</code> si aucun.
+     */
+    private long divergence;
+
+    /**
+     * Indique si la fin du journal est atteinte.
+     */
+    private boolean finished;
+
+    /**
+     * Constructeur. Lit et vérifie l'entête du journal.
+     *
+     * @param input Flux du journal
+     * @throws IOException En cas d'erreur de lecture ou de journal invalide
+     */
+    public InputReplayer(final InputStream input) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(input));
+        this.state = 0;
+        this.cursorX = 0;
+        this.cursorY = 0;
+        this.checked = false;
+        this.checksum = 0L;
+        this.ticks = 0L;
+        this.divergence = -1L;
+        this.finished = false;
+        if (this.input.readInt() != InputRecorder.MAGIC) {
+            throw new IOException("Invalid input log");
+        }
+        var version = this.input.readUnsignedByte();
+        if (version != InputRecorder.VERSION) {
+            throw new IOException("Unsupported input log version: " + version);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("ticks", InputReplayer::getTicks)
+                .thenWith("divergence", InputReplayer::getDivergence)
+                .thenWith("finished", InputReplayer::isFinished)
+                .apply(this);
+    }
+
+    /**
+     * Rejouer les entrées du tour suivant. Appelé après la synchronisation du
+     * gestionnaire des entrées, qu'il remplace.
+     *
+     * @param inputs Gestionnaire des entrées
+     * @return La valeur <code>false</code> si la fin du journal est atteinte,
+     * l'état du dernier tour est alors conservé
+     * @throws IOException En cas d'erreur de lecture
+     */
+    public boolean apply(final InputManager inputs) throws IOException {
+        if (!finished) {
+            read();
+        }
+        inputs.setState(state);
+        inputs.setCursor(cursorX, cursorY);
+        return !finished;
+    }
+
+    /**
+     * Comparer l'empreinte de la simulation à la fin du tour rejoué à celle
+     * enregistrée. Sans empreinte enregistrée, la comparaison réussit.
+     *
+     * @param actual Empreinte de la simulation rejouée
+     * @return La valeur <code>true</code> si les empreintes concordent
+     */
+    public boolean verify(final long actual) {
+        var same = finished || !checked || actual == checksum;
+        if (!same && divergence < 0L) {
+            divergence = ticks - 1;
+        }
+        return same;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre de tours rejoués.
+     *
+     * @return Le nombre de tours
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Accesseur, obtenir le premier tour divergent.
+     *
+     * @return Le numéro du tour, ou <code>-1</code> si la simulation n'a pas
+     * divergé
+     */
+    public long getDivergence() {
+        return divergence;
+    }
+
+    /**
+     * Accesseur, indiquer si la fin du journal est atteinte.
+     *
+     * @return La valeur <code>true</code> si tous les tours sont rejoués
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Lire le tour suivant du journal.
+     *
+     * @throws IOException En cas d'erreur de lecture
+     */
+    private void read() throws IOException {
+        int flags;
+        try {
+            flags = input.readUnsignedByte();
+        } catch (EOFException ex) {
+            finished = true;
+            return;
+        }
+        if ((flags & InputRecorder.KEYS) != 0) {
+            state = input.readInt();
+        }
+        if ((flags & InputRecorder.CURSOR) != 0) {
+            cursorX = input.readInt();
+            cursorY = input.readInt();
+        }
+        checked = (flags & InputRecorder.CHECKSUM) != 0;
+        if (checked) {
+            checksum = input.readLong();
+        }
+        ticks++;
+    }
+
+}
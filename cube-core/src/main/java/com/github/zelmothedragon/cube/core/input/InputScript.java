@@ -0,0 +1,197 @@
+package com.github.zelmothedragon.cube.core.input;
+
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Script d'entrées du joueur. Il décrit les touches appuyées et relâchées à
+ * des numéros de trame précis, pour rejouer une partie de manière
+ * reproductible sans clavier.
+ * <p>
+ * Un script s'écrit aussi sous forme textuelle, une suite d'événements séparés
+ * par des virgules : <code>10+RIGHT,100+SELECT,101-SELECT</code> appuie sur
+ * <code>RIGHT</code> à la trame 10, puis appuie et relâche
+ * <code>SELECT</code> aux trames 100 et 101.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class InputScript {
+
+    /**
+     * Premier code technique des touches virtuelles du script, décroissant
+     * selon le rang de la touche pour ne pas entrer en conflit avec les codes
+     * des claviers.
+     */
+    private static final int VIRTUAL_KEY_CODE = -1;
+
+    /**
+     * Événement du script.
+     */
+    private static final class Event {
+
+        /**
+         * Numéro de trame.
+         */
+        private final long frame;
+
+        /**
+         * Touche concernée.
+         */
+        private final GamePad key;
+
+        /**
+         * Touche appuyée ou relâchée.
+         */
+        private final boolean pressed;
+
+        /**
+         * Constructeur.
+         *
+         * @param frame Numéro de trame
+         * @param key Touche concernée
+         * @param pressed Touche appuyée ou relâchée
+         */
+        private Event(final long frame, final GamePad key, final boolean pressed) {
+            this.frame = frame;
+            this.key = key;
+            this.pressed = pressed;
+        }
+
+    }
+
+    /**
+     * Événements du script, triés par numéro de trame.
+     */
+    private final List<Event> events;
+
+    /**
+     * Position du prochain événement à appliquer.
+     */
+    private int next;
+
+    /**
+     * Constructeur. Construit un script vide.
+     */
+    public InputScript() {
+        this.events = new ArrayList<>();
+        this.next = 0;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("events", (InputScript s) -> s.events.size())
+                .apply(this);
+    }
+
+    /**
+     * Lire un script sous forme textuelle.
+     *
+     * @param text Événements séparés par des virgules, au format
+     * <code>trame+TOUCHE</code> ou <code>trame-TOUCHE</code>
+     * @return Le script
+     */
+    public static InputScript parse(final String text) {
+        var script = new InputScript();
+        for (var token : text.split(",")) {
+            var event = token.trim();
+            if (event.isEmpty()) {
+                continue;
+            }
+            var sign = Math.max(event.indexOf('+'), event.indexOf('-'));
+            if (sign <= 0) {
+                throw new IllegalArgumentException("Invalid input event: " + event);
+            }
+            var frame = Long.parseLong(event.substring(0, sign));
+            var key = GamePad.valueOf(event.substring(sign + 1).toUpperCase(Locale.ROOT));
+            if (event.charAt(sign) == '+') {
+                script.press(frame, key);
+            } else {
+                script.release(frame, key);
+            }
+        }
+        return script;
+    }
+
+    /**
+     * Appuyer sur une touche à une trame.
+     *
+     * @param frame Numéro de trame
+     * @param key Touche
+     * @return Ce script, pour chaîner les appels
+     */
+    public InputScript press(final long frame, final GamePad key) {
+        return add(new Event(frame, key, true));
+    }
+
+    /**
+     * Relâcher une touche à une trame.
+     *
+     * @param frame Numéro de trame
+     * @param key Touche
+     * @return Ce script, pour chaîner les appels
+     */
+    public InputScript release(final long frame, final GamePad key) {
+        return add(new Event(frame, key, false));
+    }
+
+    /**
+     * Associer les touches du script à des touches virtuelles du gestionnaire
+     * des entrées et revenir au début du script. Les touches utilisées par le
+     * script ne doivent pas être déjà associées dans le gestionnaire.
+     *
+     * @param inputs Gestionnaire des entrées
+     */
+    public void bind(final InputManager inputs) {
+        Set<GamePad> keys = EnumSet.noneOf(GamePad.class);
+        events.forEach(e -> keys.add(e.key));
+        keys.forEach(k -> inputs.assign(k, keyCode(k)));
+        next = 0;
+    }
+
+    /**
+     * Appliquer les événements d'une trame au gestionnaire des entrées. Les
+     * trames doivent être appliquées dans l'ordre croissant.
+     *
+     * @param frame Numéro de trame
+     * @param inputs Gestionnaire des entrées, préalablement associé
+     */
+    public void apply(final long frame, final InputManager inputs) {
+        while (next < events.size() && events.get(next).frame <= frame) {
+            var event = events.get(next++);
+            if (event.pressed) {
+                inputs.keyPressed(keyCode(event.key));
+            } else {
+                inputs.keyReleased(keyCode(event.key));
+            }
+        }
+    }
+
+    /**
+     * Ajouter un événement en conservant l'ordre des trames.
+     *
+     * @param event Nouvel événement
+     * @return Ce script, pour chaîner les appels
+     */
+    private InputScript add(final Event event) {
+        events.add(event);
+        events.sort(Comparator.comparingLong(e -> e.frame));
+        return this;
+    }
+
+    /**
+     * Obtenir le code technique de la touche virtuelle d'une touche.
+     *
+     * @param key Touche
+     * @return Le code technique
+     */
+    private static int keyCode(final GamePad key) {
+        return VIRTUAL_KEY_CODE - key.ordinal();
+    }
+
+}
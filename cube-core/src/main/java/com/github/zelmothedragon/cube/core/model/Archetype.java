@@ -0,0 +1,320 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import com.github.zelmothedragon.cube.core.util.lang.Cast;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Archétype d'entité. Un archétype regroupe toutes les entités possédant
+ * exactement le même ensemble de types de composant. Les composants sont
+ * rangés de manière contiguë par type, sous forme de colonnes : la ligne
+ * <code>i</code> de chaque colonne correspond à l'entité <code>i</code> de
+ * l'archétype. Ce stockage permet aux systèmes de parcourir les composants
+ * sans passer par le dictionnaire de chaque entité. Les colonnes sont le seul
+ * stockage des composants des entités rattachées, les vues par type (voir
+ * <code>ComponentStore</code>) en sont dérivées.
+ * <p>
+ * Les colonnes renvoyées sont les tableaux internes, seules les lignes de
+ * <code>0</code> à <code>size() - 1</code> sont valides. Un archétype est
+ * modifié uniquement par le gestionnaire d'entités.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class Archetype {
+
+    /**
+     * Capacité initiale d'un archétype.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Ensemble des types de composant de l'archétype.
+     */
+    private final Set<Class<? extends Component>> signature;
+
+    /**
+     * Index des colonnes par type de composant.
+     */
+    private final Map<Class<? extends Component>, Integer> columnIndex;
+
+    /**
+     * Transitions vers l'archétype obtenu en ajoutant un type de composant.
+     */
+    private final Map<Class<? extends Component>, Archetype> addEdges;
+
+    /**
+     * Transitions vers l'archétype obtenu en supprimant un type de composant.
+     */
+    private final Map<Class<? extends Component>, Archetype> removeEdges;
+
+    /**
+     * Colonnes des composants, une colonne par type de composant.
+     */
+    private Component[][] columns;
+
+    /**
+     * Entités de l'archétype, dans l'ordre des lignes.
+     */
+    private Entity[] entities;
+
+    /**
+     * Nombre d'entités de l'archétype.
+     */
+    private int size;
+
+    /**
+     * Constructeur interne. Construit un archétype vide.
+     *
+     * @param signature Ensemble des types de composant
+     */
+    Archetype(final Set<Class<? extends Component>> signature) {
+        this.signature = Set.copyOf(signature);
+        this.columnIndex = new HashMap<>();
+        this.addEdges = new HashMap<>();
+        this.removeEdges = new HashMap<>();
+        this.columns = new Component[this.signature.size()][INITIAL_CAPACITY];
+        this.entities = new Entity[INITIAL_CAPACITY];
+        this.size = 0;
+
+        var column = 0;
+        for (var type : this.signature) {
+            columnIndex.put(type, column++);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("signature", Archetype::getSignature)
+                .thenWith("size", Archetype::size)
+                .apply(this);
+    }
+
+    /**
+     * Vérifier que cet archétype possède un type de composant.
+     *
+     * @param type Type de composant
+     * @return La valeur <code>true</code> si le type est présent
+     */
+    public boolean contains(final Class<? extends Component> type) {
+        return columnIndex.containsKey(type);
+    }
+
+    /**
+     * Vérifier que cet archétype possède tous les types de composant.
+     *
+     * @param types Types de composant
+     * @return La valeur <code>true</code> si tous les types sont présents
+     */
+    public boolean containsAll(final Collection<Class<? extends Component>> types) {
+        return signature.containsAll(types);
+    }
+
+    /**
+     * Obtenir la colonne d'un type de composant. Il s'agit du tableau interne,
+     * seules les lignes de <code>0</code> à <code>size() - 1</code> sont
+     * valides.
+     *
+     * @param type Type de composant
+     * @return La colonne, ou <code>null</code> si le type est absent
+     */
+    public Component[] getColumn(final Class<? extends Component> type) {
+        var column = columnIndex.get(type);
+        return Objects.isNull(column) ? null : columns[column];
+    }
+
+    /**
+     * Obtenir un composant.
+     *
+     * @param <C> Type générique de composant
+     * @param type Type de composant
+     * @param row Ligne de l'entité
+     * @return Le composant, ou <code>null</code> si le type est absent
+     */
+    public <C extends Component> C getComponent(final Class<C> type, final int row) {
+        var column = getColumn(type);
+        return Objects.isNull(column) ? null : Cast.<C>unchecked(column[row]);
+    }
+
+    /**
+     * Obtenir une entité de l'archétype.
+     *
+     * @param row Ligne de l'entité
+     * @return L'entité
+     */
+    public Entity getEntity(final int row) {
+        return entities[row];
+    }
+
+    /**
+     * Accesseur, obtenir l'ensemble des types de composant.
+     *
+     * @return L'ensemble immuable des types de composant
+     */
+    public Set<Class<? extends Component>> getSignature() {
+        return signature;
+    }
+
+    /**
+     * Obtenir le nombre d'entités de l'archétype.
+     *
+     * @return Le nombre d'entités
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ajouter une entité détachée à la fin de l'archétype. Les composants
+     * sont lus depuis la table de l'entité.
+     *
+     * @param entity Entité à ajouter
+     */
+    void add(final Entity entity) {
+        var row = append(entity);
+        var data = entity.getData();
+        for (var entry : columnIndex.entrySet()) {
+            columns[entry.getValue()][row] = data.get(entry.getKey());
+        }
+    }
+
+    /**
+     * Déplacer une ligne vers un autre archétype, après l'ajout ou la
+     * suppression d'un type de composant. Les composants communs sont copiés
+     * une seule fois, directement de colonne à colonne.
+     *
+     * @param row Ligne à déplacer
+     * @param target Archétype cible
+     * @param type Type de composant ajouté, ou <code>null</code>
+     * @param component Composant ajouté, ou <code>null</code>
+     */
+    void move(
+            final int row,
+            final Archetype target,
+            final Class<? extends Component> type,
+            final Component component) {
+
+        var entity = entities[row];
+        var targetRow = target.append(entity);
+        for (var entry : target.columnIndex.entrySet()) {
+            var key = entry.getKey();
+            target.columns[entry.getValue()][targetRow] = key == type
+                    ? component
+                    : columns[columnIndex.get(key)][row];
+        }
+        remove(row);
+        entity.setLocation(target, targetRow);
+    }
+
+    /**
+     * Supprimer une ligne. La dernière ligne est déplacée à la place de la
+     * ligne supprimée afin de conserver des colonnes contiguës.
+     *
+     * @param row Ligne à supprimer
+     */
+    void remove(final int row) {
+        var last = size - 1;
+        var removed = entities[row];
+        if (row != last) {
+            var moved = entities[last];
+            entities[row] = moved;
+            for (var column : columns) {
+                column[row] = column[last];
+            }
+            moved.setLocation(this, row);
+        }
+        entities[last] = null;
+        for (var column : columns) {
+            column[last] = null;
+        }
+        removed.setLocation(null, -1);
+        size--;
+    }
+
+    /**
+     * Remplacer un composant.
+     *
+     * @param row Ligne de l'entité
+     * @param type Type de composant
+     * @param component Nouveau composant
+     */
+    void set(final int row, final Class<? extends Component> type, final Component component) {
+        var column = getColumn(type);
+        if (Objects.nonNull(column)) {
+            column[row] = component;
+        }
+    }
+
+    /**
+     * Obtenir la transition mémorisée lors de l'ajout d'un type de composant.
+     *
+     * @param type Type de composant ajouté
+     * @return L'archétype cible, ou <code>null</code> si inconnu
+     */
+    Archetype getAddEdge(final Class<? extends Component> type) {
+        return addEdges.get(type);
+    }
+
+    /**
+     * Mémoriser une transition lors de l'ajout d'un type de composant.
+     *
+     * @param type Type de composant ajouté
+     * @param target Archétype cible
+     */
+    void setAddEdge(final Class<? extends Component> type, final Archetype target) {
+        addEdges.put(type, target);
+    }
+
+    /**
+     * Obtenir la transition mémorisée lors de la suppression d'un type de
+     * composant.
+     *
+     * @param type Type de composant supprimé
+     * @return L'archétype cible, ou <code>null</code> si inconnu
+     */
+    Archetype getRemoveEdge(final Class<? extends Component> type) {
+        return removeEdges.get(type);
+    }
+
+    /**
+     * Mémoriser une transition lors de la suppression d'un type de composant.
+     *
+     * @param type Type de composant supprimé
+     * @param target Archétype cible
+     */
+    void setRemoveEdge(final Class<? extends Component> type, final Archetype target) {
+        removeEdges.put(type, target);
+    }
+
+    /**
+     * Réserver une ligne à la fin de l'archétype pour une entité.
+     *
+     * @param entity Entité à ajouter
+     * @return La ligne réservée
+     */
+    private int append(final Entity entity) {
+        if (size == entities.length) {
+            grow();
+        }
+        entities[size] = entity;
+        entity.setLocation(this, size);
+        return size++;
+    }
+
+    /**
+     * Doubler la capacité de l'archétype.
+     */
+    private void grow() {
+        var capacity = entities.length * 2;
+        entities = Arrays.copyOf(entities, capacity);
+        for (var i = 0; i < columns.length; i++) {
+            columns[i] = Arrays.copyOf(columns[i], capacity);
+        }
+    }
+
+}
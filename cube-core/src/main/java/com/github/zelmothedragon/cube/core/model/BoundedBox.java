@@ -9,11 +9,11 @@ import com.github.zelmothedragon.cube.core.util.lang.ToString;
 import java.util.Objects;
 
 /**
- * Rectangle 2D de délimitation d'une entité.
+ * Rectangle 2D de délimitation d'une entité. Ce composant est recyclable.
  *
  * @author MOSELLE Maxime
  */
-public class BoundedBox implements Component {
+public class BoundedBox implements Component, Poolable {
 
     /**
      * Zone de délimitation d'une entité.
@@ -97,6 +97,15 @@ public class BoundedBox implements Component {
         return Objects.hash(bound, collision, block);
     }
 
+    @Override
+    public long checksum() {
+        // Le rang de la nature, l'empreinte d'une énumération varie
+        var sum = (long) bound.hashCode();
+        sum = sum * 31 + collision.hashCode();
+        sum = sum * 31 + vector.hashCode();
+        return sum * 31 + block.ordinal();
+    }
+
     @Override
     public boolean equals(final Object obj) {
         return Equal
@@ -115,6 +124,14 @@ public class BoundedBox implements Component {
                 .apply(this);
     }
 
+    @Override
+    public void reset() {
+        this.bound.set(0, 0, 0, 0);
+        this.collision.set(0, 0, 0, 0);
+        this.vector.reset();
+        this.block = Block.VOID;
+    }
+
     /**
      * Déplacer suivant le vecteur.
      */
@@ -39,6 +39,11 @@ public final class Camera implements Component {
         return Objects.hash(xp, yp);
     }
 
+    @Override
+    public long checksum() {
+        return 31L * xp + yp;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         return Equal
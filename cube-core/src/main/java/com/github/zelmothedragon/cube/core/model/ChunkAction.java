@@ -0,0 +1,20 @@
+package com.github.zelmothedragon.cube.core.model;
+
+/**
+ * Représente un traitement appliqué à un bloc contigu de lignes d'un
+ * archétype.
+ *
+ * @author MOSELLE Maxime
+ */
+@FunctionalInterface
+public interface ChunkAction {
+
+    /**
+     * Traiter un bloc de lignes d'un archétype.
+     *
+     * @param archetype Archétype parcouru
+     * @param from Première ligne du bloc, incluse
+     * @param to Dernière ligne du bloc, exclue
+     */
+    void apply(Archetype archetype, int from, int to);
+}
@@ -25,6 +25,20 @@ public interface Component {
         return Objects.equals(getClass(), EmptyComponent.class);
     }
 
+    /**
+     * Calculer l'empreinte de l'état du composant, identique d'une exécution
+     * à l'autre, pour vérifier le déterminisme lors du rejeu des entrées (voir
+     * <code>EntityManager.checksum</code>). Par défaut, le composant ne
+     * contribue que par sa présence. Un composant dont l'état évolue avec la
+     * simulation redéfinit cette méthode, sans y inclure d'état lié à
+     * l'horloge ni d'empreinte d'identité d'objet.
+     *
+     * @return L'empreinte
+     */
+    default long checksum() {
+        return 0L;
+    }
+
     /**
      * Composant vide. Pas de comportement particulier.
      */
@@ -0,0 +1,448 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import com.github.zelmothedragon.cube.core.util.lang.Cast;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Stockage des composants d'un même type. Un type de composant est stocké de
+ * l'une des deux manières suivantes, choisie à son enregistrement.
+ * <p>
+ * Par défaut, les composants sont stockés uniquement dans les colonnes des
+ * archétypes (voir <code>Archetype</code>) : ce stockage référence les
+ * archétypes qui possèdent le type et parcourt leurs colonnes, sans copie des
+ * composants. Il est mis à jour par le gestionnaire d'entités à la création
+ * d'un archétype. Le test de présence et l'accès au composant d'une entité se
+ * font en temps constant, par la ligne de l'entité dans son archétype ; l'accès
+ * par position parcourt les archétypes.
+ * <p>
+ * Un type ajouté et retiré fréquemment, comme un composant marqueur, peut être
+ * stocké dans un ensemble creux (voir <code>EntityManager.registerSparse</code>).
+ * Les composants et leurs entités sont alors rangés de manière contiguë dans
+ * des tableaux denses ; un tableau creux, indexé par l'indice d'emplacement
+ * des entités, donne la position de chaque entité dans les tableaux denses.
+ * L'ajout, la suppression, le test de présence, l'accès et l'accès par
+ * position se font en temps constant, sans déplacer la ligne de l'entité dans
+ * son archétype. Le type ne figure alors dans la signature d'aucun archétype.
+ * <p>
+ * Dans les deux cas, l'ordre de parcours n'est pas stable.
+ *
+ * @param <C> Type générique de composant
+ * @author MOSELLE Maxime
+ */
+public final class ComponentStore<C extends Component> {
+
+    /**
+     * Capacité initiale de la liste des archétypes.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Capacité initiale des tableaux denses de l'ensemble creux.
+     */
+    private static final int INITIAL_DENSE_CAPACITY = 16;
+
+    /**
+     * Gestionnaire d'entités propriétaire.
+     */
+    private final EntityManager manager;
+
+    /**
+     * Type de composant de la vue.
+     */
+    private final Class<C> type;
+
+    /**
+     * Archétypes possédant le type de composant, dans l'ordre de création.
+     */
+    private Archetype[] archetypes;
+
+    /**
+     * Nombre d'archétypes possédant le type de composant.
+     */
+    private int archetypeCount;
+
+    /**
+     * Indique si les composants sont stockés dans l'ensemble creux plutôt que
+     * dans les colonnes des archétypes.
+     */
+    private boolean sparse;
+
+    /**
+     * Entités possédant le composant, de manière contiguë, pour l'ensemble
+     * creux.
+     */
+    private Entity[] dense;
+
+    /**
+     * Composants, dans le même ordre que les entités, pour l'ensemble creux.
+     */
+    private Component[] components;
+
+    /**
+     * Nombre de composants de l'ensemble creux.
+     */
+    private int denseSize;
+
+    /**
+     * Position de chaque entité dans les tableaux denses, indexée par
+     * l'indice d'emplacement de l'entité. La valeur <code>0</code> indique une
+     * entité absente, les positions sont donc décalées de un.
+     */
+    private int[] positions;
+
+    /**
+     * Vue en lecture seule des entités possédant le composant.
+     */
+    private final Set<Entity> view;
+
+    /**
+     * Constructeur.
+     *
+     * @param manager Gestionnaire d'entités propriétaire
+     * @param type Type de composant de la vue
+     */
+    ComponentStore(final EntityManager manager, final Class<C> type) {
+        this.manager = manager;
+        this.type = type;
+        this.archetypes = new Archetype[INITIAL_CAPACITY];
+        this.archetypeCount = 0;
+        this.sparse = false;
+        this.dense = new Entity[0];
+        this.components = new Component[0];
+        this.denseSize = 0;
+        this.positions = new int[0];
+        this.view = new EntitySet();
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("type", (ComponentStore<?> s) -> s.type)
+                .thenWith("size", ComponentStore::size)
+                .apply(this);
+    }
+
+    /**
+     * Accesseur, obtenir le type de composant de la vue.
+     *
+     * @return Le type de composant
+     */
+    public Class<C> getType() {
+        return type;
+    }
+
+    /**
+     * Indiquer si les composants sont stockés dans un ensemble creux.
+     *
+     * @return La valeur <code>true</code> pour un ensemble creux, la valeur
+     * <code>false</code> pour les colonnes des archétypes
+     */
+    public boolean isSparse() {
+        return sparse;
+    }
+
+    /**
+     * Obtenir le nombre de composants.
+     *
+     * @return Le nombre de composants
+     */
+    public int size() {
+        if (sparse) {
+            return denseSize;
+        }
+        var size = 0;
+        for (var i = 0; i < archetypeCount; i++) {
+            size += archetypes[i].size();
+        }
+        return size;
+    }
+
+    /**
+     * Vérifier qu'une entité possède le composant.
+     *
+     * @param entity Entité rattachée au gestionnaire
+     * @return La valeur <code>true</code> si le composant existe
+     */
+    public boolean contains(final Entity entity) {
+        if (sparse) {
+            var position = position(EntityHandle.getIndex(entity.getHandle()));
+            return position >= 0 && dense[position] == entity;
+        }
+        return entity.getManager() == manager
+                && entity.getArchetype().contains(type);
+    }
+
+    /**
+     * Vérifier qu'une entité possède le composant par son identifiant
+     * compact.
+     *
+     * @param handle Identifiant compact
+     * @return La valeur <code>true</code> si le composant existe
+     */
+    public boolean contains(final long handle) {
+        return manager.isAlive(handle) && contains(manager.get(handle));
+    }
+
+    /**
+     * Obtenir le composant d'une entité.
+     *
+     * @param entity Entité rattachée au gestionnaire
+     * @return Le composant, ou <code>null</code> s'il n'existe pas
+     */
+    public C get(final Entity entity) {
+        if (sparse) {
+            var position = position(EntityHandle.getIndex(entity.getHandle()));
+            return position >= 0 && dense[position] == entity
+                    ? Cast.<C>unchecked(components[position])
+                    : null;
+        }
+        return entity.getManager() == manager
+                ? entity.getArchetype().getComponent(type, entity.getRow())
+                : null;
+    }
+
+    /**
+     * Obtenir le composant d'une entité par son identifiant compact.
+     *
+     * @param handle Identifiant compact
+     * @return Le composant, ou <code>null</code> s'il n'existe pas
+     */
+    public C get(final long handle) {
+        return manager.isAlive(handle) ? get(manager.get(handle)) : null;
+    }
+
+    /**
+     * Obtenir l'entité rangée à une position. Les archétypes sont parcourus
+     * jusqu'à la position, l'accès est direct pour un ensemble creux.
+     *
+     * @param position Position, entre <code>0</code> et <code>size()</code>
+     * @return L'entité
+     */
+    public Entity getEntity(final int position) {
+        if (sparse) {
+            return dense[Objects.checkIndex(position, denseSize)];
+        }
+        var remaining = Objects.checkIndex(position, size());
+        var i = 0;
+        while (remaining >= archetypes[i].size()) {
+            remaining -= archetypes[i++].size();
+        }
+        return archetypes[i].getEntity(remaining);
+    }
+
+    /**
+     * Obtenir le composant rangé à une position.
+     *
+     * @param position Position, entre <code>0</code> et <code>size()</code>
+     * @return Le composant
+     */
+    public C getComponent(final int position) {
+        if (sparse) {
+            return Cast.<C>unchecked(components[Objects.checkIndex(position, denseSize)]);
+        }
+        return get(getEntity(position));
+    }
+
+    /**
+     * Parcourir les composants et leur entité, colonne par colonne ou de
+     * manière contiguë pour un ensemble creux. Il ne faut pas ajouter ou
+     * supprimer de composant pendant le parcours.
+     *
+     * @param action Traitement appliqué à chaque composant
+     */
+    public void forEach(final BiConsumer<? super Entity, ? super C> action) {
+        if (sparse) {
+            for (var i = 0; i < denseSize; i++) {
+                action.accept(dense[i], Cast.<C>unchecked(components[i]));
+            }
+            return;
+        }
+        for (var i = 0; i < archetypeCount; i++) {
+            var archetype = archetypes[i];
+            for (var row = 0; row < archetype.size(); row++) {
+                action.accept(archetype.getEntity(row), archetype.getComponent(type, row));
+            }
+        }
+    }
+
+    /**
+     * Obtenir les entités possédant le composant.
+     *
+     * @return Une vue en lecture seule, toujours à jour
+     */
+    public Set<Entity> asSet() {
+        return view;
+    }
+
+    /**
+     * Référencer un nouvel archétype possédant le type de composant.
+     *
+     * @param archetype Nouvel archétype
+     */
+    void attach(final Archetype archetype) {
+        if (sparse) {
+            throw new IllegalStateException("Sparse component type in archetype: " + type);
+        }
+        if (archetypeCount == archetypes.length) {
+            archetypes = Arrays.copyOf(archetypes, archetypeCount * 2);
+        }
+        archetypes[archetypeCount++] = archetype;
+    }
+
+    /**
+     * Stocker désormais les composants dans un ensemble creux. Le type ne
+     * doit encore figurer dans aucun archétype.
+     */
+    void makeSparse() {
+        if (archetypeCount > 0) {
+            throw new IllegalStateException("Component type already stored in archetypes: " + type);
+        }
+        if (!sparse) {
+            this.sparse = true;
+            this.dense = new Entity[INITIAL_DENSE_CAPACITY];
+            this.components = new Component[INITIAL_DENSE_CAPACITY];
+        }
+    }
+
+    /**
+     * Ajouter ou remplacer le composant d'une entité dans l'ensemble creux.
+     *
+     * @param entity Entité rattachée au gestionnaire
+     * @param component Composant
+     * @return Le composant remplacé, ou <code>null</code> si le composant est
+     * ajouté
+     */
+    Component put(final Entity entity, final Component component) {
+        var index = EntityHandle.getIndex(entity.getHandle());
+        var position = position(index);
+        if (position >= 0) {
+            var previous = components[position];
+            components[position] = component;
+            return previous;
+        }
+        if (index >= positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(index + 1, positions.length * 2));
+        }
+        if (denseSize == dense.length) {
+            dense = Arrays.copyOf(dense, denseSize * 2);
+            components = Arrays.copyOf(components, denseSize * 2);
+        }
+        dense[denseSize] = entity;
+        components[denseSize] = component;
+        denseSize++;
+        positions[index] = denseSize;
+        return null;
+    }
+
+    /**
+     * Supprimer le composant d'une entité de l'ensemble creux. Le dernier
+     * élément prend la place de l'élément supprimé.
+     *
+     * @param entity Entité rattachée au gestionnaire
+     * @return Le composant supprimé, ou <code>null</code> s'il n'existe pas
+     */
+    Component remove(final Entity entity) {
+        var index = EntityHandle.getIndex(entity.getHandle());
+        var position = position(index);
+        if (position < 0 || dense[position] != entity) {
+            return null;
+        }
+        var removed = components[position];
+        var last = denseSize - 1;
+        if (position != last) {
+            var moved = dense[last];
+            dense[position] = moved;
+            components[position] = components[last];
+            positions[EntityHandle.getIndex(moved.getHandle())] = position + 1;
+        }
+        dense[last] = null;
+        components[last] = null;
+        positions[index] = 0;
+        denseSize--;
+        return removed;
+    }
+
+    /**
+     * Obtenir la position d'un indice d'emplacement dans les tableaux denses.
+     *
+     * @param index Indice d'emplacement
+     * @return La position, ou <code>-1</code> si l'emplacement est absent
+     */
+    private int position(final int index) {
+        return index < positions.length ? positions[index] - 1 : -1;
+    }
+
+    /**
+     * Vue en lecture seule des entités possédant le composant.
+     */
+    private final class EntitySet extends AbstractSet<Entity> {
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof Entity && ComponentStore.this.contains((Entity) o);
+        }
+
+        @Override
+        public int size() {
+            return ComponentStore.this.size();
+        }
+
+        @Override
+        public void forEach(final Consumer<? super Entity> action) {
+            // Parcours direct des tableaux, sans itérateur
+            if (sparse) {
+                for (var i = 0; i < denseSize; i++) {
+                    action.accept(dense[i]);
+                }
+                return;
+            }
+            for (var i = 0; i < archetypeCount; i++) {
+                var archetype = archetypes[i];
+                for (var row = 0; row < archetype.size(); row++) {
+                    action.accept(archetype.getEntity(row));
+                }
+            }
+        }
+
+        @Override
+        public Iterator<Entity> iterator() {
+            return new Iterator<>() {
+
+                private int archetype = 0;
+
+                private int row = 0;
+
+                @Override
+                public boolean hasNext() {
+                    if (sparse) {
+                        return row < denseSize;
+                    }
+                    while (archetype < archetypeCount && row >= archetypes[archetype].size()) {
+                        archetype++;
+                        row = 0;
+                    }
+                    return archetype < archetypeCount;
+                }
+
+                @Override
+                public Entity next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return sparse ? dense[row++] : archetypes[archetype].getEntity(row++);
+                }
+
+            };
+        }
+
+    }
+
+}
@@ -1,10 +1,13 @@
 package com.github.zelmothedragon.cube.core.model;
 
-import com.github.zelmothedragon.cube.core.util.lang.Equal;
+import com.github.zelmothedragon.cube.core.util.lang.Cast;
 import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -14,61 +17,112 @@ import java.util.UUID;
  * L'héritage est solution trop rigide et peut évolutif. C'est pourquoi tous les
  * attributs seront stockés dans un dictionnaire de données type
  * <code>java.util.Map</code>.
+ * <p>
+ * Une entité rattachée à un gestionnaire est désignée par son identifiant
+ * compact, attribué lors de l'ajout et invalidé lors de la suppression.
+ * L'égalité entre entités est en revanche l'identité de l'instance, stable
+ * tout au long de sa vie. L'identifiant de type <code>java.util.UUID</code>
+ * n'est qu'un identifiant externe optionnel, généré uniquement à la demande.
  *
  * @author MOSELLE Maxime
  */
 public final class Entity {
 
     /**
-     * Identifiant unique.
+     * Identifiant unique externe, généré à la demande.
      */
-    private final UUID id;
+    private UUID id;
 
     /**
-     * Famille d'entité.
+     * Identifiant compact attribué par le gestionnaire d'entités.
      */
-    private final Family family;
+    private long handle;
 
     /**
-     * Ensemble des propriétés de l'entité.
+     * Famille d'entité. Modifiée uniquement lors du recyclage de l'entité.
+     */
+    private Family family;
+
+    /**
+     * Ensemble des propriétés de l'entité, tant qu'elle n'est rattachée à
+     * aucun gestionnaire.
      */
     private final Map<Class<? extends Component>, Component> data;
 
+    /**
+     * Masque des types de composant, valide uniquement lorsque l'entité est
+     * rattachée à un gestionnaire.
+     */
+    private final BitSet mask;
+
+    /**
+     * Numéro de version de chaque composant, indexé par le numéro de bit du
+     * type de composant. Valide uniquement lorsque l'entité est rattachée à un
+     * gestionnaire.
+     */
+    private long[] versions;
+
+    /**
+     * Gestionnaire d'entités auquel cette entité est rattachée. Permet de
+     * maintenir l'index des composants à jour, peut être <code>null</code>.
+     */
+    private EntityManager manager;
+
+    /**
+     * Indique si l'entité provient du réservoir du gestionnaire d'entités,
+     * auquel cas elle y est recyclée lors de sa suppression.
+     */
+    private boolean pooled;
+
+    /**
+     * Archétype de stockage de l'entité, <code>null</code> si l'entité n'est
+     * pas rattachée à un gestionnaire.
+     */
+    private Archetype archetype;
+
+    /**
+     * Ligne de l'entité dans son archétype.
+     */
+    private int row;
+
     /**
      * Constructeur.Construit une entité sans propriété.
      *
      * @param family Famille d'entité
      */
     public Entity(final Family family) {
-        this.id = UUID.randomUUID();
+        this.id = null;
+        this.handle = EntityHandle.NULL;
         this.family = family;
         this.data = new HashMap<>();
-
+        this.mask = new BitSet();
+        this.versions = new long[0];
+        this.manager = null;
+        this.pooled = false;
+        this.archetype = null;
+        this.row = -1;
     }
 
     @Override
     public int hashCode() {
-        // Pourquoi laissez-vous les IDE générer cette méthode
-        // alors que Java possède déjà la solution ?
-        return Objects.hash(id, family);
+        // L'identifiant compact change lors de l'ajout et de la suppression,
+        // il ne peut servir de clé : l'identité est celle de l'instance
+        return System.identityHashCode(this);
     }
 
     @Override
     public boolean equals(final Object obj) {
-        // Approche fonctionnelle
-        // Parce qu'une méthode ne doit avoir q'un seul 'return'.
-        return Equal
-                .with(Entity::getId)
-                .thenWith(Entity::getFamily)
-                .apply(this, obj);
+        // Deux entités détachées de même famille ne sont jamais égales, les
+        // identifiants compacts doivent être comparés explicitement
+        return this == obj;
     }
 
     @Override
     public String toString() {
         return ToString
-                .with("id", Entity::getId)
+                .with("handle", Entity::getHandle)
                 .thenWith("family", Entity::getFamily)
-                .thenWith("components", e -> e.data.size())
+                .thenWith("components", e -> e.getComponentTypes().size())
                 .apply(this);
     }
 
@@ -79,7 +133,7 @@ public final class Entity {
      * @param component Nouveau composant
      */
     public void addComponent(final Component component) {
-        data.put(component.getClass(), component);
+        addComponent(component.getClass(), component);
     }
 
     /**
@@ -90,7 +144,11 @@ public final class Entity {
      * @param component Nouveau composant
      */
     public void addComponent(final Class<? extends Component> type, final Component component) {
-        data.put(type, component);
+        if (Objects.isNull(manager)) {
+            data.put(type, component);
+        } else {
+            manager.putComponent(this, type, component);
+        }
     }
 
     /**
@@ -100,7 +158,55 @@ public final class Entity {
      * @param type Type de composant
      */
     public <C extends Component> void removeComponent(final Class<C> type) {
-        data.remove(type);
+        if (Objects.isNull(manager)) {
+            data.remove(type);
+        } else {
+            manager.removeComponent(this, type);
+        }
+    }
+
+    /**
+     * Signaler la modification d'un composant de cette entité. Le composant
+     * reçoit un nouveau numéro de version et les requêtes qui suivent ce type
+     * de composant sont notifiées. Sans effet si l'entité n'est rattachée à
+     * aucun gestionnaire ou ne possède pas le composant.
+     *
+     * @param type Type du composant modifié
+     */
+    public void markChanged(final Class<? extends Component> type) {
+        if (Objects.nonNull(manager) && manager.hasComponent(this, type)) {
+            manager.componentChanged(this, type);
+        }
+    }
+
+    /**
+     * Obtenir le numéro de version d'un composant. Le numéro change à chaque
+     * ajout, remplacement ou modification signalée du composant.
+     *
+     * @param type Type du composant
+     * @return Le numéro de version, ou <code>0</code> si le composant n'existe
+     * pas ou si l'entité n'est rattachée à aucun gestionnaire
+     */
+    public long getVersion(final Class<? extends Component> type) {
+        long version;
+        if (Objects.nonNull(manager) && manager.hasComponent(this, type)) {
+            version = manager.getVersion(this, type);
+        } else {
+            version = 0L;
+        }
+        return version;
+    }
+
+    /**
+     * Indiquer si un composant a changé depuis un numéro de version.
+     *
+     * @param type Type du composant
+     * @param version Numéro de version de référence, généralement la valeur de
+     * <code>EntityManager.getVersion()</code> lors du dernier traitement
+     * @return La valeur <code>true</code> si le composant a changé depuis
+     */
+    public boolean isChangedSince(final Class<? extends Component> type, final long version) {
+        return getVersion(type) > version;
     }
 
     /**
@@ -112,7 +218,9 @@ public final class Entity {
      * <code>false</code> dans tous les autres cas
      */
     public <C extends Component> boolean hasComponent(final Class<C> type) {
-        return data.containsKey(type);
+        return Objects.isNull(manager)
+                ? data.containsKey(type)
+                : manager.hasComponent(this, type);
     }
 
     /**
@@ -124,18 +232,55 @@ public final class Entity {
      * retourner la valeur <code>null</code> si le composant n'existe pas
      */
     public <C extends Component> C getComponent(final Class<C> type) {
-        return (C) data.get(type);
+        return Objects.isNull(manager)
+                ? Cast.<C>unchecked(data.get(type))
+                : manager.getComponent(this, type);
     }
 
     /**
-     * Accesseur, obtenir l'identifiant.
+     * Accesseur, obtenir l'identifiant externe. L'identifiant est généré lors
+     * du premier appel.
      *
      * @return L'identifiant unique, ne doit jamais être nul
      */
     public UUID getId() {
+        if (Objects.isNull(id)) {
+            id = UUID.randomUUID();
+            if (Objects.nonNull(manager)) {
+                manager.identified(this);
+            }
+        }
         return id;
     }
 
+    /**
+     * Indiquer si l'identifiant externe a déjà été généré.
+     *
+     * @return La valeur <code>true</code> si l'identifiant externe existe
+     */
+    public boolean hasId() {
+        return Objects.nonNull(id);
+    }
+
+    /**
+     * Accesseur, obtenir l'identifiant compact.
+     *
+     * @return L'identifiant compact, ou <code>EntityHandle.NULL</code> si
+     * l'entité n'est rattachée à aucun gestionnaire
+     */
+    public long getHandle() {
+        return handle;
+    }
+
+    /**
+     * Mutateur, modifier l'identifiant compact.
+     *
+     * @param handle Identifiant compact
+     */
+    void setHandle(final long handle) {
+        this.handle = handle;
+    }
+
     /**
      * Accesseur, obtenir la famille d'entité.
      *
@@ -145,4 +290,139 @@ public final class Entity {
         return family;
     }
 
+    /**
+     * Obtenir les types de composant de cette entité.
+     *
+     * @return Les types de composant, en lecture seule par convention
+     */
+    Set<Class<? extends Component>> getComponentTypes() {
+        return Objects.isNull(manager)
+                ? data.keySet()
+                : manager.getComponentTypes(this);
+    }
+
+    /**
+     * Obtenir les composants portés par l'entité détachée. Les composants
+     * d'une entité rattachée sont rangés dans le gestionnaire d'entités, cette
+     * table est alors vide.
+     *
+     * @return La table des composants, modifiable par le gestionnaire
+     */
+    Map<Class<? extends Component>, Component> getData() {
+        return data;
+    }
+
+    /**
+     * Rattacher ou détacher cette entité d'un gestionnaire d'entités.
+     *
+     * @param manager Gestionnaire d'entités, ou <code>null</code> pour
+     * détacher l'entité
+     */
+    void setManager(final EntityManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Accesseur, obtenir le gestionnaire d'entités de rattachement.
+     *
+     * @return Le gestionnaire d'entités, peut être <code>null</code>
+     */
+    EntityManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Mémoriser l'emplacement de stockage de l'entité.
+     *
+     * @param archetype Archétype de stockage, ou <code>null</code>
+     * @param row Ligne dans l'archétype
+     */
+    void setLocation(final Archetype archetype, final int row) {
+        this.archetype = archetype;
+        this.row = row;
+    }
+
+    /**
+     * Accesseur, obtenir l'archétype de stockage.
+     *
+     * @return L'archétype, peut être <code>null</code>
+     */
+    Archetype getArchetype() {
+        return archetype;
+    }
+
+    /**
+     * Accesseur, obtenir la ligne dans l'archétype de stockage.
+     *
+     * @return La ligne, <code>-1</code> si l'entité n'est pas stockée
+     */
+    int getRow() {
+        return row;
+    }
+
+    /**
+     * Accesseur, obtenir le masque des types de composant.
+     *
+     * @return Le masque, modifiable par le gestionnaire d'entités
+     */
+    BitSet getMask() {
+        return mask;
+    }
+
+    /**
+     * Accesseur, indiquer si l'entité provient du réservoir d'entités.
+     *
+     * @return La valeur <code>true</code> si l'entité est recyclable
+     */
+    boolean isPooled() {
+        return pooled;
+    }
+
+    /**
+     * Mutateur, marquer l'entité comme provenant du réservoir d'entités.
+     *
+     * @param pooled La valeur <code>true</code> si l'entité est recyclable
+     */
+    void setPooled(final boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * Réinitialiser l'entité avant sa réutilisation. L'entité ne doit pas être
+     * rattachée à un gestionnaire.
+     *
+     * @param family Nouvelle famille d'entité
+     */
+    void reset(final Family family) {
+        this.id = null;
+        this.handle = EntityHandle.NULL;
+        this.family = family;
+        this.data.clear();
+        this.mask.clear();
+        Arrays.fill(this.versions, 0L);
+    }
+
+    /**
+     * Obtenir le numéro de version d'un type de composant.
+     *
+     * @param typeId Numéro de bit du type de composant
+     * @return Le numéro de version
+     */
+    long getVersion(final int typeId) {
+        return typeId < versions.length ? versions[typeId] : 0L;
+    }
+
+    /**
+     * Modifier le numéro de version d'un type de composant.
+     *
+     * @param typeId Numéro de bit du type de composant
+     * @param version Le numéro de version
+     */
+    void setVersion(final int typeId, final long version) {
+        if (typeId >= versions.length) {
+            versions = Arrays.copyOf(versions, Math.max(typeId + 1, versions.length * 2));
+        }
+        versions[typeId] = version;
+    }
+
 }
@@ -0,0 +1,170 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Tampon de commandes d'entités. Les systèmes y enregistrent les modifications
+ * de structure (création, destruction, ajout et suppression de composant)
+ * pendant leur traitement. Les commandes sont ensuite appliquées en une seule
+ * fois, dans l'ordre d'enregistrement, à un point de synchronisation par le
+ * gestionnaire des systèmes.
+ * <p>
+ * Ainsi, aucune modification de structure n'a lieu pendant le parcours des
+ * vues du gestionnaire d'entités. L'enregistrement des commandes peut se faire
+ * depuis plusieurs processus.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class EntityCommandBuffer {
+
+    /**
+     * Commandes en attente.
+     */
+    private List<Consumer<EntityManager>> pending;
+
+    /**
+     * Commandes en cours d'exécution. Cette liste est échangée avec la liste
+     * des commandes en attente lors de l'application du tampon.
+     */
+    private List<Consumer<EntityManager>> executing;
+
+    /**
+     * Constructeur par défaut.
+     */
+    public EntityCommandBuffer() {
+        this.pending = new ArrayList<>();
+        this.executing = new ArrayList<>();
+    }
+
+    /**
+     * Ajouter une entité déjà construite.
+     *
+     * @param entity Nouvelle entité
+     */
+    public void create(final Entity entity) {
+        record(m -> m.add(entity));
+    }
+
+    /**
+     * Construire puis ajouter une entité. La construction est elle-même
+     * différée jusqu'au point de synchronisation. La fonction doit renvoyer
+     * une entité détachée, sans l'ajouter au gestionnaire (par exemple
+     * <code>EntityFactory.buildMandelbrot</code>).
+     *
+     * @param supplier Fonction de construction de l'entité
+     */
+    public void create(final Supplier<Entity> supplier) {
+        record(m -> m.add(supplier.get()));
+    }
+
+    /**
+     * Détruire une entité. L'identifiant compact de l'entité est relevé à
+     * l'enregistrement : une entité recyclable peut être supprimée puis
+     * réutilisée avant l'application de la commande, la commande est alors
+     * sans effet sur la nouvelle entité. Une entité qui n'est pas encore
+     * ajoutée est détruite par référence.
+     *
+     * @param entity Entité à détruire
+     */
+    public void destroy(final Entity entity) {
+        var handle = entity.getHandle();
+        if (handle == EntityHandle.NULL) {
+            record(m -> m.remove(entity));
+        } else {
+            record(m -> m.remove(handle));
+        }
+    }
+
+    /**
+     * Détruire une famille d'entité.
+     *
+     * @param family Famille d'entité
+     */
+    public void destroy(final Family family) {
+        record(m -> m.remove(family));
+    }
+
+    /**
+     * Ajouter un composant à une entité.
+     *
+     * @param entity Entité cible
+     * @param component Nouveau composant
+     */
+    public void addComponent(final Entity entity, final Component component) {
+        record(m -> entity.addComponent(component));
+    }
+
+    /**
+     * Ajouter un composant à une entité.
+     *
+     * @param entity Entité cible
+     * @param type Type du composant
+     * @param component Nouveau composant
+     */
+    public void addComponent(
+            final Entity entity,
+            final Class<? extends Component> type,
+            final Component component) {
+
+        record(m -> entity.addComponent(type, component));
+    }
+
+    /**
+     * Supprimer un composant d'une entité.
+     *
+     * @param entity Entité cible
+     * @param type Type du composant
+     */
+    public void removeComponent(final Entity entity, final Class<? extends Component> type) {
+        record(m -> entity.removeComponent(type));
+    }
+
+    /**
+     * Indiquer si des commandes sont en attente.
+     *
+     * @return La valeur <code>true</code> si aucune commande n'est en attente
+     */
+    public synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Appliquer toutes les commandes en attente, dans l'ordre d'enregistrement.
+     * Les commandes enregistrées pendant l'application sont appliquées à leur
+     * tour avant de rendre la main.
+     *
+     * @param manager Gestionnaire d'entités cible
+     */
+    void flush(final EntityManager manager) {
+        while (!isEmpty()) {
+            swap();
+            for (var i = 0; i < executing.size(); i++) {
+                executing.get(i).accept(manager);
+            }
+            executing.clear();
+        }
+    }
+
+    /**
+     * Enregistrer une commande.
+     *
+     * @param command Commande à appliquer
+     */
+    private synchronized void record(final Consumer<EntityManager> command) {
+        pending.add(command);
+    }
+
+    /**
+     * Échanger la liste des commandes en attente et celle des commandes en
+     * cours d'exécution.
+     */
+    private synchronized void swap() {
+        var commands = executing;
+        executing = pending;
+        pending = commands;
+    }
+
+}
@@ -1,7 +1,6 @@
 package com.github.zelmothedragon.cube.core.model;
 
 import com.github.zelmothedragon.cube.core.asset.AssetManager;
-import com.github.zelmothedragon.cube.core.util.geometry.Dimension;
 import com.github.zelmothedragon.cube.core.util.geometry.Rectangle;
 import java.util.Map;
 
@@ -9,6 +8,10 @@ import java.util.Map;
  * Fabrique d'entités. Une instance unique de cette classe est requise pour le
  * fonctionnement de l'application. Le gestionnaire doit être accessible depuis
  * le conteneur du jeu.
+ * <p>
+ * Les entités et leurs zones de délimitation sont obtenues depuis les
+ * réservoirs du gestionnaire d'entités, elles sont recyclées à leur
+ * suppression.
  *
  * @see GameContainer
  *
@@ -16,6 +19,11 @@ import java.util.Map;
  */
 public final class EntityFactory {
 
+    /**
+     * Nombre maximal de zones de délimitation conservées pour recyclage.
+     */
+    public static final int BOUNDED_BOX_POOL_CAPACITY = 1024;
+
     /**
      * Gestionnaire d'entités.
      */
@@ -39,6 +47,14 @@ public final class EntityFactory {
 
         this.entities = entities;
         this.assets = assets;
+        this.entities.registerPool(
+                BoundedBox.class,
+                BoundedBox::new,
+                BOUNDED_BOX_POOL_CAPACITY
+        );
+        // Marqueurs ajoutés et retirés en cours de jeu
+        this.entities.registerSparse(Controllable.class);
+        this.entities.registerSparse(Movable.class);
     }
 
     /**
@@ -49,7 +65,7 @@ public final class EntityFactory {
     public Entity createDebugInformation() {
 
         var clock = new Clock();
-        var box = new BoundedBox();
+        var box = entities.obtain(BoundedBox.class);
         var font = assets.loadFontImagge(
                 AssetManager.DEBUG_8X8_TEXT_SHADOW,
                 AssetManager.DEBUG_8X8_TEXT_MAP,
@@ -57,7 +73,7 @@ public final class EntityFactory {
                 8
         );
 
-        var entity = new Entity(Family.DEBUG);
+        var entity = entities.obtain(Family.DEBUG);
         entity.addComponent(clock);
         entity.addComponent(box);
         entity.addComponent(FontImage.class, font);
@@ -82,13 +98,12 @@ public final class EntityFactory {
         animation.addOffset(Orientation.LEFT, new Rectangle(0, 96, w, h));
         animation.setOrientation(Orientation.DOWN);
 
-        var box = new BoundedBox(
-                new Rectangle(0, 0, w, h),
-                new Rectangle(0, 8, 16, 18),
-                Block.SOLID
-        );
+        var box = entities.obtain(BoundedBox.class);
+        box.getBound().set(0, 0, w, h);
+        box.getCollision().set(0, 8, 16, 18);
+        box.setBlock(Block.SOLID);
 
-        var entity = new Entity(Family.PLAYER);
+        var entity = entities.obtain(Family.PLAYER);
         entity.addComponent(Controllable.INSTANCE);
         entity.addComponent(Movable.INSTANCE);
         entity.addComponent(Camera.INSTANCE);
@@ -100,7 +115,7 @@ public final class EntityFactory {
 
     public Entity createMapDebug() {
 
-        var box = new BoundedBox();
+        var box = entities.obtain(BoundedBox.class);
         var map = Map.of(
                 0,
                 AssetManager.DEBUG_BACKGROUND_MAP_LAYER_0,
@@ -121,7 +136,7 @@ public final class EntityFactory {
                 16
         );
 
-        var entity = new Entity(Family.MAP_DEBUG);
+        var entity = entities.obtain(Family.MAP_DEBUG);
         entity.addComponent(box);
         entity.addComponent(ImageMap.class, image);
         entities.add(entity);
@@ -132,33 +147,50 @@ public final class EntityFactory {
 
         var size = 16;
         var image = assets.loadImage(AssetManager.DEBUG_WOOD_IMAGE);
-        var box = new BoundedBox(
-                new Rectangle(64, 64, size, size),
-                new Rectangle(64, 64, size, size),
-                Block.SOLID
-        );
+        var box = entities.obtain(BoundedBox.class);
+        box.getBound().set(64, 64, size, size);
+        box.getCollision().set(64, 64, size, size);
+        box.setBlock(Block.SOLID);
 
-        var entity = new Entity(Family.EMPTY);
+        var entity = entities.obtain(Family.EMPTY);
         entity.addComponent(box);
         entity.addComponent(Image.class, image);
         entities.add(entity);
         return entity;
     }
 
+    /**
+     * Fabriquer et ajouter une entité pour l'ensemble de Mandelbrot.
+     *
+     * @return L'entité de la famille <code>Family.MANDELBROT</code>
+     */
     public Entity createMandelbrot() {
+        var entity = buildMandelbrot();
+        entities.add(entity);
+        return entity;
+    }
 
+    /**
+     * Fabriquer une entité pour l'ensemble de Mandelbrot, sans l'ajouter au
+     * gestionnaire d'entités, par exemple pour la confier au tampon de
+     * commandes.
+     *
+     * @return L'entité de la famille <code>Family.MANDELBROT</code>, détachée
+     */
+    public Entity buildMandelbrot() {
         var w = 800;
         var h = w / 16 * 9;
-        var box = new BoundedBox(new Dimension(w, h));
+        var box = entities.obtain(BoundedBox.class);
+        box.getBound().set(0, 0, w, h);
+        box.getCollision().set(0, 0, w, h);
         var image = assets.loadImage(w, h);
         var mandelbrot = new Mandelbrot(10, 10);
 
-        var entity = new Entity(Family.MANDELBROT);
+        var entity = entities.obtain(Family.MANDELBROT);
         entity.addComponent(Controllable.INSTANCE);
         entity.addComponent(box);
         entity.addComponent(mandelbrot);
         entity.addComponent(Image.class, image);
-        entities.add(entity);
         return entity;
     }
 
@@ -0,0 +1,68 @@
+package com.github.zelmothedragon.cube.core.model;
+
+/**
+ * Fonctions de manipulation des identifiants compacts d'entité. Un identifiant
+ * compact est un entier long regroupant l'indice de l'emplacement de l'entité
+ * dans le gestionnaire (32 bits de poids faible) et le numéro de génération de
+ * cet emplacement (32 bits de poids fort). Le numéro de génération change à
+ * chaque suppression, un identifiant périmé n'est donc jamais confondu avec
+ * celui d'une nouvelle entité occupant le même emplacement.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class EntityHandle {
+
+    /**
+     * Identifiant nul, désigne une entité rattachée à aucun gestionnaire.
+     */
+    public static final long NULL = 0L;
+
+    /**
+     * Masque des 32 bits de poids faible.
+     */
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Décalage du numéro de génération.
+     */
+    private static final int GENERATION_SHIFT = 32;
+
+    /**
+     * Constructeur interne, pas d'instanciation.
+     */
+    private EntityHandle() {
+        throw new AssertionError("No instances for you!");
+    }
+
+    /**
+     * Construire un identifiant compact.
+     *
+     * @param index Indice de l'emplacement
+     * @param generation Numéro de génération, différent de <code>0</code>
+     * @return L'identifiant compact
+     */
+    public static long of(final int index, final int generation) {
+        return ((long) generation << GENERATION_SHIFT) | (index & INDEX_MASK);
+    }
+
+    /**
+     * Extraire l'indice de l'emplacement.
+     *
+     * @param handle Identifiant compact
+     * @return L'indice de l'emplacement
+     */
+    public static int getIndex(final long handle) {
+        return (int) (handle & INDEX_MASK);
+    }
+
+    /**
+     * Extraire le numéro de génération.
+     *
+     * @param handle Identifiant compact
+     * @return Le numéro de génération
+     */
+    public static int getGeneration(final long handle) {
+        return (int) (handle >>> GENERATION_SHIFT);
+    }
+
+}
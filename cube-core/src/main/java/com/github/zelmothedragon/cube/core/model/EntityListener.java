@@ -0,0 +1,73 @@
+package com.github.zelmothedragon.cube.core.model;
+
+/**
+ * Observateur du cycle de vie des entités. Les événements sont publiés de
+ * manière synchrone par le gestionnaire d'entités, au moment de la
+ * modification. Un observateur permet à un système de maintenir ses propres
+ * structures de données au fil de l'eau, sans parcourir toutes les entités à
+ * chaque tour de boucle.
+ * <p>
+ * Un observateur ne doit pas modifier la structure des entités pendant la
+ * réception d'un événement, il doit passer par le tampon de commandes du
+ * gestionnaire d'entités.
+ * <p>
+ * Les ajouts et suppressions d'entités ou de composants sont publiés aux
+ * points de synchronisation, depuis le fil d'exécution de la boucle de jeu.
+ * En revanche, la méthode <code>componentChanged</code> peut être appelée
+ * depuis un fil d'exécution du réservoir des systèmes, lorsqu'un système
+ * exécuté en parallèle signale une modification. Ces appels sont sérialisés
+ * par le gestionnaire d'entités, mais l'observateur ne doit pas supposer
+ * qu'ils ont lieu sur le fil d'exécution de la boucle de jeu.
+ *
+ * @see EntityManager#addListener(EntityListener)
+ *
+ * @author MOSELLE Maxime
+ */
+public interface EntityListener {
+
+    /**
+     * Une entité vient d'être ajoutée au gestionnaire.
+     *
+     * @param entity Entité ajoutée
+     */
+    default void entityAdded(Entity entity) {
+    }
+
+    /**
+     * Une entité va être supprimée du gestionnaire. Ses composants sont encore
+     * accessibles.
+     *
+     * @param entity Entité supprimée
+     */
+    default void entityRemoved(Entity entity) {
+    }
+
+    /**
+     * Un composant vient d'être ajouté à une entité.
+     *
+     * @param entity Entité modifiée
+     * @param type Type du composant ajouté
+     */
+    default void componentAdded(Entity entity, Class<? extends Component> type) {
+    }
+
+    /**
+     * Un composant vient d'être supprimé d'une entité.
+     *
+     * @param entity Entité modifiée
+     * @param type Type du composant supprimé
+     */
+    default void componentRemoved(Entity entity, Class<? extends Component> type) {
+    }
+
+    /**
+     * Un composant d'une entité vient d'être remplacé ou modifié. Peut être
+     * appelée depuis un fil d'exécution du réservoir des systèmes.
+     *
+     * @param entity Entité modifiée
+     * @param type Type du composant modifié
+     */
+    default void componentChanged(Entity entity, Class<? extends Component> type) {
+    }
+
+}
@@ -1,15 +1,88 @@
 package com.github.zelmothedragon.cube.core.model;
 
+import com.github.zelmothedragon.cube.core.util.lang.Cast;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
 /**
  * Gestionnaire d'entités. Une instance unique de cette classe est requise pour
  * le fonctionnement de l'application. Le gestionnaire doit être accessible
  * depuis le conteneur du jeu.
+ * <p>
+ * Les composants des entités rattachées au gestionnaire sont rangés par
+ * archétype, c'est-à-dire par ensemble exact de types de composant, dans des
+ * colonnes contiguës (voir <code>Archetype</code>). C'est le seul stockage des
+ * composants : les vues par type de composant (voir
+ * <code>ComponentStore</code>) référencent les archétypes concernés, sans
+ * copie. L'accès à un composant se fait en temps constant par la ligne de
+ * l'entité dans son archétype ; l'ajout ou la suppression d'un type de
+ * composant déplace la ligne vers l'archétype voisin.
+ * <p>
+ * Les types de composant ajoutés et retirés fréquemment, comme les composants
+ * marqueurs, peuvent être stockés à part dans des ensembles creux (voir
+ * <code>registerSparse</code>) : ils ne figurent pas dans la signature des
+ * archétypes, leur ajout et leur suppression se font en temps constant sans
+ * déplacer la ligne de l'entité. Les parcours par bloc ne retiennent alors que
+ * les suites de lignes dont les entités possèdent ces composants. Le gestionnaire
+ * maintient également un index des entités par famille. Ces structures sont
+ * mises à jour au fil de l'eau par les méthodes <code>add</code> et
+ * <code>remove</code> ainsi que par les méthodes
+ * <code>Entity.addComponent</code> et <code>Entity.removeComponent</code>.
+ * Les méthodes <code>filter</code> renvoient des vues en lecture seule de ces
+ * structures, sans copie.
+ * <p>
+ * Chaque entité ajoutée reçoit un identifiant compact (voir
+ * <code>EntityHandle</code>) composé de l'indice de son emplacement et d'un
+ * numéro de génération. La recherche, la suppression et la vérification de
+ * l'existence d'une entité par cet identifiant se font en temps constant.
+ * <p>
+ * Des requêtes (voir <code>Query</code>) peuvent être enregistrées auprès du
+ * gestionnaire. Elles sont compilées en masques binaires de types de
+ * composant et leurs correspondances sont maintenues au fil de l'eau.
+ * <p>
+ * Les entités obtenues par la méthode <code>obtain</code> sont recyclées lors de
+ * leur suppression, ainsi que leurs composants dont le type possède un
+ * réservoir enregistré (voir <code>registerPool</code>). En régime établi, la
+ * création d'entités n'alloue alors plus de mémoire.
+ * <p>
+ * Les méthodes <code>forEachChunk</code> parcourent les archétypes
+ * correspondant à une requête bloc par bloc, avec un accès contigu aux
+ * colonnes de composants. Les méthodes <code>forEachChunkParallel</code>
+ * répartissent ces blocs sur un réservoir de fils d'exécution (voir aussi
+ * <code>Query.forEachParallel</code>).
+ * <p>
+ * Chaque composant porte un numéro de version, renouvelé à chaque ajout,
+ * remplacement ou modification signalée par <code>Entity.markChanged</code>.
+ * Les requêtes qui suivent les modifications d'un type de composant (voir
+ * <code>Query.changed</code>) tiennent la liste des entités modifiées depuis
+ * leur dernier parcours.
+ * <p>
+ * Enfin, le gestionnaire publie les événements du cycle de vie des entités
+ * (ajout, suppression, modification de composant) auprès des observateurs
+ * enregistrés (voir <code>EntityListener</code>).
+ * <p>
+ * Les modifications de structure ont lieu aux points de synchronisation,
+ * lorsqu'aucun système ne s'exécute. En revanche, les systèmes exécutés en
+ * parallèle lisent les composants, obtiennent des vues par type et signalent
+ * des modifications depuis plusieurs fils d'exécution : le registre des types
+ * de composant accepte les lectures concurrentes et n'est complété que sous
+ * verrou. Les types déclarés par les systèmes sont enregistrés à la
+ * construction de l'ordonnanceur (voir <code>registerType</code>).
  *
  * @see GameContainer
  *
@@ -18,15 +91,177 @@ import java.util.stream.Collectors;
 public final class EntityManager {
 
     /**
-     * Ensemble des entités.
+     * Nombre maximal de lignes d'un bloc lors du parcours des archétypes.
      */
-    private final Set<Entity> data;
+    public static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Taille minimale par défaut d'un bloc traité en parallèle. En dessous de
+     * ce nombre d'éléments, le parcours reste séquentiel.
+     */
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 256;
+
+    /**
+     * Capacité initiale des emplacements d'entité.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Capacité par défaut du réservoir d'entités.
+     */
+    private static final int DEFAULT_POOL_CAPACITY = 1024;
+
+    /**
+     * Entités par indice d'emplacement, <code>null</code> pour un emplacement
+     * libre.
+     */
+    private Entity[] slots;
+
+    /**
+     * Numéro de génération courant de chaque emplacement.
+     */
+    private int[] generations;
+
+    /**
+     * Pile des indices d'emplacement libérés.
+     */
+    private int[] freeSlots;
+
+    /**
+     * Nombre d'indices dans la pile des emplacements libérés.
+     */
+    private int freeCount;
+
+    /**
+     * Nombre d'emplacements déjà utilisés au moins une fois.
+     */
+    private int used;
+
+    /**
+     * Nombre d'entités vivantes.
+     */
+    private int size;
+
+    /**
+     * Dernier numéro de version attribué à un composant.
+     */
+    private long version;
+
+    /**
+     * Entités par identifiant externe. Seules les entités dont l'identifiant
+     * externe a été généré sont référencées.
+     */
+    private final Map<UUID, Entity> identifiers;
+
+    /**
+     * Table des numéros de bit attribués à chaque type de composant. Lue sans
+     * verrou depuis les systèmes exécutés en parallèle, elle n'est complétée
+     * que sous le verrou du gestionnaire.
+     */
+    private final Map<Class<? extends Component>, Integer> types;
+
+    /**
+     * Requêtes enregistrées.
+     */
+    private final List<Query> queries;
+
+    /**
+     * Observateurs du cycle de vie des entités.
+     */
+    private final List<EntityListener> listeners;
+
+    /**
+     * Tampon des commandes de modification de structure différées.
+     */
+    private final EntityCommandBuffer commands;
+
+    /**
+     * Réservoir des entités recyclables.
+     */
+    private final Pool<Entity> entityPool;
+
+    /**
+     * Réservoirs des composants recyclables par type de composant.
+     */
+    private final Map<Class<? extends Component>, Pool<? extends Component>> componentPools;
+
+    /**
+     * Réservoir de fils d'exécution des parcours parallèles.
+     */
+    private ForkJoinPool parallelPool;
+
+    /**
+     * Taille minimale d'un bloc traité en parallèle.
+     */
+    private int minChunkSize;
+
+    /**
+     * Vues des composants par type, indexées par le numéro de bit du type de
+     * composant. Le tableau est remplacé lorsqu'il s'agrandit.
+     */
+    private volatile ComponentStore<?>[] stores;
+
+    /**
+     * Index des entités par famille.
+     */
+    private final Map<Family, Set<Entity>> families;
+
+    /**
+     * Vues en lecture seule de l'index des entités par famille.
+     */
+    private final Map<Family, Set<Entity>> familyViews;
+
+    /**
+     * Archétypes par ensemble de types de composant.
+     */
+    private final Map<Set<Class<? extends Component>>, Archetype> archetypes;
+
+    /**
+     * Liste des archétypes, dans l'ordre de création.
+     */
+    private final List<Archetype> archetypeList;
+
+    /**
+     * Vue en lecture seule de la liste des archétypes.
+     */
+    private final List<Archetype> archetypeView;
+
+    /**
+     * Stockages des types de composant rangés dans des ensembles creux.
+     */
+    private final List<ComponentStore<?>> sparseStores;
 
     /**
      * Constructeur par défaut.
      */
     public EntityManager() {
-        this.data = new HashSet<>();
+        this.slots = new Entity[INITIAL_CAPACITY];
+        this.generations = new int[INITIAL_CAPACITY];
+        this.freeSlots = new int[INITIAL_CAPACITY];
+        this.freeCount = 0;
+        this.used = 0;
+        this.size = 0;
+        this.version = 0L;
+        this.identifiers = new HashMap<>();
+        this.types = new ConcurrentHashMap<>();
+        this.queries = new ArrayList<>();
+        this.listeners = new ArrayList<>();
+        this.commands = new EntityCommandBuffer();
+        this.entityPool = new Pool<>(
+                () -> new Entity(Family.EMPTY),
+                e -> e.reset(Family.EMPTY),
+                DEFAULT_POOL_CAPACITY
+        );
+        this.componentPools = new HashMap<>();
+        this.parallelPool = ForkJoinPool.commonPool();
+        this.minChunkSize = DEFAULT_MIN_CHUNK_SIZE;
+        this.stores = new ComponentStore<?>[INITIAL_CAPACITY];
+        this.families = new EnumMap<>(Family.class);
+        this.familyViews = new EnumMap<>(Family.class);
+        this.archetypes = new HashMap<>();
+        this.archetypeList = new ArrayList<>();
+        this.archetypeView = Collections.unmodifiableList(archetypeList);
+        this.sparseStores = new ArrayList<>();
     }
 
     /**
@@ -36,37 +271,87 @@ public final class EntityManager {
      * @return L'entité trouvé
      */
     public Entity get(final UUID id) {
-        return data
-                .stream()
-                .filter(e -> Objects.equals(e.getId(), id))
-                .findAny()
-                .orElseThrow(() -> new IllegalArgumentException("Entity not found for id " + id));
+        var entity = identifiers.get(id);
+        if (Objects.isNull(entity)) {
+            throw new IllegalArgumentException("Entity not found for id " + id);
+        }
+        return entity;
+    }
+
+    /**
+     * Obtenir une entité en fonction de son identifiant compact.
+     *
+     * @param handle Identifiant compact
+     * @return L'entité trouvé
+     */
+    public Entity get(final long handle) {
+        if (!isAlive(handle)) {
+            throw new IllegalArgumentException("Entity not found for handle " + handle);
+        }
+        return slots[EntityHandle.getIndex(handle)];
     }
 
     /**
-     * Filter les entités en fonction d'un composant.
+     * Vérifier qu'un identifiant compact désigne une entité vivante.
+     *
+     * @param handle Identifiant compact
+     * @return La valeur <code>true</code> si l'entité existe
+     */
+    public boolean isAlive(final long handle) {
+        var index = EntityHandle.getIndex(handle);
+        return index < used
+                && generations[index] == EntityHandle.getGeneration(handle)
+                && Objects.nonNull(slots[index]);
+    }
+
+    /**
+     * Obtenir le nombre d'entités vivantes.
+     *
+     * @return Le nombre d'entités
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Filter les entités en fonction d'un composant. L'ensemble renvoyé est une
+     * vue en lecture seule, toujours à jour, de l'index du gestionnaire. Il ne
+     * faut pas ajouter ou supprimer d'entités ou de composants de ce type
+     * pendant le parcours de la vue.
      *
      * @param type Le type du composant
      * @return L'ensemble des entités possédant le même composant
      */
     public Set<Entity> filter(final Class<? extends Component> type) {
-        return data
-                .stream()
-                .filter(e -> e.hasComponent(type))
-                .collect(Collectors.toSet());
+        return store(type).asSet();
+    }
+
+    /**
+     * Obtenir la vue d'un type de composant, afin de parcourir directement les
+     * composants de ce type.
+     *
+     * @param <C> Type générique de composant
+     * @param type Type de composant
+     * @return La vue, jamais <code>null</code>
+     */
+    public <C extends Component> ComponentStore<C> getStore(final Class<C> type) {
+        return Cast.<ComponentStore<C>>unchecked(store(type));
     }
 
     /**
-     * Obtenir des entités par famille.
+     * Obtenir des entités par famille. L'ensemble renvoyé est une vue en
+     * lecture seule, toujours à jour, de l'index du gestionnaire.
      *
      * @param family Famille d'entité
      * @return L'ensemble des entités de même famille
      */
     public Set<Entity> filter(final Family family) {
-        return data
-                .stream()
-                .filter(e -> Objects.equals(e.getFamily(), family))
-                .collect(Collectors.toSet());
+        var view = familyViews.get(family);
+        if (Objects.isNull(view)) {
+            view = Collections.unmodifiableSet(index(family));
+            familyViews.put(family, view);
+        }
+        return view;
     }
 
     /**
@@ -75,7 +360,286 @@ public final class EntityManager {
      * @param entity Nouvelle entité
      */
     public void add(final Entity entity) {
-        data.add(entity);
+        if (Objects.isNull(entity.getManager())) {
+            allocate(entity);
+            if (entity.hasId()) {
+                identifiers.put(entity.getId(), entity);
+            }
+            index(entity.getFamily()).add(entity);
+
+            // Les composants quittent l'entité pour les colonnes de l'archétype
+            // ou pour leur ensemble creux
+            var data = entity.getData();
+            archetype(tableTypes(data.keySet())).add(entity);
+            var mask = entity.getMask();
+            mask.clear();
+            for (var entry : data.entrySet()) {
+                var typeId = typeId(entry.getKey());
+                mask.set(typeId);
+                entity.setVersion(typeId, ++version);
+                var store = stores[typeId];
+                if (store.isSparse()) {
+                    store.put(entity, entry.getValue());
+                }
+            }
+            data.clear();
+            entity.setManager(this);
+            updateQueries(entity);
+            for (var i = 0; i < listeners.size(); i++) {
+                listeners.get(i).entityAdded(entity);
+            }
+        }
+    }
+
+    /**
+     * Enregistrer une requête. La requête est compilée puis alimentée avec les
+     * entités existantes, elle est ensuite maintenue à jour par le
+     * gestionnaire.
+     *
+     * @param query Nouvelle requête
+     * @return La requête enregistrée, afin de chaîner les appels de méthodes
+     */
+    public Query register(final Query query) {
+        query.compile(this);
+        for (var i = 0; i < used; i++) {
+            if (Objects.nonNull(slots[i])) {
+                query.update(slots[i]);
+            }
+        }
+        queries.add(query);
+        return query;
+    }
+
+    /**
+     * Désenregistrer une requête. La requête n'est plus maintenue à jour.
+     *
+     * @param query Requête enregistrée
+     */
+    public void unregister(final Query query) {
+        if (queries.remove(query)) {
+            query.release();
+        }
+    }
+
+    /**
+     * Enregistrer un observateur du cycle de vie des entités. L'observateur
+     * n'est pas notifié des entités existantes. Il ne faut pas enregistrer
+     * d'observateur pendant la publication d'un événement. Les modifications
+     * de composant signalées par un système exécuté en parallèle sont publiées
+     * depuis un fil d'exécution du réservoir (voir <code>EntityListener</code>).
+     *
+     * @param listener Nouvel observateur
+     */
+    public void addListener(final EntityListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Désenregistrer un observateur du cycle de vie des entités.
+     *
+     * @param listener Observateur enregistré
+     */
+    public void removeListener(final EntityListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Parcourir bloc par bloc les archétypes possédant un type de composant.
+     * Aucune entité ni aucun composant ne doit être ajouté ou supprimé pendant
+     * le parcours.
+     *
+     * @param type Type de composant requis
+     * @param action Traitement appliqué à chaque bloc
+     */
+    public void forEachChunk(final Class<? extends Component> type, final ChunkAction action) {
+        if (Objects.nonNull(sparseStore(type))) {
+            forEachChunk(Set.of(type), action);
+            return;
+        }
+        for (var i = 0; i < archetypeList.size(); i++) {
+            var archetype = archetypeList.get(i);
+            if (archetype.contains(type)) {
+                forEachChunk(archetype, action);
+            }
+        }
+    }
+
+    /**
+     * Parcourir bloc par bloc les archétypes possédant tous les types de
+     * composant. Pour les types stockés dans un ensemble creux, seules les
+     * suites de lignes dont les entités possèdent le composant sont traitées.
+     * Aucune entité ni aucun composant ne doit être ajouté ou supprimé pendant
+     * le parcours.
+     *
+     * @param types Types de composant requis
+     * @param action Traitement appliqué à chaque bloc
+     */
+    public void forEachChunk(final Set<Class<? extends Component>> types, final ChunkAction action) {
+        var sparse = sparseStores(types);
+        for (var i = 0; i < archetypeList.size(); i++) {
+            var archetype = archetypeList.get(i);
+            if (matches(archetype, types)) {
+                if (sparse.isEmpty()) {
+                    forEachChunk(archetype, action);
+                } else {
+                    forEachRun(archetype, 0, archetype.size(), sparse, action);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parcourir en parallèle, bloc par bloc, les archétypes possédant tous les
+     * types de composant. Les blocs sont répartis sur le réservoir de fils
+     * d'exécution, le parcours reste séquentiel lorsque le nombre de lignes
+     * ne dépasse pas la taille minimale d'un bloc. Le traitement ne doit
+     * modifier que les composants de la ligne traitée ; les modifications de
+     * structure passent par le tampon de commandes.
+     *
+     * @param types Types de composant requis
+     * @param action Traitement appliqué à chaque bloc, depuis plusieurs
+     * processus
+     */
+    public void forEachChunkParallel(final Set<Class<? extends Component>> types, final ChunkAction action) {
+        var sparse = sparseStores(types);
+        var total = 0;
+        for (var i = 0; i < archetypeList.size(); i++) {
+            var archetype = archetypeList.get(i);
+            if (matches(archetype, types)) {
+                total += archetype.size();
+            }
+        }
+        if (total <= minChunkSize || parallelPool.getParallelism() <= 1) {
+            forEachChunk(types, action);
+        } else {
+            var tasks = new ArrayList<RangeTask>();
+            for (var i = 0; i < archetypeList.size(); i++) {
+                var archetype = archetypeList.get(i);
+                if (matches(archetype, types) && archetype.size() > 0) {
+                    tasks.add(new RangeTask(
+                            sparse.isEmpty()
+                            ? (from, to) -> action.apply(archetype, from, to)
+                            : (from, to) -> forEachRun(archetype, from, to, sparse, action),
+                            0,
+                            archetype.size(),
+                            Math.min(minChunkSize, CHUNK_SIZE)
+                    ));
+                }
+            }
+            parallelPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+    }
+
+    /**
+     * Parcourir en parallèle, bloc par bloc, les archétypes possédant un type
+     * de composant.
+     *
+     * @param type Type de composant requis
+     * @param action Traitement appliqué à chaque bloc, depuis plusieurs
+     * processus
+     * @see #forEachChunkParallel(Set, ChunkAction)
+     */
+    public void forEachChunkParallel(final Class<? extends Component> type, final ChunkAction action) {
+        forEachChunkParallel(Set.of(type), action);
+    }
+
+    /**
+     * Accesseur, obtenir le réservoir de fils d'exécution des parcours
+     * parallèles.
+     *
+     * @return Le réservoir, par défaut le réservoir commun
+     */
+    public ForkJoinPool getParallelPool() {
+        return parallelPool;
+    }
+
+    /**
+     * Mutateur, modifier le réservoir de fils d'exécution des parcours
+     * parallèles.
+     *
+     * @param parallelPool Le réservoir
+     */
+    public void setParallelPool(final ForkJoinPool parallelPool) {
+        this.parallelPool = Objects.requireNonNull(parallelPool);
+    }
+
+    /**
+     * Accesseur, obtenir la taille minimale d'un bloc traité en parallèle.
+     *
+     * @return La taille minimale
+     */
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    /**
+     * Mutateur, modifier la taille minimale d'un bloc traité en parallèle.
+     *
+     * @param minChunkSize La taille minimale, strictement positive
+     */
+    public void setMinChunkSize(final int minChunkSize) {
+        if (minChunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid minimal chunk size: " + minChunkSize);
+        }
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Accesseur, obtenir les archétypes existants.
+     *
+     * @return La liste en lecture seule des archétypes
+     */
+    public List<Archetype> getArchetypes() {
+        return archetypeView;
+    }
+
+    /**
+     * Obtenir le dernier numéro de version attribué à un composant. Un système
+     * peut conserver cette valeur à la fin de son traitement puis la comparer
+     * au numéro de version des composants lors du traitement suivant (voir
+     * <code>Entity.isChangedSince</code>).
+     *
+     * @return Le numéro de version courant
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Calculer l'empreinte de l'état de la simulation : identifiants compacts
+     * des entités vivantes, types et empreintes de leurs composants (voir
+     * <code>Component.checksum</code>). Contrairement à l'image rendue,
+     * l'empreinte ne dépend ni de l'horloge ni du rendu ; elle est identique
+     * d'une exécution à l'autre tant que la simulation est déterministe. À
+     * appeler à un point de synchronisation.
+     *
+     * @return L'empreinte
+     */
+    public long checksum() {
+        var sum = 0L;
+        for (var i = 0; i < used; i++) {
+            var entity = slots[i];
+            if (Objects.nonNull(entity)) {
+                var archetype = entity.getArchetype();
+                var row = entity.getRow();
+                // Somme indépendante de l'ordre de parcours de la signature
+                var components = 0L;
+                for (var type : archetype.getSignature()) {
+                    components += type.getName().hashCode() * 31L
+                            + archetype.getColumn(type)[row].checksum();
+                }
+                for (var j = 0; j < sparseStores.size(); j++) {
+                    var store = sparseStores.get(j);
+                    var component = store.get(entity);
+                    if (Objects.nonNull(component)) {
+                        components += store.getType().getName().hashCode() * 31L
+                                + component.checksum();
+                    }
+                }
+                sum = (sum * 31 + entity.getHandle()) * 31 + components;
+            }
+        }
+        return sum;
     }
 
     /**
@@ -85,8 +649,152 @@ public final class EntityManager {
      * @return La valeur <code>true</code> si l'entité est supprimée
      */
     public boolean remove(final UUID id) {
-        return data
-                .removeIf(e -> Objects.equals(e.getId(), id));
+        var entity = identifiers.get(id);
+        return Objects.nonNull(entity) && remove(entity);
+    }
+
+    /**
+     * Supprimer une entité par son identifiant compact.
+     *
+     * @param handle Identifiant compact
+     * @return La valeur <code>true</code> si l'entité est supprimée
+     */
+    public boolean remove(final long handle) {
+        return isAlive(handle) && remove(slots[EntityHandle.getIndex(handle)]);
+    }
+
+    /**
+     * Supprimer une entité.
+     *
+     * @param entity Entité à supprimer
+     * @return La valeur <code>true</code> si l'entité est supprimée
+     */
+    public boolean remove(final Entity entity) {
+        var removed = Objects.equals(entity.getManager(), this);
+        if (removed) {
+            for (var i = 0; i < listeners.size(); i++) {
+                listeners.get(i).entityRemoved(entity);
+            }
+            for (var i = 0; i < queries.size(); i++) {
+                queries.get(i).remove(entity);
+            }
+            index(entity.getFamily()).remove(entity);
+
+            // Les composants reviennent dans l'entité détachée
+            var data = entity.getData();
+            var archetype = entity.getArchetype();
+            var row = entity.getRow();
+            for (var type : archetype.getSignature()) {
+                data.put(type, archetype.getComponent(type, row));
+            }
+            archetype.remove(row);
+            for (var i = 0; i < sparseStores.size(); i++) {
+                var store = sparseStores.get(i);
+                var component = store.remove(entity);
+                if (Objects.nonNull(component)) {
+                    data.put(store.getType(), component);
+                }
+            }
+            if (entity.hasId()) {
+                identifiers.remove(entity.getId());
+            }
+            release(entity);
+            entity.setManager(null);
+            if (entity.isPooled()) {
+                recycle(entity);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Obtenir une entité recyclable sans composant. L'entité n'est pas ajoutée
+     * au gestionnaire. Lors de sa suppression, l'entité et ses composants
+     * recyclables sont remis dans leur réservoir : aucune référence ne doit
+     * être conservée sur une entité supprimée.
+     *
+     * @param family Famille d'entité
+     * @return Une entité vierge
+     */
+    public Entity obtain(final Family family) {
+        var entity = entityPool.obtain();
+        entity.reset(family);
+        entity.setPooled(true);
+        return entity;
+    }
+
+    /**
+     * Obtenir un composant recyclable depuis son réservoir.
+     *
+     * @param <C> Type générique de composant
+     * @param type Type de composant, doit posséder un réservoir enregistré
+     * @return Un composant dans son état initial
+     */
+    public <C extends Component> C obtain(final Class<C> type) {
+        var pool = Cast.<Pool<C>>unchecked(componentPools.get(type));
+        if (Objects.isNull(pool)) {
+            throw new IllegalArgumentException("No pool registered for " + type);
+        }
+        return pool.obtain();
+    }
+
+    /**
+     * Enregistrer un réservoir pour un type de composant recyclable. Les
+     * composants de ce type portés par une entité recyclable sont remis dans
+     * le réservoir lors de sa suppression.
+     *
+     * @param <C> Type générique de composant
+     * @param type Type de composant
+     * @param factory Fonction de construction d'un nouveau composant
+     * @param capacity Nombre maximal de composants conservés
+     * @return Le réservoir enregistré
+     */
+    public <C extends Component & Poolable> Pool<C> registerPool(
+            final Class<C> type,
+            final Supplier<C> factory,
+            final int capacity) {
+
+        var pool = new Pool<C>(factory, Poolable::reset, capacity);
+        componentPools.put(type, pool);
+        return pool;
+    }
+
+    /**
+     * Stocker un type de composant dans un ensemble creux plutôt que dans les
+     * colonnes des archétypes. Destiné aux types ajoutés et retirés
+     * fréquemment, dont l'ajout et la suppression ne déplacent alors plus la
+     * ligne de l'entité. À appeler avant qu'une entité du gestionnaire ne
+     * possède ce type.
+     *
+     * @param type Type de composant
+     * @throws IllegalStateException Si le type est déjà stocké dans un
+     * archétype
+     */
+    public synchronized void registerSparse(final Class<? extends Component> type) {
+        var store = store(type);
+        if (!store.isSparse()) {
+            store.makeSparse();
+            sparseStores.add(store);
+        }
+    }
+
+    /**
+     * Obtenir le réservoir d'un type de composant.
+     *
+     * @param type Type de composant
+     * @return Le réservoir, ou <code>null</code> si aucun n'est enregistré
+     */
+    public Pool<? extends Component> getPool(final Class<? extends Component> type) {
+        return componentPools.get(type);
+    }
+
+    /**
+     * Accesseur, obtenir le réservoir des entités recyclables.
+     *
+     * @return Le réservoir d'entités
+     */
+    public Pool<Entity> getEntityPool() {
+        return entityPool;
     }
 
     /**
@@ -96,8 +804,12 @@ public final class EntityManager {
      * @return La valeur <code>true</code> si la famille d'entité est supprimée
      */
     public boolean remove(final Family family) {
-        return data
-                .removeIf(e -> Objects.equals(e.getFamily(), family));
+        // Copie nécessaire, l'index est modifié pendant la suppression
+        var removed = index(family).toArray(Entity[]::new);
+        for (var entity : removed) {
+            remove(entity);
+        }
+        return removed.length > 0;
     }
 
     /**
@@ -107,11 +819,556 @@ public final class EntityManager {
      * @return La valeur <code>true</code> si l'entité existe
      */
     public boolean hasEntity(final UUID id) {
-        return data
-                .stream()
-                .filter(e -> Objects.equals(e.getId(), id))
-                .findAny()
-                .isPresent();
+        return identifiers.containsKey(id);
+    }
+
+    /**
+     * Notifier la génération de l'identifiant externe d'une entité rattachée
+     * à ce gestionnaire.
+     *
+     * @param entity Entité identifiée
+     */
+    void identified(final Entity entity) {
+        identifiers.put(entity.getId(), entity);
+    }
+
+    /**
+     * Accesseur, obtenir le tampon des commandes différées. Les systèmes
+     * doivent passer par ce tampon pour modifier la structure des entités
+     * pendant leur traitement.
+     *
+     * @return Le tampon de commandes
+     */
+    public EntityCommandBuffer getCommands() {
+        return commands;
+    }
+
+    /**
+     * Appliquer toutes les commandes différées. Doit être appelé à un point de
+     * synchronisation, lorsqu'aucun système ne parcourt les entités.
+     */
+    public void flush() {
+        commands.flush(this);
+    }
+
+    /**
+     * Ajouter ou remplacer un composant d'une entité rattachée à ce
+     * gestionnaire.
+     *
+     * @param entity Entité modifiée
+     * @param type Type du composant
+     * @param component Nouveau composant
+     */
+    void putComponent(
+            final Entity entity,
+            final Class<? extends Component> type,
+            final Component component) {
+
+        if (!hasComponent(entity, type)) {
+            componentAdded(entity, type, component);
+        } else if (getComponent(entity, type) != component) {
+            var store = sparseStore(type);
+            if (Objects.isNull(store)) {
+                entity.getArchetype().set(entity.getRow(), type, component);
+            } else {
+                store.put(entity, component);
+            }
+            componentChanged(entity, type);
+        }
+    }
+
+    /**
+     * Supprimer un composant d'une entité rattachée à ce gestionnaire.
+     *
+     * @param entity Entité modifiée
+     * @param type Type du composant
+     */
+    void removeComponent(final Entity entity, final Class<? extends Component> type) {
+        if (hasComponent(entity, type)) {
+            componentRemoved(entity, type);
+        }
+    }
+
+    /**
+     * Vérifier qu'une entité rattachée à ce gestionnaire possède un composant.
+     *
+     * @param entity Entité
+     * @param type Type du composant
+     * @return La valeur <code>true</code> si le composant existe
+     */
+    boolean hasComponent(final Entity entity, final Class<? extends Component> type) {
+        var store = sparseStore(type);
+        return Objects.isNull(store)
+                ? entity.getArchetype().contains(type)
+                : store.contains(entity);
+    }
+
+    /**
+     * Obtenir un composant d'une entité rattachée à ce gestionnaire.
+     *
+     * @param <C> Type générique de composant
+     * @param entity Entité
+     * @param type Type du composant
+     * @return Le composant, ou <code>null</code> s'il n'existe pas
+     */
+    <C extends Component> C getComponent(final Entity entity, final Class<C> type) {
+        var store = sparseStore(type);
+        return Objects.isNull(store)
+                ? entity.getArchetype().getComponent(type, entity.getRow())
+                : Cast.<C>unchecked(store.get(entity));
+    }
+
+    /**
+     * Obtenir les types de composant d'une entité rattachée à ce
+     * gestionnaire.
+     *
+     * @param entity Entité
+     * @return L'ensemble immuable des types de composant de son archétype et
+     * de ses ensembles creux
+     */
+    Set<Class<? extends Component>> getComponentTypes(final Entity entity) {
+        var signature = entity.getArchetype().getSignature();
+        Set<Class<? extends Component>> componentTypes = null;
+        for (var i = 0; i < sparseStores.size(); i++) {
+            var store = sparseStores.get(i);
+            if (store.contains(entity)) {
+                if (Objects.isNull(componentTypes)) {
+                    componentTypes = new HashSet<>(signature);
+                }
+                componentTypes.add(store.getType());
+            }
+        }
+        return Objects.isNull(componentTypes)
+                ? signature
+                : Collections.unmodifiableSet(componentTypes);
+    }
+
+    /**
+     * Ajouter un composant à une entité rattachée à ce gestionnaire. La ligne
+     * de l'entité est déplacée vers l'archétype possédant le nouveau type, ou
+     * le composant est rangé dans son ensemble creux.
+     *
+     * @param entity Entité modifiée
+     * @param type Type du composant ajouté
+     * @param component Composant ajouté
+     */
+    private void componentAdded(
+            final Entity entity,
+            final Class<? extends Component> type,
+            final Component component) {
+
+        var store = sparseStore(type);
+        if (Objects.isNull(store)) {
+            var source = entity.getArchetype();
+            var target = source.getAddEdge(type);
+            if (Objects.isNull(target)) {
+                var signature = new HashSet<>(source.getSignature());
+                signature.add(type);
+                target = archetype(signature);
+                source.setAddEdge(type, target);
+            }
+            source.move(entity.getRow(), target, type, component);
+        } else {
+            store.put(entity, component);
+        }
+
+        var typeId = typeId(type);
+        entity.getMask().set(typeId);
+        entity.setVersion(typeId, ++version);
+        updateQueries(entity);
+        changed(entity, typeId);
+        for (var i = 0; i < listeners.size(); i++) {
+            listeners.get(i).componentAdded(entity, type);
+        }
+    }
+
+    /**
+     * Supprimer un composant d'une entité rattachée à ce gestionnaire. La
+     * ligne de l'entité est déplacée vers l'archétype privé de ce type, ou le
+     * composant est retiré de son ensemble creux.
+     *
+     * @param entity Entité modifiée
+     * @param type Type du composant supprimé
+     */
+    private void componentRemoved(final Entity entity, final Class<? extends Component> type) {
+        var store = sparseStore(type);
+        if (Objects.isNull(store)) {
+            var source = entity.getArchetype();
+            var target = source.getRemoveEdge(type);
+            if (Objects.isNull(target)) {
+                var signature = new HashSet<>(source.getSignature());
+                signature.remove(type);
+                target = archetype(signature);
+                source.setRemoveEdge(type, target);
+            }
+            source.move(entity.getRow(), target, null, null);
+        } else {
+            store.remove(entity);
+        }
+
+        entity.getMask().clear(typeId(type));
+        updateQueries(entity);
+        for (var i = 0; i < listeners.size(); i++) {
+            listeners.get(i).componentRemoved(entity, type);
+        }
+    }
+
+    /**
+     * Notifier la modification d'un composant d'une entité rattachée à ce
+     * gestionnaire. Les modifications peuvent être signalées par plusieurs
+     * systèmes exécutés en parallèle, la notification est donc synchronisée
+     * et les observateurs sont notifiés depuis le fil d'exécution du système.
+     *
+     * @param entity Entité modifiée
+     * @param type Type du composant modifié
+     */
+    synchronized void componentChanged(final Entity entity, final Class<? extends Component> type) {
+        var typeId = typeId(type);
+        entity.setVersion(typeId, ++version);
+        changed(entity, typeId);
+        for (var i = 0; i < listeners.size(); i++) {
+            listeners.get(i).componentChanged(entity, type);
+        }
+    }
+
+    /**
+     * Obtenir le numéro de version d'un composant d'une entité rattachée à ce
+     * gestionnaire.
+     *
+     * @param entity Entité
+     * @param type Type du composant
+     * @return Le numéro de version
+     */
+    long getVersion(final Entity entity, final Class<? extends Component> type) {
+        var typeId = types.get(type);
+        return Objects.isNull(typeId) ? 0L : entity.getVersion(typeId);
+    }
+
+    /**
+     * Remettre une entité supprimée et ses composants recyclables dans leur
+     * réservoir.
+     *
+     * @param entity Entité supprimée
+     */
+    private void recycle(final Entity entity) {
+        for (var type : entity.getComponentTypes()) {
+            var pool = Cast.<Pool<Component>>unchecked(componentPools.get(type));
+            if (Objects.nonNull(pool)) {
+                pool.release(entity.getComponent(type));
+            }
+        }
+        entity.setPooled(false);
+        entityPool.release(entity);
+    }
+
+    /**
+     * Compiler un ensemble de types de composant en masque binaire.
+     *
+     * @param componentTypes Types de composant
+     * @return Le masque binaire
+     */
+    BitSet mask(final Set<Class<? extends Component>> componentTypes) {
+        var mask = new BitSet();
+        componentTypes.forEach(type -> mask.set(typeId(type)));
+        return mask;
+    }
+
+    /**
+     * Obtenir la vue d'un type de composant, enregistré au besoin. Le tableau
+     * des vues est lu après l'enregistrement, qui peut le remplacer.
+     *
+     * @param type Type de composant
+     * @return La vue, jamais <code>null</code>
+     */
+    private ComponentStore<?> store(final Class<? extends Component> type) {
+        var id = typeId(type);
+        return stores[id];
+    }
+
+    /**
+     * Obtenir le stockage d'un type de composant rangé dans un ensemble creux,
+     * sans enregistrer le type.
+     *
+     * @param type Type de composant
+     * @return Le stockage, ou <code>null</code> si le type est stocké dans les
+     * colonnes des archétypes
+     */
+    private ComponentStore<?> sparseStore(final Class<? extends Component> type) {
+        if (!sparseStores.isEmpty()) {
+            var id = types.get(type);
+            if (Objects.nonNull(id) && stores[id].isSparse()) {
+                return stores[id];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtenir les stockages en ensemble creux d'un ensemble de types de
+     * composant.
+     *
+     * @param componentTypes Types de composant
+     * @return Les stockages, liste vide si tous les types sont stockés dans
+     * les colonnes des archétypes
+     */
+    private List<ComponentStore<?>> sparseStores(final Set<Class<? extends Component>> componentTypes) {
+        List<ComponentStore<?>> sparse = List.of();
+        for (var type : componentTypes) {
+            var store = sparseStore(type);
+            if (Objects.nonNull(store)) {
+                if (sparse.isEmpty()) {
+                    sparse = new ArrayList<>();
+                }
+                sparse.add(store);
+            }
+        }
+        return sparse;
+    }
+
+    /**
+     * Obtenir les types de composant stockés dans les colonnes des
+     * archétypes, sans les types rangés dans des ensembles creux.
+     *
+     * @param componentTypes Types de composant
+     * @return L'ensemble lui-même si aucun type n'est rangé dans un ensemble
+     * creux, une copie filtrée sinon
+     */
+    private Set<Class<? extends Component>> tableTypes(final Set<Class<? extends Component>> componentTypes) {
+        var sparse = sparseStores(componentTypes);
+        if (sparse.isEmpty()) {
+            return componentTypes;
+        }
+        var table = new HashSet<>(componentTypes);
+        sparse.forEach(store -> table.remove(store.getType()));
+        return table;
+    }
+
+    /**
+     * Vérifier qu'un archétype possède tous les types de composant stockés
+     * dans les colonnes des archétypes.
+     *
+     * @param archetype Archétype
+     * @param componentTypes Types de composant requis
+     * @return La valeur <code>true</code> si l'archétype correspond
+     */
+    private boolean matches(final Archetype archetype, final Set<Class<? extends Component>> componentTypes) {
+        for (var type : componentTypes) {
+            if (!archetype.contains(type) && Objects.isNull(sparseStore(type))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Enregistrer un type de composant, afin que son premier accès depuis un
+     * système exécuté en parallèle ne modifie pas le registre des types. Sans
+     * effet si le type est déjà enregistré.
+     *
+     * @param type Type de composant
+     */
+    public void registerType(final Class<? extends Component> type) {
+        typeId(type);
+    }
+
+    /**
+     * Obtenir le numéro de bit d'un type de composant. Un nouveau numéro est
+     * attribué au premier appel pour un type.
+     *
+     * @param type Type de composant
+     * @return Le numéro de bit
+     */
+    private int typeId(final Class<? extends Component> type) {
+        var id = types.get(type);
+        return Objects.isNull(id) ? newTypeId(type) : id;
+    }
+
+    /**
+     * Attribuer un numéro de bit à un type de composant, sous le verrou du
+     * gestionnaire. La vue du type est publiée avant le numéro, une lecture
+     * concurrente du registre trouve donc toujours la vue.
+     *
+     * @param type Type de composant
+     * @return Le numéro de bit
+     */
+    private synchronized int newTypeId(final Class<? extends Component> type) {
+        var id = types.get(type);
+        if (Objects.isNull(id)) {
+            id = types.size();
+            var current = stores;
+            if (id == current.length) {
+                current = Arrays.copyOf(current, id * 2);
+            }
+            current[id] = new ComponentStore<>(this, type);
+            stores = current;
+            types.put(type, id);
+        }
+        return id;
+    }
+
+    /**
+     * Réévaluer l'appartenance d'une entité à toutes les requêtes.
+     *
+     * @param entity Entité ajoutée ou modifiée
+     */
+    private void updateQueries(final Entity entity) {
+        for (var i = 0; i < queries.size(); i++) {
+            queries.get(i).update(entity);
+        }
+    }
+
+    /**
+     * Signaler la modification d'un composant aux requêtes qui suivent ce type
+     * de composant.
+     *
+     * @param entity Entité modifiée
+     * @param typeId Numéro de bit du type de composant modifié
+     */
+    private void changed(final Entity entity, final int typeId) {
+        for (var i = 0; i < queries.size(); i++) {
+            var query = queries.get(i);
+            if (query.tracks(typeId)) {
+                query.markChanged(entity);
+            }
+        }
+    }
+
+    /**
+     * Attribuer un emplacement et un identifiant compact à une entité. Les
+     * emplacements libérés sont réutilisés en priorité.
+     *
+     * @param entity Nouvelle entité
+     */
+    private void allocate(final Entity entity) {
+        int index;
+        if (freeCount > 0) {
+            index = freeSlots[--freeCount];
+        } else {
+            if (used == slots.length) {
+                var capacity = slots.length * 2;
+                slots = Arrays.copyOf(slots, capacity);
+                generations = Arrays.copyOf(generations, capacity);
+                freeSlots = Arrays.copyOf(freeSlots, capacity);
+            }
+            index = used++;
+            generations[index] = 1;
+        }
+        slots[index] = entity;
+        entity.setHandle(EntityHandle.of(index, generations[index]));
+        size++;
+    }
+
+    /**
+     * Libérer l'emplacement d'une entité. Le numéro de génération de
+     * l'emplacement est incrémenté afin d'invalider l'ancien identifiant.
+     *
+     * @param entity Entité supprimée
+     */
+    private void release(final Entity entity) {
+        var index = EntityHandle.getIndex(entity.getHandle());
+        slots[index] = null;
+        generations[index]++;
+        if (generations[index] == 0) {
+            // Le numéro de génération ne doit jamais être nul
+            generations[index] = 1;
+        }
+        freeSlots[freeCount++] = index;
+        entity.setHandle(EntityHandle.NULL);
+        size--;
+    }
+
+    /**
+     * Obtenir l'index modifiable des entités pour une famille.
+     *
+     * @param family Famille d'entité
+     * @return L'ensemble indexé, jamais <code>null</code>
+     */
+    private Set<Entity> index(final Family family) {
+        return families.computeIfAbsent(family, k -> new LinkedHashSet<>());
+    }
+
+    /**
+     * Parcourir un archétype bloc par bloc.
+     *
+     * @param archetype Archétype à parcourir
+     * @param action Traitement appliqué à chaque bloc
+     */
+    private static void forEachChunk(final Archetype archetype, final ChunkAction action) {
+        var size = archetype.size();
+        for (var from = 0; from < size; from += CHUNK_SIZE) {
+            action.apply(archetype, from, Math.min(from + CHUNK_SIZE, size));
+        }
+    }
+
+    /**
+     * Parcourir un intervalle de lignes d'un archétype par suites contiguës
+     * d'entités possédant les composants d'ensembles creux. Chaque suite est
+     * découpée en blocs.
+     *
+     * @param archetype Archétype à parcourir
+     * @param from Première ligne, incluse
+     * @param to Dernière ligne, exclue
+     * @param sparse Stockages en ensemble creux requis
+     * @param action Traitement appliqué à chaque bloc
+     */
+    private static void forEachRun(
+            final Archetype archetype,
+            final int from,
+            final int to,
+            final List<ComponentStore<?>> sparse,
+            final ChunkAction action) {
+
+        var start = from;
+        while (start < to) {
+            while (start < to && !containsAll(sparse, archetype.getEntity(start))) {
+                start++;
+            }
+            var end = start;
+            while (end < to && end - start < CHUNK_SIZE && containsAll(sparse, archetype.getEntity(end))) {
+                end++;
+            }
+            if (end > start) {
+                action.apply(archetype, start, end);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Vérifier qu'une entité possède un composant dans chaque ensemble creux.
+     *
+     * @param sparse Stockages en ensemble creux
+     * @param entity Entité
+     * @return La valeur <code>true</code> si l'entité possède tous les
+     * composants
+     */
+    private static boolean containsAll(final List<ComponentStore<?>> sparse, final Entity entity) {
+        for (var i = 0; i < sparse.size(); i++) {
+            if (!sparse.get(i).contains(entity)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtenir l'archétype correspondant exactement à un ensemble de types de
+     * composant. L'archétype est créé s'il n'existe pas.
+     *
+     * @param types Ensemble des types de composant
+     * @return L'archétype, jamais <code>null</code>
+     */
+    private Archetype archetype(final Set<Class<? extends Component>> types) {
+        var archetype = archetypes.get(types);
+        if (Objects.isNull(archetype)) {
+            archetype = new Archetype(types);
+            archetypes.put(new HashSet<>(types), archetype);
+            archetypeList.add(archetype);
+            for (var type : types) {
+                store(type).attach(archetype);
+            }
+        }
+        return archetype;
     }
 
 }
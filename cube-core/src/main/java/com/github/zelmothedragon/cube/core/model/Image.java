@@ -40,4 +40,18 @@ public interface Image<T> extends Component {
      * @return La hauteur
      */
     int getHeight();
+
+    /**
+     * Obtenir un instantané du contenu de l'image, pour un rendu différé (voir
+     * <code>DrawList</code>). Une image dont le contenu ne change pas est son
+     * propre instantané ; une image modifiée en cours de jeu renvoie une copie,
+     * en réutilisant si possible l'instantané précédent.
+     *
+     * @param previous Instantané précédent à réutiliser, peut être
+     * <code>null</code>
+     * @return L'instantané
+     */
+    default Image<T> snapshot(final Image<T> previous) {
+        return this;
+    }
 }
@@ -0,0 +1,207 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import com.github.zelmothedragon.cube.core.util.lang.Cast;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Réservoir d'objets recyclables. Les objets libérés sont réinitialisés puis
+ * conservés jusqu'à une capacité maximale, au-delà ils sont abandonnés au
+ * ramasse-miettes. Le réservoir tient des statistiques d'utilisation afin
+ * d'ajuster sa capacité.
+ * <p>
+ * Cette classe n'est pas conçue pour un usage concurrent.
+ *
+ * @param <T> Type des objets recyclés
+ * @author MOSELLE Maxime
+ */
+public final class Pool<T> {
+
+    /**
+     * Fonction de construction d'un nouvel objet.
+     */
+    private final Supplier<T> factory;
+
+    /**
+     * Fonction de réinitialisation d'un objet libéré.
+     */
+    private final Consumer<? super T> reset;
+
+    /**
+     * Objets disponibles.
+     */
+    private Object[] free;
+
+    /**
+     * Nombre d'objets disponibles.
+     */
+    private int size;
+
+    /**
+     * Nombre maximal d'objets conservés.
+     */
+    private int capacity;
+
+    /**
+     * Nombre d'objets obtenus depuis le réservoir.
+     */
+    private long hits;
+
+    /**
+     * Nombre d'objets construits faute d'objet disponible.
+     */
+    private long misses;
+
+    /**
+     * Nombre d'objets abandonnés faute de place.
+     */
+    private long dropped;
+
+    /**
+     * Constructeur. Construit un réservoir vide.
+     *
+     * @param factory Fonction de construction d'un nouvel objet
+     * @param reset Fonction de réinitialisation d'un objet libéré
+     * @param capacity Nombre maximal d'objets conservés
+     */
+    public Pool(
+            final Supplier<T> factory,
+            final Consumer<? super T> reset,
+            final int capacity) {
+
+        this.factory = factory;
+        this.reset = reset;
+        this.free = new Object[Math.min(capacity, 16)];
+        this.size = 0;
+        this.capacity = capacity;
+        this.hits = 0;
+        this.misses = 0;
+        this.dropped = 0;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("size", Pool<T>::size)
+                .thenWith("capacity", Pool::getCapacity)
+                .thenWith("hits", Pool::getHits)
+                .thenWith("misses", Pool::getMisses)
+                .thenWith("dropped", Pool::getDropped)
+                .apply(this);
+    }
+
+    /**
+     * Obtenir un objet. Un objet disponible est réutilisé en priorité, sinon
+     * un nouvel objet est construit.
+     *
+     * @return Un objet dans son état initial
+     */
+    public T obtain() {
+        T object;
+        if (size > 0) {
+            object = Cast.<T>unchecked(free[--size]);
+            free[size] = null;
+            hits++;
+        } else {
+            object = factory.get();
+            misses++;
+        }
+        return object;
+    }
+
+    /**
+     * Libérer un objet. L'objet est réinitialisé puis conservé si la capacité
+     * le permet. Un objet déjà disponible dans le réservoir ne peut pas être
+     * libéré une seconde fois, il serait sinon obtenu deux fois.
+     *
+     * @param object Objet à recycler
+     * @throws IllegalStateException Si l'objet est déjà libéré
+     */
+    public void release(final T object) {
+        for (var i = 0; i < size; i++) {
+            if (free[i] == object) {
+                throw new IllegalStateException("Object already released: " + object);
+            }
+        }
+        if (size < capacity) {
+            reset.accept(object);
+            if (size == free.length) {
+                free = Arrays.copyOf(free, Math.min(capacity, size * 2));
+            }
+            free[size++] = object;
+        } else {
+            dropped++;
+        }
+    }
+
+    /**
+     * Obtenir le taux de réutilisation des objets obtenus.
+     *
+     * @return Un taux entre <code>0</code> et <code>1</code>
+     */
+    public double getHitRate() {
+        var total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Obtenir le nombre d'objets disponibles.
+     *
+     * @return Le nombre d'objets disponibles
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre maximal d'objets conservés.
+     *
+     * @return La capacité
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Mutateur, modifier le nombre maximal d'objets conservés. Les objets en
+     * excès sont abandonnés.
+     *
+     * @param capacity La capacité
+     */
+    public void setCapacity(final int capacity) {
+        while (size > capacity) {
+            free[--size] = null;
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre d'objets obtenus depuis le réservoir.
+     *
+     * @return Le nombre de réutilisations
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre d'objets construits.
+     *
+     * @return Le nombre de constructions
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre d'objets abandonnés.
+     *
+     * @return Le nombre d'abandons
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+}
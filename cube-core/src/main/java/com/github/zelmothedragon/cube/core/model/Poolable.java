@@ -0,0 +1,14 @@
+package com.github.zelmothedragon.cube.core.model;
+
+/**
+ * Identifie les composants pouvant être recyclés par un réservoir d'objets.
+ *
+ * @author MOSELLE Maxime
+ */
+public interface Poolable {
+
+    /**
+     * Réinitialiser l'objet dans son état initial avant sa réutilisation.
+     */
+    void reset();
+}
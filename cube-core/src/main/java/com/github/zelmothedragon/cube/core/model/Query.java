@@ -0,0 +1,592 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Requête d'entités mise en cache. Une requête décrit les types de composant
+ * requis (<code>all</code>), dont au moins un est requis (<code>any</code>) ou
+ * interdits (<code>none</code>), ainsi qu'une famille optionnelle.
+ * <p>
+ * Une fois enregistrée auprès du gestionnaire d'entités, la requête est
+ * compilée en masques binaires de types de composant et la liste des entités
+ * correspondantes est maintenue à jour au fil des modifications. Les systèmes
+ * parcourent alors directement cette liste à chaque tour de boucle.
+ * <p>
+ * Une requête peut également suivre les modifications de certains types de
+ * composant (<code>changed</code>). Elle tient alors la liste des entités
+ * correspondantes dont l'un de ces composants a changé, ou qui sont devenues
+ * correspondantes, depuis le dernier appel à <code>forEachChanged</code>. Un
+ * système réactif ne traite ainsi que les entités modifiées.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class Query {
+
+    /**
+     * Capacité initiale de la liste des entités correspondantes.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Types de composant requis.
+     */
+    private final Set<Class<? extends Component>> all;
+
+    /**
+     * Types de composant dont au moins un est requis.
+     */
+    private final Set<Class<? extends Component>> any;
+
+    /**
+     * Types de composant interdits.
+     */
+    private final Set<Class<? extends Component>> none;
+
+    /**
+     * Types de composant dont les modifications sont suivies.
+     */
+    private final Set<Class<? extends Component>> changed;
+
+    /**
+     * Famille requise, ou <code>null</code> pour toutes les familles.
+     */
+    private Family family;
+
+    /**
+     * Masque compilé des types requis.
+     */
+    private BitSet allMask;
+
+    /**
+     * Masque compilé des types dont au moins un est requis.
+     */
+    private BitSet anyMask;
+
+    /**
+     * Masque compilé des types interdits.
+     */
+    private BitSet noneMask;
+
+    /**
+     * Masque compilé des types dont les modifications sont suivies.
+     */
+    private BitSet changedMask;
+
+    /**
+     * Gestionnaire auprès duquel la requête est enregistrée.
+     */
+    private EntityManager manager;
+
+    /**
+     * Entités correspondantes, de manière contiguë.
+     */
+    private Entity[] matches;
+
+    /**
+     * Nombre d'entités correspondantes.
+     */
+    private int size;
+
+    /**
+     * Position de chaque entité dans la liste des correspondances, indexée par
+     * l'indice d'emplacement de l'entité. La valeur <code>0</code> indique une
+     * entité absente, les positions sont donc décalées de un.
+     */
+    private int[] positions;
+
+    /**
+     * Entités modifiées depuis le dernier parcours, de manière contiguë.
+     */
+    private Entity[] dirty;
+
+    /**
+     * Nombre d'entités modifiées.
+     */
+    private int dirtyCount;
+
+    /**
+     * Position de chaque entité dans la liste des entités modifiées, indexée
+     * par l'indice d'emplacement de l'entité et décalée de un.
+     */
+    private int[] dirtyPositions;
+
+    /**
+     * Vue en lecture seule des entités correspondantes.
+     */
+    private final List<Entity> view;
+
+    /**
+     * Constructeur interne. Utiliser les méthodes statiques de construction.
+     */
+    private Query() {
+        this.all = new HashSet<>();
+        this.any = new HashSet<>();
+        this.none = new HashSet<>();
+        this.changed = new HashSet<>();
+        this.family = null;
+        this.manager = null;
+        this.matches = new Entity[INITIAL_CAPACITY];
+        this.size = 0;
+        this.positions = new int[0];
+        this.dirty = new Entity[INITIAL_CAPACITY];
+        this.dirtyCount = 0;
+        this.dirtyPositions = new int[0];
+        this.view = new MatchList();
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("all", (Query q) -> q.all)
+                .thenWith("any", q -> q.any)
+                .thenWith("none", q -> q.none)
+                .thenWith("changed", q -> q.changed)
+                .thenWith("family", q -> q.family)
+                .thenWith("size", Query::size)
+                .apply(this);
+    }
+
+    /**
+     * Construire une requête sur des types de composant requis.
+     *
+     * @param types Types de composant requis
+     * @return Une nouvelle requête
+     */
+    @SafeVarargs
+    public static Query all(final Class<? extends Component>... types) {
+        return new Query().and(types);
+    }
+
+    /**
+     * Construire une requête sur une famille d'entité.
+     *
+     * @param family Famille requise
+     * @return Une nouvelle requête
+     */
+    public static Query of(final Family family) {
+        return new Query().family(family);
+    }
+
+    /**
+     * Ajouter des types de composant requis.
+     *
+     * @param types Types de composant requis
+     * @return Cette requête afin de chaîner les appels de méthodes
+     */
+    @SafeVarargs
+    public final Query and(final Class<? extends Component>... types) {
+        checkNotRegistered();
+        for (var type : types) {
+            all.add(type);
+        }
+        return this;
+    }
+
+    /**
+     * Ajouter des types de composant dont au moins un est requis.
+     *
+     * @param types Types de composant
+     * @return Cette requête afin de chaîner les appels de méthodes
+     */
+    @SafeVarargs
+    public final Query any(final Class<? extends Component>... types) {
+        checkNotRegistered();
+        for (var type : types) {
+            any.add(type);
+        }
+        return this;
+    }
+
+    /**
+     * Ajouter des types de composant interdits.
+     *
+     * @param types Types de composant interdits
+     * @return Cette requête afin de chaîner les appels de méthodes
+     */
+    @SafeVarargs
+    public final Query none(final Class<? extends Component>... types) {
+        checkNotRegistered();
+        for (var type : types) {
+            none.add(type);
+        }
+        return this;
+    }
+
+    /**
+     * Suivre les modifications de types de composant. Les types suivis ne
+     * sont pas requis pour autant, ils sont généralement aussi déclarés par
+     * <code>all</code>.
+     *
+     * @param types Types de composant suivis
+     * @return Cette requête afin de chaîner les appels de méthodes
+     */
+    @SafeVarargs
+    public final Query changed(final Class<? extends Component>... types) {
+        checkNotRegistered();
+        for (var type : types) {
+            changed.add(type);
+        }
+        return this;
+    }
+
+    /**
+     * Restreindre la requête à une famille d'entité.
+     *
+     * @param family Famille requise
+     * @return Cette requête afin de chaîner les appels de méthodes
+     */
+    public Query family(final Family family) {
+        checkNotRegistered();
+        this.family = family;
+        return this;
+    }
+
+    /**
+     * Obtenir les entités correspondantes. La liste renvoyée est une vue en
+     * lecture seule, toujours à jour. Il ne faut pas modifier la structure des
+     * entités pendant son parcours.
+     *
+     * @return Les entités correspondantes
+     */
+    public List<Entity> getEntities() {
+        return view;
+    }
+
+    /**
+     * Obtenir une entité correspondante.
+     *
+     * @param index Position dans la liste des correspondances
+     * @return L'entité
+     */
+    public Entity get(final int index) {
+        Objects.checkIndex(index, size);
+        return matches[index];
+    }
+
+    /**
+     * Obtenir le nombre d'entités correspondantes.
+     *
+     * @return Le nombre d'entités
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Parcourir en parallèle les entités correspondantes. La liste est
+     * découpée en blocs répartis sur le réservoir de fils d'exécution du
+     * gestionnaire d'entités, selon sa taille minimale de bloc. Le parcours
+     * reste séquentiel pour une petite liste.
+     *
+     * @param action Traitement appliqué à chaque entité, depuis plusieurs
+     * processus
+     * @see EntityManager#forEachChunkParallel(Set, ChunkAction)
+     */
+    public void forEachParallel(final Consumer<? super Entity> action) {
+        var minChunkSize = isRegistered()
+                ? manager.getMinChunkSize()
+                : EntityManager.DEFAULT_MIN_CHUNK_SIZE;
+
+        forEachParallel(action, minChunkSize);
+    }
+
+    /**
+     * Parcourir en parallèle les entités correspondantes, avec une taille
+     * minimale de bloc explicite. Le traitement ne doit modifier que les
+     * composants de l'entité traitée ; les modifications de structure passent
+     * par le tampon de commandes.
+     *
+     * @param action Traitement appliqué à chaque entité, depuis plusieurs
+     * processus
+     * @param minChunkSize Taille minimale d'un bloc traité en parallèle
+     */
+    public void forEachParallel(final Consumer<? super Entity> action, final int minChunkSize) {
+        if (size <= minChunkSize || !isRegistered() || manager.getParallelPool().getParallelism() <= 1) {
+            view.forEach(action);
+        } else {
+            var entities = matches;
+            manager.getParallelPool().invoke(new RangeTask(
+                    (from, to) -> {
+                        for (var i = from; i < to; i++) {
+                            action.accept(entities[i]);
+                        }
+                    },
+                    0,
+                    size,
+                    minChunkSize
+            ));
+        }
+    }
+
+    /**
+     * Parcourir les entités modifiées depuis le dernier parcours, puis vider
+     * la liste des entités modifiées. Une entité modifiée à nouveau pendant le
+     * parcours figure dans le parcours suivant.
+     *
+     * @param action Traitement appliqué à chaque entité modifiée
+     */
+    public void forEachChanged(final Consumer<? super Entity> action) {
+        var count = dirtyCount;
+        for (var i = 0; i < count && i < dirtyCount; i++) {
+            var entity = dirty[i];
+            // Libérer la position avant le traitement, qui peut signaler une
+            // nouvelle modification de l'entité
+            dirtyPositions[EntityHandle.getIndex(entity.getHandle())] = 0;
+            dirty[i] = null;
+            action.accept(entity);
+        }
+        compactDirty(Math.min(count, dirtyCount));
+    }
+
+    /**
+     * Obtenir le nombre d'entités modifiées depuis le dernier parcours.
+     *
+     * @return Le nombre d'entités modifiées
+     */
+    public int changedCount() {
+        return dirtyCount;
+    }
+
+    /**
+     * Indiquer si la requête est enregistrée auprès d'un gestionnaire.
+     *
+     * @return La valeur <code>true</code> si la requête est enregistrée
+     */
+    public boolean isRegistered() {
+        return Objects.nonNull(manager);
+    }
+
+    /**
+     * Compiler la requête pour un gestionnaire d'entités.
+     *
+     * @param manager Gestionnaire d'entités
+     */
+    void compile(final EntityManager manager) {
+        if (isRegistered()) {
+            throw new IllegalStateException("Query already registered: " + this);
+        }
+        this.manager = manager;
+        this.allMask = manager.mask(all);
+        this.anyMask = manager.mask(any);
+        this.noneMask = manager.mask(none);
+        this.changedMask = manager.mask(changed);
+    }
+
+    /**
+     * Détacher la requête de son gestionnaire et vider les correspondances.
+     */
+    void release() {
+        Arrays.fill(matches, 0, size, null);
+        this.size = 0;
+        this.positions = new int[0];
+        Arrays.fill(dirty, 0, dirtyCount, null);
+        this.dirtyCount = 0;
+        this.dirtyPositions = new int[0];
+        this.manager = null;
+    }
+
+    /**
+     * Réévaluer l'appartenance d'une entité à cette requête.
+     *
+     * @param entity Entité ajoutée ou modifiée
+     */
+    void update(final Entity entity) {
+        var matching = matches(entity);
+        var contained = contains(entity);
+        if (matching && !contained) {
+            add(entity);
+            if (!changed.isEmpty()) {
+                // Une nouvelle correspondance compte comme une modification
+                markChanged(entity);
+            }
+        } else if (!matching && contained) {
+            remove(entity);
+        }
+    }
+
+    /**
+     * Retirer une entité de cette requête, si elle y figure.
+     *
+     * @param entity Entité supprimée
+     */
+    void remove(final Entity entity) {
+        var index = EntityHandle.getIndex(entity.getHandle());
+        if (index < positions.length && positions[index] > 0) {
+            var position = positions[index] - 1;
+            var last = size - 1;
+            if (position != last) {
+                var moved = matches[last];
+                matches[position] = moved;
+                positions[EntityHandle.getIndex(moved.getHandle())] = position + 1;
+            }
+            matches[last] = null;
+            positions[index] = 0;
+            size--;
+            removeDirty(index);
+        }
+    }
+
+    /**
+     * Indiquer si la requête suit les modifications d'un type de composant.
+     *
+     * @param typeId Numéro de bit du type de composant
+     * @return La valeur <code>true</code> si le type est suivi
+     */
+    boolean tracks(final int typeId) {
+        return changedMask.get(typeId);
+    }
+
+    /**
+     * Ajouter une entité à la liste des entités modifiées, si elle correspond
+     * à la requête et n'y figure pas déjà.
+     *
+     * @param entity Entité modifiée
+     */
+    void markChanged(final Entity entity) {
+        var index = EntityHandle.getIndex(entity.getHandle());
+        if (contains(entity)
+                && (index >= dirtyPositions.length || dirtyPositions[index] == 0)) {
+
+            if (index >= dirtyPositions.length) {
+                dirtyPositions = Arrays.copyOf(dirtyPositions, Math.max(index + 1, dirtyPositions.length * 2));
+            }
+            if (dirtyCount == dirty.length) {
+                dirty = Arrays.copyOf(dirty, dirtyCount * 2);
+            }
+            dirty[dirtyCount++] = entity;
+            dirtyPositions[index] = dirtyCount;
+        }
+    }
+
+    /**
+     * Vérifier la correspondance d'une entité avec les masques compilés.
+     *
+     * @param entity Entité à tester
+     * @return La valeur <code>true</code> si l'entité correspond
+     */
+    boolean matches(final Entity entity) {
+        var mask = entity.getMask();
+        var matching = Objects.isNull(family) || Objects.equals(family, entity.getFamily());
+        matching = matching && !mask.intersects(noneMask);
+        matching = matching && (anyMask.isEmpty() || mask.intersects(anyMask));
+        for (var bit = allMask.nextSetBit(0); matching && bit >= 0; bit = allMask.nextSetBit(bit + 1)) {
+            matching = mask.get(bit);
+        }
+        return matching;
+    }
+
+    /**
+     * Ajouter une entité à la fin de la liste des correspondances.
+     *
+     * @param entity Entité correspondante
+     */
+    private void add(final Entity entity) {
+        var index = EntityHandle.getIndex(entity.getHandle());
+        if (index >= positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(index + 1, positions.length * 2));
+        }
+        if (size == matches.length) {
+            matches = Arrays.copyOf(matches, size * 2);
+        }
+        matches[size++] = entity;
+        positions[index] = size;
+    }
+
+    /**
+     * Indiquer si une entité figure dans la liste des correspondances.
+     *
+     * @param entity Entité à tester
+     * @return La valeur <code>true</code> si l'entité figure dans la liste
+     */
+    private boolean contains(final Entity entity) {
+        var index = EntityHandle.getIndex(entity.getHandle());
+        return index < positions.length && positions[index] > 0;
+    }
+
+    /**
+     * Retirer une entité de la liste des entités modifiées, si elle y figure.
+     *
+     * @param index Indice d'emplacement de l'entité
+     */
+    private void removeDirty(final int index) {
+        if (index < dirtyPositions.length && dirtyPositions[index] > 0) {
+            var position = dirtyPositions[index] - 1;
+            var last = dirtyCount - 1;
+            if (position != last) {
+                var moved = dirty[last];
+                dirty[position] = moved;
+                if (Objects.nonNull(moved)) {
+                    dirtyPositions[EntityHandle.getIndex(moved.getHandle())] = position + 1;
+                }
+            }
+            dirty[last] = null;
+            dirtyPositions[index] = 0;
+            dirtyCount--;
+        }
+    }
+
+    /**
+     * Retirer les premières entrées, déjà traitées, de la liste des entités
+     * modifiées. Les entités signalées pendant le parcours sont ramenées en
+     * tête de liste.
+     *
+     * @param count Nombre d'entrées traitées
+     */
+    private void compactDirty(final int count) {
+        var remaining = dirtyCount - count;
+        if (remaining > 0) {
+            System.arraycopy(dirty, count, dirty, 0, remaining);
+            Arrays.fill(dirty, remaining, dirtyCount, null);
+            for (var i = 0; i < remaining; i++) {
+                dirtyPositions[EntityHandle.getIndex(dirty[i].getHandle())] = i + 1;
+            }
+        } else {
+            Arrays.fill(dirty, 0, dirtyCount, null);
+        }
+        dirtyCount = remaining;
+    }
+
+    /**
+     * Vérifier que la requête est encore modifiable.
+     */
+    private void checkNotRegistered() {
+        if (isRegistered()) {
+            throw new IllegalStateException("Query already registered: " + this);
+        }
+    }
+
+    /**
+     * Vue en lecture seule de la liste des correspondances.
+     */
+    private final class MatchList extends AbstractList<Entity> implements RandomAccess {
+
+        @Override
+        public Entity get(final int index) {
+            return Query.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void forEach(final Consumer<? super Entity> action) {
+            // Parcours direct du tableau, sans itérateur
+            for (var i = 0; i < size; i++) {
+                action.accept(matches[i]);
+            }
+        }
+
+    }
+
+}
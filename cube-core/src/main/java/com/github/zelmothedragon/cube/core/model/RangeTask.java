@@ -0,0 +1,79 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tâche de traitement parallèle d'un intervalle d'indices. L'intervalle est
+ * coupé en deux tant que sa taille dépasse le seuil, les moitiés sont alors
+ * traitées par les processus du réservoir de fils d'exécution.
+ *
+ * @author MOSELLE Maxime
+ */
+final class RangeTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Traitement appliqué à un intervalle d'indices.
+     */
+    @FunctionalInterface
+    interface RangeAction {
+
+        /**
+         * Traiter un intervalle d'indices.
+         *
+         * @param from Premier indice, inclus
+         * @param to Dernier indice, exclu
+         */
+        void apply(int from, int to);
+    }
+
+    /**
+     * Traitement appliqué à chaque intervalle.
+     */
+    private final transient RangeAction action;
+
+    /**
+     * Premier indice, inclus.
+     */
+    private final int from;
+
+    /**
+     * Dernier indice, exclu.
+     */
+    private final int to;
+
+    /**
+     * Taille maximale d'un intervalle traité sans découpage.
+     */
+    private final int threshold;
+
+    /**
+     * Constructeur.
+     *
+     * @param action Traitement appliqué à chaque intervalle
+     * @param from Premier indice, inclus
+     * @param to Dernier indice, exclu
+     * @param threshold Taille maximale d'un intervalle traité sans découpage
+     */
+    RangeTask(final RangeAction action, final int from, final int to, final int threshold) {
+        this.action = action;
+        this.from = from;
+        this.to = to;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= threshold) {
+            action.apply(from, to);
+        } else {
+            var middle = (from + to) >>> 1;
+            invokeAll(
+                    new RangeTask(action, from, middle, threshold),
+                    new RangeTask(action, middle, to, threshold)
+            );
+        }
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import com.github.zelmothedragon.cube.core.GameManager;
+import com.github.zelmothedragon.cube.core.graphic.Renderer;
+import com.github.zelmothedragon.cube.core.model.BoundedBox;
+import com.github.zelmothedragon.cube.core.model.Component;
+import com.github.zelmothedragon.cube.core.model.Entity;
+import com.github.zelmothedragon.cube.core.model.EntityListener;
+import com.github.zelmothedragon.cube.core.model.ImageMap;
+import com.github.zelmothedragon.cube.core.util.lang.Cast;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Système générique de gestion d'une couche de décor. Le système dessine,
+ * pour chaque carte de tuiles positionnée, la couche correspondant à son
+ * indice de profondeur. Les cartes à dessiner sont maintenues au fil des
+ * événements du gestionnaire d'entités.
+ * <p>
+ * Le rendu d'une carte peut être conservé d'une trame à l'autre par le
+ * gestionnaire de rendu. Les cartes modifiées ou supprimées lui sont signalées
+ * au rendu suivant (voir <code>Renderer.invalidate</code>).
+ *
+ * @author MOSELLE Maxime
+ */
+public abstract class AbstractImageMapSystem extends AbstractSystem implements EntityListener {
+
+    /**
+     * Indice de profondeur de la couche dessinée.
+     */
+    private final int layout;
+
+    /**
+     * Entités possédant une carte de tuiles positionnée et comportant cet
+     * indice de profondeur. La liste est maintenue au fil des événements du
+     * gestionnaire d'entités.
+     */
+    private final List<Entity> maps;
+
+    /**
+     * Cartes modifiées ou supprimées depuis le dernier rendu, à signaler au
+     * gestionnaire de rendu.
+     */
+    private final List<ImageMap<?>> stale;
+
+    /**
+     * Carte de tuiles créée par le système.
+     */
+    private final Entity map;
+
+    /**
+     * Constructeur. Construire le système d'une couche de décor, appelé par
+     * le constructeur de chaque couche.
+     *
+     * @param manager Gestionnaire du jeu
+     * @param priority Priorié d'exécuter du système
+     * @param layout Indice de profondeur de la couche dessinée
+     */
+    protected AbstractImageMapSystem(final GameManager manager, final int priority, final int layout) {
+        super(manager, priority);
+        reads(ImageMap.class, BoundedBox.class);
+        this.layout = layout;
+        this.maps = new ArrayList<>();
+        this.stale = new ArrayList<>();
+        manager
+                .getEntities()
+                .filter(ImageMap.class)
+                .forEach(this::entityAdded);
+        manager.getEntities().addListener(this);
+        this.map = manager.getFactory().createMapDebug();
+    }
+
+    @Override
+    protected void release() {
+        manager.getEntities().removeListener(this);
+        manager.getEntities().getCommands().destroy(map);
+        maps.clear();
+        stale.clear();
+    }
+
+    @Override
+    public void update() {
+    }
+
+    /**
+     * Accesseur, obtenir l'indice de profondeur de la couche dessinée.
+     *
+     * @return L'indice de profondeur
+     */
+    public int getLayout() {
+        return layout;
+    }
+
+    @Override
+    public void draw(final Renderer<?> renderer) {
+        synchronized (stale) {
+            for (var i = 0; i < stale.size(); i++) {
+                renderer.invalidate(Cast.unchecked(stale.get(i)));
+            }
+            stale.clear();
+        }
+        for (var i = 0; i < maps.size(); i++) {
+            drawImage(renderer, maps.get(i));
+        }
+    }
+
+    @Override
+    public void entityAdded(final Entity entity) {
+        if (isDrawable(entity)) {
+            maps.add(entity);
+        }
+    }
+
+    @Override
+    public void entityRemoved(final Entity entity) {
+        if (maps.remove(entity)) {
+            invalidate(entity);
+        }
+    }
+
+    @Override
+    public void componentAdded(final Entity entity, final Class<? extends Component> type) {
+        refresh(entity);
+    }
+
+    @Override
+    public void componentRemoved(final Entity entity, final Class<? extends Component> type) {
+        refresh(entity);
+    }
+
+    @Override
+    public void componentChanged(final Entity entity, final Class<? extends Component> type) {
+        if (type == ImageMap.class) {
+            refresh(entity);
+            invalidate(entity);
+        }
+    }
+
+    /**
+     * Réévaluer la présence d'une entité modifiée dans la liste des cartes.
+     *
+     * @param entity Entité modifiée
+     */
+    private void refresh(final Entity entity) {
+        var drawable = isDrawable(entity);
+        var contained = maps.contains(entity);
+        if (drawable && !contained) {
+            maps.add(entity);
+        } else if (!drawable && contained) {
+            maps.remove(entity);
+        }
+    }
+
+    /**
+     * Retenir la carte de tuiles d'une entité, à signaler au gestionnaire de
+     * rendu. Les modifications peuvent être signalées depuis un système
+     * exécuté en parallèle.
+     *
+     * @param entity Entité modifiée ou supprimée
+     */
+    private void invalidate(final Entity entity) {
+        var image = entity.getComponent(ImageMap.class);
+        if (Objects.nonNull(image)) {
+            synchronized (stale) {
+                // Les cartes sont comparées par identité, comme dans le cache
+                var known = false;
+                for (var i = 0; i < stale.size() && !known; i++) {
+                    known = stale.get(i) == image;
+                }
+                if (!known) {
+                    stale.add(image);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indiquer si une entité possède une carte de tuiles positionnée
+     * comportant l'indice de profondeur de la couche.
+     *
+     * @param entity Entité à tester
+     * @return La valeur <code>true</code> si la carte doit être dessinée
+     */
+    private boolean isDrawable(final Entity entity) {
+        return entity.hasComponent(ImageMap.class)
+                && entity.hasComponent(BoundedBox.class)
+                && entity.getComponent(ImageMap.class).getLayoutCount() > layout;
+    }
+
+    /**
+     * Dessiner la couche de la carte de tuiles d'une entité.
+     *
+     * @param renderer Gestionnaire de rendu
+     * @param entity Entité possédant une carte de tuiles positionnée
+     */
+    private void drawImage(final Renderer<?> renderer, final Entity entity) {
+        var box = entity.getComponent(BoundedBox.class);
+        ImageMap<?> image = entity.getComponent(ImageMap.class);
+        renderer.drawImage(
+                box.getBound().getXp(),
+                box.getBound().getYp(),
+                Cast.<ImageMap<int[]>>unchecked(image),
+                layout
+        );
+    }
+
+}
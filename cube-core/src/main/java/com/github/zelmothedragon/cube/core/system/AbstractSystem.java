@@ -2,9 +2,27 @@ package com.github.zelmothedragon.cube.core.system;
 
 import com.github.zelmothedragon.cube.core.GameManager;
 import com.github.zelmothedragon.cube.core.graphic.Renderer;
+import com.github.zelmothedragon.cube.core.model.Component;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Système générique.
+ * <p>
+ * Un système peut déclarer les types de composant qu'il lit et qu'il modifie
+ * lors de sa mise à jour (méthodes <code>reads</code> et <code>writes</code>,
+ * appelées depuis le constructeur). Le gestionnaire des systèmes exécute alors
+ * en parallèle les systèmes sans conflit d'accès. Un système sans déclaration
+ * est exclusif : il ne s'exécute jamais en même temps qu'un autre système.
+ * <p>
+ * Un système coûteux peut réduire sa fréquence de mise à jour (méthode
+ * <code>every</code>) : il n'est alors mis à jour qu'un tour sur N, décalé
+ * par rapport aux autres systèmes de même fréquence pour répartir la charge.
+ * Il peut aussi déclarer un budget de temps par tour (méthode
+ * <code>budget</code>) et découper un long traitement en consultant
+ * <code>hasTimeLeft</code>, pour le reprendre au tour suivant.
  *
  * @author MOSELLE Maxime
  */
@@ -25,6 +43,55 @@ public abstract class AbstractSystem implements Comparable<AbstractSystem> {
      */
     private boolean enabled;
 
+    /**
+     * Types de composant lus lors de la mise à jour.
+     */
+    private final Set<Class<? extends Component>> reads;
+
+    /**
+     * Types de composant modifiés lors de la mise à jour.
+     */
+    private final Set<Class<? extends Component>> writes;
+
+    /**
+     * Indique si le système a déclaré ses accès aux composants.
+     */
+    private boolean declared;
+
+    /**
+     * Mesures de performance du système.
+     */
+    private final SystemProfile profile;
+
+    /**
+     * Diviseur de la fréquence de mise à jour, le système est mis à jour un
+     * tour sur <code>tickDivisor</code>.
+     */
+    private int tickDivisor;
+
+    /**
+     * Décalage du tour de mise à jour, attribué par le gestionnaire des
+     * systèmes.
+     */
+    private int tickPhase;
+
+    /**
+     * Budget de temps par mise à jour et par rendu, en nanosecondes,
+     * <code>0</code> pour aucun budget.
+     */
+    private long budget;
+
+    /**
+     * Échéance de la tranche de temps en cours.
+     */
+    private long sliceDeadline;
+
+    /**
+     * Gestionnaire des systèmes auquel le système est inscrit, ou
+     * <code>null</code>.
+     */
+    private SystemManager owner;
+
     /**
      * Constructeur. Construit un système spécialisé dans un traitement. Le
      * système est inactif par défaut.
@@ -36,6 +103,15 @@ public abstract class AbstractSystem implements Comparable<AbstractSystem> {
         this.manager = manager;
         this.priority = priority;
         this.enabled = true;
+        this.reads = new HashSet<>();
+        this.writes = new HashSet<>();
+        this.declared = false;
+        this.profile = new SystemProfile(getClass());
+        this.tickDivisor = 1;
+        this.tickPhase = 0;
+        this.budget = 0L;
+        this.sliceDeadline = Long.MAX_VALUE;
+        this.owner = null;
     }
 
     @Override
@@ -55,18 +131,194 @@ public abstract class AbstractSystem implements Comparable<AbstractSystem> {
      */
     public abstract void draw(Renderer<?> renderer);
 
+    /**
+     * Déclarer des types de composant lus lors de la mise à jour.
+     *
+     * @param types Types de composant lus
+     */
+    @SafeVarargs
+    protected final void reads(final Class<? extends Component>... types) {
+        for (var type : types) {
+            reads.add(type);
+        }
+        this.declared = true;
+    }
+
+    /**
+     * Déclarer des types de composant modifiés lors de la mise à jour. Un type
+     * modifié est implicitement lu.
+     *
+     * @param types Types de composant modifiés
+     */
+    @SafeVarargs
+    protected final void writes(final Class<? extends Component>... types) {
+        for (var type : types) {
+            writes.add(type);
+        }
+        this.declared = true;
+    }
+
+    /**
+     * Déclarer la fréquence de mise à jour du système, un tour sur
+     * <code>divisor</code>. Le rendu a toujours lieu à chaque tour.
+     *
+     * @param divisor Diviseur de la fréquence, au moins un
+     */
+    protected final void every(final int divisor) {
+        if (divisor < 1) {
+            throw new IllegalArgumentException("Invalid tick divisor: " + divisor);
+        }
+        this.tickDivisor = divisor;
+    }
+
+    /**
+     * Déclarer un budget de temps par mise à jour et par rendu.
+     *
+     * @param nanos Budget en nanosecondes, <code>0</code> pour aucun budget
+     */
+    protected final void budget(final long nanos) {
+        if (nanos < 0L) {
+            throw new IllegalArgumentException("Invalid budget: " + nanos);
+        }
+        this.budget = nanos;
+    }
+
+    /**
+     * Indiquer s'il reste du temps dans le budget de la mise à jour ou du
+     * rendu en cours. Sans budget, il reste toujours du temps.
+     *
+     * @return La valeur <code>true</code> si le traitement peut continuer
+     */
+    protected final boolean hasTimeLeft() {
+        return sliceDeadline == Long.MAX_VALUE || System.nanoTime() < sliceDeadline;
+    }
+
+    /**
+     * Accesseur, obtenir le diviseur de la fréquence de mise à jour.
+     *
+     * @return Le diviseur
+     */
+    public int getTickDivisor() {
+        return tickDivisor;
+    }
+
+    /**
+     * Accesseur, obtenir le budget de temps par mise à jour et par rendu.
+     *
+     * @return Le budget en nanosecondes, <code>0</code> pour aucun budget
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Accesseur, obtenir les types de composant lus lors de la mise à jour.
+     *
+     * @return Les types de composant, en lecture seule
+     */
+    public Set<Class<? extends Component>> getReads() {
+        return Collections.unmodifiableSet(reads);
+    }
+
+    /**
+     * Accesseur, obtenir les types de composant modifiés lors de la mise à
+     * jour.
+     *
+     * @return Les types de composant, en lecture seule
+     */
+    public Set<Class<? extends Component>> getWrites() {
+        return Collections.unmodifiableSet(writes);
+    }
+
+    /**
+     * Indiquer si le système est exclusif, c'est-à-dire s'il n'a déclaré aucun
+     * accès aux composants.
+     *
+     * @return La valeur <code>true</code> si le système est exclusif
+     */
+    public boolean isExclusive() {
+        return !declared;
+    }
+
+    /**
+     * Accesseur, obtenir les mesures de performance du système.
+     *
+     * @return Les mesures de performance
+     */
+    public SystemProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Indiquer si la mise à jour de ce système est en conflit avec celle d'un
+     * autre système : l'un des deux est exclusif, ou l'un modifie un type de
+     * composant accédé par l'autre.
+     *
+     * @param other Autre système
+     * @return La valeur <code>true</code> si les systèmes sont en conflit
+     */
+    boolean conflictsWith(final AbstractSystem other) {
+        return isExclusive()
+                || other.isExclusive()
+                || !Collections.disjoint(writes, other.writes)
+                || !Collections.disjoint(writes, other.reads)
+                || !Collections.disjoint(reads, other.writes);
+    }
+
+    /**
+     * Mutateur, modifier le décalage du tour de mise à jour.
+     *
+     * @param tickPhase Décalage, entre <code>0</code> et le diviseur
+     */
+    void setTickPhase(final int tickPhase) {
+        this.tickPhase = tickPhase;
+    }
+
+    /**
+     * Indiquer si le système doit être mis à jour à un tour donné.
+     *
+     * @param tick Numéro du tour
+     * @return La valeur <code>true</code> si le tour revient au système
+     */
+    boolean isDue(final long tick) {
+        return (tick + tickPhase) % tickDivisor == 0;
+    }
+
+    /**
+     * Ouvrir une tranche de temps, avant une mise à jour ou un rendu.
+     */
+    void beginSlice() {
+        this.sliceDeadline = budget > 0L ? System.nanoTime() + budget : Long.MAX_VALUE;
+    }
+
+    /**
+     * Mutateur, modifier le gestionnaire des systèmes auquel le système est
+     * inscrit.
+     *
+     * @param owner Gestionnaire des systèmes, ou <code>null</code>
+     */
+    void setOwner(final SystemManager owner) {
+        this.owner = owner;
+    }
+
     /**
      * Activer le système.
      */
     public void enable() {
-        this.enabled = true;
+        if (!enabled) {
+            this.enabled = true;
+            toggled();
+        }
     }
 
     /**
      * Désactiver le système.
      */
     public void disable() {
-        this.enabled = false;
+        if (enabled) {
+            this.enabled = false;
+            toggled();
+        }
     }
 
     /**
@@ -79,4 +331,22 @@ public abstract class AbstractSystem implements Comparable<AbstractSystem> {
         return enabled;
     }
 
+    /**
+     * Libérer les ressources du système (entités créées, requêtes, écouteurs)
+     * lorsqu'il est désactivé puis retiré par le gestionnaire des systèmes.
+     * Par défaut, le système ne détient aucune ressource.
+     */
+    protected void release() {
+        // RAS
+    }
+
+    /**
+     * Signaler le changement d'état au gestionnaire des systèmes.
+     */
+    private void toggled() {
+        if (Objects.nonNull(owner)) {
+            owner.toggled(this);
+        }
+    }
+
 }
@@ -2,9 +2,11 @@ package com.github.zelmothedragon.cube.core.system;
 
 import com.github.zelmothedragon.cube.core.GameManager;
 import com.github.zelmothedragon.cube.core.model.AnimatedImage;
+import com.github.zelmothedragon.cube.core.model.Archetype;
 import com.github.zelmothedragon.cube.core.model.BoundedBox;
-import com.github.zelmothedragon.cube.core.model.Entity;
+import com.github.zelmothedragon.cube.core.model.Component;
 import com.github.zelmothedragon.cube.core.graphic.Renderer;
+import java.util.Set;
 
 /**
  * Système de gestion des images animées.
@@ -13,6 +15,14 @@ import com.github.zelmothedragon.cube.core.graphic.Renderer;
  */
 public final class AnimatedImageSystem extends AbstractSystem {
 
+    /**
+     * Types de composant requis pour le rendu.
+     */
+    private static final Set<Class<? extends Component>> DRAWABLE = Set.of(
+            AnimatedImage.class,
+            BoundedBox.class
+    );
+
     /**
      * Constructeur. Constuire un système, une seule instance est nécessaire
      * pour le fonctionnemenr global de l'application. Le système doit être
@@ -23,34 +33,48 @@ public final class AnimatedImageSystem extends AbstractSystem {
      */
     AnimatedImageSystem(final GameManager manager, final int priority) {
         super(manager, priority);
+        reads(BoundedBox.class);
+        writes(AnimatedImage.class);
     }
 
     @Override
     public void update() {
         manager
                 .getEntities()
-                .filter(AnimatedImage.class)
-                .stream()
-                .map(e -> e.getComponent(AnimatedImage.class))
-                .forEach(AnimatedImage::update);
+                .forEachChunkParallel(AnimatedImage.class, AnimatedImageSystem::updateImages);
     }
 
     @Override
     public void draw(final Renderer<?> renderer) {
         manager
                 .getEntities()
-                .filter(AnimatedImage.class)
-                .forEach(e -> drawImage(renderer, e));
+                .forEachChunk(DRAWABLE, (a, from, to) -> drawImages(renderer, a, from, to));
     }
 
-    private static void drawImage(final Renderer<?> renderer, final Entity entity) {
-        var box = entity.getComponent(BoundedBox.class);
-        var image = entity.getComponent(AnimatedImage.class);
-        renderer.drawImage(
-                box.getBound().getXp(),
-                box.getBound().getYp(),
-                image
-        );
+    private static void updateImages(final Archetype archetype, final int from, final int to) {
+        var images = archetype.getColumn(AnimatedImage.class);
+        for (var i = from; i < to; i++) {
+            ((AnimatedImage<?>) images[i]).update();
+        }
+    }
+
+    private static void drawImages(
+            final Renderer<?> renderer,
+            final Archetype archetype,
+            final int from,
+            final int to) {
+
+        var boxes = archetype.getColumn(BoundedBox.class);
+        var images = archetype.getColumn(AnimatedImage.class);
+        for (var i = from; i < to; i++) {
+            var box = (BoundedBox) boxes[i];
+            var image = (AnimatedImage) images[i];
+            renderer.drawImage(
+                    box.getBound().getXp(),
+                    box.getBound().getYp(),
+                    image
+            );
+        }
     }
 
 }
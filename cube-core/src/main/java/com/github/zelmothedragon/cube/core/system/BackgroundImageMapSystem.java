@@ -1,17 +1,13 @@
 package com.github.zelmothedragon.cube.core.system;
 
 import com.github.zelmothedragon.cube.core.GameManager;
-import com.github.zelmothedragon.cube.core.graphic.Renderer;
-import com.github.zelmothedragon.cube.core.model.BoundedBox;
-import com.github.zelmothedragon.cube.core.model.Entity;
-import com.github.zelmothedragon.cube.core.model.ImageMap;
 
 /**
  * Système de gestion du décor en arrière plan.
  *
  * @author MOSELLE Maxime
  */
-public class BackgroundImageMapSystem extends AbstractSystem {
+public class BackgroundImageMapSystem extends AbstractImageMapSystem {
 
     /**
      * Indice de profondeur de l'arrière plan.
@@ -27,34 +23,7 @@ public class BackgroundImageMapSystem extends AbstractSystem {
      * @param priority Priorié d'exécuter du système
      */
     BackgroundImageMapSystem(final GameManager manager, final int priority) {
-        super(manager, priority);
-        manager.getFactory().createMapDebug();
-    }
-
-    @Override
-    public void update() {
-    }
-
-    @Override
-    public void draw(final Renderer<?> renderer) {
-        manager
-                .getEntities()
-                .filter(ImageMap.class)
-                .forEach(e -> drawImage(renderer, e));
-
-    }
-
-    private static void drawImage(final Renderer<?> renderer, final Entity entity) {
-        var box = entity.getComponent(BoundedBox.class);
-        var image = entity.getComponent(ImageMap.class);
-        if (image.getLayoutCount() > LAYOUT) {
-            renderer.drawImage(
-                    box.getBound().getXp(),
-                    box.getBound().getYp(),
-                    image,
-                    LAYOUT
-            );
-        }
+        super(manager, priority, LAYOUT);
     }
 
 }
@@ -4,6 +4,7 @@ import com.github.zelmothedragon.cube.core.GameManager;
 import com.github.zelmothedragon.cube.core.model.BoundedBox;
 import com.github.zelmothedragon.cube.core.model.Entity;
 import com.github.zelmothedragon.cube.core.model.Camera;
+import com.github.zelmothedragon.cube.core.model.Query;
 import com.github.zelmothedragon.cube.core.graphic.Renderer;
 
 /**
@@ -13,6 +14,12 @@ import com.github.zelmothedragon.cube.core.graphic.Renderer;
  */
 public final class CameraSystem extends AbstractSystem {
 
+    /**
+     * Entités suivies par la caméra. Seuls les déplacements signalés depuis la
+     * dernière mise à jour sont traités.
+     */
+    private final Query targets;
+
     /**
      * Constructeur. Constuire un système, une seule instance est nécessaire
      * pour le fonctionnemenr global de l'application. Le système doit être
@@ -23,16 +30,24 @@ public final class CameraSystem extends AbstractSystem {
      */
     CameraSystem(final GameManager manager, final int priority) {
         super(manager, priority);
+        reads(BoundedBox.class);
+        writes(Camera.class);
+        this.targets = manager
+                .getEntities()
+                .register(Query
+                        .all(Camera.class, BoundedBox.class)
+                        .changed(BoundedBox.class));
+    }
+
+    @Override
+    protected void release() {
+        manager.getEntities().unregister(targets);
     }
 
     @Override
     public void update() {
 
-        manager
-                .getEntities()
-                .filter(Camera.class)
-                .stream()
-                .forEach(CameraSystem::updateCamera);
+        targets.forEachChanged(CameraSystem::updateCamera);
     }
 
     @Override
@@ -54,11 +69,9 @@ public final class CameraSystem extends AbstractSystem {
     private static void updateCamera(final Entity entity) {
 
         var camera = Camera.INSTANCE;
-        if (entity.hasComponent(BoundedBox.class)) {
-            var box = entity.getComponent(BoundedBox.class);
-            camera.setXp(box.getBound().getXp());
-            camera.setYp(box.getBound().getYp());
-        }
+        var box = entity.getComponent(BoundedBox.class);
+        camera.setXp(box.getBound().getXp());
+        camera.setYp(box.getBound().getYp());
     }
 
 }
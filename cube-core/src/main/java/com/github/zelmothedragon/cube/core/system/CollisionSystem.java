@@ -1,15 +1,17 @@
 package com.github.zelmothedragon.cube.core.system;
 
 import com.github.zelmothedragon.cube.core.GameManager;
+import com.github.zelmothedragon.cube.core.model.Archetype;
 import com.github.zelmothedragon.cube.core.model.Block;
 import com.github.zelmothedragon.cube.core.model.BoundedBox;
+import com.github.zelmothedragon.cube.core.model.Component;
 import com.github.zelmothedragon.cube.core.model.Movable;
-import com.github.zelmothedragon.cube.core.model.Entity;
 import com.github.zelmothedragon.cube.core.graphic.Renderer;
 import com.github.zelmothedragon.cube.core.util.geometry.Rectangle;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Système de collision.
@@ -18,42 +20,74 @@ import java.util.stream.Collectors;
  */
 public final class CollisionSystem extends AbstractSystem {
 
+    /**
+     * Types de composant requis pour une entité mobile.
+     */
+    private static final Set<Class<? extends Component>> MOVABLE = Set.of(
+            Movable.class,
+            BoundedBox.class
+    );
+
+    /**
+     * Zones de délimitation solides, réutilisées d'une mise à jour à l'autre.
+     */
+    private final List<BoundedBox> solidBlocks;
+
     public CollisionSystem(final GameManager manager, final int priority) {
         super(manager, priority);
+        reads(Movable.class);
+        writes(BoundedBox.class);
+        this.solidBlocks = new ArrayList<>();
     }
 
     @Override
     public void update() {
-        var solidBlocks = manager
+        solidBlocks.clear();
+        manager
                 .getEntities()
-                .filter(BoundedBox.class)
-                .stream()
-                .map(e -> e.getComponent(BoundedBox.class))
-                .filter(e -> Objects.equals(e.getBlock(), Block.SOLID))
-                .collect(Collectors.toList());
+                .forEachChunk(BoundedBox.class, this::collectSolidBlocks);
 
         manager
                 .getEntities()
-                .filter(Movable.class)
-                .forEach(e -> checkCollision(solidBlocks, e));
+                .forEachChunk(MOVABLE, this::checkCollisions);
     }
 
     @Override
     public void draw(final Renderer<?> renderer) {
     }
 
-    private static void checkCollision(final List<BoundedBox> solidBlocks, final Entity entity) {
+    private void collectSolidBlocks(final Archetype archetype, final int from, final int to) {
+        var boxes = archetype.getColumn(BoundedBox.class);
+        for (var i = from; i < to; i++) {
+            var box = (BoundedBox) boxes[i];
+            if (Objects.equals(box.getBlock(), Block.SOLID)) {
+                solidBlocks.add(box);
+            }
+        }
+    }
+
+    private void checkCollisions(final Archetype archetype, final int from, final int to) {
+        var boxes = archetype.getColumn(BoundedBox.class);
+        for (var i = from; i < to; i++) {
+            if (checkCollision(solidBlocks, (BoundedBox) boxes[i])) {
+                archetype.getEntity(i).markChanged(BoundedBox.class);
+            }
+        }
+    }
+
+    private static boolean checkCollision(final List<BoundedBox> solidBlocks, final BoundedBox box) {
 
-        var box = entity.getComponent(BoundedBox.class);
         var aabb = box.getCollision();
 
-        solidBlocks
-                .stream()
-                .filter(b -> !Objects.equals(b, box))
-                .map(b -> b.getCollision())
-                .filter(b -> b.intersects(aabb))
-                .map(b -> b.createIntersection(aabb))
-                .forEach(r -> adjustOffset(box, r));
+        var adjusted = false;
+        for (var i = 0; i < solidBlocks.size(); i++) {
+            var block = solidBlocks.get(i);
+            if (!Objects.equals(block, box) && block.getCollision().intersects(aabb)) {
+                adjustOffset(box, block.getCollision().createIntersection(aabb));
+                adjusted = true;
+            }
+        }
+        return adjusted;
     }
 
     private static void adjustOffset(final BoundedBox box, final Rectangle offset) {
@@ -0,0 +1,39 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import java.util.List;
+
+/**
+ * Fournisseur des systèmes du moteur.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class CoreSystemProvider implements SystemProvider {
+
+    /**
+     * Constructeur par défaut, requis par <code>ServiceLoader</code>.
+     */
+    public CoreSystemProvider() {
+        // RAS
+    }
+
+    @Override
+    public List<SystemDefinition> getSystems() {
+        return List.of(
+                SystemDefinition.enabled(MenuSystem.class, 100, MenuSystem::new),
+                SystemDefinition.enabled(CameraSystem.class, 200, CameraSystem::new),
+                SystemDefinition.enabled(CollisionSystem.class, 201, CollisionSystem::new),
+                SystemDefinition.enabled(PlayerSystem.class, 202, PlayerSystem::new),
+                SystemDefinition.enabled(BackgroundImageMapSystem.class, 301, BackgroundImageMapSystem::new),
+                SystemDefinition.enabled(ShadowImageMapSystem.class, 302, ShadowImageMapSystem::new),
+                SystemDefinition.enabled(GroundImageMapSystem.class, 303, GroundImageMapSystem::new),
+                SystemDefinition.enabled(ImageSystem.class, 304, ImageSystem::new),
+                SystemDefinition.enabled(AnimatedImageSystem.class, 305, AnimatedImageSystem::new),
+                SystemDefinition.enabled(ForegroundImageMapSystem.class, 306, ForegroundImageMapSystem::new),
+                SystemDefinition.enabled(SkyImageMapSystem.class, 307, SkyImageMapSystem::new),
+                SystemDefinition.disabled(MandelbrotSystem.class, 800, MandelbrotSystem::new),
+                SystemDefinition.enabled(TestSystem.class, 901, TestSystem::new),
+                SystemDefinition.disabled(DebugSystem.class, Integer.MAX_VALUE, DebugSystem::new)
+        );
+    }
+
+}
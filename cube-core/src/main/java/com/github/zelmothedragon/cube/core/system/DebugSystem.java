@@ -7,12 +7,13 @@ import com.github.zelmothedragon.cube.core.model.Clock;
 import com.github.zelmothedragon.cube.core.model.FontImage;
 import com.github.zelmothedragon.cube.core.model.Movable;
 import com.github.zelmothedragon.cube.core.model.Entity;
+import com.github.zelmothedragon.cube.core.model.Query;
+import com.github.zelmothedragon.cube.core.util.lang.Cast;
 import com.github.zelmothedragon.cube.core.graphic.Renderer;
 import com.github.zelmothedragon.cube.pixel.graphic.Pixels;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Système de déboggage.
@@ -21,8 +22,38 @@ import java.util.stream.Collectors;
  */
 public final class DebugSystem extends AbstractSystem {
 
+    /**
+     * Durée d'un tour de boucle à 60 images par seconde, en nanosecondes.
+     */
+    private static final long FRAME_BUDGET = 1_000_000_000L / 60;
+
+    /**
+     * Largeur en pixel de la barre représentant un tour de boucle complet.
+     */
+    private static final int BAR_WIDTH = 128;
+
+    /**
+     * Nombre de caractères affichés pour le nom d'un système.
+     */
+    private static final int NAME_LENGTH = 10;
+
     private final Entity debug;
 
+    /**
+     * Entités possédant une zone de délimitation.
+     */
+    private final Query boxes;
+
+    /**
+     * Entités mobiles.
+     */
+    private final Query movables;
+
+    /**
+     * Zones de délimitation solides, réutilisées d'un rendu à l'autre.
+     */
+    private final List<BoundedBox> solidBlocks;
+
     /**
      * Constructeur. Constuire un système, une seule instance est nécessaire
      * pour le fonctionnemenr global de l'application. Le système doit être
@@ -33,7 +64,25 @@ public final class DebugSystem extends AbstractSystem {
      */
     DebugSystem(final GameManager manager, final int priority) {
         super(manager, priority);
+        writes(Clock.class);
         this.debug = manager.getFactory().createDebugInformation();
+        this.boxes = manager
+                .getEntities()
+                .register(Query.all(BoundedBox.class));
+
+        this.movables = manager
+                .getEntities()
+                .register(Query.all(Movable.class, BoundedBox.class));
+
+        this.solidBlocks = new ArrayList<>();
+    }
+
+    @Override
+    protected void release() {
+        var entities = manager.getEntities();
+        entities.getCommands().destroy(debug);
+        entities.unregister(boxes);
+        entities.unregister(movables);
     }
 
     @Override
@@ -45,25 +94,21 @@ public final class DebugSystem extends AbstractSystem {
 
     @Override
     public void draw(final Renderer<?> renderer) {
-        var entities = manager.getEntities().filter(BoundedBox.class);
-        drawBox(renderer, entities);
-
-        var solidBlocks = manager
+        solidBlocks.clear();
+        boxes
                 .getEntities()
-                .filter(BoundedBox.class)
-                .stream()
-                .map(e -> e.getComponent(BoundedBox.class))
-                .filter(e -> Objects.equals(e.getBlock(), Block.SOLID))
-                .collect(Collectors.toList());
+                .forEach(e -> collectSolidBlock(solidBlocks, e));
 
-        manager
+        solidBlocks.forEach(b -> drawBox(renderer, b));
+
+        movables
                 .getEntities()
-                .filter(Movable.class)
                 .forEach(e -> drawCollision(renderer, solidBlocks, e));
 
         renderer.resetOffset();
         //drawGrid(renderer);
         drawClock(debug, renderer);
+        drawProfiles(debug, renderer, manager.getSystems().getProfiles());
     }
 
     private static void drawGrid(final Renderer<?> renderer) {
@@ -79,13 +124,11 @@ public final class DebugSystem extends AbstractSystem {
         }
     }
 
-    private static void drawBox(final Renderer<?> renderer, final Set<Entity> entities) {
-
-        entities
-                .stream()
-                .map(e -> e.getComponent(BoundedBox.class))
-                .filter(b -> (Objects.equals(b.getBlock(), Block.SOLID)))
-                .forEach(b -> drawBox(renderer, b));
+    private static void collectSolidBlock(final List<BoundedBox> solidBlocks, final Entity entity) {
+        var box = entity.getComponent(BoundedBox.class);
+        if (Objects.equals(box.getBlock(), Block.SOLID)) {
+            solidBlocks.add(box);
+        }
     }
 
     private static void drawBox(final Renderer<?> renderer, final BoundedBox box) {
@@ -126,8 +169,9 @@ public final class DebugSystem extends AbstractSystem {
     private static void drawClock(final Entity debug, final Renderer<?> renderer) {
         var clock = debug.getComponent(Clock.class);
         var box = debug.getComponent(BoundedBox.class);
-        var font = debug.getComponent(FontImage.class);
-        renderer.drawImage(
+        FontImage<?> font = debug.getComponent(FontImage.class);
+        drawText(
+                renderer,
                 box.getBound().getXp(),
                 box.getBound().getYp(),
                 font,
@@ -137,4 +181,73 @@ public final class DebugSystem extends AbstractSystem {
         clock.render();
     }
 
+    /**
+     * Dessiner une barre par système sous l'horloge : durée moyenne de la mise
+     * à jour (vert) puis du rendu (bleu), et 99e centile de la durée totale
+     * (rouge), relativement à la durée d'un tour de boucle.
+     *
+     * @param debug Entité de déboggage
+     * @param renderer Gestionnaire de rendu graphique
+     * @param profiles Mesures de performance des systèmes
+     */
+    private static void drawProfiles(
+            final Entity debug,
+            final Renderer<?> renderer,
+            final List<SystemProfile> profiles) {
+
+        var box = debug.getComponent(BoundedBox.class);
+        FontImage<?> font = debug.getComponent(FontImage.class);
+        var x = box.getBound().getXp();
+        var y = box.getBound().getYp() + font.getImageHeight() + 4;
+        var barX = x + (NAME_LENGTH + 1) * font.getImageWidth();
+        var barHeight = font.getImageHeight() - 2;
+
+        for (var profile : profiles) {
+            var name = profile.getType().getSimpleName().replace("System", "");
+            drawText(renderer, x, y, font, name.substring(0, Math.min(NAME_LENGTH, name.length())));
+
+            var update = barLength(profile.getUpdateTime().getAverage());
+            var draw = barLength(profile.getDrawTime().getAverage());
+            var p99 = barLength(profile.getUpdateTime().getPercentile(99)
+                    + profile.getDrawTime().getPercentile(99));
+
+            renderer.drawRectangle(barX, y, BAR_WIDTH, barHeight, Pixels.COLOR_WHITE);
+            renderer.drawFillRectangle(barX, y, update, barHeight, Pixels.COLOR_GREEN);
+            renderer.drawFillRectangle(barX + update, y, draw, barHeight, Pixels.COLOR_BLUE);
+            renderer.drawLine(barX + p99, y, barX + p99, y + barHeight, Pixels.COLOR_RED);
+            y += font.getImageHeight();
+        }
+    }
+
+    /**
+     * Dessiner un texte avec la police de l'entité de déboggage, dont le
+     * format d'image est celui du gestionnaire de rendu.
+     *
+     * @param <T> Type du format de l'image
+     * @param renderer Gestionnaire de rendu graphique
+     * @param x Coordonnée en abcisse
+     * @param y Coordonnée en ordonnée
+     * @param font Police de caractères
+     * @param text Texte à dessiner
+     */
+    private static <T> void drawText(
+            final Renderer<T> renderer,
+            final int x,
+            final int y,
+            final FontImage<?> font,
+            final String text) {
+
+        renderer.drawImage(x, y, Cast.<FontImage<T>>unchecked(font), text);
+    }
+
+    /**
+     * Convertir une durée en longueur de barre.
+     *
+     * @param nanos Durée en nanosecondes
+     * @return La longueur en pixel, bornée à la largeur de la barre
+     */
+    private static int barLength(final double nanos) {
+        return (int) Math.min(BAR_WIDTH, Math.round(nanos * BAR_WIDTH / FRAME_BUDGET));
+    }
+
 }
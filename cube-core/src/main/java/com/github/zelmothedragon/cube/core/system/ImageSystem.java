@@ -4,6 +4,7 @@ import com.github.zelmothedragon.cube.core.GameManager;
 import com.github.zelmothedragon.cube.core.model.BoundedBox;
 import com.github.zelmothedragon.cube.core.model.Image;
 import com.github.zelmothedragon.cube.core.model.Entity;
+import com.github.zelmothedragon.cube.core.model.Query;
 import com.github.zelmothedragon.cube.core.graphic.Renderer;
 
 /**
@@ -13,6 +14,11 @@ import com.github.zelmothedragon.cube.core.graphic.Renderer;
  */
 public final class ImageSystem extends AbstractSystem {
 
+    /**
+     * Entités possédant une image positionnée.
+     */
+    private final Query images;
+
     /**
      * Constructeur. Constuire un système, une seule instance est nécessaire
      * pour le fonctionnemenr global de l'application. Le système doit être
@@ -23,6 +29,15 @@ public final class ImageSystem extends AbstractSystem {
      */
     ImageSystem(final GameManager manager, final int priority) {
         super(manager, priority);
+        reads(Image.class, BoundedBox.class);
+        this.images = manager
+                .getEntities()
+                .register(Query.all(Image.class, BoundedBox.class));
+    }
+
+    @Override
+    protected void release() {
+        manager.getEntities().unregister(images);
     }
 
     @Override
@@ -31,9 +46,8 @@ public final class ImageSystem extends AbstractSystem {
 
     @Override
     public void draw(final Renderer<?> renderer) {
-        manager
+        images
                 .getEntities()
-                .filter(Image.class)
                 .forEach(e -> drawImage(renderer, e));
     }
 
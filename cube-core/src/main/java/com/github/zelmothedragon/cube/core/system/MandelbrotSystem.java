@@ -7,17 +7,101 @@ import com.github.zelmothedragon.cube.core.model.Image;
 import com.github.zelmothedragon.cube.core.model.Mandelbrot;
 import com.github.zelmothedragon.cube.core.model.Entity;
 import com.github.zelmothedragon.cube.core.model.Family;
+import com.github.zelmothedragon.cube.core.model.Query;
 import com.github.zelmothedragon.cube.core.graphic.Renderer;
 import com.github.zelmothedragon.cube.core.input.GamePad;
 import com.github.zelmothedragon.cube.pixel.graphic.Pixels;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Ensemble de Mandelbrot.
+ * <p>
+ * Le calcul de l'image est progressif : une première passe grossière par blocs
+ * est affinée jusqu'au pixel près, dans la limite du budget de temps du
+ * système à chaque rendu. Le calcul reprend au rendu suivant là où il s'est
+ * arrêté. Les contrôles sont lus à 20 Hz.
+ * <p>
+ * L'image est écrite directement pendant le rendu de la simulation ; elle est
+ * marquée modifiable à sa création, les listes d'ordres de dessin en
+ * conservent donc une copie pour le processus de rendu.
  *
  * @author MOSELLE Maxime
  */
 public class MandelbrotSystem extends AbstractSystem {
 
+    /**
+     * Taille des blocs de la première passe de calcul.
+     */
+    private static final int COARSE_STEP = 8;
+
+    /**
+     * Budget de temps par rendu, en nanosecondes.
+     */
+    private static final long BUDGET = 4_000_000L;
+
+    /**
+     * Diviseur de la fréquence de mise à jour, 20 Hz à 60 tours par seconde.
+     */
+    private static final int TICK_DIVISOR = 3;
+
+    /**
+     * Avancement du calcul progressif d'une image.
+     */
+    private static final class Refinement {
+
+        /**
+         * Entité de l'image calculée.
+         */
+        private final Entity entity;
+
+        /**
+         * Taille des blocs de la passe en cours, <code>0</code> une fois le
+         * calcul terminé.
+         */
+        private int step;
+
+        /**
+         * Prochaine ligne de la passe en cours.
+         */
+        private int row;
+
+        /**
+         * Constructeur.
+         *
+         * @param entity Entité de l'image calculée
+         */
+        private Refinement(final Entity entity) {
+            this.entity = entity;
+            restart();
+        }
+
+        /**
+         * Reprendre le calcul depuis la première passe.
+         */
+        private void restart() {
+            this.step = COARSE_STEP;
+            this.row = 0;
+        }
+
+    }
+
+    /**
+     * Ensembles de Mandelbrot contrôlables.
+     */
+    private final Query controllables;
+
+    /**
+     * Ensembles de Mandelbrot à dessiner. Seuls les ensembles dont les
+     * paramètres ont changé sont recalculés.
+     */
+    private final Query drawables;
+
+    /**
+     * Calculs progressifs en cours.
+     */
+    private final List<Refinement> refinements;
+
     /**
      * Constructeur. Constuire un système, une seule instance est nécessaire
      * pour le fonctionnemenr global de l'application. Le système doit être
@@ -28,41 +112,96 @@ public class MandelbrotSystem extends AbstractSystem {
      */
     MandelbrotSystem(final GameManager manager, final int priority) {
         super(manager, priority);
+        reads(Controllable.class);
+        writes(Mandelbrot.class);
+        every(TICK_DIVISOR);
+        budget(BUDGET);
+        this.refinements = new ArrayList<>();
+        this.controllables = manager
+                .getEntities()
+                .register(Query
+                        .all(Mandelbrot.class, Controllable.class)
+                        .family(Family.MANDELBROT));
+
+        this.drawables = manager
+                .getEntities()
+                .register(Query
+                        .all(Mandelbrot.class, BoundedBox.class, Image.class)
+                        .changed(Mandelbrot.class, BoundedBox.class)
+                        .family(Family.MANDELBROT));
     }
 
     @Override
     public void update() {
-        manager
+        controllables
                 .getEntities()
-                .filter(Family.MANDELBROT)
                 .forEach(this::updateAction);
     }
 
     @Override
     public void draw(final Renderer<?> renderer) {
-        manager
-                .getEntities()
-                .filter(Family.MANDELBROT)
-                .forEach(MandelbrotSystem::createImage);
-    }
+        drawables.forEachChanged(this::restart);
 
-    private void updateAction(final Entity entity) {
-        if (entity.hasComponent(Controllable.class)) {
-            var data = entity.getComponent(Mandelbrot.class);
-            if (manager.getInputs().isKeyPressed(GamePad.ACTION)) {
-                var scale = data.getScale();
-                scale += 1;
-                data.setScale(scale);
+        var i = 0;
+        while (i < refinements.size() && hasTimeLeft()) {
+            if (refine(refinements.get(i))) {
+                refinements.remove(i);
+            } else {
+                i++;
             }
-            if (manager.getInputs().isKeyPressed(GamePad.OPTION)) {
-                var iteration = data.getIteration();
-                iteration += 1;
-                data.setIteration(iteration);
+        }
+    }
+
+    @Override
+    protected void release() {
+        var entities = manager.getEntities();
+        entities.unregister(controllables);
+        entities.unregister(drawables);
+        refinements.clear();
+    }
+
+    /**
+     * Reprendre le calcul d'une image depuis la première passe.
+     *
+     * @param entity Entité dont les paramètres ont changé
+     */
+    private void restart(final Entity entity) {
+        for (var i = 0; i < refinements.size(); i++) {
+            var refinement = refinements.get(i);
+            if (refinement.entity == entity) {
+                refinement.restart();
+                return;
             }
         }
+        refinements.add(new Refinement(entity));
     }
 
-    private static void createImage(final Entity entity) {
+    private void updateAction(final Entity entity) {
+        var data = entity.getComponent(Mandelbrot.class);
+        if (manager.getInputs().isKeyPressed(GamePad.ACTION)) {
+            var scale = data.getScale();
+            scale += 1;
+            data.setScale(scale);
+            entity.markChanged(Mandelbrot.class);
+        }
+        if (manager.getInputs().isKeyPressed(GamePad.OPTION)) {
+            var iteration = data.getIteration();
+            iteration += 1;
+            data.setIteration(iteration);
+            entity.markChanged(Mandelbrot.class);
+        }
+    }
+
+    /**
+     * Avancer le calcul d'une image tant qu'il reste du temps. Chaque passe
+     * remplit des blocs deux fois plus petits que la précédente, en sautant
+     * les points déjà calculés.
+     *
+     * @param refinement Calcul en cours
+     * @return La valeur <code>true</code> si l'image est terminée
+     */
+    private boolean refine(final Refinement refinement) {
+        var entity = refinement.entity;
         var data = entity.getComponent(Mandelbrot.class);
         var box = entity.getComponent(BoundedBox.class);
         var image = entity.getComponent(Image.class);
@@ -73,12 +212,55 @@ public class MandelbrotSystem extends AbstractSystem {
 
         var w = box.getBound().getWidth();
         var h = box.getBound().getHeight();
-        for (var y = 0; y < h; y++) {
-            for (var x = 0; x < w; x++) {
+        while (refinement.step > 0 && hasTimeLeft()) {
+            var step = refinement.step;
+            var y = refinement.row;
+            var coarse = step < COARSE_STEP && y % (step * 2) == 0;
+            for (var x = 0; x < w; x += step) {
+                if (coarse && x % (step * 2) == 0) {
+                    // Point calculé par la passe précédente
+                    continue;
+                }
                 var xp = (x - w / 2.0) / data.getScale();
                 var yp = (y - h / 2.0) / data.getScale();
                 var color = calculatePoint(data.getIteration(), xp, yp);
-                buffer[x + y * w] = color;
+                fill(buffer, w, h, x, y, step, color);
+            }
+            refinement.row += step;
+            if (refinement.row >= h) {
+                refinement.row = 0;
+                refinement.step /= 2;
+            }
+        }
+        return refinement.step == 0;
+    }
+
+    /**
+     * Remplir un bloc carré de l'image, découpé aux bords.
+     *
+     * @param buffer Pixels de l'image
+     * @param w Largeur de l'image
+     * @param h Hauteur de l'image
+     * @param x Abcisse du bloc
+     * @param y Ordonnée du bloc
+     * @param size Taille du bloc
+     * @param color Couleur
+     */
+    private static void fill(
+            final int[] buffer,
+            final int w,
+            final int h,
+            final int x,
+            final int y,
+            final int size,
+            final int color) {
+
+        var xMax = Math.min(x + size, w);
+        var yMax = Math.min(y + size, h);
+        for (var yy = y; yy < yMax; yy++) {
+            var offset = yy * w;
+            for (var xx = x; xx < xMax; xx++) {
+                buffer[offset + xx] = color;
             }
         }
     }
@@ -31,11 +31,12 @@ public final class MenuSystem extends AbstractSystem {
     }
 
     private void buttonSelectAction() {
+        var commands = manager.getEntities().getCommands();
         if (manager.getSystems().isEnabled(MandelbrotSystem.class)) {
-            manager.getEntities().remove(Family.MANDELBROT);
+            commands.destroy(Family.MANDELBROT);
             manager.getSystems().disable(MandelbrotSystem.class);
         } else {
-            manager.getFactory().createMandelbrot();
+            commands.create(manager.getFactory()::buildMandelbrot);
             manager.getSystems().enbable(MandelbrotSystem.class);
         }
     }
@@ -31,9 +31,16 @@ public final class PlayerSystem extends AbstractSystem {
      */
     PlayerSystem(final GameManager manager, final int priority) {
         super(manager, priority);
+        reads(Controllable.class);
+        writes(AnimatedImage.class, BoundedBox.class);
         this.player = manager.getFactory().createDebugPlayer();
     }
 
+    @Override
+    protected void release() {
+        manager.getEntities().getCommands().destroy(player);
+    }
+
     @Override
     public void update() {
 
@@ -58,6 +65,9 @@ public final class PlayerSystem extends AbstractSystem {
                 box.getVector().reset();
             }
             box.move();
+            if (box.getVector().getDx() != 0 || box.getVector().getDy() != 0) {
+                player.markChanged(BoundedBox.class);
+            }
         }
     }
 
@@ -0,0 +1,140 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import com.github.zelmothedragon.cube.core.GameManager;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.function.BiFunction;
+
+/**
+ * Définition d'un système fourni : son type, sa priorité, son état initial et
+ * sa fonction de construction. Le gestionnaire des systèmes ne construit un
+ * système que lorsqu'il est activé pour la première fois.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class SystemDefinition {
+
+    /**
+     * Type de système.
+     */
+    private final Class<? extends AbstractSystem> type;
+
+    /**
+     * Priorité d'exécution du système.
+     */
+    private final int priority;
+
+    /**
+     * Indique si le système est actif au démarrage.
+     */
+    private final boolean enabled;
+
+    /**
+     * Fonction de construction du système, à partir du gestionnaire du jeu et
+     * de la priorité.
+     */
+    private final BiFunction<GameManager, Integer, ? extends AbstractSystem> factory;
+
+    /**
+     * Constructeur.
+     *
+     * @param type Type de système
+     * @param priority Priorité d'exécution du système
+     * @param enabled Indique si le système est actif au démarrage
+     * @param factory Fonction de construction du système
+     */
+    private SystemDefinition(
+            final Class<? extends AbstractSystem> type,
+            final int priority,
+            final boolean enabled,
+            final BiFunction<GameManager, Integer, ? extends AbstractSystem> factory) {
+
+        this.type = type;
+        this.priority = priority;
+        this.enabled = enabled;
+        this.factory = factory;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("type", SystemDefinition::getType)
+                .thenWith("priority", SystemDefinition::getPriority)
+                .thenWith("enabled", SystemDefinition::isEnabled)
+                .apply(this);
+    }
+
+    /**
+     * Définir un système actif au démarrage, construit avec le gestionnaire
+     * des systèmes.
+     *
+     * @param <S> Type de système
+     * @param type Type de système
+     * @param priority Priorité d'exécution du système
+     * @param factory Fonction de construction du système
+     * @return La définition
+     */
+    public static <S extends AbstractSystem> SystemDefinition enabled(
+            final Class<S> type,
+            final int priority,
+            final BiFunction<GameManager, Integer, S> factory) {
+
+        return new SystemDefinition(type, priority, true, factory);
+    }
+
+    /**
+     * Définir un système inactif au démarrage, construit lors de sa première
+     * activation.
+     *
+     * @param <S> Type de système
+     * @param type Type de système
+     * @param priority Priorité d'exécution du système
+     * @param factory Fonction de construction du système
+     * @return La définition
+     */
+    public static <S extends AbstractSystem> SystemDefinition disabled(
+            final Class<S> type,
+            final int priority,
+            final BiFunction<GameManager, Integer, S> factory) {
+
+        return new SystemDefinition(type, priority, false, factory);
+    }
+
+    /**
+     * Accesseur, obtenir le type de système.
+     *
+     * @return Le type de système
+     */
+    public Class<? extends AbstractSystem> getType() {
+        return type;
+    }
+
+    /**
+     * Accesseur, obtenir la priorité d'exécution du système.
+     *
+     * @return La priorité
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Accesseur, indiquer si le système est actif au démarrage.
+     *
+     * @return La valeur <code>true</code> si le système est actif au
+     * démarrage
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Construire le système.
+     *
+     * @param manager Gestionnaire du jeu
+     * @return Un nouveau système, actif
+     */
+    AbstractSystem create(final GameManager manager) {
+        return factory.apply(manager, priority);
+    }
+
+}
@@ -2,15 +2,48 @@ package com.github.zelmothedragon.cube.core.system;
 
 import com.github.zelmothedragon.cube.core.GameManager;
 import com.github.zelmothedragon.cube.core.graphic.Renderer;
-import java.util.Arrays;
+import com.github.zelmothedragon.cube.core.model.EntityManager;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Gestionnaire des systèmes. Une instance unique de cette classe est requise
  * pour le fonctionnement de l'application. Le gestionnaire doit être accessible
  * depuis le conteneur du jeu.
+ * <p>
+ * La mise à jour des systèmes sans conflit d'accès aux composants s'exécute en
+ * parallèle (voir <code>SystemScheduler</code>). Le rendu graphique reste
+ * séquentiel, dans l'ordre des priorités.
+ * <p>
+ * Lorsque la mesure des performances est active, la durée et la mémoire
+ * allouée par la mise à jour et le rendu de chaque système sont enregistrées à
+ * chaque tour de boucle (voir <code>SystemProfile</code>).
+ * <p>
+ * Les systèmes sont indexés par type, et les systèmes actifs sont rangés dans
+ * un tableau reconstruit uniquement lors de l'activation ou de la désactivation
+ * d'un système : le parcours de chaque tour de boucle n'alloue rien.
+ * <p>
+ * Des systèmes peuvent être inscrits, retirés, activés ou désactivés en cours
+ * d'exécution, y compris par un autre système pendant sa mise à jour. L'index
+ * par type est modifié immédiatement, mais la liste des systèmes,
+ * l'ordonnanceur et le tableau des systèmes actifs ne changent qu'au point de
+ * synchronisation de fin de mise à jour et de fin de rendu, après les commandes
+ * différées des entités : le changement prend effet au tour suivant. Les
+ * mesures de performance sont publiées sous forme d'une liste immuable,
+ * consultable depuis un autre fil d'exécution.
+ * <p>
+ * Les systèmes sont découverts par <code>ServiceLoader</code> auprès des
+ * fournisseurs de systèmes (voir <code>SystemProvider</code>). Un système
+ * fourni n'est construit que lors de sa première activation ; lorsqu'il est
+ * désactivé, ses ressources sont libérées et il est retiré, il sera construit
+ * à nouveau lors de sa prochaine activation.
  *
  * @see GameContainer
  *
@@ -25,6 +58,68 @@ public final class SystemManager {
      */
     private final List<AbstractSystem> world;
 
+    /**
+     * Systèmes indexés par type, consultés depuis les systèmes en cours de
+     * mise à jour.
+     */
+    private final Map<Class<? extends AbstractSystem>, AbstractSystem> index;
+
+    /**
+     * Changements de la liste des systèmes en attente du prochain point de
+     * synchronisation, dans l'ordre de leur demande.
+     */
+    private final List<Runnable> changes;
+
+    /**
+     * Indique si un changement de la liste ou de l'état des systèmes attend le
+     * prochain point de synchronisation.
+     */
+    private volatile boolean pending;
+
+    /**
+     * Mesures de performance de tous les systèmes, dans l'ordre des
+     * priorités. La liste immuable est remplacée à chaque reconstruction.
+     */
+    private volatile List<SystemProfile> profiles;
+
+    /**
+     * Systèmes actifs, triés par priorité. Le tableau est remplacé, jamais
+     * modifié, lors d'un changement d'état.
+     */
+    private volatile AbstractSystem[] enabled;
+
+    /**
+     * Gestionnaire du jeu, pour la construction différée des systèmes.
+     */
+    private final GameManager manager;
+
+    /**
+     * Définitions des systèmes fournis, indexées par type. Un système fourni
+     * n'est construit que lorsqu'il est actif.
+     */
+    private final Map<Class<? extends AbstractSystem>, SystemDefinition> definitions;
+
+    /**
+     * Gestionnaire d'entités. Les commandes différées des systèmes sont
+     * appliquées à la fin de chaque phase de mise à jour et de rendu.
+     */
+    private final EntityManager entities;
+
+    /**
+     * Ordonnanceur de la mise à jour des systèmes.
+     */
+    private volatile SystemScheduler scheduler;
+
+    /**
+     * Indique si les performances des systèmes sont mesurées.
+     */
+    private boolean profiling;
+
+    /**
+     * Numéro du tour de mise à jour.
+     */
+    private long tick;
+
     /**
      * Constructeur. Construit un gestionnaire de système, pour le bon
      * fonctionnement du programme cette classe doit être instanciée une seul
@@ -33,52 +128,115 @@ public final class SystemManager {
      * @param manager Gestionnaire du jeu
      */
     public SystemManager(final GameManager manager) {
-        world = Arrays.asList(
-                new MenuSystem(manager, 100),
-                new CameraSystem(manager, 200),
-                new CollisionSystem(manager, 201),
-                new PlayerSystem(manager, 202),
-                new BackgroundImageMapSystem(manager, 301),
-                new ShadowImageMapSystem(manager, 302),
-                new GroundImageMapSystem(manager, 303),
-                new ImageSystem(manager, 304),
-                new AnimatedImageSystem(manager, 305),
-                new ForegroundImageMapSystem(manager, 306),
-                new SkyImageMapSystem(manager, 307),
-                new MandelbrotSystem(manager, 800),
-                new TestSystem(manager, 901),
-                new DebugSystem(manager, Integer.MAX_VALUE)
-        );
-
-        // Ce type de liste est immuable, mais supporte le tri.
-        Collections.sort(world);
+        this.manager = manager;
+        entities = manager.getEntities();
+        world = new ArrayList<>();
+        index = new ConcurrentHashMap<>();
+        changes = new ArrayList<>();
+        pending = false;
+        definitions = new HashMap<>();
+        enabled = new AbstractSystem[0];
+        profiles = List.of();
+        profiling = true;
+        tick = 0L;
+
+        ServiceLoader
+                .load(SystemProvider.class)
+                .forEach(p -> p
+                .getSystems()
+                .forEach(d -> definitions.put(d.getType(), d)));
 
-        disable(MandelbrotSystem.class);
-        disable(DebugSystem.class);
+        // Construire les systèmes actifs au démarrage, par ordre de priorité
+        definitions
+                .values()
+                .stream()
+                .filter(SystemDefinition::isEnabled)
+                .sorted(Comparator.comparingInt(SystemDefinition::getPriority))
+                .forEach(d -> attach(d.create(manager)));
+
+        rebuild();
     }
 
     /**
      * Mettre à jour la logique métier du jeu. Uniquement pour les systèmes
-     * actifs.
+     * actifs. Les systèmes indépendants sont mis à jour en parallèle sur le
+     * réservoir de fils d'exécution du gestionnaire d'entités. Les commandes
+     * différées puis les changements de la liste des systèmes sont appliqués
+     * une fois tous les systèmes traités.
      */
     public void update() {
-        world
-                .stream()
-                .filter(AbstractSystem::isEnabled)
-                .forEach(AbstractSystem::update);
+        scheduler.update(entities.getParallelPool(), enabled, tick, profiling);
+        tick++;
+
+        entities.flush();
+        sync();
     }
 
     /**
      * Mettre à jour le rendu graphique du jeu.Uniquement pour les systèmes
-     * actifs.
+     * actifs. Les commandes différées puis les changements de la liste des
+     * systèmes sont appliqués une fois tous les systèmes traités.
      *
      * @param renderer Gestionnaire de rendu graphique
      */
     public void draw(final Renderer<?> renderer) {
-        world
-                .stream()
-                .filter(AbstractSystem::isEnabled)
-                .forEach(s -> s.draw(renderer));
+        var systems = enabled;
+        for (var i = 0; i < systems.length; i++) {
+            var system = systems[i];
+            if (system.isEnabled()) {
+                system.beginSlice();
+                if (profiling) {
+                    system.getProfile().draw(system, renderer);
+                } else {
+                    system.draw(renderer);
+                }
+            }
+        }
+
+        entities.flush();
+        sync();
+    }
+
+    /**
+     * Obtenir les mesures de performance de tous les systèmes, dans l'ordre
+     * des priorités, telles qu'au dernier point de synchronisation. Cette
+     * méthode peut être appelée depuis n'importe quel fil d'exécution.
+     *
+     * @return Les mesures de performance, en lecture seule
+     */
+    public List<SystemProfile> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * Obtenir les mesures de performance d'un système.
+     *
+     * @param system Type de système
+     * @return Les mesures de performance, ou <code>null</code> si le système
+     * n'existe pas
+     */
+    public SystemProfile getProfile(final Class<? extends AbstractSystem> system) {
+        var found = index.get(system);
+        return Objects.nonNull(found) ? found.getProfile() : null;
+    }
+
+    /**
+     * Accesseur, indiquer si les performances des systèmes sont mesurées.
+     *
+     * @return La valeur <code>true</code> si la mesure est active
+     */
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    /**
+     * Mutateur, activer ou désactiver la mesure des performances des
+     * systèmes.
+     *
+     * @param profiling La valeur <code>true</code> pour activer la mesure
+     */
+    public void setProfiling(final boolean profiling) {
+        this.profiling = profiling;
     }
 
     /**
@@ -87,11 +245,12 @@ public final class SystemManager {
      * @param system Type de système
      */
     public void enbable(final Class<? extends AbstractSystem> system) {
-        world
-                .stream()
-                .filter(s -> Objects.equals(s.getClass(), system))
-                .findAny()
-                .ifPresent(AbstractSystem::enable);
+        var found = index.get(system);
+        if (Objects.nonNull(found)) {
+            found.enable();
+        } else if (definitions.containsKey(system)) {
+            register(definitions.get(system).create(manager));
+        }
     }
 
     /**
@@ -100,11 +259,10 @@ public final class SystemManager {
      * @param system Type de système
      */
     public void disable(final Class<? extends AbstractSystem> system) {
-        world
-                .stream()
-                .filter(s -> Objects.equals(s.getClass(), system))
-                .findAny()
-                .ifPresent(AbstractSystem::disable);
+        var found = index.get(system);
+        if (Objects.nonNull(found)) {
+            found.disable();
+        }
     }
 
     /**
@@ -115,12 +273,198 @@ public final class SystemManager {
      * valeur <code>false</code> est retournée dans tous les autres cas
      */
     public boolean isEnabled(final Class<? extends AbstractSystem> system) {
-        return world
-                .stream()
-                .filter(s -> Objects.equals(s.getClass(), system))
-                .map(AbstractSystem::isEnabled)
-                .findAny()
-                .orElse(Boolean.FALSE);
+        var found = index.get(system);
+        return Objects.nonNull(found) && found.isEnabled();
+    }
+
+    /**
+     * Obtenir un système par son type.
+     *
+     * @param <S> Type de système
+     * @param system Type de système
+     * @return Le système, ou <code>null</code> s'il n'est pas inscrit
+     */
+    public <S extends AbstractSystem> S get(final Class<S> system) {
+        return system.cast(index.get(system));
+    }
+
+    /**
+     * Inscrire un système en cours d'exécution. Un système du même type déjà
+     * inscrit est remplacé. Le système est mis à jour à partir du tour
+     * suivant.
+     *
+     * @param system Nouveau système
+     */
+    public synchronized void register(final AbstractSystem system) {
+        var previous = index.put(system.getClass(), system);
+        system.setOwner(this);
+        defer(() -> {
+            if (Objects.nonNull(previous)) {
+                detach(previous);
+            }
+            world.add(system);
+        });
+    }
+
+    /**
+     * Retirer un système en cours d'exécution. Le retrait prend effet au tour
+     * suivant.
+     *
+     * @param <S> Type de système
+     * @param system Type de système
+     * @return Le système retiré, ou <code>null</code> s'il n'était pas inscrit
+     */
+    public synchronized <S extends AbstractSystem> S unregister(final Class<S> system) {
+        var removed = index.remove(system);
+        if (Objects.nonNull(removed)) {
+            defer(() -> detach(removed));
+        }
+        return system.cast(removed);
+    }
+
+    /**
+     * Prendre en compte le changement d'état d'un système, au prochain point
+     * de synchronisation. Un système fourni et désactivé libère alors ses
+     * ressources et est retiré.
+     *
+     * @param system Système activé ou désactivé
+     */
+    synchronized void toggled(final AbstractSystem system) {
+        var type = system.getClass();
+        if (!system.isEnabled()
+                && definitions.containsKey(type)
+                && index.get(type) == system) {
+
+            index.remove(type);
+            defer(() -> {
+                detach(system);
+                system.release();
+            });
+        } else {
+            pending = true;
+        }
+    }
+
+    /**
+     * Différer un changement de la liste des systèmes jusqu'au prochain point
+     * de synchronisation.
+     *
+     * @param change Changement à appliquer
+     */
+    private void defer(final Runnable change) {
+        changes.add(change);
+        pending = true;
+    }
+
+    /**
+     * Point de synchronisation, lorsque aucun système ne s'exécute. Appliquer
+     * les changements différés puis reconstruire l'ordonnanceur, ou seulement
+     * le tableau des systèmes actifs après un simple changement d'état.
+     */
+    private void sync() {
+        if (pending) {
+            synchronized (this) {
+                pending = false;
+                if (changes.isEmpty()) {
+                    refresh();
+                } else {
+                    for (var i = 0; i < changes.size(); i++) {
+                        changes.get(i).run();
+                    }
+                    changes.clear();
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * Inscrire un système sans reconstruire l'ordonnanceur. Un système du même
+     * type déjà inscrit est remplacé.
+     *
+     * @param system Nouveau système
+     */
+    private void attach(final AbstractSystem system) {
+        var previous = index.put(system.getClass(), system);
+        if (Objects.nonNull(previous)) {
+            detach(previous);
+        }
+        world.add(system);
+        system.setOwner(this);
+    }
+
+    /**
+     * Retirer un système de la liste des systèmes, sans reconstruire
+     * l'ordonnanceur.
+     *
+     * @param system Système retiré
+     */
+    private void detach(final AbstractSystem system) {
+        world.remove(system);
+        if (index.get(system.getClass()) != system) {
+            system.setOwner(null);
+        }
+    }
+
+    /**
+     * Reconstruire le tableau des systèmes actifs, après un changement d'état
+     * d'un système.
+     */
+    private void refresh() {
+        var count = 0;
+        for (var i = 0; i < world.size(); i++) {
+            if (world.get(i).isEnabled()) {
+                count++;
+            }
+        }
+        var systems = new AbstractSystem[count];
+        var next = 0;
+        for (var i = 0; i < world.size(); i++) {
+            var system = world.get(i);
+            if (system.isEnabled()) {
+                systems[next++] = system;
+            }
+        }
+        enabled = systems;
+    }
+
+    /**
+     * Trier les systèmes, répartir leurs tours de mise à jour, enregistrer les
+     * types de composant qu'ils déclarent puis reconstruire l'ordonnanceur et
+     * le tableau des systèmes actifs, après l'inscription ou le retrait d'un
+     * système.
+     */
+    private void rebuild() {
+        Collections.sort(world);
+        stagger(world);
+        for (var i = 0; i < world.size(); i++) {
+            var system = world.get(i);
+            system.getReads().forEach(entities::registerType);
+            system.getWrites().forEach(entities::registerType);
+        }
+        var snapshot = new ArrayList<SystemProfile>(world.size());
+        for (var i = 0; i < world.size(); i++) {
+            snapshot.add(world.get(i).getProfile());
+        }
+        profiles = Collections.unmodifiableList(snapshot);
+        scheduler = new SystemScheduler(world);
+        refresh();
+    }
+
+    /**
+     * Répartir les tours de mise à jour des systèmes de même fréquence réduite
+     * : le k-ième système de diviseur N est décalé de k modulo N tours.
+     *
+     * @param systems Systèmes triés par priorité
+     */
+    private static void stagger(final List<AbstractSystem> systems) {
+        var counts = new HashMap<Integer, Integer>();
+        for (var i = 0; i < systems.size(); i++) {
+            var system = systems.get(i);
+            var divisor = system.getTickDivisor();
+            var rank = counts.merge(divisor, 1, Integer::sum) - 1;
+            system.setTickPhase(rank % divisor);
+        }
     }
 
 }
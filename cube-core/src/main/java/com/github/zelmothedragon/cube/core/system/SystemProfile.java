@@ -0,0 +1,204 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import com.github.zelmothedragon.cube.core.graphic.Renderer;
+import com.github.zelmothedragon.cube.core.util.RollingStatistics;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+/**
+ * Mesures de performance d'un système : durée et mémoire allouée par la mise
+ * à jour et par le rendu, sur une fenêtre glissante de tours de boucle.
+ * <p>
+ * La mémoire allouée est lue dans le compteur d'allocation du fil d'exécution
+ * courant, lorsque la machine virtuelle le propose. Les allocations des tâches
+ * parallèles lancées par le système ne sont pas comptées.
+ * <p>
+ * Les mesures sont ajoutées par le fil d'exécution du système et lues par
+ * l'affichage de débogage depuis un autre fil : les statistiques glissantes
+ * synchronisent leurs accès.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class SystemProfile {
+
+    /**
+     * Nombre de tours de boucle conservés par défaut.
+     */
+    public static final int DEFAULT_WINDOW = 120;
+
+    /**
+     * Compteur d'allocation par fil d'exécution, ou <code>null</code> si la
+     * machine virtuelle ne le propose pas.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    /**
+     * Type du système mesuré.
+     */
+    private final Class<? extends AbstractSystem> type;
+
+    /**
+     * Durée de la mise à jour, en nanosecondes.
+     */
+    private final RollingStatistics updateTime;
+
+    /**
+     * Durée du rendu, en nanosecondes.
+     */
+    private final RollingStatistics drawTime;
+
+    /**
+     * Mémoire allouée par la mise à jour, en octets.
+     */
+    private final RollingStatistics updateAllocation;
+
+    /**
+     * Mémoire allouée par le rendu, en octets.
+     */
+    private final RollingStatistics drawAllocation;
+
+    /**
+     * Constructeur.
+     *
+     * @param type Type du système mesuré
+     */
+    SystemProfile(final Class<? extends AbstractSystem> type) {
+        this.type = type;
+        this.updateTime = new RollingStatistics(DEFAULT_WINDOW);
+        this.drawTime = new RollingStatistics(DEFAULT_WINDOW);
+        this.updateAllocation = new RollingStatistics(DEFAULT_WINDOW);
+        this.drawAllocation = new RollingStatistics(DEFAULT_WINDOW);
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("type", (SystemProfile p) -> p.type.getSimpleName())
+                .thenWith("updateTime", SystemProfile::getUpdateTime)
+                .thenWith("drawTime", SystemProfile::getDrawTime)
+                .thenWith("updateAllocation", SystemProfile::getUpdateAllocation)
+                .thenWith("drawAllocation", SystemProfile::getDrawAllocation)
+                .apply(this);
+    }
+
+    /**
+     * Indiquer si la mémoire allouée est mesurée.
+     *
+     * @return La valeur <code>true</code> si le compteur d'allocation existe
+     */
+    public static boolean isAllocationSupported() {
+        return Objects.nonNull(THREADS);
+    }
+
+    /**
+     * Accesseur, obtenir le type du système mesuré.
+     *
+     * @return Le type du système
+     */
+    public Class<? extends AbstractSystem> getType() {
+        return type;
+    }
+
+    /**
+     * Accesseur, obtenir la durée de la mise à jour en nanosecondes.
+     *
+     * @return Les statistiques de durée
+     */
+    public RollingStatistics getUpdateTime() {
+        return updateTime;
+    }
+
+    /**
+     * Accesseur, obtenir la durée du rendu en nanosecondes.
+     *
+     * @return Les statistiques de durée
+     */
+    public RollingStatistics getDrawTime() {
+        return drawTime;
+    }
+
+    /**
+     * Accesseur, obtenir la mémoire allouée par la mise à jour en octets.
+     *
+     * @return Les statistiques d'allocation
+     */
+    public RollingStatistics getUpdateAllocation() {
+        return updateAllocation;
+    }
+
+    /**
+     * Accesseur, obtenir la mémoire allouée par le rendu en octets.
+     *
+     * @return Les statistiques d'allocation
+     */
+    public RollingStatistics getDrawAllocation() {
+        return drawAllocation;
+    }
+
+    /**
+     * Oublier toutes les mesures.
+     */
+    public void clear() {
+        updateTime.clear();
+        drawTime.clear();
+        updateAllocation.clear();
+        drawAllocation.clear();
+    }
+
+    /**
+     * Mettre à jour un système en mesurant sa durée et ses allocations.
+     *
+     * @param system Système mesuré
+     */
+    void update(final AbstractSystem system) {
+        var allocated = allocatedBytes();
+        var start = System.nanoTime();
+        system.update();
+        updateTime.add(System.nanoTime() - start);
+        updateAllocation.add(allocatedBytes() - allocated);
+    }
+
+    /**
+     * Dessiner un système en mesurant sa durée et ses allocations.
+     *
+     * @param system Système mesuré
+     * @param renderer Gestionnaire de rendu graphique
+     */
+    void draw(final AbstractSystem system, final Renderer<?> renderer) {
+        var allocated = allocatedBytes();
+        var start = System.nanoTime();
+        system.draw(renderer);
+        drawTime.add(System.nanoTime() - start);
+        drawAllocation.add(allocatedBytes() - allocated);
+    }
+
+    /**
+     * Lire le compteur d'allocation du fil d'exécution courant.
+     *
+     * @return Le nombre d'octets alloués, ou <code>0</code> sans compteur
+     */
+    private static long allocatedBytes() {
+        return Objects.nonNull(THREADS) ? THREADS.getCurrentThreadAllocatedBytes() : 0L;
+    }
+
+    /**
+     * Obtenir et activer le compteur d'allocation par fil d'exécution.
+     *
+     * @return Le compteur, ou <code>null</code> s'il n'est pas disponible
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        com.sun.management.ThreadMXBean counter = null;
+        var bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            counter = (com.sun.management.ThreadMXBean) bean;
+            if (counter.isThreadAllocatedMemorySupported()) {
+                counter.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                counter = null;
+            }
+        }
+        return counter;
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import java.util.List;
+
+/**
+ * Fournisseur de systèmes. Les fournisseurs sont découverts par le
+ * gestionnaire des systèmes avec <code>ServiceLoader</code> : un module
+ * déclare ses systèmes en fournissant une implémentation de cette interface
+ * (clause <code>provides</code> du descripteur de module, ou fichier
+ * <code>META-INF/services</code> hors module).
+ *
+ * @author MOSELLE Maxime
+ */
+public interface SystemProvider {
+
+    /**
+     * Obtenir les définitions des systèmes fournis.
+     *
+     * @return Les définitions des systèmes
+     */
+    List<SystemDefinition> getSystems();
+
+}
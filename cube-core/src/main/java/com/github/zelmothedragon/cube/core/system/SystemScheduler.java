@@ -0,0 +1,190 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ordonnanceur de la mise à jour des systèmes. Un graphe de dépendances est
+ * construit à partir des accès aux composants déclarés par les systèmes :
+ * lorsque deux systèmes sont en conflit, celui de plus faible priorité
+ * s'exécute d'abord, l'ordre reste donc déterministe. Les systèmes sans
+ * conflit s'exécutent en parallèle sur un réservoir de fils d'exécution.
+ * <p>
+ * Le graphe est découpé en niveaux : le niveau d'un système suit celui de
+ * tous les systèmes dont il dépend, deux systèmes d'un même niveau ne sont
+ * donc jamais en conflit. Les niveaux s'exécutent l'un après l'autre, les
+ * systèmes d'un niveau en parallèle. Les tâches sont construites une fois
+ * pour toutes avec le graphe et réinitialisées à chaque mise à jour, qui
+ * n'alloue donc rien.
+ * <p>
+ * Le graphe porte sur tous les systèmes, actifs ou non. L'état actif d'un
+ * système est évalué au moment de son exécution, un système peut donc être
+ * activé ou désactivé par un système qui le précède. Un système dont la
+ * fréquence est réduite n'est mis à jour qu'aux tours qui lui reviennent.
+ *
+ * @author MOSELLE Maxime
+ */
+final class SystemScheduler {
+
+    /**
+     * Tâches des systèmes, par niveau de dépendance puis par priorité.
+     */
+    private final SystemTask[][] levels;
+
+    /**
+     * Tâche racine, parcourt les niveaux depuis le réservoir.
+     */
+    private final RootTask root;
+
+    /**
+     * Numéro du tour de la mise à jour en cours.
+     */
+    private long tick;
+
+    /**
+     * Indique si les performances sont mesurées lors de la mise à jour en
+     * cours.
+     */
+    private boolean profiling;
+
+    /**
+     * Constructeur. Construire le graphe de dépendances et ses niveaux.
+     *
+     * @param systems Systèmes triés par priorité
+     */
+    SystemScheduler(final List<AbstractSystem> systems) {
+        var depths = new int[systems.size()];
+        var grouped = new ArrayList<List<SystemTask>>();
+        for (var i = 0; i < depths.length; i++) {
+            var system = systems.get(i);
+            var depth = 0;
+            for (var j = 0; j < i; j++) {
+                if (systems.get(j).conflictsWith(system)) {
+                    depth = Math.max(depth, depths[j] + 1);
+                }
+            }
+            depths[i] = depth;
+            if (depth == grouped.size()) {
+                grouped.add(new ArrayList<>());
+            }
+            grouped.get(depth).add(new SystemTask(system));
+        }
+        this.levels = new SystemTask[grouped.size()][];
+        for (var i = 0; i < levels.length; i++) {
+            levels[i] = grouped.get(i).toArray(new SystemTask[0]);
+        }
+        this.root = new RootTask();
+        this.tick = 0L;
+        this.profiling = false;
+    }
+
+    /**
+     * Mettre à jour les systèmes actifs. L'exécution est séquentielle, dans
+     * l'ordre des priorités, lorsque le réservoir ne dispose que d'un seul
+     * fil d'exécution. Une exception levée par un système est propagée une
+     * fois le niveau en cours terminé.
+     *
+     * @param pool Réservoir de fils d'exécution
+     * @param enabled Systèmes actifs triés par priorité, parcourus lors de
+     * l'exécution séquentielle
+     * @param tick Numéro du tour de mise à jour
+     * @param profiling Indique si la durée et les allocations de chaque
+     * système sont mesurées
+     */
+    void update(
+            final ForkJoinPool pool,
+            final AbstractSystem[] enabled,
+            final long tick,
+            final boolean profiling) {
+
+        if (pool.getParallelism() <= 1) {
+            for (var i = 0; i < enabled.length; i++) {
+                update(enabled[i], tick, profiling);
+            }
+        } else {
+            // Publiés aux tâches par leur soumission au réservoir
+            this.tick = tick;
+            this.profiling = profiling;
+            root.reinitialize();
+            pool.invoke(root);
+        }
+    }
+
+    /**
+     * Mettre à jour un système s'il est actif et si le tour lui revient.
+     *
+     * @param system Système
+     * @param tick Numéro du tour de mise à jour
+     * @param profiling Indique si la durée et les allocations sont mesurées
+     */
+    private static void update(
+            final AbstractSystem system,
+            final long tick,
+            final boolean profiling) {
+
+        if (system.isEnabled() && system.isDue(tick)) {
+            system.beginSlice();
+            if (profiling) {
+                system.getProfile().update(system);
+            } else {
+                system.update();
+            }
+        }
+    }
+
+    /**
+     * Tâche racine de la mise à jour parallèle. Exécute les niveaux dans
+     * l'ordre, en attendant la fin de chacun.
+     */
+    private final class RootTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            for (var level : levels) {
+                for (var task : level) {
+                    task.reinitialize();
+                }
+                if (level.length == 1) {
+                    level[0].invoke();
+                } else {
+                    ForkJoinTask.invokeAll(level);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Tâche réutilisable de mise à jour d'un système.
+     */
+    private final class SystemTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Système mis à jour.
+         */
+        private final transient AbstractSystem system;
+
+        /**
+         * Constructeur.
+         *
+         * @param system Système mis à jour
+         */
+        private SystemTask(final AbstractSystem system) {
+            this.system = system;
+        }
+
+        @Override
+        protected void compute() {
+            update(system, tick, profiling);
+        }
+
+    }
+
+}
@@ -7,6 +7,8 @@ public final class TestSystem extends AbstractSystem {
 
     TestSystem(final GameManager manager, final int priority) {
         super(manager, priority);
+        // Aucun accès aux composants
+        reads();
     }
 
     @Override
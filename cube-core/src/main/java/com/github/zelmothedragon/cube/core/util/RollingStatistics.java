@@ -0,0 +1,163 @@
+package com.github.zelmothedragon.cube.core.util;
+
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.Arrays;
+
+/**
+ * Statistiques glissantes sur les dernières mesures d'une grandeur. Les mesures
+ * sont conservées dans un tampon circulaire de taille fixe, aucune allocation
+ * n'a lieu après la construction, hormis le tampon de tri propre à chaque
+ * calcul de centile.
+ * <p>
+ * Les mesures sont ajoutées et lues depuis des fils d'exécution différents,
+ * par exemple par un système exécuté en parallèle et par l'affichage de
+ * débogage : les accès sont synchronisés.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class RollingStatistics {
+
+    /**
+     * Tampon circulaire des mesures.
+     */
+    private final long[] samples;
+
+    /**
+     * Position de la prochaine mesure dans le tampon.
+     */
+    private int next;
+
+    /**
+     * Nombre de mesures conservées.
+     */
+    private int count;
+
+    /**
+     * Dernière mesure.
+     */
+    private long last;
+
+    /**
+     * Constructeur.
+     *
+     * @param window Nombre de mesures conservées
+     */
+    public RollingStatistics(final int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Invalid window: " + window);
+        }
+        this.samples = new long[window];
+        this.next = 0;
+        this.count = 0;
+        this.last = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("min", RollingStatistics::getMin)
+                .thenWith("average", RollingStatistics::getAverage)
+                .thenWith("p99", (RollingStatistics s) -> s.getPercentile(99))
+                .thenWith("count", RollingStatistics::getCount)
+                .apply(this);
+    }
+
+    /**
+     * Ajouter une mesure. La plus ancienne mesure est oubliée lorsque le
+     * tampon est plein.
+     *
+     * @param value Nouvelle mesure
+     */
+    public synchronized void add(final long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        last = value;
+    }
+
+    /**
+     * Oublier toutes les mesures.
+     */
+    public synchronized void clear() {
+        next = 0;
+        count = 0;
+        last = 0L;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre de mesures conservées.
+     *
+     * @return Le nombre de mesures
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Accesseur, obtenir la dernière mesure.
+     *
+     * @return La dernière mesure, ou <code>0</code> sans mesure
+     */
+    public synchronized long getLast() {
+        return last;
+    }
+
+    /**
+     * Obtenir la plus petite mesure.
+     *
+     * @return La plus petite mesure, ou <code>0</code> sans mesure
+     */
+    public synchronized long getMin() {
+        var min = count > 0 ? Long.MAX_VALUE : 0L;
+        for (var i = 0; i < count; i++) {
+            min = Math.min(min, samples[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Obtenir la plus grande mesure.
+     *
+     * @return La plus grande mesure, ou <code>0</code> sans mesure
+     */
+    public synchronized long getMax() {
+        var max = count > 0 ? Long.MIN_VALUE : 0L;
+        for (var i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Obtenir la moyenne des mesures.
+     *
+     * @return La moyenne, ou <code>0</code> sans mesure
+     */
+    public synchronized double getAverage() {
+        var sum = 0.0;
+        for (var i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    /**
+     * Obtenir un centile des mesures, par la méthode du rang le plus proche.
+     *
+     * @param percentile Centile, entre <code>0</code> et <code>100</code>
+     * @return La valeur du centile, ou <code>0</code> sans mesure
+     */
+    public synchronized long getPercentile(final double percentile) {
+        long value;
+        if (count > 0) {
+            var sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            var rank = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            value = sorted[Math.max(0, Math.min(count - 1, rank))];
+        } else {
+            value = 0L;
+        }
+        return value;
+    }
+
+}
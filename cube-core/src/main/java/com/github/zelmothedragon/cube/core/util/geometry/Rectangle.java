@@ -157,6 +157,21 @@ public final class Rectangle {
         this.yp += vector.getDy();
     }
 
+    /**
+     * Modifier la position et la taille du rectangle.
+     *
+     * @param xp Position en abcisse
+     * @param yp Position en ordonnée
+     * @param width Largeur
+     * @param height Hauteur
+     */
+    public void set(final int xp, final int yp, final int width, final int height) {
+        this.xp = xp;
+        this.yp = yp;
+        this.width = width;
+        this.height = height;
+    }
+
     /**
      * Déplacer un point en fonction d'un vecteur.
      *
@@ -0,0 +1,34 @@
+package com.github.zelmothedragon.cube.core.util.lang;
+
+/**
+ * Conversion de type non vérifiée. Les conteneurs hétérogènes du moteur
+ * (colonnes de composants, réservoirs, ordres de dessin) rangent leurs
+ * éléments sous un type commun et connaissent le type réel par construction :
+ * la conversion est regroupée ici, seul endroit où l'avertissement du
+ * compilateur est masqué.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class Cast {
+
+    /**
+     * Constructeur interne, classe utilitaire.
+     */
+    private Cast() {
+        // RAS
+    }
+
+    /**
+     * Convertir une valeur vers le type attendu par l'appelant, sans
+     * vérification. L'appelant garantit que la valeur est de ce type.
+     *
+     * @param <T> Type attendu
+     * @param value Valeur à convertir, peut être <code>null</code>
+     * @return La même valeur, typée
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T unchecked(final Object value) {
+        return (T) value;
+    }
+
+}
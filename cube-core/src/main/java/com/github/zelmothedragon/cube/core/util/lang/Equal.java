@@ -78,7 +78,7 @@ public final class Equal<T> {
         } else if (!Objects.equals(me.getClass(), target.getClass())) {
             eq = false;
         } else {
-            var other = (T) target;
+            var other = Cast.<T>unchecked(target);
             eq = methods
                     .stream()
                     .allMatch(p -> Objects.equals(p.apply(me), p.apply(other)));
@@ -36,7 +36,10 @@ public class PixelArrayAssetManager implements AssetManager<int[]> {
             final int w,
             final int h) {
 
-        return new PixelArrayImage(w, h);
+        // Une image vide est destinée à être dessinée en cours de jeu
+        var image = new PixelArrayImage(w, h);
+        image.setMutable(true);
+        return image;
     }
 
     @Override
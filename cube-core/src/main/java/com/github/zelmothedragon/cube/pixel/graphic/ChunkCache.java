@@ -0,0 +1,352 @@
+package com.github.zelmothedragon.cube.pixel.graphic;
+
+import com.github.zelmothedragon.cube.core.model.ImageMap;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import com.github.zelmothedragon.cube.pixel.model.PixelArrayImage;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * Cache de morceaux pré-rendus des cartes d'images. Chaque indice de
+ * profondeur d'une carte est découpé en morceaux d'environ
+ * <code>CHUNK_SIZE</code> pixels de côté, composés une fois à partir de leurs
+ * tuiles lors de leur première apparition à l'affichage. Le rendu d'une couche
+ * se réduit alors à quelques copies de grandes images par trame.
+ * <p>
+ * Les couches sont mises en cache séparément : elles sont dessinées par des
+ * systèmes distincts, entre lesquels s'intercalent d'autres rendus. Les
+ * morceaux les moins récemment dessinés sont évincés dès que la mémoire
+ * occupée dépasse le budget. Les cartes sont supposées statiques ; une carte
+ * modifiée doit être invalidée. Le cache est partagé par les bandes du rendu
+ * parallèle, ses accès sont synchronisés.
+ *
+ * @author MOSELLE Maxime
+ */
+public final class ChunkCache {
+
+    /**
+     * Taille visée d'un morceau, en pixels.
+     */
+    public static final int CHUNK_SIZE = 256;
+
+    /**
+     * Budget mémoire par défaut, en octets.
+     */
+    public static final long DEFAULT_BUDGET = 16L * 1024L * 1024L;
+
+    /**
+     * Nombre d'octets par pixel.
+     */
+    private static final int PIXEL_BYTES = Integer.BYTES;
+
+    /**
+     * Clé d'un morceau. Les cartes sont comparées par identité.
+     */
+    private static final class Key {
+
+        private ImageMap<int[]> map;
+
+        private int layout;
+
+        private int column;
+
+        private int row;
+
+        private Key set(
+                final ImageMap<int[]> map,
+                final int layout,
+                final int column,
+                final int row) {
+
+            this.map = map;
+            this.layout = layout;
+            this.column = column;
+            this.row = row;
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            var hash = System.identityHashCode(map);
+            hash = 31 * hash + layout;
+            hash = 31 * hash + column;
+            return 31 * hash + row;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            var same = this == obj;
+            if (!same && obj instanceof Key) {
+                var other = (Key) obj;
+                same = map == other.map
+                        && layout == other.layout
+                        && column == other.column
+                        && row == other.row;
+            }
+            return same;
+        }
+
+    }
+
+    /**
+     * Morceaux pré-rendus, du moins récemment au plus récemment dessiné.
+     */
+    private final LinkedHashMap<Key, PixelArrayImage> chunks;
+
+    /**
+     * Clé de recherche réutilisée, sans allocation lors d'un succès.
+     */
+    private final Key probe;
+
+    /**
+     * Budget mémoire, en octets. Un budget nul désactive le cache.
+     */
+    private long budget;
+
+    /**
+     * Mémoire occupée par les morceaux, en octets.
+     */
+    private long size;
+
+    /**
+     * Nombre de morceaux trouvés dans le cache.
+     */
+    private long hits;
+
+    /**
+     * Nombre de morceaux composés.
+     */
+    private long misses;
+
+    /**
+     * Constructeur.
+     *
+     * @param budget Budget mémoire, en octets
+     */
+    public ChunkCache(final long budget) {
+        this.chunks = new LinkedHashMap<>(16, 0.75f, true);
+        this.probe = new Key();
+        setBudget(budget);
+        this.size = 0L;
+        this.hits = 0L;
+        this.misses = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("budget", ChunkCache::getBudget)
+                .thenWith("size", ChunkCache::getSize)
+                .thenWith("chunks", ChunkCache::getCount)
+                .thenWith("hits", ChunkCache::getHits)
+                .thenWith("misses", ChunkCache::getMisses)
+                .apply(this);
+    }
+
+    /**
+     * Obtenir le nombre de tuiles d'un morceau en largeur.
+     *
+     * @param map Carte d'images
+     * @return Le nombre de tuiles
+     */
+    public static int getColumns(final ImageMap<int[]> map) {
+        return Math.max(1, CHUNK_SIZE / map.getImageWidth());
+    }
+
+    /**
+     * Obtenir le nombre de tuiles d'un morceau en hauteur.
+     *
+     * @param map Carte d'images
+     * @return Le nombre de tuiles
+     */
+    public static int getRows(final ImageMap<int[]> map) {
+        return Math.max(1, CHUNK_SIZE / map.getImageHeight());
+    }
+
+    /**
+     * Obtenir un morceau pré-rendu, composé à la demande. Le morceau devient
+     * le plus récemment dessiné.
+     *
+     * @param map Carte d'images
+     * @param layout Indice de profondeur
+     * @param column Colonne du morceau
+     * @param row Ligne du morceau
+     * @return Le morceau
+     */
+    public synchronized PixelArrayImage get(
+            final ImageMap<int[]> map,
+            final int layout,
+            final int column,
+            final int row) {
+
+        var chunk = chunks.get(probe.set(map, layout, column, row));
+        probe.map = null;
+        if (Objects.nonNull(chunk)) {
+            hits++;
+        } else {
+            misses++;
+            chunk = compose(map, layout, column, row);
+            chunks.put(new Key().set(map, layout, column, row), chunk);
+            size += (long) chunk.getRawData().length * PIXEL_BYTES;
+            evict();
+        }
+        return chunk;
+    }
+
+    /**
+     * Oublier tous les morceaux d'une carte, après sa modification.
+     *
+     * @param map Carte d'images
+     */
+    public synchronized void invalidate(final ImageMap<int[]> map) {
+        var iterator = chunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.getKey().map == map) {
+                size -= (long) entry.getValue().getRawData().length * PIXEL_BYTES;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Oublier tous les morceaux.
+     */
+    public synchronized void clear() {
+        chunks.clear();
+        size = 0L;
+    }
+
+    /**
+     * Indiquer si le cache est actif.
+     *
+     * @return La valeur <code>true</code> si le budget n'est pas nul
+     */
+    public boolean isEnabled() {
+        return budget > 0L;
+    }
+
+    /**
+     * Accesseur, obtenir le budget mémoire.
+     *
+     * @return Le budget, en octets
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Mutateur, modifier le budget mémoire. Les morceaux excédentaires sont
+     * évincés.
+     *
+     * @param budget Budget, en octets, <code>0</code> pour désactiver le cache
+     */
+    public synchronized void setBudget(final long budget) {
+        if (budget < 0L) {
+            throw new IllegalArgumentException("Invalid chunk budget: " + budget);
+        }
+        this.budget = budget;
+        if (budget == 0L) {
+            clear();
+        } else {
+            evict();
+        }
+    }
+
+    /**
+     * Accesseur, obtenir la mémoire occupée par les morceaux.
+     *
+     * @return La mémoire, en octets
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Obtenir le nombre de morceaux en cache.
+     *
+     * @return Le nombre de morceaux
+     */
+    public synchronized int getCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Accesseur, obtenir le nombre de morceaux trouvés dans le cache.
+     *
+     * @return Le nombre de succès
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Accesseur, obtenir le nombre de morceaux composés.
+     *
+     * @return Le nombre d'échecs
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Évincer les morceaux les moins récemment dessinés jusqu'à respecter le
+     * budget. Le dernier morceau composé est toujours conservé.
+     */
+    private void evict() {
+        var iterator = chunks.entrySet().iterator();
+        while (size > budget && chunks.size() > 1 && iterator.hasNext()) {
+            var eldest = iterator.next();
+            size -= (long) eldest.getValue().getRawData().length * PIXEL_BYTES;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Composer un morceau à partir de ses tuiles. Les morceaux du bord de la
+     * carte sont tronqués.
+     *
+     * @param map Carte d'images
+     * @param layout Indice de profondeur
+     * @param column Colonne du morceau
+     * @param row Ligne du morceau
+     * @return Le morceau, opaque si aucune de ses tuiles n'est transparente
+     */
+    private static PixelArrayImage compose(
+            final ImageMap<int[]> map,
+            final int layout,
+            final int column,
+            final int row) {
+
+        var tw = map.getImageWidth();
+        var th = map.getImageHeight();
+        var firstColumn = column * getColumns(map);
+        var firstRow = row * getRows(map);
+        var lastColumn = Math.min(map.getMapWidth(), firstColumn + getColumns(map));
+        var lastRow = Math.min(map.getMapHeight(), firstRow + getRows(map));
+
+        var w = (lastColumn - firstColumn) * tw;
+        var h = (lastRow - firstRow) * th;
+        var pixels = new int[w * h];
+
+        for (var yp = firstRow; yp < lastRow; yp++) {
+            for (var xp = firstColumn; xp < lastColumn; xp++) {
+                var tile = map.getImage(xp, yp, layout);
+                var opaque = tile instanceof PixelArrayImage
+                        && ((PixelArrayImage) tile).isOpaque();
+                Pixels.blit(
+                        tile.getRawData(),
+                        tile.getWidth(),
+                        tile.getHeight(),
+                        opaque,
+                        pixels,
+                        w,
+                        h,
+                        (xp - firstColumn) * tw,
+                        (yp - firstRow) * th);
+            }
+        }
+        return new PixelArrayImage(pixels, w, h);
+    }
+
+}
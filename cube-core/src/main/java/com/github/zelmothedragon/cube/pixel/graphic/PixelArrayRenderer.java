@@ -1,19 +1,56 @@
 package com.github.zelmothedragon.cube.pixel.graphic;
 
-import com.github.zelmothedragon.cube.core.graphic.Renderer;
+import com.github.zelmothedragon.cube.core.graphic.DrawList;
+import com.github.zelmothedragon.cube.core.graphic.RasterRenderer;
 import com.github.zelmothedragon.cube.core.model.AnimatedImage;
 import com.github.zelmothedragon.cube.core.model.FontImage;
 import com.github.zelmothedragon.cube.core.model.Image;
 import com.github.zelmothedragon.cube.core.model.ImageMap;
+import com.github.zelmothedragon.cube.pixel.model.PixelArrayImage;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Implémentation interne du gestionnaire de rendu basé sur la manipulation de
  * tableau de pixels.
+ * <p>
+ * Le rendu d'une carte d'images ne parcourt que les cellules couvertes par
+ * l'affichage courant (voir <code>setOffset</code>) : son coût dépend de la
+ * taille de l'affichage et non de celle de la carte. Les couches sont dessinées
+ * par morceaux pré-rendus, conservés dans un cache borné (voir
+ * <code>ChunkCache</code>).
+ * <p>
+ * Les couches dessinées juste après l'effacement forment le fond. Elles sont
+ * composées dans une image conservée d'une trame à l'autre, décalée du
+ * déplacement de la caméra ; seules les bandes découvertes sont redessinées
+ * (voir <code>ScrollingBackground</code>). L'effacement et le dessin du fond
+ * sont différés jusqu'au premier ordre de dessin suivant ou jusqu'à
+ * l'achèvement de la trame par <code>flush</code>, avant que l'image de rendu
+ * ne soit lue par <code>getRawData</code>.
+ * <p>
+ * En mode parallèle (voir <code>setBands</code>), les ordres de dessin d'une
+ * trame sont enregistrés puis rejoués, lors de l'achèvement de la trame, sur
+ * des bandes horizontales de l'image réparties sur un réservoir de fils
+ * d'exécution. Chaque bande ne dessine que ses propres lignes : aucun verrou
+ * n'est nécessaire sur l'image de rendu.
  *
  * @author MOSELLE Maxime
  */
-public class PixelArrayRenderer implements Renderer<int[]> {
+public class PixelArrayRenderer implements RasterRenderer<int[]> {
+
+    /**
+     * Nombre de cellules dessinées au-delà des bords de l'affichage lors du
+     * rendu d'une carte d'images.
+     */
+    private static final int GUARD_BAND = 1;
+
+    /**
+     * Propriété système du nombre de bandes du rendu parallèle.
+     */
+    public static final String BANDS_PROPERTY = "cube.bands";
 
     protected final int width;
 
@@ -25,22 +62,69 @@ public class PixelArrayRenderer implements Renderer<int[]> {
 
     protected int yOffset;
 
+    private final ChunkCache chunks;
+
+    private final ScrollingBackground background;
+
+    private final int bandTop;
+
+    private final int bandBottom;
+
+    private PixelArrayRenderer[] bands;
+
+    private DrawList<int[]> frame;
+
+    private ForkJoinPool parallelPool;
+
     public PixelArrayRenderer(final int width, final int height) {
+        this(width, height, new int[width * height], new ChunkCache(ChunkCache.DEFAULT_BUDGET), 0, height);
+        setBands(Integer.getInteger(BANDS_PROPERTY, 1));
+    }
+
+    private PixelArrayRenderer(
+            final int width,
+            final int height,
+            final int[] buffer,
+            final ChunkCache chunks,
+            final int bandTop,
+            final int bandBottom) {
+
         this.width = width;
         this.height = height;
-        this.buffer = new int[width * height];
+        this.buffer = buffer;
         this.xOffset = 0;
         this.yOffset = 0;
+        this.chunks = chunks;
+        this.bandTop = bandTop;
+        this.bandBottom = bandBottom;
+        this.background = new ScrollingBackground(this, width, bandTop, bandBottom);
+        this.bands = new PixelArrayRenderer[0];
+        this.frame = null;
+        this.parallelPool = ForkJoinPool.commonPool();
     }
 
     @Override
     public void clear() {
-        Arrays.fill(buffer, Pixels.COLOR_TRANSPARENT);
+        if (Objects.nonNull(frame)) {
+            frame.clear();
+        } else if (background.isEnabled()) {
+            // Effacement différé, les couches du fond suivent
+            background.begin();
+        } else {
+            Arrays.fill(buffer, bandTop * width, bandBottom * width, Pixels.COLOR_TRANSPARENT);
+        }
     }
 
     @Override
     public void drawRectangle(final int x, final int y, final int w, final int h, final int color) {
-        for (var yp = 0; yp < h; yp++) {
+        if (Objects.nonNull(frame)) {
+            frame.drawRectangle(x, y, w, h, color);
+            return;
+        }
+        settle();
+        var first = Math.max(0, bandTop + yOffset - y);
+        var last = Math.min(h, bandBottom + yOffset - y);
+        for (var yp = first; yp < last; yp++) {
             var ya = y + yp;
 
             for (var xp = 0; xp < w; xp++) {
@@ -54,18 +138,32 @@ public class PixelArrayRenderer implements Renderer<int[]> {
 
     @Override
     public void drawFillRectangle(final int x, final int y, final int w, final int h, final int color) {
-        for (var yp = 0; yp < h; yp++) {
-            var ya = y + yp;
-
-            for (var xp = 0; xp < w; xp++) {
-                var xa = x + xp;
-                setPixel(xa, ya, color);
+        if (Objects.nonNull(frame)) {
+            frame.drawFillRectangle(x, y, w, h, color);
+            return;
+        }
+        settle();
+        // Découper le rectangle une seule fois, puis remplir les lignes
+        var xo = x - xOffset;
+        var yo = y - yOffset;
+        var left = Math.max(0, xo);
+        var right = Math.min(width, xo + w);
+        var top = Math.max(bandTop, yo);
+        var bottom = Math.min(bandBottom, yo + h);
+        if (left < right && color != Pixels.COLOR_TRANSPARENT) {
+            for (var row = top; row < bottom; row++) {
+                Arrays.fill(buffer, left + row * width, right + row * width, color);
             }
         }
     }
 
     @Override
     public void drawCircle(final int x, final int y, final int radius, final int color) {
+        if (Objects.nonNull(frame)) {
+            frame.drawCircle(x, y, radius, color);
+            return;
+        }
+        settle();
         // Algorithme de tracé de cercle d'Andres
 
         var xa = radius + x;
@@ -102,9 +200,17 @@ public class PixelArrayRenderer implements Renderer<int[]> {
 
     @Override
     public void drawFillCircle(final int x, final int y, final int radius, final int color) {
+        if (Objects.nonNull(frame)) {
+            frame.drawFillCircle(x, y, radius, color);
+            return;
+        }
+        settle();
         var diameter = 2 * radius;
 
-        for (var yp = 0; yp < diameter; yp++) {
+        // Ne parcourir que les lignes de la bande
+        var first = Math.max(0, bandTop + yOffset - y);
+        var last = Math.min(diameter, bandBottom + yOffset - y);
+        for (var yp = first; yp < last; yp++) {
             var ya = y + yp;
             var dy = Math.pow(yp - radius, 2);
 
@@ -121,9 +227,17 @@ public class PixelArrayRenderer implements Renderer<int[]> {
 
     @Override
     public void drawGradientCircle(final int x, final int y, final int radius, final int color) {
+        if (Objects.nonNull(frame)) {
+            frame.drawGradientCircle(x, y, radius, color);
+            return;
+        }
+        settle();
         var diameter = 2 * radius;
 
-        for (var yp = 0; yp < diameter; yp++) {
+        // Ne parcourir que les lignes de la bande
+        var first = Math.max(0, bandTop + yOffset - y);
+        var last = Math.min(diameter, bandBottom + yOffset - y);
+        for (var yp = first; yp < last; yp++) {
             var ya = y + yp;
             var dy = Math.pow(yp - radius, 2);
 
@@ -144,6 +258,11 @@ public class PixelArrayRenderer implements Renderer<int[]> {
 
     @Override
     public void drawLine(final int x0, final int y0, final int x1, final int y1, final int color) {
+        if (Objects.nonNull(frame)) {
+            frame.drawLine(x0, y0, x1, y1, color);
+            return;
+        }
+        settle();
         // Algorithme de tracé de ligne de Bresenham
         var xp = x0;
         var yp = y0;
@@ -176,45 +295,43 @@ public class PixelArrayRenderer implements Renderer<int[]> {
 
     @Override
     public void drawImage(final int x, final int y, final Image<int[]> image) {
-        var data = image.getRawData();
-        for (var yp = 0; yp < image.getHeight(); yp++) {
-            var ya = y + yp;
-
-            for (var xp = 0; xp < image.getWidth(); xp++) {
-                var xa = x + xp;
-                var color = data[xp + yp * image.getWidth()];
-                setPixel(xa, ya, color);
-            }
+        if (Objects.nonNull(frame)) {
+            frame.drawImage(x, y, image);
+            return;
         }
+        settle();
+        var opaque = image instanceof PixelArrayImage
+                && ((PixelArrayImage) image).isOpaque();
+        Pixels.blit(
+                image.getRawData(),
+                image.getWidth(),
+                image.getHeight(),
+                opaque,
+                buffer,
+                width,
+                x - xOffset,
+                y - yOffset,
+                0,
+                bandTop,
+                width,
+                bandBottom);
     }
 
     @Override
     public void drawImage(final int x, final int y, final ImageMap<int[]> image) {
-
-        for (int i = 0; i < image.getLayoutCount(); i++) {
-
-            for (var yp = 0; yp < image.getMapHeight(); yp++) {
-                var ya = y + yp * image.getImageHeight();
-
-                for (var xp = 0; xp < image.getMapWidth(); xp++) {
-                    var xa = x + xp * image.getImageWidth();
-                    var subImage = image.getImage(xp, yp, i);
-                    drawImage(xa, ya, subImage);
-                }
-            }
+        for (var i = 0; i < image.getLayoutCount(); i++) {
+            drawImage(x, y, image, i);
         }
     }
 
     @Override
     public void drawImage(final int x, final int y, final ImageMap<int[]> image, final int layout) {
-        for (var yp = 0; yp < image.getMapHeight(); yp++) {
-            var ya = y + yp * image.getImageHeight();
-
-            for (var xp = 0; xp < image.getMapWidth(); xp++) {
-                var xa = x + xp * image.getImageWidth();
-                var subImage = image.getImage(xp, yp, layout);
-                drawImage(xa, ya, subImage);
-            }
+        if (Objects.nonNull(frame)) {
+            frame.drawImage(x, y, image, layout);
+        } else if (background.isRecording()) {
+            background.record(x, y, image, layout);
+        } else {
+            drawLayer(buffer, x - xOffset, y - yOffset, image, layout, 0, bandTop, width, bandBottom);
         }
     }
 
@@ -226,6 +343,10 @@ public class PixelArrayRenderer implements Renderer<int[]> {
 
     @Override
     public void drawImage(final int x, final int y, final FontImage<int[]> image, final String text) {
+        if (Objects.nonNull(frame)) {
+            frame.drawImage(x, y, image, text);
+            return;
+        }
         var lines = text.split(FontImage.LINE_SEPARATOR);
 
         for (var yp = 0; yp < lines.length; yp++) {
@@ -244,12 +365,26 @@ public class PixelArrayRenderer implements Renderer<int[]> {
 
     @Override
     public void setOffset(final int xOffset, final int yOffset) {
+        if (Objects.nonNull(frame)) {
+            frame.setOffset(xOffset, yOffset);
+            return;
+        }
+        if (background.hasLayers()) {
+            settle();
+        }
         this.xOffset = xOffset - width / 2;
         this.yOffset = yOffset - height / 2;
     }
 
     @Override
     public void resetOffset() {
+        if (Objects.nonNull(frame)) {
+            frame.resetOffset();
+            return;
+        }
+        if (background.hasLayers()) {
+            settle();
+        }
         this.xOffset = 0;
         this.yOffset = 0;
     }
@@ -264,18 +399,267 @@ public class PixelArrayRenderer implements Renderer<int[]> {
         return height;
     }
 
+    @Override
+    public void invalidate(final ImageMap<int[]> image) {
+        chunks.invalidate(image);
+        background.invalidate();
+        for (var band : bands) {
+            band.background.invalidate();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (Objects.nonNull(frame)) {
+            rasterize();
+        } else {
+            settle();
+        }
+    }
+
     @Override
     public int[] getRawData() {
         return buffer;
     }
 
+    /**
+     * Accesseur, obtenir le cache des blocs de cartes d'images, partagé par
+     * toutes les bandes du rendu.
+     *
+     * @return Le cache des blocs
+     */
+    public ChunkCache getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Indiquer si le fond défilant est actif, c'est-à-dire si les couches de
+     * fond sont conservées d'une trame à l'autre et seulement décalées.
+     *
+     * @return La valeur <code>true</code> si le fond défilant est actif
+     */
+    public boolean isScrolling() {
+        return background.isEnabled();
+    }
+
+    /**
+     * Activer ou désactiver le fond défilant, entre deux trames, pour toutes
+     * les bandes du rendu.
+     *
+     * @param scrolling La valeur <code>true</code> pour activer le fond
+     * défilant
+     */
+    public void setScrolling(final boolean scrolling) {
+        background.setEnabled(scrolling);
+        for (var band : bands) {
+            band.setScrolling(scrolling);
+        }
+    }
+
+    /**
+     * Obtenir le nombre de bandes du rendu.
+     *
+     * @return Le nombre de bandes, <code>1</code> pour un rendu séquentiel
+     */
+    public int getBands() {
+        return Math.max(1, bands.length);
+    }
+
+    /**
+     * Modifier le nombre de bandes du rendu, entre deux trames. Au-delà d'une
+     * bande, les ordres de dessin sont enregistrés puis rejoués en parallèle
+     * sur chaque bande lors de l'achèvement de la trame (voir
+     * <code>flush</code>). Chaque ligne de l'image appartient à une seule
+     * bande, y compris lorsque la hauteur n'est pas un multiple du nombre de
+     * bandes.
+     *
+     * @param count Nombre de bandes, <code>1</code> pour un rendu séquentiel
+     */
+    public void setBands(final int count) {
+        if (count < 1 || count > height) {
+            throw new IllegalArgumentException("Invalid band count: " + count);
+        }
+        if (count == 1) {
+            bands = new PixelArrayRenderer[0];
+            frame = null;
+        } else {
+            bands = new PixelArrayRenderer[count];
+            for (var i = 0; i < count; i++) {
+                bands[i] = new PixelArrayRenderer(
+                        width,
+                        height,
+                        buffer,
+                        chunks,
+                        height * i / count,
+                        height * (i + 1) / count);
+                bands[i].setScrolling(isScrolling());
+            }
+            frame = new DrawList<>(width, height);
+        }
+    }
+
+    /**
+     * Accesseur, obtenir le réservoir de fils d'exécution du rendu parallèle.
+     *
+     * @return Le réservoir
+     */
+    public ForkJoinPool getParallelPool() {
+        return parallelPool;
+    }
+
+    /**
+     * Mutateur, modifier le réservoir de fils d'exécution du rendu parallèle.
+     *
+     * @param parallelPool Le réservoir
+     */
+    public void setParallelPool(final ForkJoinPool parallelPool) {
+        this.parallelPool = Objects.requireNonNull(parallelPool);
+    }
+
+    void drawLayer(
+            final int[] target,
+            final int xo,
+            final int yo,
+            final ImageMap<int[]> image,
+            final int layout,
+            final int left,
+            final int top,
+            final int right,
+            final int bottom) {
+
+        if (chunks.isEnabled()) {
+            drawChunks(target, xo, yo, image, layout, left, top, right, bottom);
+        } else {
+            drawTiles(target, xo, yo, image, layout, left, top, right, bottom);
+        }
+    }
+
+    private void drawChunks(
+            final int[] target,
+            final int xo,
+            final int yo,
+            final ImageMap<int[]> image,
+            final int layout,
+            final int left,
+            final int top,
+            final int right,
+            final int bottom) {
+
+        // Ne parcourir que les morceaux couverts par la zone de découpe
+        var cw = ChunkCache.getColumns(image) * image.getImageWidth();
+        var ch = ChunkCache.getRows(image) * image.getImageHeight();
+
+        var columns = Math.floorDiv(image.getMapWidth() * image.getImageWidth() + cw - 1, cw);
+        var rows = Math.floorDiv(image.getMapHeight() * image.getImageHeight() + ch - 1, ch);
+        var firstColumn = Math.max(0, Math.floorDiv(left - xo, cw));
+        var firstRow = Math.max(0, Math.floorDiv(top - yo, ch));
+        var lastColumn = Math.min(columns, Math.floorDiv(right - xo, cw) + 1);
+        var lastRow = Math.min(rows, Math.floorDiv(bottom - yo, ch) + 1);
+
+        for (var yp = firstRow; yp < lastRow; yp++) {
+            var ya = yo + yp * ch;
+
+            for (var xp = firstColumn; xp < lastColumn; xp++) {
+                var xa = xo + xp * cw;
+                var chunk = chunks.get(image, layout, xp, yp);
+                Pixels.blit(
+                        chunk.getRawData(),
+                        chunk.getWidth(),
+                        chunk.getHeight(),
+                        chunk.isOpaque(),
+                        target,
+                        width,
+                        xa,
+                        ya,
+                        left,
+                        top,
+                        right,
+                        bottom);
+            }
+        }
+    }
+
+    private void drawTiles(
+            final int[] target,
+            final int xo,
+            final int yo,
+            final ImageMap<int[]> image,
+            final int layout,
+            final int left,
+            final int top,
+            final int right,
+            final int bottom) {
+
+        // Ne parcourir que les cellules couvertes par la zone de découpe,
+        // élargie d'une bande de garde
+        var tw = image.getImageWidth();
+        var th = image.getImageHeight();
+
+        var firstColumn = Math.max(0, Math.floorDiv(left - xo, tw) - GUARD_BAND);
+        var firstRow = Math.max(0, Math.floorDiv(top - yo, th) - GUARD_BAND);
+        var lastColumn = Math.min(image.getMapWidth(), Math.floorDiv(right - xo, tw) + 1 + GUARD_BAND);
+        var lastRow = Math.min(image.getMapHeight(), Math.floorDiv(bottom - yo, th) + 1 + GUARD_BAND);
+
+        for (var yp = firstRow; yp < lastRow; yp++) {
+            var ya = yo + yp * th;
+
+            for (var xp = firstColumn; xp < lastColumn; xp++) {
+                var xa = xo + xp * tw;
+                var subImage = image.getImage(xp, yp, layout);
+                var opaque = subImage instanceof PixelArrayImage
+                        && ((PixelArrayImage) subImage).isOpaque();
+                Pixels.blit(
+                        subImage.getRawData(),
+                        subImage.getWidth(),
+                        subImage.getHeight(),
+                        opaque,
+                        target,
+                        width,
+                        xa,
+                        ya,
+                        left,
+                        top,
+                        right,
+                        bottom);
+            }
+        }
+    }
+
+    private void rasterize() {
+        if (frame.size() > 0) {
+            if (parallelPool.getParallelism() <= 1) {
+                for (var band : bands) {
+                    band.replay(frame);
+                }
+            } else {
+                var tasks = new ArrayList<ForkJoinTask<?>>(bands.length);
+                for (var band : bands) {
+                    tasks.add(ForkJoinTask.adapt(() -> band.replay(frame)));
+                }
+                parallelPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+            }
+            frame.reset();
+        }
+    }
+
+    private void replay(final DrawList<int[]> list) {
+        list.replay(this);
+        settle();
+    }
+
+    private void settle() {
+        if (background.isRecording()) {
+            background.end(buffer, xOffset, yOffset);
+        }
+    }
+
     private int getPixel(final int xp, final int yp) {
 
         int pixel;
         var xo = xp - xOffset;
         var yo = yp - yOffset;
 
-        if (Pixels.isInBound(xo, yo, width, height)) {
+        if (Pixels.isInBound(xo, width) && yo >= bandTop && yo < bandBottom) {
             pixel = buffer[xo + yo * width];
         } else {
             pixel = Pixels.COLOR_TRANSPARENT;
@@ -288,7 +672,7 @@ public class PixelArrayRenderer implements Renderer<int[]> {
         var xo = x - xOffset;
         var yo = y - yOffset;
 
-        if (Pixels.isInBound(xo, yo, width, height)) {
+        if (Pixels.isInBound(xo, width) && yo >= bandTop && yo < bandBottom) {
             if (color != Pixels.COLOR_TRANSPARENT) {
                 buffer[xo + yo * width] = color;
             }
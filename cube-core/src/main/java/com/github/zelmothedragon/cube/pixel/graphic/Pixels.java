@@ -85,6 +85,62 @@ public final class Pixels {
         return toColor((int) red, (int) green, (int) blue);
     }
 
+    public static void blit(
+            final int[] source,
+            final int sourceWidth,
+            final int sourceHeight,
+            final boolean opaque,
+            final int[] target,
+            final int targetWidth,
+            final int targetHeight,
+            final int x,
+            final int y) {
+
+        blit(source, sourceWidth, sourceHeight, opaque, target, targetWidth, x, y, 0, 0, targetWidth, targetHeight);
+    }
+
+    public static void blit(
+            final int[] source,
+            final int sourceWidth,
+            final int sourceHeight,
+            final boolean opaque,
+            final int[] target,
+            final int targetWidth,
+            final int x,
+            final int y,
+            final int clipLeft,
+            final int clipTop,
+            final int clipRight,
+            final int clipBottom) {
+
+        // Découper le rectangle de la source à la zone de découpe une seule
+        // fois, puis copier les lignes entières
+        var left = Math.max(0, clipLeft - x);
+        var top = Math.max(0, clipTop - y);
+        var right = Math.min(sourceWidth, clipRight - x);
+        var bottom = Math.min(sourceHeight, clipBottom - y);
+        if (left >= right || top >= bottom) {
+            return;
+        }
+
+        var span = right - left;
+        for (var yp = top; yp < bottom; yp++) {
+            var from = left + yp * sourceWidth;
+            var to = x + left + (y + yp) * targetWidth;
+
+            if (opaque) {
+                System.arraycopy(source, from, target, to, span);
+            } else {
+                for (var xp = 0; xp < span; xp++) {
+                    var color = source[from + xp];
+                    if (color != COLOR_TRANSPARENT) {
+                        target[to + xp] = color;
+                    }
+                }
+            }
+        }
+    }
+
     public static int[] scale(final int w, final int h, final int[] image, final int scale) {
 
         var scaledWidth = scale * w;
@@ -0,0 +1,390 @@
+package com.github.zelmothedragon.cube.pixel.graphic;
+
+import com.github.zelmothedragon.cube.core.model.ImageMap;
+import com.github.zelmothedragon.cube.core.util.lang.ToString;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Fond défilant du gestionnaire de rendu. Les couches de cartes d'images
+ * dessinées juste après l'effacement de l'image de rendu sont composées dans
+ * une image conservée d'une trame à l'autre.
+ * <p>
+ * Lorsque la trame suivante dessine les mêmes couches aux mêmes positions,
+ * seule la caméra ayant bougé, l'image composée est décalée du déplacement de
+ * la caméra par copie de lignes entières, puis seules les bandes découvertes
+ * sont redessinées. Au-delà d'un demi-écran de déplacement, ou si les couches
+ * diffèrent, le fond est entièrement redessiné. Les cartes sont supposées
+ * statiques ; une carte modifiée doit être signalée (voir
+ * <code>invalidate</code>).
+ * <p>
+ * Le fond couvre les lignes d'une bande de l'image de rendu, toute l'image en
+ * rendu séquentiel.
+ *
+ * @author MOSELLE Maxime
+ */
+final class ScrollingBackground {
+
+    /**
+     * Capacité initiale des listes de couches.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Couche du fond enregistrée.
+     */
+    private static final class Layer {
+
+        private ImageMap<int[]> map;
+
+        private int x;
+
+        private int y;
+
+        private int layout;
+
+        /**
+         * Indiquer si deux couches sont identiques.
+         *
+         * @param other Autre couche
+         * @return La valeur <code>true</code> si la carte, la position et
+         * l'indice de profondeur sont les mêmes
+         */
+        private boolean matches(final Layer other) {
+            return map == other.map
+                    && x == other.x
+                    && y == other.y
+                    && layout == other.layout;
+        }
+
+    }
+
+    /**
+     * Gestionnaire de rendu propriétaire, pour le dessin des couches.
+     */
+    private final PixelArrayRenderer renderer;
+
+    /**
+     * Largeur de l'affichage.
+     */
+    private final int width;
+
+    /**
+     * Première ligne de la bande, incluse.
+     */
+    private final int top;
+
+    /**
+     * Hauteur de la bande.
+     */
+    private final int height;
+
+    /**
+     * Image composée du fond, à la taille de la bande.
+     */
+    private final int[] composite;
+
+    /**
+     * Couches de la trame en cours.
+     */
+    private Layer[] current;
+
+    /**
+     * Nombre de couches de la trame en cours.
+     */
+    private int currentSize;
+
+    /**
+     * Couches de l'image composée.
+     */
+    private Layer[] previous;
+
+    /**
+     * Nombre de couches de l'image composée.
+     */
+    private int previousSize;
+
+    /**
+     * Décalage en abcisse de l'image composée.
+     */
+    private int xOffset;
+
+    /**
+     * Décalage en ordonnée de l'image composée.
+     */
+    private int yOffset;
+
+    /**
+     * Indique si l'image composée est utilisable.
+     */
+    private boolean valid;
+
+    /**
+     * Indique si le fond est conservé d'une trame à l'autre.
+     */
+    private boolean enabled;
+
+    /**
+     * Indique si les couches du fond de la trame sont en cours
+     * d'enregistrement.
+     */
+    private boolean recording;
+
+    /**
+     * Nombre de trames dont le fond a été décalé.
+     */
+    private long scrolled;
+
+    /**
+     * Nombre de trames dont le fond a été entièrement redessiné.
+     */
+    private long redrawn;
+
+    /**
+     * Constructeur.
+     *
+     * @param renderer Gestionnaire de rendu propriétaire
+     * @param width Largeur de l'affichage
+     * @param top Première ligne de la bande, incluse
+     * @param bottom Dernière ligne de la bande, exclue
+     */
+    ScrollingBackground(
+            final PixelArrayRenderer renderer,
+            final int width,
+            final int top,
+            final int bottom) {
+
+        this.renderer = renderer;
+        this.width = width;
+        this.top = top;
+        this.height = bottom - top;
+        this.composite = new int[width * height];
+        this.current = new Layer[INITIAL_CAPACITY];
+        this.currentSize = 0;
+        this.previous = new Layer[INITIAL_CAPACITY];
+        this.previousSize = 0;
+        this.xOffset = 0;
+        this.yOffset = 0;
+        this.valid = false;
+        this.enabled = true;
+        this.recording = false;
+        this.scrolled = 0L;
+        this.redrawn = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return ToString
+                .with("enabled", ScrollingBackground::isEnabled)
+                .thenWith("layers", (ScrollingBackground b) -> b.previousSize)
+                .thenWith("scrolled", b -> b.scrolled)
+                .thenWith("redrawn", b -> b.redrawn)
+                .apply(this);
+    }
+
+    /**
+     * Accesseur, indiquer si le fond est conservé d'une trame à l'autre.
+     *
+     * @return La valeur <code>true</code> si le fond est conservé
+     */
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Mutateur, conserver ou non le fond d'une trame à l'autre.
+     *
+     * @param enabled La valeur <code>true</code> pour conserver le fond
+     */
+    void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+        this.valid = false;
+    }
+
+    /**
+     * Indiquer si les couches du fond sont en cours d'enregistrement.
+     *
+     * @return La valeur <code>true</code> entre l'effacement et le premier
+     * ordre de dessin qui n'est pas une couche
+     */
+    boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Indiquer si des couches du fond sont enregistrées pour la trame en
+     * cours.
+     *
+     * @return La valeur <code>true</code> si au moins une couche est
+     * enregistrée
+     */
+    boolean hasLayers() {
+        return recording && currentSize > 0;
+    }
+
+    /**
+     * Oublier l'image composée après la modification d'une carte, le fond
+     * est entièrement redessiné à la trame suivante.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Commencer l'enregistrement des couches du fond d'une nouvelle trame.
+     */
+    void begin() {
+        recording = true;
+        currentSize = 0;
+    }
+
+    /**
+     * Enregistrer une couche du fond.
+     *
+     * @param x Coordonnée en abcisse de la carte
+     * @param y Coordonnée en ordonnée de la carte
+     * @param map Carte d'images
+     * @param layout Indice de profondeur
+     */
+    void record(final int x, final int y, final ImageMap<int[]> map, final int layout) {
+        if (currentSize == current.length) {
+            current = Arrays.copyOf(current, currentSize * 2);
+        }
+        var layer = current[currentSize];
+        if (Objects.isNull(layer)) {
+            layer = new Layer();
+            current[currentSize] = layer;
+        }
+        currentSize++;
+        layer.map = map;
+        layer.x = x;
+        layer.y = y;
+        layer.layout = layout;
+    }
+
+    /**
+     * Terminer l'enregistrement et dessiner le fond dans l'image de rendu.
+     * L'image composée est décalée si possible, sinon redessinée.
+     *
+     * @param target Image de rendu
+     * @param x Décalage en abcisse de la trame
+     * @param y Décalage en ordonnée de la trame
+     */
+    void end(final int[] target, final int x, final int y) {
+        recording = false;
+        if (currentSize == 0) {
+            Arrays.fill(target, top * width, top * width + composite.length, Pixels.COLOR_TRANSPARENT);
+            return;
+        }
+
+        var dx = x - xOffset;
+        var dy = y - yOffset;
+        xOffset = x;
+        yOffset = y;
+        if (!valid
+                || !isSameLayers()
+                || Math.abs(dx) > width / 2
+                || Math.abs(dy) > height / 2) {
+
+            paint(0, 0, width, height);
+            redrawn++;
+        } else if (dx != 0 || dy != 0) {
+            scroll(dx, dy);
+            scrolled++;
+        }
+        valid = true;
+
+        var swap = previous;
+        previous = current;
+        previousSize = currentSize;
+        current = swap;
+        currentSize = 0;
+
+        System.arraycopy(composite, 0, target, top * width, composite.length);
+    }
+
+    /**
+     * Indiquer si les couches de la trame en cours sont celles de l'image
+     * composée.
+     *
+     * @return La valeur <code>true</code> si les couches sont identiques
+     */
+    private boolean isSameLayers() {
+        var same = currentSize == previousSize;
+        for (var i = 0; same && i < currentSize; i++) {
+            same = current[i].matches(previous[i]);
+        }
+        return same;
+    }
+
+    /**
+     * Décaler l'image composée puis redessiner les bandes découvertes. Le
+     * pixel affiché en (x, y) était affiché en (x + dx, y + dy).
+     *
+     * @param dx Déplacement en abcisse de la caméra
+     * @param dy Déplacement en ordonnée de la caméra
+     */
+    private void scroll(final int dx, final int dy) {
+        var first = Math.max(0, -dy);
+        var last = Math.min(height, height - dy);
+        var left = Math.max(0, -dx);
+        var right = Math.min(width, width - dx);
+        var span = right - left;
+
+        // Parcourir les lignes dans le sens qui préserve les lignes sources
+        if (dy > 0) {
+            for (var row = first; row < last; row++) {
+                System.arraycopy(composite, left + dx + (row + dy) * width, composite, left + row * width, span);
+            }
+        } else {
+            for (var row = last - 1; row >= first; row--) {
+                System.arraycopy(composite, left + dx + (row + dy) * width, composite, left + row * width, span);
+            }
+        }
+
+        // Bandes horizontales découvertes, sur toute la largeur
+        if (first > 0) {
+            paint(0, 0, width, first);
+        }
+        if (last < height) {
+            paint(0, last, width, height);
+        }
+
+        // Bandes verticales découvertes, sur les lignes décalées
+        if (left > 0) {
+            paint(0, first, left, last);
+        }
+        if (right < width) {
+            paint(right, first, width, last);
+        }
+    }
+
+    /**
+     * Redessiner une zone de l'image composée à partir des couches de la
+     * trame en cours.
+     *
+     * @param left Bord gauche de la zone, inclus
+     * @param upper Bord haut de la zone, inclus
+     * @param right Bord droit de la zone, exclus
+     * @param lower Bord bas de la zone, exclus
+     */
+    private void paint(final int left, final int upper, final int right, final int lower) {
+        for (var row = upper; row < lower; row++) {
+            Arrays.fill(composite, left + row * width, right + row * width, Pixels.COLOR_TRANSPARENT);
+        }
+        for (var i = 0; i < currentSize; i++) {
+            var layer = current[i];
+            renderer.drawLayer(
+                    composite,
+                    layer.x - xOffset,
+                    layer.y - yOffset - top,
+                    layer.map,
+                    layer.layout,
+                    left,
+                    upper,
+                    right,
+                    lower);
+        }
+    }
+
+}
@@ -4,9 +4,9 @@ import com.github.zelmothedragon.cube.core.model.FontImage;
 import com.github.zelmothedragon.cube.core.model.Image;
 import com.github.zelmothedragon.cube.core.util.lang.Equal;
 import com.github.zelmothedragon.cube.core.util.lang.ToString;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implémentation interne d'une police de caractère basé sur la manipulation de
@@ -32,7 +32,7 @@ public class PixelArrayFontImage implements FontImage<int[]> {
             final int imageWidth,
             final int imageHeight) {
 
-        this.cache = new HashMap<>();
+        this.cache = new ConcurrentHashMap<>();
         this.sheet = sheet;
         this.fontMap = fontMap;
         this.imageWidth = imageWidth;
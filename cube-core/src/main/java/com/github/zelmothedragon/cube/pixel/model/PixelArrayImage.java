@@ -10,6 +10,16 @@ import java.util.Objects;
 /**
  * Implémentation interne d'une image simple basé sur la manipulation de tableau
  * de pixels.
+ * <p>
+ * Une image sans aucun pixel transparent est marquée opaque à sa construction
+ * : le gestionnaire de rendu copie alors ses lignes entières. La marque est
+ * levée par toute écriture d'un pixel transparent ; après une écriture directe
+ * dans le tableau de pixels, elle doit être recalculée
+ * (<code>updateOpacity</code>).
+ * <p>
+ * Une image modifiée en cours de jeu doit être marquée modifiable
+ * (<code>setMutable</code>) : un rendu différé en conserve alors une copie,
+ * au lieu de lire le tableau de pixels pendant son écriture.
  *
  * @author MOSELLE Maxime
  */
@@ -23,6 +33,10 @@ public class PixelArrayImage implements Image<int[]> {
 
     private final int index;
 
+    private boolean opaque;
+
+    private boolean mutable;
+
     public PixelArrayImage(
             final int[] buffer,
             final int width,
@@ -33,6 +47,8 @@ public class PixelArrayImage implements Image<int[]> {
         this.width = width;
         this.height = height;
         this.index = index;
+        this.opaque = scanOpacity(buffer);
+        this.mutable = false;
     }
 
     public PixelArrayImage(
@@ -73,6 +89,24 @@ public class PixelArrayImage implements Image<int[]> {
 
     public void clear() {
         Arrays.fill(buffer, Pixels.COLOR_TRANSPARENT);
+        opaque = false;
+    }
+
+    /**
+     * Indiquer si l'image ne contient aucun pixel transparent.
+     *
+     * @return La valeur <code>true</code> si l'image est opaque
+     */
+    public boolean isOpaque() {
+        return opaque;
+    }
+
+    /**
+     * Recalculer la marque d'opacité, après une écriture directe dans le
+     * tableau de pixels.
+     */
+    public void updateOpacity() {
+        opaque = scanOpacity(buffer);
     }
 
     public int getPixel(final int x, final int y) {
@@ -90,6 +124,9 @@ public class PixelArrayImage implements Image<int[]> {
         if (Pixels.isInBound(x, y, width, height)) {
             var i = x + y * width;
             buffer[i] = color;
+            if (color == Pixels.COLOR_TRANSPARENT) {
+                opaque = false;
+            }
         }
     }
 
@@ -118,6 +155,45 @@ public class PixelArrayImage implements Image<int[]> {
         }
     }
 
+    /**
+     * Indiquer si l'image est modifiée en cours de jeu.
+     *
+     * @return La valeur <code>true</code> si un rendu différé en conserve une
+     * copie
+     */
+    public boolean isMutable() {
+        return mutable;
+    }
+
+    /**
+     * Marquer l'image comme modifiée en cours de jeu, ou non.
+     *
+     * @param mutable La valeur <code>true</code> si un rendu différé doit en
+     * conserver une copie
+     */
+    public void setMutable(final boolean mutable) {
+        this.mutable = mutable;
+    }
+
+    @Override
+    public Image<int[]> snapshot(final Image<int[]> previous) {
+        Image<int[]> snapshot;
+        if (mutable) {
+            var copy = previous instanceof PixelArrayImage
+                    && previous.getWidth() == width
+                    && previous.getHeight() == height
+                    && previous != this
+                    ? (PixelArrayImage) previous
+                    : new PixelArrayImage(width, height);
+            System.arraycopy(buffer, 0, copy.buffer, 0, buffer.length);
+            copy.opaque = opaque;
+            snapshot = copy;
+        } else {
+            snapshot = this;
+        }
+        return snapshot;
+    }
+
     @Override
     public int getIndex() {
         return index;
@@ -138,4 +214,12 @@ public class PixelArrayImage implements Image<int[]> {
         return height;
     }
 
+    private static boolean scanOpacity(final int[] pixels) {
+        var found = pixels.length > 0;
+        for (var i = 0; found && i < pixels.length; i++) {
+            found = pixels[i] != Pixels.COLOR_TRANSPARENT;
+        }
+        return found;
+    }
+
 }
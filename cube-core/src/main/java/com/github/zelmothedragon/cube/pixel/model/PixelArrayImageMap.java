@@ -4,9 +4,9 @@ import com.github.zelmothedragon.cube.core.model.Image;
 import com.github.zelmothedragon.cube.core.model.ImageMap;
 import com.github.zelmothedragon.cube.core.util.lang.Equal;
 import com.github.zelmothedragon.cube.core.util.lang.ToString;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implémentation interne d'une image pour la génération de carte basé sur la
@@ -32,7 +32,7 @@ public class PixelArrayImageMap implements ImageMap<int[]> {
             final int imageWidth,
             final int imageHeight) {
 
-        this.cache = new HashMap<>();
+        this.cache = new ConcurrentHashMap<>();
         this.sheet = sheet;
         this.maps = maps;
         this.imageWidth = imageWidth;
@@ -1,14 +1,23 @@
 
 module cube.core {
 
+    requires jdk.management;
+
     exports com.github.zelmothedragon.cube.core;
     exports com.github.zelmothedragon.cube.core.asset;
+    exports com.github.zelmothedragon.cube.core.engine;
     exports com.github.zelmothedragon.cube.core.model;
     exports com.github.zelmothedragon.cube.core.input;
     exports com.github.zelmothedragon.cube.core.graphic;
     exports com.github.zelmothedragon.cube.core.system;
+    exports com.github.zelmothedragon.cube.core.util;
 
     exports com.github.zelmothedragon.cube.pixel.asset;
     exports com.github.zelmothedragon.cube.pixel.graphic;
     exports com.github.zelmothedragon.cube.pixel.model;
+
+    uses com.github.zelmothedragon.cube.core.system.SystemProvider;
+
+    provides com.github.zelmothedragon.cube.core.system.SystemProvider
+            with com.github.zelmothedragon.cube.core.system.CoreSystemProvider;
 }
@@ -0,0 +1,148 @@
+package com.github.zelmothedragon.cube.core.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier le rattrapage borné de la boucle à pas fixe et le saut des trames
+ * de rendu.
+ *
+ * @author MOSELLE Maxime
+ */
+class FixedTimestepTest {
+
+    /**
+     * Nombre de tours de mise à jour par seconde.
+     */
+    private static final double RATE = 100.0;
+
+    /**
+     * Durée d'un tour, en nanosecondes.
+     */
+    private static final long TICK = 10_000_000L;
+
+    /**
+     * Instant de la première trame, non nul.
+     */
+    private static final long START = 1_000_000_000L;
+
+    @Test
+    void accumulatesElapsedTime() {
+        var timestep = new FixedTimestep(RATE);
+
+        assertEquals(0, timestep.advance(START));
+        assertEquals(1, timestep.advance(START + TICK));
+        // Le demi-tour restant est reporté
+        assertEquals(2, timestep.advance(START + TICK * 7 / 2));
+        assertEquals(1, timestep.advance(START + TICK * 4));
+        assertFalse(timestep.isBehind());
+        assertEquals(0L, timestep.getDroppedTicks());
+    }
+
+    @Test
+    void dropPolicyCapsCatchUp() {
+        var timestep = new FixedTimestep(RATE);
+        timestep.advance(START);
+
+        // Une pause d'une seconde vaut cent tours
+        assertEquals(FixedTimestep.DEFAULT_MAX_CATCH_UP, timestep.advance(START + TICK * 100));
+
+        assertEquals(100L - FixedTimestep.DEFAULT_MAX_CATCH_UP, timestep.getDroppedTicks());
+        assertFalse(timestep.isBehind());
+        assertTrue(timestep.shouldRender());
+        assertEquals(0, timestep.advance(START + TICK * 100));
+    }
+
+    @Test
+    void slowDownPolicySpreadsCatchUp() {
+        var timestep = new FixedTimestep(RATE);
+        timestep.setPolicy(FixedTimestep.Policy.SLOW_DOWN);
+        timestep.advance(START);
+        var now = START + TICK * 100;
+
+        // Au plus trois trames de rattrapage sont reportées, le reste est
+        // abandonné
+        var kept = FixedTimestep.DEFAULT_MAX_CATCH_UP * (FixedTimestep.DEFAULT_MAX_FRAME_SKIP + 1);
+        assertEquals(FixedTimestep.DEFAULT_MAX_CATCH_UP, timestep.advance(now));
+        assertEquals(100L - kept, timestep.getDroppedTicks());
+        assertTrue(timestep.isBehind());
+        assertFalse(timestep.shouldRender());
+
+        assertEquals(FixedTimestep.DEFAULT_MAX_CATCH_UP, timestep.advance(now));
+        assertTrue(timestep.isBehind());
+        assertFalse(timestep.shouldRender());
+
+        assertEquals(FixedTimestep.DEFAULT_MAX_CATCH_UP, timestep.advance(now));
+        assertFalse(timestep.isBehind());
+        assertTrue(timestep.shouldRender());
+
+        assertEquals(0, timestep.advance(now));
+        assertEquals(2L, timestep.getSkippedFrames());
+    }
+
+    @Test
+    void frameSkipIsBounded() {
+        var timestep = new FixedTimestep(RATE);
+        timestep.setPolicy(FixedTimestep.Policy.SLOW_DOWN);
+        timestep.setMaxCatchUp(1);
+        timestep.setMaxFrameSkip(2);
+        timestep.advance(START);
+
+        // Deux tours écoulés par trame, un seul rattrapé : le retard persiste
+        var rendered = new boolean[6];
+        for (var frame = 0; frame < rendered.length; frame++) {
+            assertEquals(1, timestep.advance(START + TICK * 2 * (frame + 1)));
+            assertTrue(timestep.isBehind());
+            rendered[frame] = timestep.shouldRender();
+        }
+
+        assertArrayEquals(new boolean[]{false, false, true, false, false, true}, rendered);
+        assertEquals(4L, timestep.getSkippedFrames());
+    }
+
+    @Test
+    void zeroFrameSkipAlwaysRenders() {
+        var timestep = new FixedTimestep(RATE);
+        timestep.setPolicy(FixedTimestep.Policy.SLOW_DOWN);
+        timestep.setMaxFrameSkip(0);
+        timestep.advance(START);
+
+        // Sans trame sautée, aucun retard n'est reporté
+        timestep.advance(START + TICK * 100);
+
+        assertFalse(timestep.isBehind());
+        assertEquals(100L - FixedTimestep.DEFAULT_MAX_CATCH_UP, timestep.getDroppedTicks());
+        assertTrue(timestep.shouldRender());
+        assertEquals(0L, timestep.getSkippedFrames());
+    }
+
+    @Test
+    void resetForgetsElapsedTime() {
+        var timestep = new FixedTimestep(RATE);
+        timestep.setPolicy(FixedTimestep.Policy.SLOW_DOWN);
+        timestep.advance(START);
+        timestep.advance(START + TICK * 100);
+        assertTrue(timestep.isBehind());
+
+        timestep.reset();
+
+        assertFalse(timestep.isBehind());
+        assertEquals(0, timestep.advance(START + TICK * 500));
+        assertEquals(1, timestep.advance(START + TICK * 501));
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        var timestep = new FixedTimestep(RATE);
+
+        assertThrows(IllegalArgumentException.class, () -> new FixedTimestep(0.0));
+        assertThrows(IllegalArgumentException.class, () -> timestep.setMaxCatchUp(0));
+        assertThrows(IllegalArgumentException.class, () -> timestep.setMaxFrameSkip(-1));
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.github.zelmothedragon.cube.core.input;
+
+import com.github.zelmothedragon.cube.core.model.BoundedBox;
+import com.github.zelmothedragon.cube.core.model.Entity;
+import com.github.zelmothedragon.cube.core.model.EntityManager;
+import com.github.zelmothedragon.cube.core.model.Family;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier que les entrées enregistrées sont rejouées à l'identique et que
+ * la divergence de la simulation rejouée est détectée.
+ *
+ * @author MOSELLE Maxime
+ */
+class InputReplayerTest {
+
+    /**
+     * Nombre de tours enregistrés.
+     */
+    private static final int TICKS = 60;
+
+    /**
+     * Code technique de la touche d'action.
+     */
+    private static final int ACTION_KEY = 1;
+
+    /**
+     * Code technique de la touche de retour.
+     */
+    private static final int BACK_KEY = 2;
+
+    @Test
+    void replayRestoresInputs() throws IOException {
+        var inputs = newInputs();
+        var states = new int[TICKS];
+        var cursors = new int[TICKS][2];
+        var log = new ByteArrayOutputStream();
+        try (var recorder = new InputRecorder(log)) {
+            for (var tick = 0; tick < TICKS; tick++) {
+                press(inputs, tick);
+                inputs.update();
+                states[tick] = inputs.getState();
+                cursors[tick][0] = inputs.getCursorX();
+                cursors[tick][1] = inputs.getCursorY();
+                recorder.record(inputs);
+            }
+            assertEquals(TICKS, recorder.getTicks());
+        }
+
+        var replayed = newInputs();
+        try (var replayer = new InputReplayer(new ByteArrayInputStream(log.toByteArray()))) {
+            for (var tick = 0; tick < TICKS; tick++) {
+                // Les entrées du joueur sont remplacées par celles du journal
+                replayed.keyPressed(BACK_KEY);
+                replayed.update();
+                assertTrue(replayer.apply(replayed));
+                assertEquals(states[tick], replayed.getState(), "Tick " + tick);
+                assertEquals(cursors[tick][0], replayed.getCursorX(), "Tick " + tick);
+                assertEquals(cursors[tick][1], replayed.getCursorY(), "Tick " + tick);
+            }
+
+            // À la fin du journal, le dernier état est conservé
+            assertFalse(replayer.apply(replayed));
+            assertTrue(replayer.isFinished());
+            assertEquals(states[TICKS - 1], replayed.getState());
+            assertEquals(TICKS, replayer.getTicks());
+        }
+    }
+
+    @Test
+    void identicalSimulationDoesNotDiverge() throws IOException {
+        var log = record();
+
+        var replayer = new InputReplayer(new ByteArrayInputStream(log));
+        try (var journal = new InputJournal(null, replayer)) {
+            simulate(journal, -1);
+            assertEquals(-1L, journal.getDivergence());
+            assertEquals(TICKS, replayer.getTicks());
+        }
+    }
+
+    @Test
+    void divergentSimulationIsDetected() throws IOException {
+        var log = record();
+
+        try (var journal = new InputJournal(null, new InputReplayer(new ByteArrayInputStream(log)))) {
+            simulate(journal, 20);
+            // Seul le premier tour divergent est retenu
+            assertEquals(20L, journal.getDivergence());
+        }
+    }
+
+    @Test
+    void invalidLogIsRejected() {
+        var garbage = new byte[]{1, 2, 3, 4, 5};
+
+        assertThrows(IOException.class, () -> new InputReplayer(new ByteArrayInputStream(garbage)));
+    }
+
+    /**
+     * Enregistrer une partie de référence avec l'empreinte de chaque tour.
+     *
+     * @return Le journal binaire
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    private static byte[] record() throws IOException {
+        var log = new ByteArrayOutputStream();
+        try (var journal = new InputJournal(new InputRecorder(log), null)) {
+            simulate(journal, -1);
+        }
+        return log.toByteArray();
+    }
+
+    /**
+     * Simuler une partie : une entité est ajoutée à chaque tour où l'action
+     * est appuyée, et son vecteur suit le curseur.
+     *
+     * @param journal Journal des entrées
+     * @param divergence Tour où une entité supplémentaire est ajoutée, ou
+     * <code>-1</code> pour une simulation identique
+     */
+    private static void simulate(final InputJournal journal, final int divergence) {
+        var inputs = newInputs();
+        var entities = new EntityManager();
+        for (var tick = 0; tick < TICKS; tick++) {
+            press(inputs, tick);
+            inputs.update();
+            journal.replay(inputs);
+            if (inputs.isKeyPressed(GamePad.ACTION) || tick == divergence) {
+                var box = new BoundedBox();
+                box.getVector().set(inputs.getCursorX(), inputs.getCursorY());
+                var entity = new Entity(Family.EMPTY);
+                entity.addComponent(box);
+                entities.add(entity);
+            }
+            journal.record(inputs, entities);
+        }
+    }
+
+    /**
+     * Construire un gestionnaire des entrées avec les touches des tests.
+     *
+     * @return Le gestionnaire des entrées
+     */
+    private static InputManager newInputs() {
+        var inputs = new InputManager();
+        inputs.assign(GamePad.ACTION, ACTION_KEY);
+        inputs.assign(GamePad.BACK, BACK_KEY);
+        return inputs;
+    }
+
+    /**
+     * Appuyer et relâcher les touches et déplacer le curseur selon le tour.
+     *
+     * @param inputs Gestionnaire des entrées
+     * @param tick Numéro du tour
+     */
+    private static void press(final InputManager inputs, final int tick) {
+        if (tick % 7 == 0) {
+            inputs.keyPressed(ACTION_KEY);
+        } else if (tick % 7 == 3) {
+            inputs.keyReleased(ACTION_KEY);
+        }
+        if (tick % 11 == 5) {
+            inputs.keyPressed(BACK_KEY);
+        } else if (tick % 11 == 6) {
+            inputs.keyReleased(BACK_KEY);
+        }
+        if (tick % 4 == 0) {
+            inputs.cursorMoved(tick * 3.0, -tick);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier le suivi des modifications de composant, par numéro de version et
+ * par les requêtes réactives.
+ *
+ * @author MOSELLE Maxime
+ */
+class ChangeTrackingTest {
+
+    @Test
+    void versionsIncreaseOnChange() {
+        var manager = new EntityManager();
+        var entity = QueryTest.entity(manager, Family.EMPTY, new Clock(), new BoundedBox());
+        var added = entity.getVersion(Clock.class);
+        var reference = manager.getVersion();
+
+        assertTrue(added > 0);
+        assertFalse(entity.isChangedSince(Clock.class, reference));
+
+        entity.markChanged(Clock.class);
+        assertTrue(entity.getVersion(Clock.class) > added);
+        assertTrue(entity.isChangedSince(Clock.class, reference));
+        assertFalse(entity.isChangedSince(BoundedBox.class, reference));
+
+        // Le remplacement compte comme une modification
+        reference = manager.getVersion();
+        entity.addComponent(new BoundedBox());
+        assertTrue(entity.isChangedSince(BoundedBox.class, reference));
+    }
+
+    @Test
+    void detachedOrMissingComponentHasNoVersion() {
+        var manager = new EntityManager();
+        var detached = new Entity(Family.EMPTY);
+        detached.addComponent(new Clock());
+        detached.markChanged(Clock.class);
+        assertEquals(0L, detached.getVersion(Clock.class));
+
+        var entity = QueryTest.entity(manager, Family.EMPTY);
+        entity.markChanged(Clock.class);
+        assertEquals(0L, entity.getVersion(Clock.class));
+    }
+
+    @Test
+    void queryListsEachChangedEntityOnce() {
+        var manager = new EntityManager();
+        var query = manager.register(Query.all(Clock.class).changed(BoundedBox.class));
+        var tracked = QueryTest.entity(manager, Family.EMPTY, new Clock(), new BoundedBox());
+        var other = QueryTest.entity(manager, Family.EMPTY, new Clock(), new BoundedBox());
+        var outside = QueryTest.entity(manager, Family.EMPTY, new BoundedBox());
+
+        // Les nouvelles correspondances comptent comme des modifications
+        assertEquals(List.of(tracked, other), changed(query));
+        assertEquals(0, query.changedCount());
+
+        tracked.markChanged(BoundedBox.class);
+        tracked.markChanged(BoundedBox.class);
+        other.markChanged(Clock.class);
+        outside.markChanged(BoundedBox.class);
+
+        assertEquals(List.of(tracked), changed(query));
+    }
+
+    @Test
+    void changeDuringIterationIsKeptForNextPass() {
+        var manager = new EntityManager();
+        var query = manager.register(Query.all(Clock.class).changed(Clock.class));
+        var entity = QueryTest.entity(manager, Family.EMPTY, new Clock());
+
+        var visited = new ArrayList<Entity>();
+        query.forEachChanged(e -> {
+            visited.add(e);
+            e.markChanged(Clock.class);
+        });
+
+        assertEquals(List.of(entity), visited);
+        assertEquals(1, query.changedCount());
+        assertEquals(List.of(entity), changed(query));
+    }
+
+    @Test
+    void removedEntityLeavesChangedList() {
+        var manager = new EntityManager();
+        var query = manager.register(Query.all(Clock.class).changed(Clock.class));
+        var removed = QueryTest.entity(manager, Family.EMPTY, new Clock());
+        var kept = QueryTest.entity(manager, Family.EMPTY, new Clock());
+        changed(query);
+
+        removed.markChanged(Clock.class);
+        kept.markChanged(Clock.class);
+        manager.remove(removed);
+
+        assertEquals(List.of(kept), changed(query));
+    }
+
+    /**
+     * Parcourir puis vider la liste des entités modifiées d'une requête.
+     *
+     * @param query Requête enregistrée
+     * @return Les entités modifiées, dans l'ordre du parcours
+     */
+    private static List<Entity> changed(final Query query) {
+        var entities = new ArrayList<Entity>();
+        query.forEachChanged(entities::add);
+        return entities;
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier que les commandes différées ne modifient la structure des entités
+ * qu'au point de synchronisation, dans l'ordre d'enregistrement.
+ *
+ * @author MOSELLE Maxime
+ */
+class EntityCommandBufferTest {
+
+    /**
+     * Réservoir de fils d'exécution des enregistrements concurrents.
+     */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void commandsWaitForFlush() {
+        var manager = new EntityManager();
+        var commands = manager.getCommands();
+        var kept = QueryTest.entity(manager, Family.EMPTY, new Clock());
+        var destroyed = QueryTest.entity(manager, Family.EMPTY, new Clock());
+        var created = new Entity(Family.EMPTY);
+
+        commands.create(created);
+        commands.destroy(destroyed);
+        commands.addComponent(kept, new BoundedBox());
+        commands.removeComponent(kept, Clock.class);
+
+        // Rien n'est appliqué avant le point de synchronisation
+        assertFalse(commands.isEmpty());
+        assertEquals(2, manager.size());
+        assertTrue(manager.isAlive(destroyed.getHandle()));
+        assertTrue(kept.hasComponent(Clock.class));
+        assertFalse(kept.hasComponent(BoundedBox.class));
+
+        manager.flush();
+
+        assertTrue(commands.isEmpty());
+        assertEquals(2, manager.size());
+        assertTrue(manager.isAlive(created.getHandle()));
+        assertFalse(kept.hasComponent(Clock.class));
+        assertTrue(kept.hasComponent(BoundedBox.class));
+    }
+
+    @Test
+    void commandsApplyInRecordingOrder() {
+        var manager = new EntityManager();
+        var commands = manager.getCommands();
+        var entity = QueryTest.entity(manager, Family.EMPTY);
+        var first = new Clock();
+        var second = new Clock();
+
+        commands.addComponent(entity, first);
+        commands.removeComponent(entity, Clock.class);
+        commands.addComponent(entity, second);
+        manager.flush();
+
+        assertSame(second, entity.getComponent(Clock.class));
+    }
+
+    @Test
+    void createDefersConstruction() {
+        var manager = new EntityManager();
+        var commands = manager.getCommands();
+        var built = new ArrayList<Entity>();
+
+        commands.create(() -> {
+            var entity = new Entity(Family.MANDELBROT);
+            entity.addComponent(new Mandelbrot());
+            built.add(entity);
+            return entity;
+        });
+        assertTrue(built.isEmpty());
+
+        manager.flush();
+
+        assertEquals(1, built.size());
+        assertEquals(1, manager.size());
+        assertTrue(manager.isAlive(built.get(0).getHandle()));
+        assertEquals(1, manager.filter(Family.MANDELBROT).size());
+    }
+
+    @Test
+    void destroyDetachedEntityByReference() {
+        var manager = new EntityManager();
+        var commands = manager.getCommands();
+        var entity = new Entity(Family.EMPTY);
+
+        // L'entité n'a pas encore d'identifiant compact à l'enregistrement
+        commands.create(entity);
+        commands.destroy(entity);
+        manager.flush();
+
+        assertEquals(0, manager.size());
+        assertNull(entity.getManager());
+    }
+
+    @Test
+    void commandsRecordedDuringFlushAreApplied() {
+        var manager = new EntityManager();
+        var commands = manager.getCommands();
+        var entity = QueryTest.entity(manager, Family.EMPTY);
+
+        commands.create(() -> {
+            // Une commande peut en enregistrer une autre
+            commands.addComponent(entity, new Clock());
+            return new Entity(Family.EMPTY);
+        });
+        manager.flush();
+
+        assertTrue(commands.isEmpty());
+        assertEquals(2, manager.size());
+        assertTrue(entity.hasComponent(Clock.class));
+    }
+
+    @Test
+    void concurrentRecordingKeepsEveryCommand() {
+        var manager = new EntityManager();
+        var commands = manager.getCommands();
+
+        pool.submit(() -> IntStream
+                .range(0, 1000)
+                .parallel()
+                .forEach(i -> commands.create(new Entity(Family.EMPTY))))
+                .join();
+        manager.flush();
+
+        assertEquals(1000, manager.size());
+    }
+
+}
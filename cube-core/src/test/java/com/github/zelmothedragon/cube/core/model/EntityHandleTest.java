@@ -0,0 +1,100 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier l'attribution des identifiants compacts et le rejet des
+ * identifiants périmés par leur numéro de génération.
+ *
+ * @author MOSELLE Maxime
+ */
+class EntityHandleTest {
+
+    @Test
+    void packsIndexAndGeneration() {
+        var handle = EntityHandle.of(12345, 678);
+
+        assertEquals(12345, EntityHandle.getIndex(handle));
+        assertEquals(678, EntityHandle.getGeneration(handle));
+        assertEquals(Integer.MAX_VALUE, EntityHandle.getIndex(EntityHandle.of(Integer.MAX_VALUE, 1)));
+        assertEquals(-1, EntityHandle.getGeneration(EntityHandle.of(0, -1)));
+    }
+
+    @Test
+    void handleIsNeverNull() {
+        var manager = new EntityManager();
+        var entity = new Entity(Family.EMPTY);
+        assertEquals(EntityHandle.NULL, entity.getHandle());
+
+        manager.add(entity);
+        var handle = entity.getHandle();
+
+        assertNotEquals(EntityHandle.NULL, handle);
+        assertTrue(manager.isAlive(handle));
+        assertSame(entity, manager.get(handle));
+        assertFalse(manager.isAlive(EntityHandle.NULL));
+    }
+
+    @Test
+    void removalInvalidatesHandle() {
+        var manager = new EntityManager();
+        var entity = new Entity(Family.EMPTY);
+        manager.add(entity);
+        var handle = entity.getHandle();
+
+        assertTrue(manager.remove(handle));
+
+        assertEquals(EntityHandle.NULL, entity.getHandle());
+        assertFalse(manager.isAlive(handle));
+        assertFalse(manager.remove(handle));
+        assertThrows(IllegalArgumentException.class, () -> manager.get(handle));
+        assertEquals(0, manager.size());
+    }
+
+    @Test
+    void reusedSlotBumpsGeneration() {
+        var manager = new EntityManager();
+        var first = new Entity(Family.EMPTY);
+        manager.add(first);
+        var stale = first.getHandle();
+        manager.remove(first);
+
+        var second = new Entity(Family.EMPTY);
+        manager.add(second);
+        var fresh = second.getHandle();
+
+        // L'emplacement est réutilisé, la génération le distingue
+        assertEquals(EntityHandle.getIndex(stale), EntityHandle.getIndex(fresh));
+        assertNotEquals(EntityHandle.getGeneration(stale), EntityHandle.getGeneration(fresh));
+        assertFalse(manager.isAlive(stale));
+        assertTrue(manager.isAlive(fresh));
+
+        // Un identifiant périmé ne supprime pas le nouvel occupant
+        assertFalse(manager.remove(stale));
+        assertSame(second, manager.get(fresh));
+        assertEquals(1, manager.size());
+    }
+
+    @Test
+    void slotsGrowBeyondInitialCapacity() {
+        var manager = new EntityManager();
+        var entities = new Entity[1000];
+        for (var i = 0; i < entities.length; i++) {
+            entities[i] = new Entity(Family.EMPTY);
+            manager.add(entities[i]);
+        }
+
+        assertEquals(entities.length, manager.size());
+        for (var entity : entities) {
+            assertSame(entity, manager.get(entity.getHandle()));
+        }
+    }
+
+}
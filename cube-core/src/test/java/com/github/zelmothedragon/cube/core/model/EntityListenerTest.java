@@ -0,0 +1,156 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier la publication des événements du cycle de vie des entités aux
+ * observateurs.
+ *
+ * @author MOSELLE Maxime
+ */
+class EntityListenerTest {
+
+    /**
+     * Réservoir de fils d'exécution des modifications concurrentes.
+     */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void eventsFollowModifications() {
+        var manager = new EntityManager();
+        var events = new Recorder();
+        manager.addListener(events);
+
+        var entity = QueryTest.entity(manager, Family.EMPTY, new Clock());
+        entity.addComponent(new BoundedBox());
+        entity.addComponent(new BoundedBox());
+        entity.markChanged(Clock.class);
+        entity.removeComponent(BoundedBox.class);
+        manager.remove(entity);
+
+        assertEquals(List.of(
+                "added",
+                "componentAdded BoundedBox",
+                "componentChanged BoundedBox",
+                "componentChanged Clock",
+                "componentRemoved BoundedBox",
+                "removed Clock"
+        ), events.log);
+    }
+
+    @Test
+    void noOpModificationsAreSilent() {
+        var manager = new EntityManager();
+        var entity = QueryTest.entity(manager, Family.EMPTY, new Clock());
+        var events = new Recorder();
+        manager.addListener(events);
+
+        // Le même composant, un composant absent, une entité détachée
+        entity.addComponent(entity.getComponent(Clock.class));
+        entity.removeComponent(BoundedBox.class);
+        entity.markChanged(BoundedBox.class);
+        new Entity(Family.EMPTY).addComponent(new Clock());
+        manager.remove(new Entity(Family.EMPTY));
+
+        assertTrue(events.log.isEmpty());
+    }
+
+    @Test
+    void removedListenerIsNotNotified() {
+        var manager = new EntityManager();
+        var events = new Recorder();
+        manager.addListener(events);
+        manager.removeListener(events);
+
+        QueryTest.entity(manager, Family.EMPTY, new Clock());
+
+        assertTrue(events.log.isEmpty());
+    }
+
+    @Test
+    void concurrentChangesAreSerialized() {
+        var manager = new EntityManager();
+        var count = new AtomicInteger();
+        var calls = new int[1];
+        manager.addListener(new EntityListener() {
+            @Override
+            public void componentChanged(final Entity entity, final Class<? extends Component> type) {
+                // Compteur non atomique, protégé par le gestionnaire
+                calls[0]++;
+                count.incrementAndGet();
+            }
+        });
+        var entities = new Entity[64];
+        for (var i = 0; i < entities.length; i++) {
+            entities[i] = QueryTest.entity(manager, Family.EMPTY, new Clock());
+        }
+
+        pool.submit(() -> IntStream
+                .range(0, 10_000)
+                .parallel()
+                .forEach(i -> entities[i % entities.length].markChanged(Clock.class)))
+                .join();
+
+        assertEquals(10_000, count.get());
+        assertEquals(10_000, calls[0]);
+    }
+
+    /**
+     * Observateur qui consigne les événements reçus.
+     */
+    private static final class Recorder implements EntityListener {
+
+        /**
+         * Événements reçus, dans l'ordre.
+         */
+        private final List<String> log = new ArrayList<>();
+
+        @Override
+        public void entityAdded(final Entity entity) {
+            log.add("added");
+        }
+
+        @Override
+        public void entityRemoved(final Entity entity) {
+            // Les composants sont encore accessibles
+            log.add("removed " + entity.getComponent(Clock.class).getClass().getSimpleName());
+        }
+
+        @Override
+        public void componentAdded(final Entity entity, final Class<? extends Component> type) {
+            log.add("componentAdded " + type.getSimpleName());
+        }
+
+        @Override
+        public void componentRemoved(final Entity entity, final Class<? extends Component> type) {
+            log.add("componentRemoved " + type.getSimpleName());
+        }
+
+        @Override
+        public void componentChanged(final Entity entity, final Class<? extends Component> type) {
+            log.add("componentChanged " + type.getSimpleName());
+        }
+
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier que les parcours parallèles traitent chaque entité correspondante
+ * exactement une fois, comme le parcours séquentiel.
+ *
+ * @author MOSELLE Maxime
+ */
+class ParallelIterationTest {
+
+    /**
+     * Nombre d'entités, réparties sur plusieurs archétypes.
+     */
+    private static final int COUNT = 5000;
+
+    /**
+     * Réservoir de fils d'exécution des parcours parallèles.
+     */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void chunksCoverEveryRowOnce() {
+        var manager = populate();
+        var visits = new AtomicIntegerArray(COUNT);
+
+        manager.forEachChunkParallel(Set.of(Clock.class), (archetype, from, to) -> {
+            assertTrue(to - from <= EntityManager.CHUNK_SIZE);
+            for (var row = from; row < to; row++) {
+                visits.incrementAndGet(EntityHandle.getIndex(archetype.getEntity(row).getHandle()));
+            }
+        });
+
+        assertVisited(manager, visits, Clock.class);
+    }
+
+    @Test
+    void chunksMatchEveryRequiredType() {
+        var manager = populate();
+        var visits = new AtomicIntegerArray(COUNT);
+
+        manager.forEachChunkParallel(Set.of(Clock.class, BoundedBox.class), (archetype, from, to) -> {
+            var boxes = archetype.getColumn(BoundedBox.class);
+            for (var row = from; row < to; row++) {
+                assertTrue(boxes[row] instanceof BoundedBox);
+                visits.incrementAndGet(EntityHandle.getIndex(archetype.getEntity(row).getHandle()));
+            }
+        });
+
+        var expected = 0;
+        for (var entity : manager.filter(Clock.class)) {
+            var index = EntityHandle.getIndex(entity.getHandle());
+            if (entity.hasComponent(BoundedBox.class)) {
+                assertEquals(1, visits.get(index), entity.toString());
+                expected++;
+            }
+        }
+        assertEquals(expected, sum(visits));
+    }
+
+    @Test
+    void queryVisitsEveryMatchOnce() {
+        var manager = populate();
+        var query = manager.register(Query.all(Clock.class));
+        var visits = new AtomicIntegerArray(COUNT);
+
+        query.forEachParallel(e -> visits.incrementAndGet(EntityHandle.getIndex(e.getHandle())), 16);
+
+        assertVisited(manager, visits, Clock.class);
+    }
+
+    @Test
+    void smallIterationStaysSequential() {
+        var manager = new EntityManager();
+        manager.setParallelPool(pool);
+        var caller = Thread.currentThread();
+        for (var i = 0; i < 10; i++) {
+            QueryTest.entity(manager, Family.EMPTY, new Clock());
+        }
+        var visits = new AtomicIntegerArray(10);
+
+        manager.forEachChunkParallel(Clock.class, (archetype, from, to) -> {
+            assertEquals(caller, Thread.currentThread());
+            for (var row = from; row < to; row++) {
+                visits.incrementAndGet(EntityHandle.getIndex(archetype.getEntity(row).getHandle()));
+            }
+        });
+
+        assertEquals(10, sum(visits));
+    }
+
+    /**
+     * Construire un gestionnaire dont les entités sont réparties sur trois
+     * archétypes, avec des suppressions au milieu des colonnes.
+     *
+     * @return Le gestionnaire d'entités
+     */
+    private static EntityManager populate() {
+        var manager = new EntityManager();
+        manager.setParallelPool(pool);
+        manager.setMinChunkSize(64);
+        var entities = new Entity[COUNT];
+        for (var i = 0; i < COUNT; i++) {
+            switch (i % 3) {
+                case 0:
+                    entities[i] = QueryTest.entity(manager, Family.EMPTY, new Clock());
+                    break;
+                case 1:
+                    entities[i] = QueryTest.entity(manager, Family.EMPTY, new Clock(), new BoundedBox());
+                    break;
+                default:
+                    entities[i] = QueryTest.entity(manager, Family.EMPTY, new BoundedBox());
+                    break;
+            }
+        }
+        for (var i = 0; i < COUNT; i += 7) {
+            manager.remove(entities[i]);
+        }
+        return manager;
+    }
+
+    /**
+     * Vérifier que chaque entité vivante possédant un type de composant a été
+     * traitée exactement une fois, et aucune autre.
+     *
+     * @param manager Gestionnaire d'entités
+     * @param visits Nombre de traitements par emplacement d'entité
+     * @param type Type de composant requis
+     */
+    private static void assertVisited(
+            final EntityManager manager,
+            final AtomicIntegerArray visits,
+            final Class<? extends Component> type) {
+
+        var expected = 0;
+        for (var entity : manager.filter(type)) {
+            assertEquals(1, visits.get(EntityHandle.getIndex(entity.getHandle())), entity.toString());
+            expected++;
+        }
+        assertEquals(expected, sum(visits));
+    }
+
+    /**
+     * Calculer le nombre total de traitements.
+     *
+     * @param visits Nombre de traitements par emplacement d'entité
+     * @return La somme
+     */
+    private static int sum(final AtomicIntegerArray visits) {
+        var sum = 0;
+        for (var i = 0; i < visits.length(); i++) {
+            sum += visits.get(i);
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier le recyclage des objets par les réservoirs, seuls et à travers le
+ * gestionnaire d'entités.
+ *
+ * @author MOSELLE Maxime
+ */
+class PoolTest {
+
+    @Test
+    void releasedObjectsAreReused() {
+        var resets = new AtomicInteger();
+        var pool = new Pool<StringBuilder>(StringBuilder::new, b -> {
+            b.setLength(0);
+            resets.incrementAndGet();
+        }, 4);
+
+        var first = pool.obtain();
+        first.append("used");
+        pool.release(first);
+        var second = pool.obtain();
+
+        assertSame(first, second);
+        assertEquals(0, second.length());
+        assertEquals(1, resets.get());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0.5, pool.getHitRate());
+    }
+
+    @Test
+    void excessObjectsAreDropped() {
+        var pool = new Pool<Object>(Object::new, o -> {
+            // RAS
+        }, 2);
+        var objects = new ArrayList<Object>();
+        for (var i = 0; i < 40; i++) {
+            objects.add(pool.obtain());
+        }
+        objects.forEach(pool::release);
+
+        assertEquals(2, pool.size());
+        assertEquals(38, pool.getDropped());
+
+        pool.setCapacity(1);
+        assertEquals(1, pool.size());
+        assertEquals(1, pool.getCapacity());
+    }
+
+    @Test
+    void doubleReleaseIsRejected() {
+        var pool = new Pool<Object>(Object::new, o -> {
+            // RAS
+        }, 4);
+        var object = pool.obtain();
+        pool.release(object);
+
+        assertThrows(IllegalStateException.class, () -> pool.release(object));
+        assertEquals(1, pool.size());
+        assertNotSame(pool.obtain(), pool.obtain());
+    }
+
+    @Test
+    void removedEntitiesAreRecycled() {
+        var manager = new EntityManager();
+        var boxes = manager.registerPool(BoundedBox.class, BoundedBox::new, 8);
+
+        var entity = manager.obtain(Family.EMPTY);
+        var box = manager.obtain(BoundedBox.class);
+        box.getBound().set(1, 2, 3, 4);
+        entity.addComponent(box);
+        manager.add(entity);
+        manager.remove(entity);
+
+        // L'entité et son composant sont remis à zéro puis réutilisés
+        assertEquals(1, boxes.size());
+        var reused = manager.obtain(Family.PLAYER);
+        var reusedBox = manager.obtain(BoundedBox.class);
+        assertSame(entity, reused);
+        assertSame(box, reusedBox);
+        assertEquals(Family.PLAYER, reused.getFamily());
+        assertFalse(reused.hasComponent(BoundedBox.class));
+        assertEquals(new BoundedBox(), reusedBox);
+    }
+
+    @Test
+    void unpooledEntitiesAreNotRecycled() {
+        var manager = new EntityManager();
+        var entity = QueryTest.entity(manager, Family.EMPTY, new Clock());
+        var available = manager.getEntityPool().size();
+
+        manager.remove(entity);
+
+        assertEquals(available, manager.getEntityPool().size());
+        assertTrue(entity.hasComponent(Clock.class));
+    }
+
+    @Test
+    void deferredDestroyIgnoresRecycledEntity() {
+        var manager = new EntityManager();
+        var entity = manager.obtain(Family.EMPTY);
+        manager.add(entity);
+        manager.getCommands().destroy(entity);
+
+        // L'entité est supprimée puis réutilisée avant le point de
+        // synchronisation
+        manager.remove(entity);
+        var reused = manager.obtain(Family.EMPTY);
+        manager.add(reused);
+        assertSame(entity, reused);
+
+        manager.flush();
+
+        assertTrue(manager.isAlive(reused.getHandle()));
+        assertEquals(1, manager.size());
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier que les requêtes compilées en masques binaires suivent les
+ * entités correspondantes au fil des modifications.
+ *
+ * @author MOSELLE Maxime
+ */
+class QueryTest {
+
+    @Test
+    void matchesAllAnyNoneAndFamily() {
+        var manager = new EntityManager();
+        var clock = entity(manager, Family.EMPTY, new Clock());
+        var box = entity(manager, Family.EMPTY, new BoundedBox());
+        var both = entity(manager, Family.EMPTY, new Clock(), new BoundedBox());
+        var fractal = entity(manager, Family.MANDELBROT, new Mandelbrot(), new Clock());
+
+        assertEquals(Set.of(clock, both, fractal), matches(manager.register(Query.all(Clock.class))));
+        assertEquals(Set.of(both), matches(manager.register(Query.all(Clock.class, BoundedBox.class))));
+        assertEquals(
+                Set.of(box, both, fractal),
+                matches(manager.register(Query.all().any(BoundedBox.class, Mandelbrot.class))));
+        assertEquals(
+                Set.of(clock, fractal),
+                matches(manager.register(Query.all(Clock.class).none(BoundedBox.class))));
+        assertEquals(
+                Set.of(fractal),
+                matches(manager.register(Query.all(Clock.class).family(Family.MANDELBROT))));
+        assertEquals(Set.of(fractal), matches(manager.register(Query.of(Family.MANDELBROT))));
+    }
+
+    @Test
+    void followsStructuralChanges() {
+        var manager = new EntityManager();
+        var query = manager.register(Query.all(Clock.class).none(BoundedBox.class));
+        var entity = entity(manager, Family.EMPTY, new Clock());
+        assertEquals(Set.of(entity), matches(query));
+
+        // Un composant interdit exclut l'entité, son retrait la réintègre
+        entity.addComponent(new BoundedBox());
+        assertEquals(0, query.size());
+        entity.removeComponent(BoundedBox.class);
+        assertEquals(Set.of(entity), matches(query));
+
+        entity.removeComponent(Clock.class);
+        assertEquals(0, query.size());
+        entity.addComponent(new Clock());
+        assertEquals(Set.of(entity), matches(query));
+
+        manager.remove(entity);
+        assertEquals(0, query.size());
+    }
+
+    @Test
+    void keepsMatchesAcrossRemovals() {
+        var manager = new EntityManager();
+        var query = manager.register(Query.all(Clock.class));
+        var entities = new Entity[50];
+        for (var i = 0; i < entities.length; i++) {
+            entities[i] = entity(manager, Family.EMPTY, new Clock());
+        }
+
+        // Supprimer une entité sur trois, au milieu de la liste dense
+        var expected = new HashSet<Entity>();
+        for (var i = 0; i < entities.length; i++) {
+            if (i % 3 == 0) {
+                manager.remove(entities[i]);
+            } else {
+                expected.add(entities[i]);
+            }
+        }
+
+        assertEquals(expected, matches(query));
+        assertEquals(expected.size(), query.getEntities().size());
+    }
+
+    @Test
+    void unregisterStopsUpdates() {
+        var manager = new EntityManager();
+        var query = manager.register(Query.all(Clock.class));
+        entity(manager, Family.EMPTY, new Clock());
+        assertTrue(query.isRegistered());
+        assertThrows(IllegalStateException.class, () -> query.and(BoundedBox.class));
+
+        manager.unregister(query);
+        entity(manager, Family.EMPTY, new Clock());
+
+        assertFalse(query.isRegistered());
+        assertEquals(0, query.size());
+    }
+
+    /**
+     * Ajouter une nouvelle entité au gestionnaire.
+     *
+     * @param manager Gestionnaire d'entités
+     * @param family Famille d'entité
+     * @param components Composants de l'entité
+     * @return L'entité ajoutée
+     */
+    static Entity entity(
+            final EntityManager manager,
+            final Family family,
+            final Component... components) {
+
+        var entity = new Entity(family);
+        for (var component : components) {
+            entity.addComponent(component);
+        }
+        manager.add(entity);
+        return entity;
+    }
+
+    /**
+     * Obtenir l'ensemble des entités correspondant à une requête.
+     *
+     * @param query Requête enregistrée
+     * @return Les entités correspondantes, sans doublon
+     */
+    private static Set<Entity> matches(final Query query) {
+        var entities = Set.copyOf(query.getEntities());
+        assertEquals(query.size(), entities.size(), "Duplicate match");
+        return entities;
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.github.zelmothedragon.cube.core.model;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier le stockage des composants marqueurs dans des ensembles creux, à
+ * côté des colonnes des archétypes.
+ *
+ * @author MOSELLE Maxime
+ */
+class SparseStoreTest {
+
+    @Test
+    void toggleKeepsArchetypeRow() {
+        var manager = sparseManager();
+        var entity = QueryTest.entity(manager, Family.PLAYER, new Clock());
+        var archetype = entity.getArchetype();
+        var row = entity.getRow();
+
+        entity.addComponent(Controllable.INSTANCE);
+        assertSame(archetype, entity.getArchetype());
+        assertEquals(row, entity.getRow());
+        assertTrue(entity.hasComponent(Controllable.class));
+        assertSame(Controllable.INSTANCE, entity.getComponent(Controllable.class));
+        assertEquals(Set.of(Clock.class, Controllable.class), entity.getComponentTypes());
+
+        entity.removeComponent(Controllable.class);
+        assertSame(archetype, entity.getArchetype());
+        assertEquals(row, entity.getRow());
+        assertFalse(entity.hasComponent(Controllable.class));
+        assertEquals(Set.of(Clock.class), entity.getComponentTypes());
+    }
+
+    @Test
+    void queriesSeeSparseComponents() {
+        var manager = sparseManager();
+        var query = manager.register(Query.all(Clock.class, Controllable.class));
+        var entity = QueryTest.entity(manager, Family.PLAYER, new Clock(), Controllable.INSTANCE);
+        assertEquals(1, query.size());
+
+        entity.removeComponent(Controllable.class);
+        assertEquals(0, query.size());
+        entity.addComponent(Controllable.INSTANCE);
+        assertEquals(1, query.size());
+    }
+
+    @Test
+    void chunksOnlyCoverRowsWithSparseComponents() {
+        var manager = sparseManager();
+        var expected = new HashSet<Entity>();
+        for (var i = 0; i < 3000; i++) {
+            var entity = QueryTest.entity(manager, Family.EMPTY, new Clock());
+            // Des suites de lignes avec et sans le marqueur
+            if (i % 5 < 3) {
+                entity.addComponent(Movable.INSTANCE);
+                expected.add(entity);
+            }
+        }
+
+        var visited = new HashSet<Entity>();
+        manager.forEachChunk(Set.of(Clock.class, Movable.class), (archetype, from, to) -> {
+            assertTrue(to - from <= EntityManager.CHUNK_SIZE);
+            for (var row = from; row < to; row++) {
+                var entity = archetype.getEntity(row);
+                assertTrue(entity.hasComponent(Movable.class));
+                assertTrue(visited.add(entity));
+            }
+        });
+        assertEquals(expected, visited);
+
+        // Un type creux seul est parcouru de la même manière
+        visited.clear();
+        manager.forEachChunk(Movable.class, (archetype, from, to) -> {
+            for (var row = from; row < to; row++) {
+                assertTrue(visited.add(archetype.getEntity(row)));
+            }
+        });
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void removalReturnsSparseComponents() {
+        var manager = sparseManager();
+        var entity = QueryTest.entity(manager, Family.PLAYER, new Clock(), Movable.INSTANCE);
+        var other = QueryTest.entity(manager, Family.PLAYER, Movable.INSTANCE);
+
+        manager.remove(entity);
+
+        // L'entité détachée conserve ses composants, les autres restent creux
+        assertTrue(entity.hasComponent(Movable.class));
+        assertTrue(entity.hasComponent(Clock.class));
+        assertTrue(other.hasComponent(Movable.class));
+        assertEquals(1, manager.getStore(Movable.class).size());
+
+        manager.add(entity);
+        assertEquals(2, manager.getStore(Movable.class).size());
+        assertTrue(entity.hasComponent(Movable.class));
+    }
+
+    @Test
+    void registerAfterUseIsRejected() {
+        var manager = new EntityManager();
+        QueryTest.entity(manager, Family.EMPTY, new Clock());
+
+        assertThrows(IllegalStateException.class, () -> manager.registerSparse(Clock.class));
+    }
+
+    /**
+     * Construire un gestionnaire dont les composants marqueurs sont creux.
+     *
+     * @return Le gestionnaire d'entités
+     */
+    private static EntityManager sparseManager() {
+        var manager = new EntityManager();
+        manager.registerSparse(Controllable.class);
+        manager.registerSparse(Movable.class);
+        return manager;
+    }
+
+}
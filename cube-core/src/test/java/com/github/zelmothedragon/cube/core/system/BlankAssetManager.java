@@ -0,0 +1,36 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import com.github.zelmothedragon.cube.core.GameManager;
+import com.github.zelmothedragon.cube.core.model.Image;
+import com.github.zelmothedragon.cube.pixel.asset.PixelArrayAssetManager;
+import com.github.zelmothedragon.cube.pixel.model.PixelArrayImage;
+
+/**
+ * Gestionnaire de ressources des tests. Les images sont remplacées par des
+ * images vierges, les cartes et les polices restent chargées depuis les
+ * ressources du module.
+ *
+ * @author MOSELLE Maxime
+ */
+final class BlankAssetManager extends PixelArrayAssetManager {
+
+    /**
+     * Côté des images vierges, suffisant pour toutes les planches.
+     */
+    private static final int SIZE = 256;
+
+    @Override
+    public Image<int[]> loadImage(final String imagePath) {
+        return new PixelArrayImage(SIZE, SIZE);
+    }
+
+    /**
+     * Construire un gestionnaire du jeu avec les systèmes du moteur.
+     *
+     * @return Le gestionnaire du jeu
+     */
+    static GameManager newGame() {
+        return new GameManager(new BlankAssetManager());
+    }
+
+}
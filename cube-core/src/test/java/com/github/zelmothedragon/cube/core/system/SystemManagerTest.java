@@ -0,0 +1,138 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier que les changements de la liste des systèmes demandés en cours
+ * d'exécution prennent effet au point de synchronisation suivant.
+ *
+ * @author MOSELLE Maxime
+ */
+class SystemManagerTest {
+
+    @Test
+    void registrationTakesEffectNextTick() {
+        var systems = BlankAssetManager.newGame().getSystems();
+        var added = new Added();
+        var host = new Host(() -> systems.register(added));
+        systems.register(host);
+        systems.update();
+        assertEquals(0, host.getUpdates());
+
+        // L'hôte inscrit un système pendant sa mise à jour
+        systems.update();
+        assertEquals(1, host.getUpdates());
+        assertSame(added, systems.get(Added.class));
+        assertEquals(0, added.getUpdates());
+        assertTrue(systems.getProfiles().contains(added.getProfile()));
+
+        systems.unregister(Host.class);
+        systems.update();
+        assertEquals(1, added.getUpdates());
+    }
+
+    @Test
+    void unregisterTakesEffectAtSync() {
+        var systems = BlankAssetManager.newGame().getSystems();
+        var added = new Added();
+        systems.register(added);
+        systems.update();
+        systems.update();
+        assertEquals(1, added.getUpdates());
+
+        // Le système disparaît de l'index mais termine le tour en cours
+        assertSame(added, systems.unregister(Added.class));
+        assertNull(systems.get(Added.class));
+        assertTrue(systems.getProfiles().contains(added.getProfile()));
+        systems.update();
+        assertEquals(2, added.getUpdates());
+
+        assertFalse(systems.getProfiles().contains(added.getProfile()));
+        systems.update();
+        assertEquals(2, added.getUpdates());
+    }
+
+    @Test
+    void disabledSystemIsSkipped() {
+        var systems = BlankAssetManager.newGame().getSystems();
+        var added = new Added();
+        systems.register(added);
+        systems.update();
+
+        added.disable();
+        assertFalse(systems.isEnabled(Added.class));
+        systems.update();
+        systems.update();
+        assertEquals(0, added.getUpdates());
+        assertSame(added, systems.get(Added.class));
+
+        // La réactivation prend effet au tour suivant
+        systems.enbable(Added.class);
+        systems.update();
+        assertEquals(0, added.getUpdates());
+        systems.update();
+        assertEquals(1, added.getUpdates());
+    }
+
+    @Test
+    void providedSystemIsBuiltOnDemandAndReleased() {
+        var systems = BlankAssetManager.newGame().getSystems();
+        assertNull(systems.get(MandelbrotSystem.class));
+
+        systems.enbable(MandelbrotSystem.class);
+        var built = systems.get(MandelbrotSystem.class);
+        assertNotNull(built);
+        systems.update();
+        assertTrue(systems.isEnabled(MandelbrotSystem.class));
+        assertTrue(systems.getProfiles().contains(built.getProfile()));
+
+        // Un système fourni désactivé est retiré, puis reconstruit
+        systems.disable(MandelbrotSystem.class);
+        assertNull(systems.get(MandelbrotSystem.class));
+        systems.update();
+        assertFalse(systems.getProfiles().contains(built.getProfile()));
+
+        systems.enbable(MandelbrotSystem.class);
+        assertNotNull(systems.get(MandelbrotSystem.class));
+        assertNotSame(built, systems.get(MandelbrotSystem.class));
+    }
+
+    /**
+     * Système de test qui exécute un traitement lors de sa mise à jour.
+     */
+    private static final class Host extends SystemSchedulerTest.ProbeSystem {
+
+        /**
+         * Constructeur.
+         *
+         * @param action Traitement de la mise à jour
+         */
+        Host(final Runnable action) {
+            super(1000, action);
+        }
+
+    }
+
+    /**
+     * Système de test inscrit en cours d'exécution.
+     */
+    private static final class Added extends SystemSchedulerTest.ProbeSystem {
+
+        /**
+         * Constructeur.
+         */
+        Added() {
+            super(1001, null);
+        }
+
+    }
+
+}
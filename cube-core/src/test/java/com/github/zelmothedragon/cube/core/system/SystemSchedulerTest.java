@@ -0,0 +1,254 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import com.github.zelmothedragon.cube.core.graphic.Renderer;
+import com.github.zelmothedragon.cube.core.model.BoundedBox;
+import com.github.zelmothedragon.cube.core.model.Clock;
+import com.github.zelmothedragon.cube.core.model.Component;
+import com.github.zelmothedragon.cube.core.model.Mandelbrot;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier que l'ordonnanceur exécute en parallèle les systèmes sans conflit
+ * et dans l'ordre des priorités les systèmes en conflit.
+ *
+ * @author MOSELLE Maxime
+ */
+class SystemSchedulerTest {
+
+    /**
+     * Réservoir de fils d'exécution de la mise à jour parallèle.
+     */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void conflictsFollowDeclaredAccesses() {
+        var exclusive = new ProbeSystem(0, null);
+        var readsClock = new ProbeSystem(1, null);
+        readsClock.reads(Clock.class);
+        var alsoReadsClock = new ProbeSystem(2, null);
+        alsoReadsClock.reads(Clock.class);
+        var writesClock = new ProbeSystem(3, null);
+        writesClock.writes(Clock.class);
+        var writesBox = new ProbeSystem(4, null);
+        writesBox.writes(BoundedBox.class);
+
+        assertTrue(exclusive.isExclusive());
+        assertTrue(exclusive.conflictsWith(readsClock));
+        assertTrue(readsClock.conflictsWith(exclusive));
+        assertFalse(readsClock.conflictsWith(alsoReadsClock));
+        assertTrue(readsClock.conflictsWith(writesClock));
+        assertTrue(writesClock.conflictsWith(readsClock));
+        assertFalse(writesClock.conflictsWith(writesBox));
+        assertFalse(readsClock.conflictsWith(writesBox));
+    }
+
+    @Test
+    void conflictingSystemsRunInPriorityOrder() {
+        var log = Collections.synchronizedList(new ArrayList<Integer>());
+        var running = new AtomicInteger();
+        var systems = new ArrayList<AbstractSystem>();
+        for (var priority = 0; priority < 6; priority++) {
+            var id = priority;
+            var system = new ProbeSystem(priority, () -> {
+                assertEquals(1, running.incrementAndGet(), "Overlapping systems");
+                log.add(id);
+                running.decrementAndGet();
+            });
+            // Chaque système lit le type modifié par le précédent
+            system.reads(type(priority));
+            system.writes(type(priority + 1));
+            systems.add(system);
+        }
+        var scheduler = new SystemScheduler(systems);
+        var enabled = systems.toArray(AbstractSystem[]::new);
+
+        for (var tick = 0L; tick < 50L; tick++) {
+            log.clear();
+            scheduler.update(pool, enabled, tick, false);
+            assertEquals(List.of(0, 1, 2, 3, 4, 5), log);
+        }
+    }
+
+    @Test
+    void independentSystemsRunTogether() {
+        var barrier = new CyclicBarrier(2);
+        var log = Collections.synchronizedList(new ArrayList<String>());
+        var clock = new ProbeSystem(0, () -> {
+            await(barrier);
+            log.add("clock");
+        });
+        clock.writes(Clock.class);
+        var box = new ProbeSystem(1, () -> {
+            await(barrier);
+            log.add("box");
+        });
+        box.writes(BoundedBox.class);
+        var reader = new ProbeSystem(2, () -> log.add("reader"));
+        reader.reads(Clock.class, BoundedBox.class);
+        var systems = List.<AbstractSystem>of(clock, box, reader);
+
+        // Les deux premiers systèmes s'attendent l'un l'autre : ils ne
+        // peuvent terminer que s'ils s'exécutent en même temps
+        new SystemScheduler(systems).update(pool, systems.toArray(AbstractSystem[]::new), 0L, false);
+
+        assertEquals(3, log.size());
+        assertEquals("reader", log.get(2));
+    }
+
+    @Test
+    void singleThreadRunsEnabledSystemsInOrder() {
+        var log = new ArrayList<Integer>();
+        var systems = new ArrayList<AbstractSystem>();
+        for (var priority = 0; priority < 4; priority++) {
+            var id = priority;
+            var system = new ProbeSystem(priority, () -> log.add(id));
+            system.reads(Mandelbrot.class);
+            systems.add(system);
+        }
+        var single = new ForkJoinPool(1);
+        try {
+            var enabled = new AbstractSystem[]{systems.get(0), systems.get(2), systems.get(3)};
+            new SystemScheduler(systems).update(single, enabled, 0L, false);
+        } finally {
+            single.shutdown();
+        }
+
+        assertEquals(List.of(0, 2, 3), log);
+    }
+
+    @Test
+    void systemDisabledByPredecessorIsSkipped() {
+        var log = Collections.synchronizedList(new ArrayList<String>());
+        var second = new ProbeSystem(1, () -> log.add("second"));
+        var first = new ProbeSystem(0, () -> {
+            log.add("first");
+            second.disable();
+        });
+        var systems = List.<AbstractSystem>of(first, second);
+
+        new SystemScheduler(systems).update(pool, systems.toArray(AbstractSystem[]::new), 0L, false);
+
+        assertEquals(List.of("first"), log);
+    }
+
+    @Test
+    void failurePropagatesToCaller() {
+        var failing = new ProbeSystem(0, () -> {
+            throw new IllegalStateException("Failure");
+        });
+        failing.writes(Clock.class);
+        var other = new ProbeSystem(1, () -> {
+            // RAS
+        });
+        other.writes(BoundedBox.class);
+        var systems = List.<AbstractSystem>of(failing, other);
+        var scheduler = new SystemScheduler(systems);
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> scheduler.update(pool, systems.toArray(AbstractSystem[]::new), 0L, false));
+    }
+
+    /**
+     * Obtenir un type de composant distinct par rang, pour construire une
+     * chaîne de dépendances.
+     *
+     * @param rank Rang du type
+     * @return Le type de composant
+     */
+    private static Class<? extends Component> type(final int rank) {
+        var types = List.of(Clock.class, BoundedBox.class, Mandelbrot.class);
+        return types.get(rank % types.size());
+    }
+
+    /**
+     * Attendre l'autre système sur une barrière, avec un délai maximal.
+     *
+     * @param barrier Barrière partagée
+     */
+    private static void await(final CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Systems did not run in parallel", ex);
+        }
+    }
+
+    /**
+     * Système de test, exécute un traitement lors de sa mise à jour.
+     */
+    static class ProbeSystem extends AbstractSystem {
+
+        /**
+         * Traitement de la mise à jour, peut être <code>null</code>.
+         */
+        private final Runnable action;
+
+        /**
+         * Nombre de mises à jour.
+         */
+        private int updates;
+
+        /**
+         * Constructeur.
+         *
+         * @param priority Priorité d'exécution du système
+         * @param action Traitement de la mise à jour, peut être
+         * <code>null</code>
+         */
+        ProbeSystem(final int priority, final Runnable action) {
+            super(null, priority);
+            this.action = action;
+            this.updates = 0;
+        }
+
+        @Override
+        public void update() {
+            updates++;
+            if (Objects.nonNull(action)) {
+                action.run();
+            }
+        }
+
+        @Override
+        public void draw(final Renderer<?> renderer) {
+            // RAS
+        }
+
+        /**
+         * Accesseur, obtenir le nombre de mises à jour.
+         *
+         * @return Le nombre de mises à jour
+         */
+        int getUpdates() {
+            return updates;
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.github.zelmothedragon.cube.core.system;
+
+import com.github.zelmothedragon.cube.core.model.Clock;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier la fréquence réduite de mise à jour des systèmes, la répartition
+ * de leurs tours et leur budget de temps.
+ *
+ * @author MOSELLE Maxime
+ */
+class TickDivisorTest {
+
+    /**
+     * Réservoir de fils d'exécution de la mise à jour parallèle.
+     */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void divisorSelectsTicks() {
+        var system = new SystemSchedulerTest.ProbeSystem(0, null);
+        assertEquals(1, system.getTickDivisor());
+        assertTrue(system.isDue(0L) && system.isDue(1L));
+
+        system.every(3);
+        system.setTickPhase(1);
+
+        assertEquals(3, system.getTickDivisor());
+        assertFalse(system.isDue(0L));
+        assertFalse(system.isDue(1L));
+        assertTrue(system.isDue(2L));
+        assertTrue(system.isDue(5L));
+        assertThrows(IllegalArgumentException.class, () -> system.every(0));
+    }
+
+    @Test
+    void schedulerSkipsTicksNotDue() {
+        var every = new SystemSchedulerTest.ProbeSystem(0, null);
+        every.writes(Clock.class);
+        every.every(3);
+        var always = new SystemSchedulerTest.ProbeSystem(1, null);
+        always.reads(Clock.class);
+        var systems = List.<AbstractSystem>of(every, always);
+        var scheduler = new SystemScheduler(systems);
+
+        for (var tick = 0L; tick < 12L; tick++) {
+            scheduler.update(pool, systems.toArray(AbstractSystem[]::new), tick, false);
+        }
+
+        assertEquals(4, every.getUpdates());
+        assertEquals(12, always.getUpdates());
+    }
+
+    @Test
+    void sameDivisorSystemsAreStaggered() {
+        var game = BlankAssetManager.newGame();
+        var systems = game.getSystems();
+        var staggered = new SystemSchedulerTest.ProbeSystem[]{
+            new First(), new Second(), new Third()
+        };
+        for (var system : staggered) {
+            system.every(3);
+            systems.register(system);
+        }
+        systems.update();
+
+        // Chaque tour revient à un seul des trois systèmes
+        for (var tick = 0L; tick < 3L; tick++) {
+            var due = 0;
+            for (var system : staggered) {
+                due += system.isDue(tick) ? 1 : 0;
+            }
+            assertEquals(1, due, "Tick " + tick);
+        }
+        for (var i = 0; i < 9; i++) {
+            systems.update();
+        }
+        for (var system : staggered) {
+            assertEquals(3, system.getUpdates());
+        }
+    }
+
+    @Test
+    void budgetBoundsTimeSlice() {
+        var slices = 0;
+        var system = new SystemSchedulerTest.ProbeSystem(0, null);
+        assertEquals(0L, system.getBudget());
+        system.beginSlice();
+        assertTrue(system.hasTimeLeft());
+
+        system.budget(TimeUnit.MILLISECONDS.toNanos(2));
+        var start = System.nanoTime();
+        system.beginSlice();
+        while (system.hasTimeLeft()) {
+            slices++;
+        }
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(2));
+        assertTrue(slices > 0);
+        assertThrows(IllegalArgumentException.class, () -> system.budget(-1L));
+    }
+
+    /**
+     * Premier système de test de même fréquence, de type distinct.
+     */
+    private static final class First extends SystemSchedulerTest.ProbeSystem {
+
+        /**
+         * Constructeur.
+         */
+        First() {
+            super(1000, null);
+        }
+
+    }
+
+    /**
+     * Deuxième système de test de même fréquence, de type distinct.
+     */
+    private static final class Second extends SystemSchedulerTest.ProbeSystem {
+
+        /**
+         * Constructeur.
+         */
+        Second() {
+            super(1001, null);
+        }
+
+    }
+
+    /**
+     * Troisième système de test de même fréquence, de type distinct.
+     */
+    private static final class Third extends SystemSchedulerTest.ProbeSystem {
+
+        /**
+         * Constructeur.
+         */
+        Third() {
+            super(1002, null);
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.github.zelmothedragon.cube.pixel.graphic;
+
+import com.github.zelmothedragon.cube.pixel.model.PixelArrayImageMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier que les morceaux pré-rendus des cartes d'images produisent la même
+ * image que le dessin des tuiles, et leur réutilisation d'une trame à l'autre.
+ *
+ * @author MOSELLE Maxime
+ */
+class ChunkCacheTest {
+
+    @Test
+    void chunksMatchEveryTile() {
+        var cached = newRenderer(1);
+        assertTrue(cached.getChunks().isEnabled());
+
+        ImageMapRenderingTest.assertMatchesEveryTile(cached, ImageMapRenderingTest.map(40, 30, 3));
+    }
+
+    @Test
+    void chunksMatchEveryTileInBands() {
+        var cached = newRenderer(7);
+
+        ImageMapRenderingTest.assertMatchesEveryTile(cached, ImageMapRenderingTest.map(40, 30, 3));
+    }
+
+    @Test
+    void chunksAreReused() {
+        var map = ImageMapRenderingTest.map(40, 30, 3);
+        var renderer = newRenderer(1);
+        var chunks = renderer.getChunks();
+
+        draw(renderer, map);
+        var misses = chunks.getMisses();
+        var first = renderer.getRawData().clone();
+        assertTrue(misses > 0);
+        assertEquals(0L, chunks.getHits());
+        assertEquals(misses, chunks.getCount());
+
+        draw(renderer, map);
+        assertEquals(misses, chunks.getMisses());
+        assertEquals(misses, chunks.getHits());
+        assertArrayEquals(first, renderer.getRawData());
+    }
+
+    @Test
+    void budgetEvictsLeastRecentChunks() {
+        var map = ImageMapRenderingTest.map(40, 30, 3);
+        var renderer = newRenderer(1);
+        var chunks = renderer.getChunks();
+        draw(renderer, map);
+        var count = chunks.getCount();
+        var size = chunks.getSize();
+
+        // La moitié du budget conserve la moitié des morceaux
+        chunks.setBudget(size / 2);
+        assertTrue(chunks.getSize() <= size / 2);
+        assertTrue(chunks.getCount() < count);
+
+        chunks.setBudget(0L);
+        assertFalse(chunks.isEnabled());
+        assertEquals(0, chunks.getCount());
+        assertEquals(0L, chunks.getSize());
+        assertThrows(IllegalArgumentException.class, () -> chunks.setBudget(-1L));
+    }
+
+    @Test
+    void invalidateRecomposesModifiedMap() {
+        var cells = ImageMapRenderingTest.cells(40, 30, 2);
+        var map = ImageMapRenderingTest.map(cells);
+        var renderer = newRenderer(1);
+        draw(renderer, map);
+        var before = renderer.getRawData().clone();
+
+        // Les morceaux en cache ignorent la modification de la carte
+        for (var row : cells.get(0)) {
+            for (var x = 0; x < row.length; x++) {
+                row[x] = (row[x] + 5) % 16;
+            }
+        }
+        draw(renderer, map);
+        assertArrayEquals(before, renderer.getRawData());
+
+        renderer.invalidate(map);
+        ImageMapRenderingTest.assertMatchesEveryTile(renderer, map);
+    }
+
+    /**
+     * Construire un gestionnaire de rendu sans fond défilant, dont chaque
+     * trame dessine les morceaux.
+     *
+     * @param bands Nombre de bandes
+     * @return Le gestionnaire de rendu
+     */
+    private static PixelArrayRenderer newRenderer(final int bands) {
+        var renderer = new PixelArrayRenderer(ImageMapRenderingTest.WIDTH, ImageMapRenderingTest.HEIGHT);
+        renderer.setScrolling(false);
+        renderer.setBands(bands);
+        return renderer;
+    }
+
+    /**
+     * Dessiner une trame de la carte, la caméra au centre de la carte.
+     *
+     * @param renderer Gestionnaire de rendu
+     * @param map Carte d'images
+     */
+    private static void draw(
+            final PixelArrayRenderer renderer,
+            final PixelArrayImageMap map) {
+
+        renderer.clear();
+        renderer.setOffset(ImageMapRenderingTest.CAMERAS[0][0], ImageMapRenderingTest.CAMERAS[0][1]);
+        renderer.drawImage(ImageMapRenderingTest.MAP_X, ImageMapRenderingTest.MAP_Y, map);
+        renderer.flush();
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.github.zelmothedragon.cube.pixel.graphic;
+
+import com.github.zelmothedragon.cube.pixel.model.PixelArrayImage;
+import com.github.zelmothedragon.cube.pixel.model.PixelArrayImageMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Vérifier que le rendu des cartes d'images limité à la zone affichée produit
+ * la même image que le dessin de toutes leurs tuiles.
+ *
+ * @author MOSELLE Maxime
+ */
+class ImageMapRenderingTest {
+
+    /**
+     * Largeur de l'affichage.
+     */
+    static final int WIDTH = 320;
+
+    /**
+     * Hauteur de l'affichage.
+     */
+    static final int HEIGHT = 180;
+
+    /**
+     * Côté d'une tuile.
+     */
+    static final int TILE = 16;
+
+    /**
+     * Abscisse de la carte dans le monde.
+     */
+    static final int MAP_X = -40;
+
+    /**
+     * Ordonnée de la carte dans le monde.
+     */
+    static final int MAP_Y = 24;
+
+    /**
+     * Positions de la caméra : au centre, à cheval sur les bords, et hors de
+     * la carte.
+     */
+    static final int[][] CAMERAS = {
+        {300, 200},
+        {MAP_X, MAP_Y},
+        {MAP_X + 7, MAP_Y + 3},
+        {MAP_X + 40 * TILE - 5, MAP_Y + 30 * TILE - 9},
+        {-1000, -1000},
+        {313, 97}
+    };
+
+    @Test
+    void culledLayersMatchEveryTile() {
+        var culled = new PixelArrayRenderer(WIDTH, HEIGHT);
+        culled.setBands(1);
+        culled.getChunks().setBudget(0L);
+
+        assertMatchesEveryTile(culled, map(40, 30, 3));
+    }
+
+    @Test
+    void culledLayersMatchEveryTileInBands() {
+        var culled = new PixelArrayRenderer(WIDTH, HEIGHT);
+        culled.setBands(7);
+        culled.getChunks().setBudget(0L);
+
+        assertMatchesEveryTile(culled, map(40, 30, 3));
+    }
+
+    /**
+     * Vérifier, pour chaque position de la caméra, que le rendu d'une carte
+     * d'images est identique au dessin de toutes ses tuiles.
+     *
+     * @param renderer Gestionnaire de rendu vérifié
+     * @param map Carte d'images
+     */
+    static void assertMatchesEveryTile(
+            final PixelArrayRenderer renderer,
+            final PixelArrayImageMap map) {
+
+        var reference = new PixelArrayRenderer(WIDTH, HEIGHT);
+        reference.setBands(1);
+        for (var camera : CAMERAS) {
+            renderer.clear();
+            renderer.setOffset(camera[0], camera[1]);
+            renderer.drawImage(MAP_X, MAP_Y, map);
+            renderer.flush();
+
+            drawEveryTile(reference, camera, map);
+            assertArrayEquals(reference.getRawData(), renderer.getRawData(), camera[0] + "," + camera[1]);
+        }
+    }
+
+    /**
+     * Construire une carte d'images : une planche de seize tuiles, dont la
+     * moitié comporte des pixels transparents, et des cellules vides.
+     *
+     * @param columns Nombre de colonnes de la carte
+     * @param rows Nombre de lignes de la carte
+     * @param layouts Nombre d'indices de profondeur
+     * @return La carte d'images
+     */
+    static PixelArrayImageMap map(final int columns, final int rows, final int layouts) {
+        return map(cells(columns, rows, layouts));
+    }
+
+    /**
+     * Construire une carte d'images à partir de ses cellules, sur une planche
+     * de seize tuiles dont la moitié comporte des pixels transparents.
+     *
+     * @param cells Indices des tuiles par indice de profondeur
+     * @return La carte d'images, qui partage les cellules
+     */
+    static PixelArrayImageMap map(final Map<Integer, int[][]> cells) {
+        var side = TILE * 4;
+        var pixels = new int[side * side];
+        for (var i = 0; i < pixels.length; i++) {
+            var transparent = i >= pixels.length / 2 && i % 5 == 0;
+            pixels[i] = transparent ? 0 : 0xFF000000 | i * 2_654_435;
+        }
+        var sheet = new PixelArrayImage(pixels, side, side);
+        return new PixelArrayImageMap(sheet, cells, TILE, TILE);
+    }
+
+    /**
+     * Construire les cellules d'une carte d'images.
+     *
+     * @param columns Nombre de colonnes de la carte
+     * @param rows Nombre de lignes de la carte
+     * @param layouts Nombre d'indices de profondeur
+     * @return Les indices des tuiles par indice de profondeur
+     */
+    static Map<Integer, int[][]> cells(final int columns, final int rows, final int layouts) {
+        var maps = new HashMap<Integer, int[][]>();
+        for (var layout = 0; layout < layouts; layout++) {
+            var cells = new int[rows][columns];
+            for (var y = 0; y < rows; y++) {
+                for (var x = 0; x < columns; x++) {
+                    // Indices de 0 à 15, et quelques cellules vides
+                    cells[y][x] = (x * 7 + y * 13 + layout * 3) % 17 - 1;
+                }
+            }
+            maps.put(layout, cells);
+        }
+        return maps;
+    }
+
+    /**
+     * Dessiner une trame de référence : toutes les tuiles de toutes les
+     * couches, sans limiter le parcours à la zone affichée.
+     *
+     * @param renderer Gestionnaire de rendu
+     * @param camera Position de la caméra
+     * @param map Carte d'images
+     */
+    static void drawEveryTile(
+            final PixelArrayRenderer renderer,
+            final int[] camera,
+            final PixelArrayImageMap map) {
+
+        renderer.clear();
+        renderer.setOffset(camera[0], camera[1]);
+        for (var layout = 0; layout < map.getLayoutCount(); layout++) {
+            for (var y = 0; y < map.getMapHeight(); y++) {
+                for (var x = 0; x < map.getMapWidth(); x++) {
+                    var tile = map.getImage(x, y, layout);
+                    renderer.drawImage(MAP_X + x * TILE, MAP_Y + y * TILE, tile);
+                }
+            }
+        }
+        renderer.flush();
+    }
+
+}
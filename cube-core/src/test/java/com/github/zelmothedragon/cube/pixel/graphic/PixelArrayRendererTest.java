@@ -0,0 +1,118 @@
+package com.github.zelmothedragon.cube.pixel.graphic;
+
+import com.github.zelmothedragon.cube.pixel.model.PixelArrayImage;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Vérifier que le rendu parallèle par bandes produit la même image que le
+ * rendu séquentiel.
+ *
+ * @author MOSELLE Maxime
+ */
+class PixelArrayRendererTest {
+
+    /**
+     * Largeur de l'affichage.
+     */
+    private static final int WIDTH = 320;
+
+    /**
+     * Hauteur de l'affichage, qui n'est pas un multiple du nombre de bandes.
+     */
+    private static final int HEIGHT = 180;
+
+    /**
+     * Nombre de bandes du rendu parallèle.
+     */
+    private static final int BANDS = 7;
+
+    /**
+     * Réservoir de fils d'exécution du rendu parallèle.
+     */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void bandsMatchSequentialRendering() {
+        var sequential = new PixelArrayRenderer(WIDTH, HEIGHT);
+        sequential.setBands(1);
+        var banded = new PixelArrayRenderer(WIDTH, HEIGHT);
+        banded.setBands(BANDS);
+        banded.setParallelPool(pool);
+
+        assertNotEquals(0, HEIGHT % BANDS);
+        assertEquals(BANDS, banded.getBands());
+
+        // Plusieurs trames, pour vérifier la réutilisation des bandes
+        for (var frame = 0; frame < 3; frame++) {
+            draw(sequential, frame);
+            draw(banded, frame);
+            assertArrayEquals(sequential.getRawData(), banded.getRawData(), "Frame " + frame);
+        }
+    }
+
+    @Test
+    void bandsMatchSequentialScrolling() {
+        var sequential = new PixelArrayRenderer(WIDTH, HEIGHT);
+        sequential.setBands(1);
+        sequential.setScrolling(true);
+        var banded = new PixelArrayRenderer(WIDTH, HEIGHT);
+        banded.setBands(BANDS);
+        banded.setScrolling(true);
+        banded.setParallelPool(pool);
+
+        for (var frame = 0; frame < 3; frame++) {
+            draw(sequential, frame);
+            draw(banded, frame);
+            assertArrayEquals(sequential.getRawData(), banded.getRawData(), "Frame " + frame);
+        }
+    }
+
+    /**
+     * Dessiner une trame couvrant les limites des bandes, puis l'achever.
+     *
+     * @param renderer Gestionnaire de rendu
+     * @param frame Numéro de la trame, décale les formes
+     */
+    private static void draw(final PixelArrayRenderer renderer, final int frame) {
+        var shift = frame * 3;
+        var image = new PixelArrayImage(17, 23);
+        var pixels = image.getRawData();
+        for (var i = 0; i < pixels.length; i++) {
+            // Un pixel sur trois transparent
+            pixels[i] = i % 3 == 0 ? 0 : 0xFF000000 | i * 977;
+        }
+        image.updateOpacity();
+
+        renderer.clear();
+        renderer.setOffset(WIDTH / 2 + shift, HEIGHT / 2 - shift);
+        renderer.drawFillRectangle(-5 + shift, 10, 200, 150, 0xFF336699);
+        renderer.drawRectangle(30, 20 + shift, 90, 101, 0xFFFFCC00);
+        renderer.drawCircle(160, 90, 60 + shift, 0xFF00FF00);
+        renderer.drawFillCircle(250 - shift, 26, 25, 0xFFFF0000);
+        renderer.drawGradientCircle(80, 150, 40, 0xFF0000FF);
+        renderer.drawLine(0, 0, WIDTH - 1 - shift, HEIGHT - 1, 0xFFFFFFFF);
+        renderer.drawLine(WIDTH - 1, shift, 0, HEIGHT - 1, 0xFF808080);
+        renderer.drawImage(140 + shift, 21, image);
+        renderer.resetOffset();
+        renderer.drawImage(300, HEIGHT - 12, image);
+        renderer.flush();
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.github.zelmothedragon.cube.pixel.graphic;
+
+import com.github.zelmothedragon.cube.pixel.model.PixelArrayImageMap;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifier que le fond défilant, décalé d'une trame à l'autre, produit la même
+ * image qu'un rendu entièrement redessiné à chaque trame.
+ *
+ * @author MOSELLE Maxime
+ */
+class ScrollingBackgroundTest {
+
+    /**
+     * Déplacements successifs de la caméra : petits pas dans toutes les
+     * directions, sauts d'un demi-écran et au-delà, retour au départ et sortie
+     * de la carte.
+     */
+    private static final int[][] MOVES = {
+        {0, 0},
+        {3, 0},
+        {0, 1},
+        {-5, 7},
+        {1, -1},
+        {ImageMapRenderingTest.WIDTH / 2, 0},
+        {0, ImageMapRenderingTest.HEIGHT / 2},
+        {-ImageMapRenderingTest.WIDTH / 2 - 1, 0},
+        {217, -143},
+        {-2, -2},
+        {0, 0},
+        {-214, 136},
+        {-1000, -1000},
+        {1000, 1000}
+    };
+
+    /**
+     * Réservoir de fils d'exécution du rendu parallèle.
+     */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void scrollingMatchesRedraw() {
+        var scrolling = newRenderer(1, true);
+        assertTrue(scrolling.isScrolling());
+
+        assertMatchesRedraw(scrolling, ImageMapRenderingTest.map(40, 30, 3));
+    }
+
+    @Test
+    void scrollingMatchesRedrawInBands() {
+        var scrolling = newRenderer(7, true);
+        scrolling.setParallelPool(pool);
+
+        assertMatchesRedraw(scrolling, ImageMapRenderingTest.map(40, 30, 3));
+    }
+
+    @Test
+    void changedLayersAreRedrawn() {
+        var map = ImageMapRenderingTest.map(40, 30, 3);
+        var scrolling = newRenderer(1, true);
+        var reference = newRenderer(1, false);
+
+        // Une couche de moins, puis de nouveau toutes les couches
+        for (var layouts = 3; layouts > 0; layouts--) {
+            for (var frame = 0; frame < 3; frame++) {
+                var x = 300 + frame * 4 + layouts;
+                draw(scrolling, x, 200, map, layouts);
+                draw(reference, x, 200, map, layouts);
+                assertArrayEquals(reference.getRawData(), scrolling.getRawData(), "Layouts " + layouts);
+            }
+        }
+        draw(scrolling, 300, 200, map, 3);
+        draw(reference, 300, 200, map, 3);
+        assertArrayEquals(reference.getRawData(), scrolling.getRawData());
+    }
+
+    @Test
+    void invalidateRedrawsModifiedMap() {
+        var cells = ImageMapRenderingTest.cells(40, 30, 2);
+        var map = ImageMapRenderingTest.map(cells);
+        var scrolling = newRenderer(1, true);
+        var reference = newRenderer(1, false);
+        reference.getChunks().setBudget(0L);
+        draw(scrolling, 300, 200, map, 2);
+
+        for (var row : cells.get(1)) {
+            for (var x = 0; x < row.length; x++) {
+                row[x] = (row[x] + 5) % 16;
+            }
+        }
+        scrolling.invalidate(map);
+
+        // Le fond et les morceaux sont redessinés, y compris en défilement
+        draw(scrolling, 300, 200, map, 2);
+        draw(reference, 300, 200, map, 2);
+        assertArrayEquals(reference.getRawData(), scrolling.getRawData());
+        draw(scrolling, 303, 198, map, 2);
+        draw(reference, 303, 198, map, 2);
+        assertArrayEquals(reference.getRawData(), scrolling.getRawData());
+    }
+
+    /**
+     * Vérifier, le long des déplacements de la caméra, que le rendu avec fond
+     * défilant est identique au rendu entièrement redessiné.
+     *
+     * @param scrolling Gestionnaire de rendu vérifié
+     * @param map Carte d'images
+     */
+    private static void assertMatchesRedraw(
+            final PixelArrayRenderer scrolling,
+            final PixelArrayImageMap map) {
+
+        var reference = newRenderer(1, false);
+        reference.getChunks().setBudget(0L);
+        var x = 300;
+        var y = 200;
+        for (var move : MOVES) {
+            x += move[0];
+            y += move[1];
+            draw(scrolling, x, y, map, map.getLayoutCount());
+            draw(reference, x, y, map, map.getLayoutCount());
+            assertArrayEquals(reference.getRawData(), scrolling.getRawData(), x + "," + y);
+        }
+    }
+
+    /**
+     * Construire un gestionnaire de rendu.
+     *
+     * @param bands Nombre de bandes
+     * @param scrolling La valeur <code>true</code> pour activer le fond
+     * défilant
+     * @return Le gestionnaire de rendu
+     */
+    private static PixelArrayRenderer newRenderer(final int bands, final boolean scrolling) {
+        var renderer = new PixelArrayRenderer(ImageMapRenderingTest.WIDTH, ImageMapRenderingTest.HEIGHT);
+        renderer.setScrolling(scrolling);
+        renderer.setBands(bands);
+        return renderer;
+    }
+
+    /**
+     * Dessiner une trame : les premières couches de la carte, puis un
+     * rectangle qui suit la caméra et ne doit pas marquer le fond.
+     *
+     * @param renderer Gestionnaire de rendu
+     * @param x Abscisse de la caméra
+     * @param y Ordonnée de la caméra
+     * @param map Carte d'images
+     * @param layouts Nombre de couches dessinées
+     */
+    private static void draw(
+            final PixelArrayRenderer renderer,
+            final int x,
+            final int y,
+            final PixelArrayImageMap map,
+            final int layouts) {
+
+        renderer.clear();
+        renderer.setOffset(x, y);
+        for (var layout = 0; layout < layouts; layout++) {
+            renderer.drawImage(ImageMapRenderingTest.MAP_X, ImageMapRenderingTest.MAP_Y, map, layout);
+        }
+        renderer.drawRectangle(x - 10, y - 10, 20, 20, 0xFFFF00FF);
+        renderer.flush();
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.github.zelmothedragon.cube.fx.engine;
 
 import com.github.zelmothedragon.cube.core.GameManager;
+import com.github.zelmothedragon.cube.core.Simulation;
 import com.github.zelmothedragon.cube.core.input.GamePad;
 import com.github.zelmothedragon.cube.core.input.InputManager;
 import com.github.zelmothedragon.cube.fx.asset.ResourceManager;
@@ -62,7 +63,7 @@ public final class Display extends Application {
         var manager = new GameManager(resourceManager);
         loadKeys(manager.getInputs());
         
-        var engine = new Engine(g2d, manager);
+        var engine = new Engine(g2d, manager, Simulation.isRequested());
         engine.start();
         
         var scene = new Scene(group, Color.BLACK);
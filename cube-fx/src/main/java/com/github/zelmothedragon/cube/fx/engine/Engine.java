@@ -1,28 +1,35 @@
 package com.github.zelmothedragon.cube.fx.engine;
 
 import com.github.zelmothedragon.cube.core.GameManager;
+import com.github.zelmothedragon.cube.core.Simulation;
+import com.github.zelmothedragon.cube.core.engine.FixedTimestep;
+import com.github.zelmothedragon.cube.core.engine.FramePacer;
+import com.github.zelmothedragon.cube.core.graphic.SnapshotBuffer;
 import com.github.zelmothedragon.cube.fx.graphic.RendererFX;
+import java.util.Objects;
 import javafx.animation.AnimationTimer;
 import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Coeur du moteur du jeu. Cadence la boucle principale du jeu.
+ * <p>
+ * En mode séparé, la logique métier est mise à jour à fréquence fixe par une
+ * simulation sur son propre processus, l'animation de JavaFX se contente de
+ * dessiner le dernier instantané publié.
+ * <p>
+ * L'animation de JavaFX est déjà appelée à chaque pulsation de l'affichage ;
+ * le cadenceur de trames interchangeable peut limiter davantage le rendu (voir
+ * <code>FramePacer.fromProperties</code>). Le cadenceur sans limite laisse
+ * JavaFX seul cadencer le rendu.
  *
  * @author MOSELLE Maxime
  */
 public final class Engine extends AnimationTimer {
 
     /**
-     * Fréquence de pulsation de la boucle principale du jeu.
+     * Nombre de mises à jour de la logique métier par seconde.
      */
-    private static final double PULSE = 1e9 / 60.0;
-
-    /**
-     * Vérrouiller la mise à jour de l'affichage. Pour déboggage uniquement,
-     * dans la pratique laisser la valeur <code>true</code>.
-     */
-    // TODO: Rendre dynamique
-    private static final boolean LOCK_FPS = false;
+    private static final double TICK_RATE = 60.0;
 
     /**
      * Gestionnaire de rendu graphique.
@@ -35,17 +42,21 @@ public final class Engine extends AnimationTimer {
     private final GameManager manager;
 
     /**
-     * Valeur d'interpolation. Utilisé pour ajuster les calculs en cas de
-     * ralentissement du programme, comme par exemple les calculs de trajectoire
-     * ou de positionnement. Généralement sa valeur est environ égale à 1.
+     * Simulation sur son propre processus, ou <code>null</code> si la logique
+     * métier est mise à jour par l'animation.
+     */
+    private final Simulation<int[]> simulation;
+
+    /**
+     * Pas fixe de la mise à jour de la logique métier, avec limite de
+     * rattrapage.
      */
-    private double deltaTime;
+    private final FixedTimestep timestep;
 
     /**
-     * Temps en nanoseconde de la dernière exécution d'un tour de la boucle du
-     * jeu.
+     * Cadenceur des trames de rendu.
      */
-    private long lastTime;
+    private final FramePacer pacer;
 
     /**
      * Constructeur.Construit le moteur du jeu pour l'ordonnancement de tous les
@@ -55,49 +66,111 @@ public final class Engine extends AnimationTimer {
      * @param manager Conteneur du contexte du jeu
      */
     public Engine(final GraphicsContext g2d, final GameManager manager) {
+        this(g2d, manager, false);
+    }
+
+    /**
+     * Constructeur.Construit le moteur du jeu pour l'ordonnancement de tous les
+     * traitements.
+     *
+     * @param g2d Contexte graphique 2D de JavaFX
+     * @param manager Conteneur du contexte du jeu
+     * @param threaded Séparer les processus de simulation et de rendu
+     */
+    public Engine(final GraphicsContext g2d, final GameManager manager, final boolean threaded) {
+        this(g2d, manager, threaded, FramePacer.fromProperties());
+    }
+
+    /**
+     * Constructeur.Construit le moteur du jeu pour l'ordonnancement de tous les
+     * traitements.
+     *
+     * @param g2d Contexte graphique 2D de JavaFX
+     * @param manager Conteneur du contexte du jeu
+     * @param threaded Séparer les processus de simulation et de rendu
+     * @param pacer Cadenceur des trames de rendu
+     */
+    public Engine(
+            final GraphicsContext g2d,
+            final GameManager manager,
+            final boolean threaded,
+            final FramePacer pacer) {
+
         this.render = new RendererFX(Display.WIDTH, Display.HEIGHT, g2d);
         this.manager = manager;
-        this.deltaTime = 0.0;
-        this.lastTime = System.nanoTime();
+        this.simulation = threaded
+                ? new Simulation<>(manager, new SnapshotBuffer<>(Display.WIDTH, Display.HEIGHT))
+                : null;
+        this.timestep = new FixedTimestep(TICK_RATE);
+        this.pacer = pacer;
+    }
+
+    @Override
+    public void start() {
+        if (Objects.nonNull(simulation)) {
+            simulation.start();
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (Objects.nonNull(simulation)) {
+            simulation.stop();
+        }
     }
 
     @Override
     public void handle(final long now) {
-        deltaTime += (now - lastTime) / PULSE;
-        lastTime = now;
-        while (deltaTime >= 1) {
+        if (Objects.nonNull(simulation)) {
+            // La simulation tourne sur son propre processus
+            render.clear();
+            simulation.getSnapshots().render(render, System.nanoTime());
+            render.flush();
+            render.draw();
+            pacer.sync();
+            return;
+        }
+
+        var ticks = timestep.advance(now);
+        for (var i = 0; i < ticks; i++) {
             // Appelée x60 par seconde
             update();
-            deltaTime--;
         }
 
-        // Appelée autant de fois que possible 
-        // après le traitement de la méthode "update"
-        draw();
+        // Appelée après le traitement de la méthode "update"
+        // à la cadence du cadenceur de trames, sauf en cas de retard
+        if (timestep.shouldRender()) {
+            draw();
+            pacer.sync();
+        }
+    }
 
-        if (LOCK_FPS) {
-            // OU
-            // Appelée x60 par seconde
+    /**
+     * Accesseur, obtenir le cadenceur des trames de rendu et ses statistiques.
+     *
+     * @return Le cadenceur
+     */
+    public FramePacer getPacer() {
+        return pacer;
+    }
 
-            var sleepTime = (long) ((now - System.nanoTime() + PULSE) / 1e6);
-            if (sleepTime < 0) {
-                sleepTime = 1;
-            }
-            try {
-                // Mettre en sommeil le processus pendant le temps superflu
-                Thread.sleep(sleepTime);
-            } catch (InterruptedException ex) {
-                ex.printStackTrace();
-            }
-        }
+    /**
+     * Accesseur, obtenir le pas fixe de la mise à jour, pour configurer la
+     * limite de rattrapage et consulter les tours abandonnés.
+     *
+     * @return Le pas fixe
+     */
+    public FixedTimestep getTimestep() {
+        return timestep;
     }
 
     /**
      * Mettre à jour la logique métier du jeu.
      */
     private void update() {
-        manager.getInputs().update();
-        manager.getSystems().update();
+        manager.update();
     }
 
     /**
@@ -106,6 +179,7 @@ public final class Engine extends AnimationTimer {
     private void draw() {
         render.clear();
         manager.getSystems().draw(render);
+        render.flush();
         render.draw();
     }
 
@@ -48,7 +48,8 @@ public final class RendererFX extends PixelArrayRenderer {
     }
 
     /**
-     * Effectuer le rendu graphique. Dessine l'image en mémoire dans le canevas.
+     * Effectuer le rendu graphique. Dessine l'image en mémoire dans le canevas,
+     * une fois la trame achevée (voir <code>flush</code>).
      */
     public void draw() {
         // Transférer la mémoire tampon dans l'image
@@ -60,7 +61,7 @@ public final class RendererFX extends PixelArrayRenderer {
                         width,
                         height,
                         PixelFormat.getIntArgbPreInstance(),
-                        buffer,
+                        getRawData(),
                         0,
                         width
                 );